@@ -17,6 +17,9 @@ import javafx.stage.Stage;
 // Clase que inicializa un servidor REST embebido para la aplicación
 import restaurante.controllers.RestServer;
 
+// Pantalla de cocina alimentada por los eventos de pedido
+import restaurante.services.PantallaCocinaService;
+
 // Cliente WebSocket personalizado para recibir pedidos en tiempo real
 import restaurante.websocket.PedidoWebSocketClientFX;
 
@@ -36,6 +39,9 @@ public class Main extends Application {
         // Inicia el servidor REST local para servir datos o recibir peticiones
         RestServer.init();
 
+        // Pantalla de cocina única: se suscribe ya a los eventos de pedido para no perder ninguno
+        PantallaCocinaService.getInstancia();
+
         // Carga la interfaz gráfica desde el archivo FXML principal
         FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/main.fxml"));
         Parent root = loader.load(); // Se carga todo el contenido visual
@@ -0,0 +1,53 @@
+package restaurante.api;
+
+import restaurante.models.Cuenta;
+import restaurante.models.Dinero;
+import restaurante.models.Pedido;
+
+import java.util.List;
+
+/**
+ * Cuenta del pedido activo de una mesa, con el desglose de IVA del ticket.
+ * Es lo que devuelve GET /pedido/mesa/:mesaId/cuenta. Los importes van en euros con dos decimales.
+ */
+public class CuentaAPI {
+
+    private int mesaId;
+    private int pedidoId;
+    private Dinero total;
+    private Dinero baseImponible;
+    private Dinero iva;
+    private List<Cuenta.LineaIva> desglose;
+
+    public CuentaAPI() {}
+
+    public CuentaAPI(Pedido pedido) {
+        Cuenta cuenta = pedido.getCuenta();
+        this.mesaId = pedido.getMesaId();
+        this.pedidoId = pedido.getId();
+        this.total = cuenta.getTotal();
+        this.baseImponible = cuenta.getBaseImponible();
+        this.iva = total.menos(baseImponible);
+        this.desglose = cuenta.getDesglose();
+    }
+
+    // Getters y setters...
+
+    public int getMesaId() { return mesaId; }
+    public void setMesaId(int mesaId) { this.mesaId = mesaId; }
+
+    public int getPedidoId() { return pedidoId; }
+    public void setPedidoId(int pedidoId) { this.pedidoId = pedidoId; }
+
+    public Dinero getTotal() { return total; }
+    public void setTotal(Dinero total) { this.total = total; }
+
+    public Dinero getBaseImponible() { return baseImponible; }
+    public void setBaseImponible(Dinero baseImponible) { this.baseImponible = baseImponible; }
+
+    public Dinero getIva() { return iva; }
+    public void setIva(Dinero iva) { this.iva = iva; }
+
+    public List<Cuenta.LineaIva> getDesglose() { return desglose; }
+    public void setDesglose(List<Cuenta.LineaIva> desglose) { this.desglose = desglose; }
+}
@@ -0,0 +1,140 @@
+package restaurante.api;
+
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.ItemPedido;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Mensaje WebSocket generado por el servidor a partir de un evento de dominio.
+ * Mantiene los campos de PedidoAPI (mesaId, numPersonas, numeroMesa, items) con los mismos nombres,
+ * así los clientes que ya leen pedidos siguen pudiendo interpretar los eventos de pedido.
+ * También representa el aviso "productoListo" que envía cocina (productoId, nombre, cantidad, mesaId, numeroMesa)
+ * y el recuento "conteoCocina" (productoId, nombre, categoria, cantidad y cantidadCategoria pendientes).
+ * "mesaReservada" lleva mesaId y reservada.
+ */
+public class EventoAPI {
+
+    private String tipo;
+    private int mesaId;
+    private int numeroMesa;
+    private int pedidoId;
+    private int numPersonas;
+    private boolean ocupada;
+    private Boolean reservada;  // Solo en mesaReservada (null no se serializa)
+    private List<ItemPedidoAPI> items = new ArrayList<>();
+    private ProductoAPI producto;
+    private int productoId;
+    private String nombre;      // productoListo y conteoCocina
+    private int cantidad;       // productoListo: unidades listas; conteoCocina: unidades pendientes
+    private String categoria;   // Solo en conteoCocina
+    private int cantidadCategoria; // Solo en conteoCocina: pendientes de toda la categoría
+    private long instante;
+
+    public EventoAPI() {}
+
+    public EventoAPI(EventoDominio evento) {
+        this.tipo = evento.getTipo().getNombreMensaje();
+        this.mesaId = evento.getMesaId();
+        this.ocupada = evento.isMesaOcupada();
+        if (evento.getTipo() == TipoEvento.MESA_RESERVADA) this.reservada = evento.isMesaReservada();
+        this.productoId = evento.getProductoId();
+        this.cantidad = evento.getCantidad();
+        this.cantidadCategoria = evento.getCantidadCategoria();
+        this.instante = evento.getInstante();
+
+        if (evento.getPedido() != null) {
+            this.pedidoId = evento.getPedido().getId();
+            this.numPersonas = evento.getPedido().getNumPersonas();
+            if (evento.getPedido().getMesa() != null) {
+                this.numeroMesa = evento.getPedido().getMesa().getNumeroMesa();
+            }
+            for (ItemPedido item : evento.getPedido().getItems()) {
+                this.items.add(new ItemPedidoAPI(item));
+            }
+        }
+        if (evento.getProducto() != null) {
+            this.producto = new ProductoAPI(evento.getProducto());
+            if (evento.getTipo() == TipoEvento.CONTEO_COCINA) {
+                this.nombre = evento.getProducto().getNombre();
+                this.categoria = evento.getProducto().getCategoria();
+            }
+        }
+    }
+
+    /**
+     * Copia del mensaje con otras líneas de pedido (por ejemplo, solo las de una estación de cocina).
+     */
+    public EventoAPI conItems(List<ItemPedidoAPI> items) {
+        EventoAPI copia = new EventoAPI();
+        copia.tipo = tipo;
+        copia.mesaId = mesaId;
+        copia.numeroMesa = numeroMesa;
+        copia.pedidoId = pedidoId;
+        copia.numPersonas = numPersonas;
+        copia.ocupada = ocupada;
+        copia.setItems(new ArrayList<>(items));
+        copia.producto = producto;
+        copia.productoId = productoId;
+        copia.nombre = nombre;
+        copia.cantidad = cantidad;
+        copia.categoria = categoria;
+        copia.cantidadCategoria = cantidadCategoria;
+        copia.instante = instante;
+        return copia;
+    }
+
+    // Getters y setters...
+
+    public String getTipo() { return tipo; }
+    public void setTipo(String tipo) { this.tipo = tipo; }
+
+    public int getMesaId() { return mesaId; }
+    public void setMesaId(int mesaId) { this.mesaId = mesaId; }
+
+    public int getNumeroMesa() { return numeroMesa; }
+    public void setNumeroMesa(int numeroMesa) { this.numeroMesa = numeroMesa; }
+
+    public int getPedidoId() { return pedidoId; }
+    public void setPedidoId(int pedidoId) { this.pedidoId = pedidoId; }
+
+    public int getNumPersonas() { return numPersonas; }
+    public void setNumPersonas(int numPersonas) { this.numPersonas = numPersonas; }
+
+    public boolean isOcupada() { return ocupada; }
+    public void setOcupada(boolean ocupada) { this.ocupada = ocupada; }
+
+    public boolean isReservada() { return Boolean.TRUE.equals(reservada); }
+    public void setReservada(boolean reservada) { this.reservada = reservada; }
+
+    public List<ItemPedidoAPI> getItems() {
+        if (items == null) items = new ArrayList<>();
+        return items;
+    }
+    public void setItems(List<ItemPedidoAPI> items) {
+        this.items = (items != null) ? items : new ArrayList<>();
+    }
+
+    public ProductoAPI getProducto() { return producto; }
+    public void setProducto(ProductoAPI producto) { this.producto = producto; }
+
+    public int getProductoId() { return productoId; }
+    public void setProductoId(int productoId) { this.productoId = productoId; }
+
+    public String getNombre() { return nombre; }
+    public void setNombre(String nombre) { this.nombre = nombre; }
+
+    public int getCantidad() { return cantidad; }
+    public void setCantidad(int cantidad) { this.cantidad = cantidad; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public int getCantidadCategoria() { return cantidadCategoria; }
+    public void setCantidadCategoria(int cantidadCategoria) { this.cantidadCategoria = cantidadCategoria; }
+
+    public long getInstante() { return instante; }
+    public void setInstante(long instante) { this.instante = instante; }
+}
@@ -1,12 +1,13 @@
 package restaurante.api;
 
+import restaurante.models.Dinero;
 import restaurante.models.ItemPedido;
 
 public class ItemPedidoAPI {
 
     private int productoId;
     private String nombreProducto;
-    private double precio;
+    private Dinero precio;
     private int cantidad;
     private String categoria;
 
@@ -20,7 +21,7 @@ public class ItemPedidoAPI {
         this.cantidad = item.getCantidad();
         this.categoria = item.getProducto().getCategoria();
     }
-    public ItemPedidoAPI(int productoId, String nombreProducto, double precio, int cantidad) {
+    public ItemPedidoAPI(int productoId, String nombreProducto, Dinero precio, int cantidad) {
         this.productoId = productoId;
         this.nombreProducto = nombreProducto;
         this.precio = precio;
@@ -35,8 +36,8 @@ public class ItemPedidoAPI {
     public String getNombreProducto() { return nombreProducto; }
     public void setNombreProducto(String nombreProducto) { this.nombreProducto = nombreProducto; }
 
-    public double getPrecio() { return precio; }
-    public void setPrecio(double precio) { this.precio = precio; }
+    public Dinero getPrecio() { return precio; }
+    public void setPrecio(Dinero precio) { this.precio = precio; }
 
     public int getCantidad() { return cantidad; }
     public void setCantidad(int cantidad) { this.cantidad = cantidad; }
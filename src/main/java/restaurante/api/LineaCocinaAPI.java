@@ -0,0 +1,64 @@
+package restaurante.api;
+
+import restaurante.models.Dinero;
+
+/**
+ * Línea del tablero de cocina: un producto de un pedido abierto con su estado de preparación.
+ * Es lo que devuelve GET /cocina/tablero para que una pantalla de cocina se reconstruya al arrancar.
+ * Las horas van en milisegundos desde epoch (0 si el estado no se ha alcanzado).
+ */
+public class LineaCocinaAPI {
+
+    private int mesaId;
+    private int numeroMesa;
+    private int pedidoId;
+    private int productoId;
+    private String nombreProducto;
+    private Dinero precio;
+    private String categoria;
+    private int cantidad;
+    private String estado;
+    private long horaPedido;
+    private long horaInicio;
+    private long horaListo;
+
+    public LineaCocinaAPI() {}
+
+    // Getters y setters...
+
+    public int getMesaId() { return mesaId; }
+    public void setMesaId(int mesaId) { this.mesaId = mesaId; }
+
+    public int getNumeroMesa() { return numeroMesa; }
+    public void setNumeroMesa(int numeroMesa) { this.numeroMesa = numeroMesa; }
+
+    public int getPedidoId() { return pedidoId; }
+    public void setPedidoId(int pedidoId) { this.pedidoId = pedidoId; }
+
+    public int getProductoId() { return productoId; }
+    public void setProductoId(int productoId) { this.productoId = productoId; }
+
+    public String getNombreProducto() { return nombreProducto; }
+    public void setNombreProducto(String nombreProducto) { this.nombreProducto = nombreProducto; }
+
+    public Dinero getPrecio() { return precio; }
+    public void setPrecio(Dinero precio) { this.precio = precio; }
+
+    public String getCategoria() { return categoria; }
+    public void setCategoria(String categoria) { this.categoria = categoria; }
+
+    public int getCantidad() { return cantidad; }
+    public void setCantidad(int cantidad) { this.cantidad = cantidad; }
+
+    public String getEstado() { return estado; }
+    public void setEstado(String estado) { this.estado = estado; }
+
+    public long getHoraPedido() { return horaPedido; }
+    public void setHoraPedido(long horaPedido) { this.horaPedido = horaPedido; }
+
+    public long getHoraInicio() { return horaInicio; }
+    public void setHoraInicio(long horaInicio) { this.horaInicio = horaInicio; }
+
+    public long getHoraListo() { return horaListo; }
+    public void setHoraListo(long horaListo) { this.horaListo = horaListo; }
+}
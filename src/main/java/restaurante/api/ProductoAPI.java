@@ -1,12 +1,14 @@
 // ProductoAPI.java
 package restaurante.api;
 
+import restaurante.models.Dinero;
+
 public class ProductoAPI {
     public int id;
     public String nombre;
     public String descripcion;
     public String categoria;
-    public double precio;
+    public Dinero precio;
     public boolean tiene_iva;
 
     public ProductoAPI() {}
@@ -51,11 +53,11 @@ public class ProductoAPI {
         this.categoria = categoria;
     }
 
-    public double getPrecio() {
+    public Dinero getPrecio() {
         return precio;
     }
 
-    public void setPrecio(double precio) {
+    public void setPrecio(Dinero precio) {
         this.precio = precio;
     }
 
@@ -5,6 +5,7 @@ import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
+import restaurante.models.Dinero;
 import restaurante.models.Producto;
 import restaurante.services.ProductoService;
 
@@ -27,7 +28,7 @@ public class AgregarController {
     @FXML private TableColumn<Producto, Integer> id;
     @FXML private TableColumn<Producto, String> nombre;
     @FXML private TableColumn<Producto, String> descripcion;
-    @FXML private TableColumn<Producto, Double> precio;
+    @FXML private TableColumn<Producto, Dinero> precio;
     @FXML private TableColumn<Producto, String> categoria;
     @FXML private TableColumn<Producto, Boolean> tieneIva;
 
@@ -64,10 +65,7 @@ public class AgregarController {
         cargarProductos();
 
         // Cargar categorías disponibles al ComboBox
-        cbCategoria.getItems().addAll(
-                "Entrantes", "Ensaladas", "Platos principales", "Carnes", "Pescados",
-                "Sugerencias", "Postres", "Bebidas", "Refrescos", "Vinos", "Botella vino"
-        );
+        cbCategoria.getItems().addAll(Producto.CATEGORIAS);
     }
 
     /**
@@ -86,7 +84,7 @@ public class AgregarController {
         try {
             String nombre = txtNombre.getText();
             String descripcion = txtDescripcion.getText();
-            double precio = Double.parseDouble(txtPrecio.getText());
+            Dinero precio = Dinero.parse(txtPrecio.getText());
             String categoria = cbCategoria.getValue();
             boolean tieneIva = chkTieneIva.isSelected();
 
@@ -161,7 +159,7 @@ public class AgregarController {
 
         txtNombre.setText(productoSeleccionado.getNombre());
         txtDescripcion.setText(productoSeleccionado.getDescripcion());
-        txtPrecio.setText(String.valueOf(productoSeleccionado.getPrecio()));
+        txtPrecio.setText(productoSeleccionado.getPrecio().toString());
         cbCategoria.setValue(productoSeleccionado.getCategoria());
         chkTieneIva.setSelected(productoSeleccionado.isTieneIva());
         productoStatus.setText("Editando producto");
@@ -1,178 +1,467 @@
 package restaurante.controllers;
 
+import javafx.animation.KeyFrame;
+import javafx.animation.Timeline;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
+import javafx.scene.Node;
 import javafx.scene.Parent;
 import javafx.scene.Scene;
+import javafx.scene.chart.BarChart;
+import javafx.scene.chart.XYChart;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
 import javafx.stage.Stage;
+import javafx.util.Duration;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.ColaComandas;
+import restaurante.models.Curso;
+import restaurante.models.Estacion;
 import restaurante.models.ItemPedido;
-import restaurante.websocket.PedidoWebSocketClientFX;
+import restaurante.models.Producto;
+import restaurante.models.TableroCocina;
+import restaurante.services.DirectorioMesas;
+import restaurante.services.MetricasCocinaService;
+import restaurante.services.RutasCocinaService;
+import restaurante.util.HistogramaDeslizante;
 
 import java.io.IOException;
-import java.sql.Connection;
-import java.sql.PreparedStatement;
-import java.sql.ResultSet;
+import java.time.Instant;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.util.*;
 import java.util.stream.Collectors;
 
 /**
  * Controlador para la ventana de cocina.
  * Muestra pedidos agrupados por mesa y categoría, permitiendo marcar productos como "listos".
+ * Las comandas se ordenan con ColaComandas (antigüedad, escalado y pase) y cada una muestra su tiempo de espera.
+ * La lista es virtual (ListView): solo se crean nodos para las comandas visibles y sus celdas se reciclan al hacer
+ * scroll, así que el coste de pintar no depende del número de comandas abiertas.
  */
 public class CocinaController {
 
-    @FXML private VBox contenedorPedidos;  // Contenedor principal donde se añaden los pedidos agrupados
+    @FXML private ListView<Integer> listaComandas; // Comandas en orden de la cola (ID de mesa); celdas recicladas
+    @FXML private Label labelComandas;     // Número de comandas abiertas
+    @FXML private FlowPane contenedorConteo; // Panel "todo el día": pendientes por producto en todas las mesas
+    @FXML private Label labelConteoCategorias; // Panel "todo el día": pendientes por categoría
+    @FXML private Label labelTiempos;      // Panel de tiempos: envío → primer listo y envío → listo por estación
+    @FXML private BarChart<String, Number> graficoComandas; // Panel de tiempos: comandas por tramo de 15 minutos
 
     private Stage stage;
 
-    // Mapa que agrupa los pedidos por mesa (clave = idMesa)
-    private final Map<Integer, List<ItemPedido>> pedidosPorMesa = new HashMap<>();
+    // Modelo retenido mesa → categoría → producto; calcula qué filas cambian en cada actualización
+    private final TableroCocina tablero = new TableroCocina();
+    private final VistaIncremental vista = new VistaIncremental();
 
-    // Mapa auxiliar para convertir id_mesa a numero_mesa
-    private final Map<Integer, Integer> idToNumeroMesa = new HashMap<>();
+    // Orden de las comandas en pantalla y escalado por antigüedad
+    private final ColaComandas cola = new ColaComandas();
 
-    // Conjunto de categorías visibles en cocina
-    private static final Set<String> CATEGORIAS_SET = Set.of(
-            "Entrantes", "Ensaladas", "Platos principales", "Sugerencias",
-            "Carne", "Pescado", "Postres"
-    );
+    // Reloj de la pantalla: actualiza cada segundo el tiempo de espera de las comandas y su escalado
+    private final Timeline reloj = new Timeline(new KeyFrame(Duration.seconds(1), e -> tic()));
+
+    // Cada cuántos segundos se refresca el panel de tiempos, y tramos que muestra la gráfica (las últimas 4 horas)
+    private static final int REFRESCO_TIEMPOS_SEGUNDOS = 30;
+    private static final int TRAMOS_GRAFICO = 16;
+    private int segundosDesdeTiempos = REFRESCO_TIEMPOS_SEGUNDOS;
+
+    // Celdas que muestran ahora mismo cada mesa (solo las visibles)
+    private final Map<Integer, CeldaComanda> celdasVisibles = new HashMap<>();  // idMesa → celda
+    private final Map<Integer, Label> filasConteo = new HashMap<>();           // productoId → "Entrecot ×7"
+    private final Map<String, Integer> conteoCategorias = new TreeMap<>();     // categoría → pendientes
+
+    // Estación que muestra esta pantalla (-Doidochef.cocina.estacion=plancha); sin ella, toda la cocina
+    private static final Estacion ESTACION = Estacion.desde(System.getProperty("oidochef.cocina.estacion"));
 
     /**
-     * Abre la ventana de cocina desde cualquier parte del programa.
+     * Crea la ventana de cocina sin mostrarla. La aplicación tiene una sola, gestionada por
+     * PantallaCocinaService; cerrarla solo la oculta y se vuelve a mostrar con {@link #mostrar()}.
      * @return una instancia de CocinaController ya inicializada.
      */
-    public static CocinaController abrirVentana() throws IOException {
+    public static CocinaController crearVentana() throws IOException {
         FXMLLoader loader = new FXMLLoader(CocinaController.class.getResource("/views/vista_cocina.fxml"));
         Parent root = loader.load();
         Stage stage = new Stage();
-        stage.setTitle("Pedidos en Cocina");
+        stage.setTitle(ESTACION != null ? "Pedidos en Cocina - " + ESTACION.getNombre() : "Pedidos en Cocina");
         stage.setScene(new Scene(root, 400, 400));
         stage.setMinWidth(300);
         stage.setMinHeight(300);
 
         CocinaController controller = loader.getController();
         controller.stage = stage;
-        stage.show();
+        controller.listaComandas.setCellFactory(lista -> controller.new CeldaComanda());
+        controller.actualizarContador();
+        controller.reloj.setCycleCount(Timeline.INDEFINITE);
+        controller.reloj.play();
 
         return controller;
     }
 
     /**
-     * Carga los productos que deben mostrarse en cocina para una mesa específica.
-     * Solo se muestran productos de categorías relevantes para cocina.
+     * Muestra la ventana si estaba oculta y la trae al frente.
+     */
+    public void mostrar() {
+        if (stage == null) return;
+        if (!stage.isShowing()) stage.show();
+        stage.toFront();
+    }
+
+    /**
+     * Carga los productos que deben mostrarse en cocina para una mesa específica, enviados ahora.
      */
     public void cargarProductosParaCocina(List<ItemPedido> items, int mesaId) {
-        if (items == null || items.isEmpty()) return;
+        cargarProductosParaCocina(items, mesaId, System.currentTimeMillis());
+    }
 
-        // Asegura que el mapeo id -> número de mesa está disponible
-        cargarNumerosDeMesaSiNecesario();
+    /**
+     * Carga los productos que deben mostrarse en cocina para una mesa específica.
+     * Solo se muestran los productos que la tabla de estaciones envía a cocina (o a la estación de esta pantalla).
+     * @param horaEnvio Hora de envío a cocina (ms desde epoch); si la comanda ya existía se conserva la suya.
+     */
+    public void cargarProductosParaCocina(List<ItemPedido> items, int mesaId, long horaEnvio) {
+        if (items == null || items.isEmpty()) return;
 
         // Filtra solo los productos relevantes para cocina
         List<ItemPedido> filtrados = items.stream()
-                .filter(item -> item.getProducto().getCategoria() != null &&
-                        CATEGORIAS_SET.contains(item.getProducto().getCategoria()))
+                .filter(item -> esDeEstaPantalla(item.getProducto()))
                 .collect(Collectors.toList());
 
-        // Guarda los productos filtrados por mesa
-        pedidosPorMesa.put(mesaId, new ArrayList<>(filtrados));
+        // Actualiza solo las filas de esta mesa que han cambiado
+        tablero.actualizarMesa(mesaId, filtrados, vista);
+        if (tablero.tieneMesa(mesaId)) {
+            cola.registrar(mesaId, horaEnvio, filtrados);
+            recolocar(mesaId);
+        } else {
+            cola.retirar(mesaId);
+        }
+        actualizarContador();
+    }
+
+    /**
+     * Quita de la pantalla la comanda de una mesa (pedido cobrado o eliminado).
+     */
+    public void retirarMesa(int mesaId) {
+        tablero.eliminarMesa(mesaId, vista);
+        cola.retirar(mesaId);
+        actualizarContador();
+    }
+
+    /**
+     * Número de comandas (mesas con productos de cocina) que hay en pantalla.
+     */
+    public int getComandasAbiertas() {
+        return tablero.getNumeroMesas();
+    }
 
-        actualizarVista();
+    // ¿Se prepara el producto en esta pantalla? (estación configurada o, sin ella, cualquier estación de cocina)
+    private static boolean esDeEstaPantalla(Producto producto) {
+        if (producto == null) return false;
+        RutasCocinaService rutas = RutasCocinaService.getInstancia();
+        return ESTACION != null ? rutas.estacionDe(producto) == ESTACION : rutas.esCocina(producto);
+    }
+
+    private void actualizarContador() {
+        if (labelComandas != null) {
+            labelComandas.setText("Comandas abiertas: " + tablero.getNumeroMesas());
+        }
     }
 
     /**
-     * Carga una sola vez el mapeo de ID de mesa a número de mesa desde la base de datos.
+     * Actualiza una entrada del panel "todo el día" con el total pendiente del producto en todas las mesas.
+     * Solo se muestran los productos de categorías de cocina; con 0 pendientes la entrada desaparece.
      */
-    private void cargarNumerosDeMesaSiNecesario() {
-        if (!idToNumeroMesa.isEmpty()) return;
+    public void actualizarConteo(Producto producto, int pendientes, int pendientesCategoria) {
+        if (!esDeEstaPantalla(producto)) return;
 
-        try (Connection conn = restaurante.util.DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement("SELECT id_mesa, numero_mesa FROM mesas");
-             ResultSet rs = stmt.executeQuery()) {
+        if (pendientesCategoria > 0) {
+            conteoCategorias.put(producto.getCategoria(), pendientesCategoria);
+        } else {
+            conteoCategorias.remove(producto.getCategoria());
+        }
+        StringBuilder texto = new StringBuilder();
+        conteoCategorias.forEach((categoria, n) -> texto.append(texto.length() > 0 ? "   " : "").append(categoria).append(": ").append(n));
+        labelConteoCategorias.setText(texto.toString());
+
+        Label fila = filasConteo.get(producto.getId());
+        if (pendientes <= 0) {
+            if (fila != null) contenedorConteo.getChildren().remove(filasConteo.remove(producto.getId()));
+            return;
+        }
+        if (fila == null) {
+            fila = new Label();
+            fila.setStyle("-fx-font-size: 14px; -fx-font-weight: bold;");
+            filasConteo.put(producto.getId(), fila);
+            contenedorConteo.getChildren().add(fila);
+        }
+        fila.setText(producto.getNombre() + " ×" + pendientes);
+    }
 
-            while (rs.next()) {
-                idToNumeroMesa.put(rs.getInt("id_mesa"), rs.getInt("numero_mesa"));
+    /**
+     * Indica si la mesa ya tiene comanda en pantalla.
+     */
+    public boolean tieneMesa(int mesaId) {
+        return tablero.tieneMesa(mesaId);
+    }
+
+    /**
+     * Restaura una línea que el servidor tiene como LISTO (reconstrucción del tablero al arrancar, o un aviso
+     * productoListo llegado por REST o desde otra pantalla): la comanda avanza igual que si se hubiera pulsado su botón "Listo", que se pinta desactivado.
+     */
+    public void restaurarListo(int mesaId, int productoId) {
+        marcarListo(mesaId, productoId);
+    }
+
+    // Marca un producto como preparado y recoloca la comanda (puede pasar al siguiente pase)
+    private void marcarListo(int mesaId, int productoId) {
+        cola.marcarListo(mesaId, productoId);
+        recolocar(mesaId);
+    }
+
+    // Mueve la mesa a la posición que le corresponde en la cola (la añade si no estaba) y repinta su celda.
+    // posicion, indexOf, remove y add son O(n) sobre las comandas abiertas: ~1,6 µs con 200 (ColaComandasBenchmark)
+    private void recolocar(int mesaId) {
+        int posicion = cola.posicion(mesaId);
+        if (posicion < 0) return;
+
+        List<Integer> mesas = listaComandas.getItems();
+        int actual = mesas.indexOf(mesaId);
+        if (actual != posicion) {
+            if (actual >= 0) mesas.remove(actual);
+            mesas.add(Math.min(posicion, mesas.size()), mesaId);
+        }
+        repintar(mesaId);
+    }
+
+    // Cada segundo: escalado de las comandas que superan un umbral y tiempo de espera de todas
+    private void tic() {
+        long ahora = System.currentTimeMillis();
+        for (ColaComandas.Comanda comanda : cola.revisarEscalado(ahora)) {
+            recolocar(comanda.getMesaId());
+        }
+        for (CeldaComanda celda : celdasVisibles.values()) {
+            celda.pintarCabecera(ahora);
+        }
+        if (++segundosDesdeTiempos >= REFRESCO_TIEMPOS_SEGUNDOS) {
+            segundosDesdeTiempos = 0;
+            actualizarTiempos(ahora);
+        }
+    }
+
+    // Panel de tiempos: medias y percentiles de la ventana y comandas de los últimos tramos
+    private void actualizarTiempos(long ahora) {
+        if (labelTiempos == null) return;
+        MetricasCocinaService metricas = MetricasCocinaService.getInstancia();
+
+        StringBuilder texto = new StringBuilder()
+                .append("Envío → primer listo: ").append(textoTiempos(metricas.getEnvioPrimerListo(ahora))).append('\n')
+                .append("Envío → listo: ").append(textoTiempos(metricas.getEnvioListo(ahora)));
+        for (Estacion estacion : Estacion.values()) {
+            HistogramaDeslizante.Resumen resumen = metricas.getEnvioListo(estacion, ahora);
+            if (resumen.getMuestras() > 0) {
+                texto.append('\n').append("   ").append(estacion.getNombre()).append(": ").append(textoTiempos(resumen));
             }
-        } catch (Exception e) {
-            e.printStackTrace(); // Log de error si hay fallo de conexión o consulta
         }
+        labelTiempos.setText(texto.toString());
+
+        long[] porTramo = metricas.getComandasPorTramo(ahora);
+        long tramoMs = MetricasCocinaService.TRAMO_MINUTOS * 60_000L;
+        long inicioActual = ahora / tramoMs * tramoMs;
+        XYChart.Series<String, Number> serie = new XYChart.Series<>();
+        for (int i = Math.max(0, porTramo.length - TRAMOS_GRAFICO); i < porTramo.length; i++) {
+            long inicio = inicioActual - (long) (porTramo.length - 1 - i) * tramoMs;
+            LocalTime hora = LocalTime.ofInstant(Instant.ofEpochMilli(inicio), ZoneId.systemDefault());
+            serie.getData().add(new XYChart.Data<>(hora.toString(), porTramo[i]));
+        }
+        graficoComandas.getData().setAll(List.of(serie));
+    }
+
+    private static String textoTiempos(HistogramaDeslizante.Resumen resumen) {
+        if (resumen.getMuestras() == 0) return "sin datos";
+        return String.format("media %02d:%02d · p90 %02d:%02d (%d)",
+                resumen.getMedia() / 60, resumen.getMedia() % 60,
+                resumen.getP90() / 60, resumen.getP90() % 60, resumen.getMuestras());
+    }
+
+    // Número visible de la mesa según el directorio compartido (se mantiene al día con los cambios de mesas)
+    private static int numeroMesa(int mesaId) {
+        return DirectorioMesas.getInstancia().getNumero(mesaId, mesaId);
     }
 
     /**
-     * Refresca el contenido de la vista con todos los pedidos agrupados por mesa y categoría.
+     * Recibe las diferencias que calcula el tablero. Como la lista es virtual no hay nodos por mesa que tocar:
+     * basta con quitar de la lista las mesas eliminadas y repintar la celda de la mesa si está a la vista.
      */
-    private void actualizarVista() {
-        contenedorPedidos.getChildren().clear();
-
-        for (Map.Entry<Integer, List<ItemPedido>> entrada : pedidosPorMesa.entrySet()) {
-            int idMesa = entrada.getKey();
-            List<ItemPedido> items = entrada.getValue();
-
-            // Obtener el número de mesa desde el ID
-            int numeroMesa = idToNumeroMesa.getOrDefault(idMesa, idMesa);
-
-            // Crear etiqueta con número de mesa
-            Label labelMesa = new Label("Mesa # " + numeroMesa);
-            labelMesa.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-padding: 10 0 10 0;");
-            contenedorPedidos.getChildren().add(labelMesa);
-
-            // Agrupación visual con Accordion
-            Accordion accordion = new Accordion();
-            Map<String, VBox> contenidoPorCategoria = new HashMap<>();
-
-            // Agrupar productos por categoría y nombre
-            Map<String, ItemPedido> agrupados = new HashMap<>();
-            for (ItemPedido item : items) {
-                String categoria = item.getProducto().getCategoria();
-                String clave = categoria + "-" + item.getProducto().getNombre();
-
-                // Si el producto ya existe, sumar cantidades
-                agrupados.merge(clave, item, (existente, nuevo) -> {
-                    existente.setCantidad(existente.getCantidad() + nuevo.getCantidad());
-                    return existente;
-                });
-
-                // Crear contenedor por categoría si no existe
-                contenidoPorCategoria.computeIfAbsent(categoria, c -> new VBox(8));
+    private class VistaIncremental implements TableroCocina.Cambios {
+
+        @Override
+        public void mesaAnadida(int mesaId) {
+            // La mesa entra en la lista al registrarla en la cola (recolocar)
+        }
+
+        @Override
+        public void mesaEliminada(int mesaId) {
+            listaComandas.getItems().remove(Integer.valueOf(mesaId));
+        }
+
+        @Override
+        public void categoriaAnadida(int mesaId, String categoria) {
+            repintar(mesaId);
+        }
+
+        @Override
+        public void categoriaEliminada(int mesaId, String categoria) {
+            repintar(mesaId);
+        }
+
+        @Override
+        public void lineaAnadida(int mesaId, String categoria, TableroCocina.Linea linea) {
+            repintar(mesaId);
+        }
+
+        @Override
+        public void lineaActualizada(int mesaId, String categoria, TableroCocina.Linea linea) {
+            repintar(mesaId);
+        }
+
+        @Override
+        public void lineaEliminada(int mesaId, String categoria, TableroCocina.Linea linea) {
+            repintar(mesaId);
+        }
+    }
+
+    // Vuelve a pintar la celda de la mesa si está a la vista; si no, se pintará al hacer scroll hasta ella
+    private void repintar(int mesaId) {
+        CeldaComanda celda = celdasVisibles.get(mesaId);
+        if (celda != null) celda.pintar();
+    }
+
+    /**
+     * Celda reutilizable de la lista: pinta la comanda de la mesa que le toque (cabecera, categorías en orden de pase
+     * y una fila por producto). Sus etiquetas y filas se reciclan de una mesa a otra, así que solo existen
+     * los nodos de las comandas visibles.
+     */
+    private class CeldaComanda extends ListCell<Integer> {
+
+        private final Label cabecera = new Label();
+        private final VBox secciones = new VBox(4);
+        private final VBox contenido = new VBox(4, cabecera, secciones);
+        private final List<Label> titulos = new ArrayList<>();
+        private final List<FilaCocina> filas = new ArrayList<>();
+
+        @Override
+        protected void updateItem(Integer mesaId, boolean empty) {
+            Integer anterior = getItem();
+            if (anterior != null && celdasVisibles.get(anterior) == this) celdasVisibles.remove(anterior);
+            super.updateItem(mesaId, empty);
+
+            if (empty || mesaId == null) {
+                setGraphic(null);
+                return;
             }
+            celdasVisibles.put(mesaId, this);
+            pintar();
+            setGraphic(contenido);
+        }
 
-            // Añadir productos agrupados al contenido por categoría
-            for (Map.Entry<String, VBox> entry : contenidoPorCategoria.entrySet()) {
-                String categoria = entry.getKey();
-                VBox contenido = entry.getValue();
-
-                // Añadir productos por categoría al VBox correspondiente
-                agrupados.entrySet().stream()
-                        .filter(e -> e.getKey().startsWith(categoria + "-"))
-                        .forEach(e -> {
-                            ItemPedido item = e.getValue();
-
-                            HBox fila = new HBox(10); // Línea visual para el producto
-                            Label nombre = new Label(item.getProducto().getNombre() + " x" + item.getCantidad());
-
-                            // Botón "Listo" para marcar producto como preparado
-                            Button btnListo = new Button("Listo");
-                            btnListo.setOnAction(ev -> {
-                                btnListo.setDisable(true);
-                                PedidoWebSocketClientFX.getInstance().enviarProductoHecho(item, numeroMesa);
-                            });
-
-                            // Botón "Eliminar" para quitarlo de la vista
-                            Button btnEliminar = new Button("✖");
-                            btnEliminar.setStyle("-fx-background-color: red; -fx-text-fill: white;");
-                            btnEliminar.setOnAction(ev -> contenido.getChildren().remove(fila));
-
-                            fila.getChildren().addAll(nombre, btnListo, btnEliminar);
-                            contenido.getChildren().add(fila);
-                        });
-
-                // Añadir cada sección de categoría como TitledPane al acordeón
-                TitledPane pane = new TitledPane(categoria, contenido);
-                accordion.getPanes().add(pane);
+        void pintar() {
+            Integer mesaId = getItem();
+            if (mesaId == null) return;
+            pintarCabecera(System.currentTimeMillis());
+
+            ColaComandas.Comanda comanda = cola.getComanda(mesaId);
+            List<Map.Entry<String, Map<Integer, TableroCocina.Linea>>> porPase =
+                    new ArrayList<>(tablero.getCategorias(mesaId).entrySet());
+            porPase.sort(Comparator.comparing(e -> Curso.deCategoria(e.getKey())));
+
+            List<Node> hijos = new ArrayList<>();
+            int usadosTitulos = 0;
+            int usadasFilas = 0;
+            for (Map.Entry<String, Map<Integer, TableroCocina.Linea>> categoria : porPase) {
+                if (usadosTitulos == titulos.size()) {
+                    Label titulo = new Label();
+                    titulo.setStyle("-fx-font-weight: bold; -fx-padding: 4 0 0 0;");
+                    titulos.add(titulo);
+                }
+                Label titulo = titulos.get(usadosTitulos++);
+                titulo.setText(categoria.getKey());
+                hijos.add(titulo);
+
+                for (TableroCocina.Linea linea : categoria.getValue().values()) {
+                    if (usadasFilas == filas.size()) filas.add(new FilaCocina());
+                    FilaCocina fila = filas.get(usadasFilas++);
+                    fila.mostrar(mesaId, categoria.getKey(), linea,
+                            comanda != null && !comanda.isPendiente(linea.getProductoId()));
+                    hijos.add(fila.nodo);
+                }
             }
+            secciones.getChildren().setAll(hijos);
+        }
+
+        // Texto y color de la cabecera según la espera, el nivel de escalado y el pase en curso
+        void pintarCabecera(long ahora) {
+            Integer mesaId = getItem();
+            ColaComandas.Comanda comanda = mesaId != null ? cola.getComanda(mesaId) : null;
+            if (comanda == null) return;
+
+            long segundos = comanda.getEspera(ahora) / 1000;
+            String pase = comanda.isTerminada() ? "Terminada" : comanda.getCursoActual().getNombre();
+            cabecera.setText(String.format("Mesa # %d  ·  %02d:%02d  ·  %s",
+                    numeroMesa(mesaId), segundos / 60, segundos % 60, pase));
+
+            String color = comanda.isTerminada() ? "gray"
+                    : comanda.getNivel() >= 2 ? "red"
+                    : comanda.getNivel() == 1 ? "#e67e22" : "black";
+            cabecera.setStyle("-fx-font-size: 18px; -fx-font-weight: bold; -fx-padding: 10 0 10 0; -fx-text-fill: " + color + ";");
+        }
+    }
+
+    /**
+     * Fila de producto reutilizable: nombre y cantidad, botón "Listo" y botón "✖".
+     * Los botones actúan sobre la línea que la fila muestre en cada momento.
+     */
+    private final class FilaCocina {
+        final HBox nodo = new HBox(10);
+        final Label nombre = new Label();
+        final Button btnListo = new Button("Listo");
+        final Button btnEliminar = new Button("✖");
+
+        private int mesaId;
+        private String categoria;
+        private TableroCocina.Linea linea;
+
+        FilaCocina() {
+            // Botón "Listo" para marcar producto como preparado. El aviso va por el bus del propio proceso:
+            // EstadoItemsService lo guarda aunque el WebSocket esté caído y el servidor lo difunde a las pantallas
+            btnListo.setOnAction(ev -> {
+                btnListo.setDisable(true);
+                BusEventos.getInstancia().publicar(
+                        EventoDominio.productoListo(mesaId, linea.getProductoId(), linea.getCantidad()));
+                marcarListo(mesaId, linea.getProductoId());
+            });
+
+            // Botón "Eliminar" para quitarlo de la vista
+            btnEliminar.setStyle("-fx-background-color: red; -fx-text-fill: white;");
+            btnEliminar.setOnAction(ev -> {
+                int productoId = linea.getProductoId();
+                tablero.quitarLinea(mesaId, categoria, productoId, vista);
+                if (tablero.tieneMesa(mesaId)) {
+                    marcarListo(mesaId, productoId);
+                } else {
+                    cola.retirar(mesaId); // Era la última línea: la comanda sale de la pantalla
+                }
+                actualizarContador();
+            });
+
+            nodo.getChildren().addAll(nombre, btnListo, btnEliminar);
+        }
 
-            contenedorPedidos.getChildren().add(accordion);
+        void mostrar(int mesaId, String categoria, TableroCocina.Linea linea, boolean lista) {
+            this.mesaId = mesaId;
+            this.categoria = categoria;
+            this.linea = linea;
+            nombre.setText(linea.getNombre() + " x" + linea.getCantidad());
+            btnListo.setDisable(lista); // Si cambia la cantidad vuelve a estar pendiente
         }
     }
 
@@ -15,8 +15,13 @@ import javafx.scene.layout.*;
 import javafx.stage.Modality;
 import javafx.stage.Stage;
 import javafx.util.Pair;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoListener;
 import restaurante.models.Mesa;
+import restaurante.models.PlanoSala;
+import restaurante.services.CargadorSalas;
 import restaurante.services.MesaService;
+import restaurante.services.ReservaService;
 import restaurante.services.UsuarioService;
 import restaurante.websocket.PedidoWebSocketClientFX;
 
@@ -25,7 +30,9 @@ import javafx.scene.control.Dialog;
 import javafx.scene.control.TextField;
 import java.io.File;
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import javafx.geometry.Insets;
 
 
@@ -46,6 +53,8 @@ public class MainController {
     @FXML private BorderPane mainPane;
     @FXML private StackPane contentPane;
     @FXML private VBox welcomeView;
+    @FXML private BorderPane vistaMesas;
+    @FXML private HBox barraSalas;
     @FXML private ScrollPane scrollMesas;
     @FXML private Pane mesaPane;
     @FXML private Button btnAddMesa;
@@ -55,6 +64,20 @@ public class MainController {
     private static boolean yaLogueado = false;
 
     private final MesaService mesaService = new MesaService();
+    private final ReservaService reservaService = new ReservaService();
+
+    // Plano de la sala (un único Canvas dentro de mesaPane)
+    private final PlanoMesas plano = new PlanoMesas();
+
+    // Salas cargadas bajo demanda; se ve una cada vez
+    private final CargadorSalas cargador = new CargadorSalas(mesaService, reservaService, PlanoMesas::aplicar);
+    private final ToggleGroup grupoSalas = new ToggleGroup();
+    private List<String> salas = new ArrayList<>();
+    private String salaActual;
+    private CompletableFuture<PlanoSala> cargaVisible;
+
+    // Suscripción del plano al bus; al volver al inicio se crea otro controlador y la anterior se retira
+    private static EventoListener eventosPlano;
 
     // Método de inicialización que se ejecuta al cargar la vista
     @FXML
@@ -85,6 +108,7 @@ public class MainController {
         }
 
         configurarBotonesMesa();
+        configurarPlano();
         mostrarVistaMesas();
     }
 
@@ -96,97 +120,125 @@ public class MainController {
     // Asignación de funcionalidad a botones para gestionar mesas
     private void configurarBotonesMesa() {
         btnAddMesa.setOnAction(e -> {
-            Mesa nueva = new Mesa(0, mesaService.obtenerSiguienteNumeroMesa(), 50, 50, false, false);
-            mesaService.insertarMesa(nueva);
-            mostrarVistaMesas();
+            // Primer hueco libre cerca de la esquina, para no dejarla encima de otra
+            PlanoSala.Zona hueco = plano.getPlano().huecoLibre(60, 60);
+            double x = hueco != null ? hueco.getX() : 60;
+            double y = hueco != null ? hueco.getY() : 60;
+            Mesa nueva = new Mesa(0, mesaService.obtenerSiguienteNumeroMesa(), x, y, false, false);
+            nueva.setSala(salaActual);
+            mesaService.insertarMesa(nueva); // El plano se recarga con el evento mesasCambiadas
         });
 
         btnEliminarMesa.setOnAction(e -> {
-            if (!mesaPane.getChildren().isEmpty()) {
-                Node ultima = mesaPane.getChildren().get(mesaPane.getChildren().size() - 1);
-                mesaPane.getChildren().remove(ultima);
-                mesaService.eliminarUltimaMesa();
+            if (!plano.getPlano().isVacio()) {
+                mesaService.eliminarUltimaMesa(salaActual); // Solo la sala a la vista; también llega como mesasCambiadas
             }
         });
 
-        btnGuardarPosiciones.setOnAction(e -> {
-            mesaService.guardarPosicionesDesdePane(mesaPane);
-        });
+        btnGuardarPosiciones.setOnAction(e -> guardarPosiciones());
+    }
+
+    // El plano se crea una vez; arrastre y doble clic se resuelven en él, no en cada mesa
+    private void configurarPlano() {
+        mesaPane.getChildren().setAll(plano);
+        plano.setOnAbrirMesa(this::abrirVentanaPedido);
+        plano.setOnMesasCambiadas(this::mostrarVistaMesas);
+        plano.setSalasCargadas(cargador::getCargadas);
+        plano.setSalasEnCarga(cargador::anotar);
+        plano.setOnMesaMovida(mesa -> ajustarPlano()); // Se guarda con "Guardar posiciones" o al recargar
+        scrollMesas.viewportBoundsProperty().addListener((obs, antes, ahora) -> ajustarPlano());
+
+        // Pedidos (también los de las comanderas), cobros y reservas cambian solo la mesa afectada
+        BusEventos bus = BusEventos.getInstancia();
+        bus.desuscribir(eventosPlano);
+        eventosPlano = plano::onEvento;
+        bus.suscribir(eventosPlano);
     }
 
-    // Visualización de todas las mesas con su estado y eventos
+    // El lienzo ocupa la zona visible y crece si las mesas no caben (el ScrollPane muestra las barras)
+    private void ajustarPlano() {
+        plano.ajustarTamano(scrollMesas.getViewportBounds().getWidth(), scrollMesas.getViewportBounds().getHeight());
+        mesaPane.setMinSize(plano.getWidth(), plano.getHeight());
+    }
+
+    // Vuelve a leer la lista de salas y muestra la sala actual (o la primera). Las salas se cargan al elegirlas;
+    // después el estado de sus mesas lo mantienen los eventos del bus, sin volver a cargar.
     private void mostrarVistaMesas() {
         welcomeView.setVisible(false);
-        scrollMesas.setVisible(true);
-        mesaPane.getChildren().clear();
-
-        List<Mesa> mesas = mesaService.obtenerTodas();
-
-        for (Mesa mesa : mesas) {
-            Button button = new Button("Mesa " + mesa.getNumeroMesa());
-            button.setPrefSize(80, 80);
-            button.setLayoutX(mesa.getPosicionX());
-            button.setLayoutY(mesa.getPosicionY());
-
-            boolean tienePedido = mesaService.tienePedidoActivo(mesa.getIdMesa());
-            if (tienePedido) {
-                button.setStyle("-fx-background-color: #f1c40f;");
-            } else if (mesa.isOcupada()) {
-                button.setStyle("-fx-background-color: red;");
-            } else {
-                button.setStyle("-fx-background-color: green;");
-            }
-
-            button.setOnMousePressed(e -> {
-                button.setUserData(new double[]{e.getSceneX(), e.getSceneY(), button.getLayoutX(), button.getLayoutY()});
-            });
+        vistaMesas.setVisible(true);
 
-            button.setOnMouseDragged(e -> {
-                double[] datos = (double[]) button.getUserData();
-                double offsetX = e.getSceneX() - datos[0];
-                double offsetY = e.getSceneY() - datos[1];
-                double nuevaX = datos[2] + offsetX;
-                double nuevaY = datos[3] + offsetY;
+        guardarPosiciones(); // Lo movido y no guardado se perdería al recargar
+        cargador.invalidar();
+        salas = new ArrayList<>(mesaService.obtenerSalas());
+        if (salas.isEmpty()) salas.add(Mesa.SALA_POR_DEFECTO);
+        if (salaActual == null || !salas.contains(salaActual)) salaActual = salas.get(0);
 
-                button.setLayoutX(nuevaX);
-                button.setLayoutY(nuevaY);
+        construirBarraSalas();
+        seleccionarSala(salaActual);
+    }
 
-                mesaService.actualizarPosicionMesa(mesa.getIdMesa(), nuevaX, nuevaY);
-            });
+    // Un botón por sala y uno para crear una sala nueva (existe en cuanto se le añade una mesa)
+    private void construirBarraSalas() {
+        barraSalas.getChildren().clear();
+        for (String sala : salas) {
+            ToggleButton boton = new ToggleButton(sala);
+            boton.setToggleGroup(grupoSalas);
+            boton.setUserData(sala);
+            boton.setSelected(sala.equals(salaActual));
+            boton.setOnAction(e -> seleccionarSala(sala));
+            barraSalas.getChildren().add(boton);
+        }
 
-            button.setOnMouseClicked(event -> {
-                if (event.getClickCount() == 2) {
-                    abrirVentanaPedido(mesa);
-                }
+        Button nueva = new Button("+ Sala");
+        nueva.setOnAction(e -> {
+            TextInputDialog dialogo = new TextInputDialog();
+            dialogo.setTitle("Nueva sala");
+            dialogo.setHeaderText("Nombre de la sala (terraza, reservado...)");
+            dialogo.showAndWait().map(String::trim).filter(n -> !n.isEmpty() && !salas.contains(n)).ifPresent(nombre -> {
+                salas.add(nombre);
+                construirBarraSalas();
+                seleccionarSala(nombre);
             });
+        });
+        barraSalas.getChildren().add(nueva);
+    }
 
-            mesaPane.getChildren().add(button);
+    // Muestra una sala en cuanto esté cargada y precarga las de los lados
+    private void seleccionarSala(String sala) {
+        salaActual = sala;
+        for (Toggle boton : grupoSalas.getToggles()) {
+            boton.setSelected(sala.equals(boton.getUserData()));
         }
+
+        CompletableFuture<PlanoSala> carga = cargador.obtener(sala);
+        cargaVisible = carga;
+        // El cargador completa la carga en el hilo de JavaFX
+        carga.thenAccept(cargada -> {
+            if (carga != cargaVisible) return; // Mientras tanto se eligió otra sala o se recargó
+            plano.mostrar(cargada);
+            ajustarPlano();
+        });
+
+        int posicion = salas.indexOf(sala);
+        if (posicion > 0) cargador.precargar(salas.get(posicion - 1));
+        if (posicion + 1 < salas.size()) cargador.precargar(salas.get(posicion + 1));
     }
 
-    // Método para actualizar el color de una mesa según su estado
-    public void actualizarColorMesa(Mesa mesaActualizada) {
-        for (Node node : mesaPane.getChildren()) {
-            if (node instanceof Button) {
-                Button button = (Button) node;
-                if (button.getText().equals("Mesa " + mesaActualizada.getNumeroMesa())) {
-                    boolean tienePedido = mesaService.tienePedidoActivo(mesaActualizada.getIdMesa());
-                    if (tienePedido) {
-                        button.setStyle("-fx-background-color: #f1c40f;");
-                    } else if (mesaActualizada.isOcupada()) {
-                        button.setStyle("-fx-background-color: red;");
-                    } else {
-                        button.setStyle("-fx-background-color: green;");
-                    }
-                    break;
-                }
-            }
+    // Guarda solo las mesas movidas desde el último guardado, de todas las salas cargadas
+    // (una fila por mesa, en una transacción)
+    private void guardarPosiciones() {
+        List<PlanoSala> cargadas = cargador.getCargadas();
+        List<Mesa> movidas = new ArrayList<>();
+        for (PlanoSala sala : cargadas) movidas.addAll(sala.getMesasMovidas());
+        if (!movidas.isEmpty() && mesaService.guardarPosiciones(movidas)) {
+            for (PlanoSala sala : cargadas) sala.marcarGuardadas();
         }
     }
 
     // Métodos para navegación desde el menú lateral
     @FXML
     public void loadVolverInicio() {
+        guardarPosiciones(); // La vista nueva carga las mesas desde la base de datos
         try {
             FXMLLoader loader = new FXMLLoader(getClass().getResource("/views/main.fxml"));
             Node mainView = loader.load();
@@ -350,6 +402,7 @@ public class MainController {
     // Cierra la aplicación
     @FXML
     private void salir() {
+        guardarPosiciones();
         Stage stage = (Stage) mainPane.getScene().getWindow();
         stage.close();
     }
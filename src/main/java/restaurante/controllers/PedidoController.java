@@ -9,7 +9,6 @@ import restaurante.api.*;
 import restaurante.services.*;
 import restaurante.websocket.PedidoWebSocketClientFX;
 
-import java.io.IOException;
 import java.util.*;
 import java.util.stream.Collectors;
 
@@ -38,6 +37,9 @@ public class PedidoController {
     // Mapa que almacena productos seleccionados con su cantidad
     private final Map<Producto, Integer> productosSeleccionados = new LinkedHashMap<>();
 
+    // Total y desglose de IVA de productosSeleccionados, al día con cada cambio
+    private final Cuenta cuentaSeleccion = new Cuenta();
+
     // Referencia estática del controlador y la ventana para permitir acceso desde otras clases
     private static PedidoController instancia;
     private static Stage stage;
@@ -69,11 +71,12 @@ public class PedidoController {
     // Carga el pedido activo desde la base de datos y lo refleja en la vista
     private void cargarPedidoActivo() {
         pedidoActivo = pedidoService.obtenerPedidoActivoPorMesa(mesa.getIdMesa());
-        productosSeleccionados.clear();
+        vaciarSeleccion();
 
-        if (pedidoActivo != null && pedidoActivo.getItems() != null) {
+        if (pedidoActivo != null) {
             for (ItemPedido item : pedidoActivo.getItems()) {
                 productosSeleccionados.put(item.getProducto(), item.getCantidad());
+                cuentaSeleccion.sumar(item.getProducto(), item.getCantidad());
             }
         }
         actualizarLista();
@@ -104,6 +107,7 @@ public class PedidoController {
                 // Al pulsar el botón se incrementa la cantidad del producto seleccionado
                 btn.setOnAction(e -> {
                     productosSeleccionados.merge(producto, 1, Integer::sum);
+                    cuentaSeleccion.sumar(producto, 1);
                     actualizarLista();
                 });
 
@@ -126,16 +130,7 @@ public class PedidoController {
         List<ItemPedidoAPI> itemsAPI = new ArrayList<>();
 
         for (Map.Entry<Producto, Integer> entry : productosSeleccionados.entrySet()) {
-            boolean yaExiste = false;
-
-            if (pedidoActivo != null && pedidoActivo.getItems() != null) {
-                for (ItemPedido existente : pedidoActivo.getItems()) {
-                    if (existente.getProducto().getId() == entry.getKey().getId()) {
-                        yaExiste = true;
-                        break;
-                    }
-                }
-            }
+            boolean yaExiste = pedidoActivo != null && pedidoActivo.contieneProducto(entry.getKey().getId());
 
             if (!yaExiste) {
                 itemsAPI.add(new ItemPedidoAPI(
@@ -158,7 +153,6 @@ public class PedidoController {
         if (guardado != null) {
             mostrarAlerta(Alert.AlertType.INFORMATION, "Pedido enviado correctamente.");
 
-            productosSeleccionados.clear();
             cargarPedidoActivo();
 
             // Notificar a cocina vía WebSocket
@@ -166,17 +160,7 @@ public class PedidoController {
                 PedidoWebSocketClientFX.getInstance().enviarProductoHecho(item);
             }
 
-            // Abrir vista de cocina con los nuevos productos
-            try {
-                CocinaController cocinaController = CocinaController.abrirVentana();
-                cocinaController.cargarProductosParaCocina(guardado.getItems(), guardado.getMesaId());
-            } catch (IOException e) {
-                e.printStackTrace();
-                mostrarAlerta(Alert.AlertType.ERROR, "No se pudo abrir la ventana de Cocina.");
-            }
-
-            // Actualizar color de mesa en la vista principal
-            MainController.getInstancia().actualizarColorMesa(mesa);
+            // La pantalla de cocina y el plano de la sala reciben el pedido por el bus de eventos
         } else {
             mostrarAlerta(Alert.AlertType.ERROR, "Error al enviar pedido.");
         }
@@ -185,12 +169,14 @@ public class PedidoController {
     // Marca la mesa como cobrada y limpia el pedido
     @FXML
     private void cobrarMesa() {
+        // La cuenta del pedido ya lleva el desglose: no hay que volver a sumar las líneas para el ticket
+        Pedido aCobrar = pedidoService.obtenerPedidoActivoPorMesa(mesa.getIdMesa());
         boolean exito = pedidoService.cobrarPedido(mesa.getIdMesa());
         if (exito) {
-            mostrarAlerta(Alert.AlertType.INFORMATION, "Mesa cobrada con éxito.");
-            productosSeleccionados.clear();
-            actualizarLista();
-            MainController.getInstancia().actualizarColorMesa(mesa);
+            String ticket = aCobrar != null ? "\n\n" + textoCuenta(aCobrar.getCuenta()) : "";
+            mostrarAlerta(Alert.AlertType.INFORMATION, "Mesa cobrada con éxito." + ticket);
+            vaciarSeleccion();
+            actualizarLista(); // El plano de la sala se entera del cobro por el bus de eventos
         } else {
             mostrarAlerta(Alert.AlertType.ERROR, "No se pudo cobrar la mesa.");
         }
@@ -210,32 +196,36 @@ public class PedidoController {
         }
     }
 
-    // Actualiza la lista visual del pedido y el total
+    private void vaciarSeleccion() {
+        productosSeleccionados.clear();
+        cuentaSeleccion.vaciar();
+    }
+
+    // Actualiza la lista visual del pedido y el total (el total sale de la cuenta, sin volver a sumar)
     private void actualizarLista() {
         listViewPedido.getItems().clear();
-        double total = 0;
 
         for (Map.Entry<Producto, Integer> entry : productosSeleccionados.entrySet()) {
-            double subtotal = entry.getKey().getPrecio() * entry.getValue();
-            total += subtotal;
-            listViewPedido.getItems().add(entry.getKey().getNombre() + " x" + entry.getValue() + " - " + String.format("%.2f", subtotal) + "€");
+            Dinero subtotal = entry.getKey().getPrecio().por(entry.getValue());
+            listViewPedido.getItems().add(entry.getKey().getNombre() + " x" + entry.getValue() + " - " + subtotal + "€");
         }
 
-        labelTotal.setText(String.format("Total: %.2f€", total));
+        labelTotal.setText("Total: " + cuentaSeleccion.getTotal() + "€ (IVA incl. " + cuentaSeleccion.getIva() + "€)");
     }
 
-    // Abre la vista de cocina manualmente
+    // Ticket: una línea por tipo de IVA y el total
+    private static String textoCuenta(Cuenta cuenta) {
+        StringBuilder texto = new StringBuilder();
+        for (Cuenta.LineaIva linea : cuenta.getDesglose()) {
+            texto.append(linea).append('\n');
+        }
+        return texto.append("Total: ").append(cuenta.getTotal()).append("€").toString();
+    }
+
+    // Abre la vista de cocina manualmente (siempre la misma ventana)
     @FXML
     private void abrirVistaCocina() {
-        try {
-            CocinaController nuevaCocina = CocinaController.abrirVentana();
-            if (pedidoActivo != null && pedidoActivo.getItems() != null && !pedidoActivo.getItems().isEmpty()) {
-                nuevaCocina.cargarProductosParaCocina(pedidoActivo.getItems(), pedidoActivo.getMesaId());
-            }
-        } catch (IOException e) {
-            e.printStackTrace();
-            mostrarAlerta(Alert.AlertType.ERROR, "No se pudo abrir la ventana de Cocina.");
-        }
+        PantallaCocinaService.getInstancia().mostrar();
     }
 
     // Elimina el producto seleccionado actualmente de la lista de pedido
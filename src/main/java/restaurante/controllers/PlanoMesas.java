@@ -0,0 +1,341 @@
+package restaurante.controllers;
+
+import javafx.application.Platform;
+import javafx.geometry.VPos;
+import javafx.scene.Cursor;
+import javafx.scene.canvas.Canvas;
+import javafx.scene.canvas.GraphicsContext;
+import javafx.scene.input.MouseButton;
+import javafx.scene.input.MouseEvent;
+import javafx.scene.paint.Color;
+import javafx.scene.text.Font;
+import javafx.scene.text.FontWeight;
+import javafx.scene.text.TextAlignment;
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.EstadoMesa;
+import restaurante.models.Mesa;
+import restaurante.models.PlanoSala;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Plano de la sala pintado sobre un único Canvas, en lugar de un botón con estilo propio por mesa.
+ *
+ * Un solo juego de manejadores de ratón resuelve qué mesa hay bajo el puntero (PlanoSala.mesaEn)
+ * para arrastrar y para abrir el pedido con doble clic. Al arrastrar, la mesa se ajusta a la rejilla, no
+ * entra donde pisaría a otra y se resalta la mesa vecina más cercana como referencia para alinear. Los cambios se acumulan como zonas sucias
+ * y se pintan en una sola pasada del hilo de JavaFX, recortando a cada zona, así que mover o
+ * recolorear una mesa solo repinta esa mesa y las que se solapan con ella.
+ *
+ * Muestra una sala cada vez ({@link #mostrar}); las demás salas ya cargadas siguen en memoria.
+ * El estado de las mesas lo mantienen los eventos del bus (pedido abierto, items añadidos, enviado a cocina,
+ * cobrada, reservada): {@link #onEvento} es lo único que se llama desde otro hilo; encola el evento y el hilo
+ * de JavaFX aplica la cola entera en una sola pasada, tocando solo la mesa de cada evento en la sala cargada
+ * en la que esté. Solo se repinta si la mesa está en la sala visible. Las salas que aún se están cargando
+ * reciben también cada evento y lo aplican al terminar la carga.
+ * Todo lo demás se usa desde el hilo de JavaFX.
+ */
+public class PlanoMesas extends Canvas {
+
+    private static final Color FONDO = Color.web("#f4f4f4");
+    private static final Color BORDE = Color.web("#2c3e50");
+    private static final Color VECINA = Color.web("#8e44ad");
+    private static final Font FUENTE = Font.font("System", FontWeight.BOLD, 13);
+    private static final double RADIO = 12;
+
+    // Distancia (de centro a centro) hasta la que se resalta la mesa vecina durante el arrastre
+    private static final double DISTANCIA_VECINA = PlanoSala.LADO * 2;
+
+    private static final Map<EstadoMesa, Color> COLORES = new EnumMap<>(EstadoMesa.class);
+    static {
+        for (EstadoMesa estado : EstadoMesa.values()) COLORES.put(estado, Color.web(estado.getColor()));
+    }
+
+    // Sala visible
+    private PlanoSala plano = new PlanoSala();
+
+    // Todas las salas cargadas (la visible incluida), a las que se aplican los eventos
+    private Supplier<Collection<PlanoSala>> salasCargadas = () -> Collections.singletonList(plano);
+
+    // Recibe los eventos para las salas que todavía se están cargando
+    private Consumer<EventoDominio> salasEnCarga = e -> { };
+
+    // Repintado ya programado para la siguiente vuelta del hilo de JavaFX
+    private boolean repintadoProgramado;
+
+    // Arrastre en curso: mesa, punto donde se pulsó y posición inicial de la mesa
+    private Mesa arrastrada;
+    private double inicioRatonX;
+    private double inicioRatonY;
+    private double inicioMesaX;
+    private double inicioMesaY;
+    private boolean movida;
+    private Mesa vecina;
+
+    private Consumer<Mesa> onAbrirMesa = m -> { };
+    private Consumer<Mesa> onMesaMovida = m -> { };
+    private Runnable onMesasCambiadas = () -> { };
+
+    // Eventos del bus pendientes de aplicar y si ya hay una aplicación programada en el hilo de JavaFX
+    private final Queue<EventoDominio> eventos = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean eventosProgramados = new AtomicBoolean(false);
+
+    public PlanoMesas() {
+        addEventHandler(MouseEvent.MOUSE_PRESSED, this::pulsar);
+        addEventHandler(MouseEvent.MOUSE_DRAGGED, this::arrastrar);
+        addEventHandler(MouseEvent.MOUSE_RELEASED, this::soltar);
+        addEventHandler(MouseEvent.MOUSE_CLICKED, this::clic);
+        addEventHandler(MouseEvent.MOUSE_MOVED, e -> setCursor(plano.mesaEn(e.getX(), e.getY()) != null ? Cursor.HAND : Cursor.DEFAULT));
+
+        // Al cambiar de tamaño el contenido nuevo está en blanco
+        widthProperty().addListener((obs, antes, ahora) -> repintarTodo());
+        heightProperty().addListener((obs, antes, ahora) -> repintarTodo());
+    }
+
+    /** Doble clic sobre una mesa. */
+    public void setOnAbrirMesa(Consumer<Mesa> onAbrirMesa) {
+        this.onAbrirMesa = onAbrirMesa;
+    }
+
+    /** Fin de un arrastre que ha cambiado la posición de la mesa. */
+    public void setOnMesaMovida(Consumer<Mesa> onMesaMovida) {
+        this.onMesaMovida = onMesaMovida;
+    }
+
+    /** Se han añadido, eliminado o renumerado mesas: hay que volver a cargar el plano. */
+    public void setOnMesasCambiadas(Runnable onMesasCambiadas) {
+        this.onMesasCambiadas = onMesasCambiadas;
+    }
+
+    /** Salas cargadas en memoria, para mantenerlas al día con los eventos aunque no se vean. */
+    public void setSalasCargadas(Supplier<Collection<PlanoSala>> salasCargadas) {
+        this.salasCargadas = salasCargadas;
+    }
+
+    /** Salas que se están cargando: reciben cada evento para aplicarlo al terminar (ver CargadorSalas). */
+    public void setSalasEnCarga(Consumer<EventoDominio> salasEnCarga) {
+        this.salasEnCarga = salasEnCarga;
+    }
+
+    /** Sala visible. */
+    public PlanoSala getPlano() {
+        return plano;
+    }
+
+    /**
+     * Muestra otra sala y la repinta entera.
+     */
+    public void mostrar(PlanoSala sala) {
+        arrastrada = null;
+        vecina = null;
+        plano = sala;
+        repintarTodo();
+    }
+
+    /**
+     * Suscriptor del bus de eventos (se llama en el hilo del bus).
+     */
+    public void onEvento(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case PEDIDO_CREADO:
+            case PEDIDO_ACTUALIZADO:
+            case PEDIDO_ENVIADO_COCINA:
+            case PEDIDO_CERRADO:
+            case MESA_ESTADO:
+            case MESA_RESERVADA:
+            case MESAS_CAMBIADAS:
+                eventos.add(evento);
+                if (eventosProgramados.compareAndSet(false, true)) {
+                    Platform.runLater(this::aplicarEventos);
+                }
+                break;
+            default:
+                break;
+        }
+    }
+
+    // Hilo de JavaFX: aplica en orden todo lo llegado desde la última vez y repinta una sola vez
+    private void aplicarEventos() {
+        // Se libera antes de vaciar: lo que llegue mientras tanto programará otra pasada
+        eventosProgramados.set(false);
+
+        Collection<PlanoSala> salas = salasCargadas.get();
+        boolean cambios = false;
+        boolean recargar = false;
+        EventoDominio evento;
+        while ((evento = eventos.poll()) != null) {
+            if (evento.getTipo() == TipoEvento.MESAS_CAMBIADAS) {
+                recargar = true;
+                continue;
+            }
+            // Las salas cargadas son pocas; dentro de cada una la mesa se busca por id_mesa
+            for (PlanoSala sala : salas) {
+                if (sala.getMesa(evento.getMesaId()) == null) continue;
+                if (aplicar(sala, evento) && sala == plano) cambios = true;
+                break;
+            }
+            // La mesa puede estar en una sala que aún se está leyendo: se le aplicará al terminar
+            salasEnCarga.accept(evento);
+        }
+
+        if (recargar) {
+            onMesasCambiadas.run();
+        } else if (cambios) {
+            programarRepintado();
+        }
+    }
+
+    /**
+     * Cambia el estado de una mesa; solo se repinta esa mesa.
+     */
+    public void setEstado(int idMesa, EstadoMesa estado) {
+        if (plano.setEstado(idMesa, estado)) programarRepintado();
+    }
+
+    /**
+     * Ajusta el lienzo a la zona visible o, si las mesas no caben, a lo que ocupan (más un margen para seguir arrastrando).
+     */
+    public void ajustarTamano(double anchoVisible, double altoVisible) {
+        setWidth(Math.max(anchoVisible, plano.getAncho() + PlanoSala.LADO));
+        setHeight(Math.max(altoVisible, plano.getAlto() + PlanoSala.LADO));
+    }
+
+    /**
+     * Cambia el estado de la mesa del evento dentro de su sala (sin repintar).
+     * @return true si ha cambiado.
+     */
+    public static boolean aplicar(PlanoSala sala, EventoDominio evento) {
+        int idMesa = evento.getMesaId();
+        switch (evento.getTipo()) {
+            case PEDIDO_CREADO:
+            case PEDIDO_ACTUALIZADO:
+                // Items nuevos: quedan pendientes de enviar a cocina
+                return sala.abrirPedido(idMesa, false);
+            case PEDIDO_ENVIADO_COCINA:
+                return sala.abrirPedido(idMesa, true);
+            case PEDIDO_CERRADO:
+                return sala.cerrarPedido(idMesa);
+            case MESA_ESTADO:
+                // Acompaña a creado/cerrado; solo cuenta si llega sin ellos
+                if (!evento.isMesaOcupada()) return sala.cerrarPedido(idMesa);
+                return !sala.getEstado(idMesa).isConPedido() && sala.abrirPedido(idMesa, false);
+            case MESA_RESERVADA:
+                return sala.setReservada(idMesa, evento.isMesaReservada());
+            default:
+                return false;
+        }
+    }
+
+    private void repintarTodo() {
+        plano.repintarTodo();
+        programarRepintado();
+    }
+
+    // Agrupa todos los cambios del mismo pulso en un único repintado
+    private void programarRepintado() {
+        if (repintadoProgramado) return;
+        repintadoProgramado = true;
+        Platform.runLater(this::pintarZonasSucias);
+    }
+
+    // Repinta solo las zonas sucias: fondo y mesas que las cortan, recortado a cada zona
+    private void pintarZonasSucias() {
+        repintadoProgramado = false;
+        if (!plano.haySucias()) return;
+
+        GraphicsContext gc = getGraphicsContext2D();
+        for (PlanoSala.Zona zona : plano.tomarZonasSucias(getWidth(), getHeight())) {
+            gc.save();
+            gc.beginPath();
+            gc.rect(zona.getX(), zona.getY(), zona.getAncho(), zona.getAlto());
+            gc.clip();
+
+            gc.setFill(FONDO);
+            gc.fillRect(zona.getX(), zona.getY(), zona.getAncho(), zona.getAlto());
+            for (Mesa mesa : plano.mesasEn(zona)) {
+                pintarMesa(gc, mesa);
+            }
+            gc.restore();
+        }
+    }
+
+    private void pintarMesa(GraphicsContext gc, Mesa mesa) {
+        double x = mesa.getPosicionX();
+        double y = mesa.getPosicionY();
+        double lado = PlanoSala.LADO;
+        EstadoMesa estado = plano.getEstado(mesa.getIdMesa());
+
+        gc.setFill(COLORES.get(estado));
+        gc.fillRoundRect(x, y, lado, lado, RADIO, RADIO);
+        gc.setStroke(mesa == vecina ? VECINA : BORDE);
+        gc.setLineWidth(mesa == arrastrada || mesa == vecina ? 3 : 1);
+        gc.strokeRoundRect(x + 0.5, y + 0.5, lado - 1, lado - 1, RADIO, RADIO);
+
+        gc.setFill(estado == EstadoMesa.CON_PEDIDO ? Color.BLACK : Color.WHITE);
+        gc.setFont(FUENTE);
+        gc.setTextAlign(TextAlignment.CENTER);
+        gc.setTextBaseline(VPos.CENTER);
+        gc.fillText("Mesa " + mesa.getNumeroMesa(), x + lado / 2, y + lado / 2);
+    }
+
+    // ============ RATÓN ============
+
+    private void pulsar(MouseEvent e) {
+        if (e.getButton() != MouseButton.PRIMARY) return;
+        arrastrada = plano.mesaEn(e.getX(), e.getY());
+        if (arrastrada == null) return;
+        inicioRatonX = e.getX();
+        inicioRatonY = e.getY();
+        inicioMesaX = arrastrada.getPosicionX();
+        inicioMesaY = arrastrada.getPosicionY();
+        movida = false;
+        plano.repintar(arrastrada.getIdMesa()); // Borde de selección
+        programarRepintado();
+    }
+
+    private void arrastrar(MouseEvent e) {
+        if (arrastrada == null) return;
+        // Si en la nueva posición pisaría a otra mesa se queda en la última posición libre
+        if (!plano.moverSiCabe(arrastrada.getIdMesa(),
+                inicioMesaX + e.getX() - inicioRatonX, inicioMesaY + e.getY() - inicioRatonY)) {
+            return;
+        }
+        movida = true;
+        resaltarVecina(plano.mesaMasCercana(arrastrada.getPosicionX() + PlanoSala.LADO / 2,
+                arrastrada.getPosicionY() + PlanoSala.LADO / 2, DISTANCIA_VECINA, arrastrada));
+        programarRepintado();
+    }
+
+    private void soltar(MouseEvent e) {
+        if (arrastrada == null) return;
+        Mesa mesa = arrastrada;
+        arrastrada = null;
+        resaltarVecina(null);
+        plano.repintar(mesa.getIdMesa());
+        programarRepintado();
+        if (movida) onMesaMovida.accept(mesa);
+    }
+
+    // Cambia la mesa resaltada; solo se repintan la anterior y la nueva
+    private void resaltarVecina(Mesa nueva) {
+        if (nueva == vecina) return;
+        if (vecina != null) plano.repintar(vecina.getIdMesa());
+        vecina = nueva;
+        if (vecina != null) plano.repintar(vecina.getIdMesa());
+    }
+
+    private void clic(MouseEvent e) {
+        if (e.getButton() != MouseButton.PRIMARY || e.getClickCount() != 2) return;
+        Mesa mesa = plano.mesaEn(e.getX(), e.getY());
+        if (mesa != null) onAbrirMesa.accept(mesa);
+    }
+}
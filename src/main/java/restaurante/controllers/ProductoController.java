@@ -4,6 +4,7 @@ import javafx.collections.FXCollections;
 import javafx.collections.ObservableList;
 import javafx.fxml.FXML;
 import javafx.scene.control.*;
+import restaurante.models.Dinero;
 import restaurante.models.Producto;
 import restaurante.services.ProductoService;
 
@@ -46,10 +47,7 @@ public class ProductoController {
         tablaProductos.setItems(listaProductos);
 
         // Cargar las categorías predefinidas al ComboBox
-        cbCategoria.setItems(FXCollections.observableArrayList(
-                "Entrantes", "Ensaladas", "Platos principales", "Carne", "Pesca",
-                "Postres", "Bebidas", "Refrescos", "Vinos", "Botella vino"
-        ));
+        cbCategoria.setItems(FXCollections.observableArrayList(Producto.CATEGORIAS));
 
         // Cargar productos desde el servicio
         cargarProductos();
@@ -88,7 +86,7 @@ public class ProductoController {
             // Cargar datos del producto al formulario
             txtNombre.setText(productoSeleccionado.getNombre());
             txtDescripcion.setText(productoSeleccionado.getDescripcion());
-            txtPrecio.setText(String.valueOf(productoSeleccionado.getPrecio()));
+            txtPrecio.setText(productoSeleccionado.getPrecio().toString());
             cbCategoria.setValue(productoSeleccionado.getCategoria());
             chkTieneIva.setSelected(productoSeleccionado.isTieneIva());
         } else {
@@ -134,9 +132,9 @@ public class ProductoController {
         }
 
         // Validar que el precio sea un número válido
-        double precio;
+        Dinero precio;
         try {
-            precio = Double.parseDouble(precioStr);
+            precio = Dinero.parse(precioStr);
         } catch (NumberFormatException e) {
             mostrarAlerta("El precio debe ser un número válido.");
             return;
@@ -151,13 +149,9 @@ public class ProductoController {
                 mostrarAlerta("Error al crear el producto.");
             }
         } else {
-            productoSeleccionado.setNombre(nombre);
-            productoSeleccionado.setDescripcion(descripcion);
-            productoSeleccionado.setPrecio(precio);
-            productoSeleccionado.setCategoria(categoria);
-            productoSeleccionado.setTieneIva(tieneIva);
+            Producto editado = new Producto(productoSeleccionado.getId(), nombre, descripcion, precio, categoria, tieneIva);
 
-            if (productoService.actualizarProducto(productoSeleccionado)) {
+            if (productoService.actualizarProducto(editado)) {
                 mostrarAlerta("Producto actualizado correctamente.");
             } else {
                 mostrarAlerta("Error al actualizar el producto.");
@@ -3,12 +3,24 @@ package restaurante.controllers;
 import static spark.Spark.*;
 
 import com.google.gson.Gson;
+import restaurante.api.CuentaAPI;
+import restaurante.api.LineaCocinaAPI;
 import restaurante.api.PedidoAPI;
 import restaurante.api.ProductoAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.EstadoItem;
+import restaurante.models.Estacion;
 import restaurante.models.Pedido;
+import restaurante.services.ConteoCocinaService;
+import restaurante.services.DirectorioMesas;
+import restaurante.services.EstadoItemsService;
+import restaurante.services.MetricasCocinaService;
 import restaurante.services.PedidoService;
 import restaurante.services.ProductoService;
+import restaurante.services.RutasCocinaService;
 import restaurante.websocket.PedidoWebSocketHandler;
+import restaurante.websocket.RegistroSesiones;
 
 import java.util.List;
 import java.util.Map;
@@ -27,18 +39,35 @@ public class RestServer {
     private static final PedidoService pedidoService = new PedidoService();
     private static final ProductoService productoService = new ProductoService();
 
+    // Dirección y puerto de escucha (-Doidochef.ip, -Doidochef.puerto); el simulador de carga usa solo loopback
+    public static final String IP = System.getProperty("oidochef.ip", "0.0.0.0");
+    public static final int PUERTO = Integer.getInteger("oidochef.puerto", 4567);
+
     /**
      * Método principal que configura el servidor Spark, rutas REST, WebSocket y CORS.
      */
     public static void init() {
         // Establecer IP local y puerto de escucha
-        ipAddress("0.0.0.0");
-        port(4567);
+        ipAddress(IP);
+        port(PUERTO);
 
-        // WebSocket para actualizar pedidos en tiempo real desde clientes
+        // WebSocket para actualizar pedidos en tiempo real desde clientes.
+        // Jetty acepta permessage-deflate si el cliente lo ofrece (ver CompresionWebSocket)
+        // Jetty cierra las conexiones sin tráfico (ni pongs) pasado el timeout de RegistroSesiones
+        webSocketIdleTimeoutMillis(RegistroSesiones.TIMEOUT_SEGUNDOS * 1000);
         webSocket("/ws/pedidos", PedidoWebSocketHandler.class);
         spark.Spark.init(); // Inicializar Spark
 
+        // Los cambios hechos por los servicios (REST o escritorio) se difunden a todos los clientes
+        BusEventos.getInstancia().suscribir(PedidoWebSocketHandler::difundirEvento);
+
+        // Tabla de estaciones, estado de preparación de las líneas (escritura por lotes),
+        // recuento de cocina por producto y categoría y tiempos de cocina
+        RutasCocinaService.getInstancia();
+        EstadoItemsService.getInstancia();
+        ConteoCocinaService.getInstancia();
+        MetricasCocinaService.getInstancia();
+
         // Configurar CORS para permitir peticiones desde cualquier origen
         before((req, res) -> {
             res.header("Access-Control-Allow-Origin", "*");
@@ -66,6 +95,89 @@ public class RestServer {
             }
         });
 
+        // ✅ Ruta GET con el estado de las sesiones WebSocket (activas, inactivas, eliminadas)
+        get("/metricas/websocket", (req, res) -> {
+            res.type("application/json");
+            return gson.toJson(RegistroSesiones.getInstancia().getMetricas());
+        });
+
+        // ✅ Ruta GET con la eficacia del directorio de mesas (aciertos, fallos, recargas e invalidaciones)
+        get("/metricas/mesas", (req, res) -> {
+            res.type("application/json");
+            return gson.toJson(DirectorioMesas.getInstancia().getMetricas());
+        });
+
+        // ✅ Ruta GET con los tiempos de cocina: envío → primer listo, envío → listo (por estación y producto)
+        // y comandas por tramo de 15 minutos, sobre la ventana deslizante de MetricasCocinaService
+        get("/metricas/cocina", (req, res) -> {
+            res.type("application/json");
+            return gson.toJson(MetricasCocinaService.getInstancia().getMetricas(System.currentTimeMillis()));
+        });
+
+        // ✅ Ruta GET con las unidades pendientes en cocina por producto y categoría (todas las mesas)
+        get("/cocina/conteo", (req, res) -> {
+            res.type("application/json");
+            return gson.toJson(ConteoCocinaService.getInstancia().getConteo());
+        });
+
+        // ✅ Ruta GET con el tablero de cocina completo (líneas no servidas de pedidos abiertos y su estado).
+        // Con ?estacion=plancha solo devuelve las líneas de esa estación
+        get("/cocina/tablero", (req, res) -> {
+            res.type("application/json");
+            List<LineaCocinaAPI> lineas = EstadoItemsService.getInstancia().obtenerTablero();
+            String parametro = req.queryParams("estacion");
+            if (parametro != null) {
+                Estacion estacion = Estacion.desde(parametro);
+                if (estacion == null) {
+                    res.status(400);
+                    return gson.toJson(Map.of("error", "Estación desconocida: " + parametro));
+                }
+                RutasCocinaService rutas = RutasCocinaService.getInstancia();
+                lineas = lineas.stream()
+                        .filter(l -> rutas.estacionDe(l.getProductoId(), l.getCategoria()) == estacion)
+                        .collect(Collectors.toList());
+            }
+            return gson.toJson(lineas);
+        });
+
+        // ✅ Ruta GET con la tabla de estaciones vigente (reglas por categoría y por producto)
+        get("/cocina/estaciones", (req, res) -> {
+            res.type("application/json");
+            var rutas = RutasCocinaService.getInstancia().getRutas();
+            return gson.toJson(Map.of("categorias", rutas.getCategorias(), "productos", rutas.getProductos()));
+        });
+
+        // ✅ Ruta POST para volver a leer la tabla de estaciones tras cambiarla en la base de datos
+        post("/cocina/estaciones/recargar", (req, res) -> {
+            RutasCocinaService.getInstancia().recargar();
+            res.status(204);
+            return "";
+        });
+
+        // ✅ Ruta POST para cambiar el estado de una línea: {"mesaId":1, "productoId":7, "estado":"SERVIDO"}
+        post("/cocina/linea/estado", (req, res) -> {
+            res.type("application/json");
+            try {
+                var body = gson.fromJson(req.body(), Map.class);
+                int mesaId = ((Number) body.get("mesaId")).intValue();
+                int productoId = ((Number) body.get("productoId")).intValue();
+                EstadoItem estado = EstadoItem.valueOf((String) body.get("estado"));
+
+                if (estado == EstadoItem.LISTO) {
+                    // Igual que el aviso de cocina: lo guardan EstadoItemsService, lo cuenta ConteoCocinaService
+                    // y se difunde a las pantallas (no llegó por el socket, así que nadie lo ha reenviado aún)
+                    BusEventos.getInstancia().publicar(EventoDominio.productoListo(mesaId, productoId, 0));
+                } else {
+                    EstadoItemsService.getInstancia().cambiarEstado(mesaId, productoId, estado, System.currentTimeMillis());
+                }
+                res.status(202);
+                return gson.toJson(Map.of("success", true));
+            } catch (Exception e) {
+                res.status(400);
+                return gson.toJson(Map.of("success", false, "error", "Formato: {mesaId, productoId, estado}"));
+            }
+        });
+
         // ✅ Ruta GET para obtener todas las mesas
         get("/mesas", (req, res) -> {
             res.type("application/json");
@@ -99,6 +211,21 @@ public class RestServer {
             }
         });
 
+        // ✅ Ruta GET para obtener la cuenta (total y desglose de IVA) del pedido activo de una mesa
+        get("/pedido/mesa/:mesaId/cuenta", (req, res) -> {
+            int mesaId = Integer.parseInt(req.params("mesaId"));
+            Pedido pedido = pedidoService.obtenerPedidoActivoPorMesa(mesaId);
+            res.type("application/json");
+
+            if (pedido != null) {
+                res.status(200);
+                return gson.toJson(new CuentaAPI(pedido));
+            } else {
+                res.status(404);
+                return gson.toJson("No hay pedido activo para esta mesa");
+            }
+        });
+
         // ✅ Ruta POST para guardar un nuevo pedido desde el cliente
         post("/pedido", (req, res) -> {
             PedidoAPI pedido = gson.fromJson(req.body(), PedidoAPI.class);
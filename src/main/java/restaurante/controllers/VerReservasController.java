@@ -5,6 +5,7 @@ import javafx.fxml.FXML;
 import javafx.scene.control.*;
 import javafx.scene.control.cell.PropertyValueFactory;
 import restaurante.models.Reserva;
+import restaurante.services.DirectorioMesas;
 import restaurante.services.ReservaService;
 import restaurante.util.AlertUtils;
 
@@ -39,7 +40,9 @@ public class VerReservasController {
         // Configuración de columnas para reflejar las propiedades del objeto Reserva
         idColumn.setCellValueFactory(new PropertyValueFactory<>("idReserva"));
         nombreColumn.setCellValueFactory(new PropertyValueFactory<>("nombre"));
-        mesaColumn.setCellValueFactory(new PropertyValueFactory<>("idMesa"));
+        // La reserva guarda el ID de la mesa; se muestra su número actual
+        mesaColumn.setCellValueFactory(cellData ->
+                new javafx.beans.property.SimpleObjectProperty<>(numeroMesa(cellData.getValue())));
 
         // Columna con fecha formateada usando binding personalizado
         fechaColumn.setCellValueFactory(cellData ->
@@ -92,7 +95,11 @@ public class VerReservasController {
         String busqueda = busquedaField.getText().toLowerCase();
         return busqueda.isEmpty() ||
                 reserva.getNombre().toLowerCase().contains(busqueda) ||
-                String.valueOf(reserva.getIdMesa()).contains(busqueda);
+                String.valueOf(numeroMesa(reserva)).contains(busqueda);
+    }
+
+    private static int numeroMesa(Reserva reserva) {
+        return DirectorioMesas.getInstancia().getNumero(reserva.getIdMesa(), reserva.getIdMesa());
     }
 
     /**
@@ -0,0 +1,66 @@
+package restaurante.eventos;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Bus interno de eventos de dominio.
+ * Los servicios publican y los suscriptores (difusión WebSocket, vistas locales...) reciben.
+ * La entrega se hace en un único hilo propio: respeta el orden de publicación y
+ * no bloquea la petición REST o la acción de la interfaz que originó el evento.
+ */
+public class BusEventos {
+
+    // Instancia única (singleton) del bus
+    private static final BusEventos instancia = new BusEventos();
+
+    // Suscriptores registrados; se recorren mucho más de lo que se modifican
+    private final List<EventoListener> suscriptores = new CopyOnWriteArrayList<>();
+
+    // Hilo de entrega de eventos
+    private final ExecutorService entrega = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "bus-eventos");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private BusEventos() {
+    }
+
+    public static BusEventos getInstancia() {
+        return instancia;
+    }
+
+    /**
+     * Registra un suscriptor que recibirá todos los eventos publicados a partir de ahora.
+     */
+    public void suscribir(EventoListener listener) {
+        if (listener != null) suscriptores.add(listener);
+    }
+
+    public void desuscribir(EventoListener listener) {
+        suscriptores.remove(listener);
+    }
+
+    /**
+     * Publica un evento. Retorna inmediatamente; la entrega es asíncrona.
+     */
+    public void publicar(EventoDominio evento) {
+        if (evento == null || suscriptores.isEmpty()) return;
+        entrega.execute(() -> entregar(evento));
+    }
+
+    private void entregar(EventoDominio evento) {
+        for (EventoListener listener : suscriptores) {
+            try {
+                listener.onEvento(evento);
+            } catch (RuntimeException e) {
+                // Un suscriptor con errores no debe impedir que los demás reciban el evento
+                System.err.println("❌ Error entregando evento " + evento + ": " + e.getMessage());
+                e.printStackTrace();
+            }
+        }
+    }
+}
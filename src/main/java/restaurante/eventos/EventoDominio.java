@@ -0,0 +1,132 @@
+package restaurante.eventos;
+
+import restaurante.models.Pedido;
+import restaurante.models.Producto;
+
+/**
+ * Evento de dominio inmutable: algo que ya ha ocurrido en la capa de servicios
+ * (pedido creado, mesa cobrada, producto modificado...).
+ * Se construye con los métodos estáticos de cada tipo.
+ */
+public final class EventoDominio {
+
+    private final TipoEvento tipo;
+    private final int mesaId;            // Mesa afectada (0 si no aplica)
+    private final Pedido pedido;         // Estado del pedido tras el cambio (puede ser null)
+    private final Producto producto;     // Producto modificado (puede ser null)
+    private final int productoId;        // ID del producto afectado (0 si no aplica)
+    private final boolean mesaOcupada;   // ¿Tiene la mesa un pedido activo? (pedidos y MESA_ESTADO)
+    private final boolean mesaReservada; // MESA_RESERVADA: ¿queda reservada para hoy?
+    private final int cantidad;          // PRODUCTO_LISTO: unidades listas; CONTEO_COCINA: pendientes del producto
+    private final int cantidadCategoria; // CONTEO_COCINA: pendientes de la categoría del producto
+    private final boolean reenviado;     // PRODUCTO_LISTO: el aviso vino de un cliente WebSocket y ya se reenvió a todos
+    private final long instante;         // Momento de publicación (ms desde epoch)
+
+    private EventoDominio(TipoEvento tipo, int mesaId, Pedido pedido, Producto producto, int productoId, boolean mesaOcupada) {
+        this(tipo, mesaId, pedido, producto, productoId, mesaOcupada, false, 0, 0, false);
+    }
+
+    private EventoDominio(TipoEvento tipo, int mesaId, Pedido pedido, Producto producto, int productoId,
+                          boolean mesaOcupada, boolean mesaReservada, int cantidad, int cantidadCategoria,
+                          boolean reenviado) {
+        this.tipo = tipo;
+        this.mesaId = mesaId;
+        this.pedido = pedido;
+        this.producto = producto;
+        this.productoId = productoId;
+        this.mesaOcupada = mesaOcupada;
+        this.mesaReservada = mesaReservada;
+        this.cantidad = cantidad;
+        this.cantidadCategoria = cantidadCategoria;
+        this.reenviado = reenviado;
+        this.instante = System.currentTimeMillis();
+    }
+
+    // ============ FACTORÍAS ============
+
+    public static EventoDominio pedidoCreado(Pedido pedido) {
+        return new EventoDominio(TipoEvento.PEDIDO_CREADO, pedido.getMesaId(), pedido, null, 0, true);
+    }
+
+    public static EventoDominio pedidoActualizado(Pedido pedido) {
+        return new EventoDominio(TipoEvento.PEDIDO_ACTUALIZADO, pedido.getMesaId(), pedido, null, 0, true);
+    }
+
+    public static EventoDominio pedidoEnviadoCocina(Pedido pedido) {
+        return new EventoDominio(TipoEvento.PEDIDO_ENVIADO_COCINA, pedido.getMesaId(), pedido, null, 0, true);
+    }
+
+    public static EventoDominio pedidoCerrado(int mesaId) {
+        return new EventoDominio(TipoEvento.PEDIDO_CERRADO, mesaId, null, null, 0, false);
+    }
+
+    public static EventoDominio mesaEstado(int mesaId, boolean ocupada) {
+        return new EventoDominio(TipoEvento.MESA_ESTADO, mesaId, null, null, 0, ocupada);
+    }
+
+    /**
+     * Se ha creado o cancelado una reserva de la mesa.
+     * @param reservada true si la mesa queda con una reserva activa para hoy.
+     */
+    public static EventoDominio mesaReservada(int mesaId, boolean reservada) {
+        return new EventoDominio(TipoEvento.MESA_RESERVADA, mesaId, null, null, 0, false, reservada, 0, 0, false);
+    }
+
+    /**
+     * Se han añadido, eliminado o renumerado mesas (el directorio id → número ya no es válido).
+     */
+    public static EventoDominio mesasCambiadas() {
+        return new EventoDominio(TipoEvento.MESAS_CAMBIADAS, 0, null, null, 0, false);
+    }
+
+    public static EventoDominio productoCambiado(Producto producto) {
+        return new EventoDominio(TipoEvento.PRODUCTO_CAMBIADO, 0, null, producto, producto.getId(), false);
+    }
+
+    public static EventoDominio productoEliminado(int productoId) {
+        return new EventoDominio(TipoEvento.PRODUCTO_CAMBIADO, 0, null, null, productoId, false);
+    }
+
+    /**
+     * Cocina ha marcado como preparadas unidades de un producto de una mesa (por REST o desde otro servicio).
+     * @param cantidad Unidades listas (0 = todas las pedidas).
+     */
+    public static EventoDominio productoListo(int mesaId, int productoId, int cantidad) {
+        return new EventoDominio(TipoEvento.PRODUCTO_LISTO, mesaId, null, null, productoId, true, false, cantidad, 0, false);
+    }
+
+    /**
+     * Aviso "productoListo" recibido de un cliente WebSocket, que el servidor ya ha reenviado tal cual a los
+     * demás clientes: se publica para los servicios, pero no se vuelve a difundir.
+     */
+    public static EventoDominio productoListoReenviado(int mesaId, int productoId, int cantidad) {
+        return new EventoDominio(TipoEvento.PRODUCTO_LISTO, mesaId, null, null, productoId, true, false, cantidad, 0, true);
+    }
+
+    /**
+     * Nuevo total de unidades pendientes de un producto (y de su categoría) sumando todas las mesas.
+     */
+    public static EventoDominio conteoCocina(Producto producto, int pendientes, int pendientesCategoria) {
+        return new EventoDominio(TipoEvento.CONTEO_COCINA, 0, null, producto, producto.getId(), false, false,
+                pendientes, pendientesCategoria, false);
+    }
+
+    // ============ GETTERS ============
+
+    public TipoEvento getTipo() { return tipo; }
+    public int getMesaId() { return mesaId; }
+    public Pedido getPedido() { return pedido; }
+    public Producto getProducto() { return producto; }
+    public int getProductoId() { return productoId; }
+    public boolean isMesaOcupada() { return mesaOcupada; }
+    public boolean isMesaReservada() { return mesaReservada; }
+    public int getCantidad() { return cantidad; }
+    public int getCantidadCategoria() { return cantidadCategoria; }
+    public boolean isReenviado() { return reenviado; }
+    public long getInstante() { return instante; }
+
+    @Override
+    public String toString() {
+        return tipo.getNombreMensaje() + " (mesa " + mesaId + ")";
+    }
+}
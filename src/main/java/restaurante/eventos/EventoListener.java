@@ -0,0 +1,13 @@
+package restaurante.eventos;
+
+/**
+ * Interfaz para recibir los eventos de dominio publicados en el {@link BusEventos}.
+ */
+public interface EventoListener {
+
+    /**
+     * Método que se llama por cada evento publicado, en el hilo del bus.
+     * @param evento El evento recibido.
+     */
+    void onEvento(EventoDominio evento);
+}
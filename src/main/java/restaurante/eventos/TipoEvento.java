@@ -0,0 +1,28 @@
+package restaurante.eventos;
+
+/**
+ * Tipos de eventos de dominio publicados por la capa de servicios.
+ * Cada tipo lleva el nombre con el que viaja en el campo "tipo" de los mensajes WebSocket.
+ */
+public enum TipoEvento {
+    PEDIDO_CREADO("pedidoCreado"),
+    PEDIDO_ACTUALIZADO("pedidoActualizado"),
+    PEDIDO_ENVIADO_COCINA("pedidoEnviadoCocina"),
+    PEDIDO_CERRADO("pedidoCerrado"),
+    MESA_ESTADO("mesaEstado"),
+    MESA_RESERVADA("mesaReservada"),
+    MESAS_CAMBIADAS("mesasCambiadas"),
+    PRODUCTO_CAMBIADO("productoCambiado"),
+    PRODUCTO_LISTO("productoListo"),
+    CONTEO_COCINA("conteoCocina");
+
+    private final String nombreMensaje;
+
+    TipoEvento(String nombreMensaje) {
+        this.nombreMensaje = nombreMensaje;
+    }
+
+    public String getNombreMensaje() {
+        return nombreMensaje;
+    }
+}
@@ -0,0 +1,143 @@
+package restaurante.models;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Cuenta de un pedido: total, base imponible e IVA por tipo, al día con cada línea que se añade, cambia o quita.
+ *
+ * Los precios de la carta llevan el IVA incluido. Los productos con tiene_iva tributan al tipo de hostelería
+ * ({@link #IVA_HOSTELERIA}); los demás van exentos (tipo 0).
+ * Por cada tipo se acumula el importe con IVA; la base y la cuota se sacan de ese acumulado al pedirlas, como en
+ * un ticket (redondeando una vez por tipo y no por línea). Así el desglose cuesta lo mismo tenga el pedido 3 líneas
+ * o 50: solo depende de cuántos tipos distintos haya.
+ *
+ * La usan Pedido (cada pedido lleva la suya), la caja de escritorio y GET /pedido/mesa/:mesaId/cuenta;
+ * para informes basta con ir sumando líneas de varios pedidos en una misma Cuenta.
+ * No es segura entre hilos: la modifica quien modifica el pedido.
+ */
+public class Cuenta {
+
+    public static final int IVA_HOSTELERIA = 10;
+
+    // Importe con IVA (céntimos) y unidades por tipo de IVA, de menor a mayor tipo
+    private final Map<Integer, Acumulado> porTipo = new TreeMap<>();
+    private long total;
+
+    private static class Acumulado {
+        long centimos;
+        long unidades;
+    }
+
+    /**
+     * Tipo de IVA (en %) con el que se cobra un producto.
+     */
+    public static int tipoIva(Producto producto) {
+        return producto.isTieneIva() ? IVA_HOSTELERIA : 0;
+    }
+
+    /**
+     * Suma (o resta, con cantidad negativa) unidades de un producto.
+     */
+    public void sumar(Producto producto, int cantidad) {
+        if (producto == null || cantidad == 0) return;
+        int tipo = tipoIva(producto);
+        long importe = Dinero.porCantidad(producto.getPrecio().getCentimos(), cantidad);
+
+        Acumulado acumulado = porTipo.get(tipo);
+        if (acumulado == null) {
+            acumulado = new Acumulado();
+            porTipo.put(tipo, acumulado);
+        }
+        acumulado.centimos = Math.addExact(acumulado.centimos, importe);
+        acumulado.unidades += cantidad;
+        if (acumulado.unidades == 0 && acumulado.centimos == 0) porTipo.remove(tipo); // Ya no sale en el ticket
+        total = Math.addExact(total, importe);
+    }
+
+    /**
+     * Una línea del pedido pasa de "anterior" a "nueva" (null si se añade o si se quita).
+     */
+    public void cambiarLinea(ItemPedido anterior, ItemPedido nueva) {
+        if (anterior != null) sumar(anterior.getProducto(), -anterior.getCantidad());
+        if (nueva != null) sumar(nueva.getProducto(), nueva.getCantidad());
+    }
+
+    public void vaciar() {
+        porTipo.clear();
+        total = 0;
+    }
+
+    public boolean estaVacia() {
+        return porTipo.isEmpty();
+    }
+
+    // ============ TOTALES ============
+
+    /**
+     * Total a cobrar, IVA incluido.
+     */
+    public Dinero getTotal() {
+        return Dinero.deCentimos(total);
+    }
+
+    public Dinero getBaseImponible() {
+        long base = 0;
+        for (Map.Entry<Integer, Acumulado> entrada : porTipo.entrySet()) {
+            base += Dinero.baseImponible(entrada.getValue().centimos, entrada.getKey());
+        }
+        return Dinero.deCentimos(base);
+    }
+
+    public Dinero getIva() {
+        return getTotal().menos(getBaseImponible());
+    }
+
+    /**
+     * Desglose del ticket, una línea por tipo de IVA, de menor a mayor tipo.
+     */
+    public List<LineaIva> getDesglose() {
+        List<LineaIva> desglose = new ArrayList<>(porTipo.size());
+        for (Map.Entry<Integer, Acumulado> entrada : porTipo.entrySet()) {
+            int tipo = entrada.getKey();
+            long conIva = entrada.getValue().centimos;
+            long base = Dinero.baseImponible(conIva, tipo);
+            desglose.add(new LineaIva(tipo, Dinero.deCentimos(base), Dinero.deCentimos(conIva - base),
+                    Dinero.deCentimos(conIva)));
+        }
+        return desglose;
+    }
+
+    /**
+     * Base, cuota y total de un tipo de IVA en el ticket.
+     */
+    public static final class LineaIva {
+
+        private final int tipo;
+        private final Dinero base;
+        private final Dinero iva;
+        private final Dinero total;
+
+        public LineaIva(int tipo, Dinero base, Dinero iva, Dinero total) {
+            this.tipo = tipo;
+            this.base = base;
+            this.iva = iva;
+            this.total = total;
+        }
+
+        public int getTipo() { return tipo; }
+
+        public Dinero getBase() { return base; }
+
+        public Dinero getIva() { return iva; }
+
+        public Dinero getTotal() { return total; }
+
+        @Override
+        public String toString() {
+            return "IVA " + tipo + "%: base " + base + "€, cuota " + iva + "€";
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package restaurante.models;
+
+/**
+ * Pase (orden de salida) al que pertenece un producto en cocina.
+ * Dentro de una comanda se preparan primero los entrantes, luego los principales y por último los postres.
+ */
+public enum Curso {
+
+    ENTRANTES("Entrantes"),
+    PRINCIPALES("Platos principales"),
+    POSTRES("Postres"),
+    OTROS("Otros");
+
+    private final String nombre;
+
+    Curso(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Pase correspondiente a una categoría de la carta.
+     * @param categoria Nombre de la categoría del producto (puede ser null).
+     * @return El pase; OTROS si la categoría no pertenece a ninguno.
+     */
+    public static Curso deCategoria(String categoria) {
+        if (categoria == null) return OTROS;
+        switch (categoria) {
+            case "Entrantes":
+            case "Ensaladas":
+                return ENTRANTES;
+            case "Platos principales":
+            case "Sugerencias":
+            case "Carne":
+            case "Carnes":
+            case "Pescado":
+            case "Pescados":
+            case "Pesca":
+                return PRINCIPALES;
+            case "Postres":
+                return POSTRES;
+            default:
+                return OTROS;
+        }
+    }
+}
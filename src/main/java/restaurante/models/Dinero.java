@@ -0,0 +1,170 @@
+package restaurante.models;
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.annotations.JsonAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Importe en euros guardado como número entero de céntimos, para que sumar líneas y aplicar el IVA no arrastre
+ * los errores de redondeo de double. Inmutable.
+ *
+ * En la base de datos es una columna DECIMAL(10,2) (se lee y escribe con {@link #de(BigDecimal)} y
+ * {@link #toBigDecimal()}), y en JSON un número con dos decimales, igual que antes con double.
+ * Los métodos estáticos sobre long (porCantidad, porcentaje, baseImponible) hacen las mismas cuentas sin crear
+ * objetos, para los bucles que suman muchas líneas; el resultado se envuelve al final con {@link #deCentimos(long)}.
+ * Los redondeos son al céntimo más cercano, con las mitades hacia arriba (en valor absoluto).
+ */
+@JsonAdapter(Dinero.AdaptadorJson.class)
+public final class Dinero implements Comparable<Dinero> {
+
+    public static final Dinero CERO = new Dinero(0);
+
+    private final long centimos;
+
+    private Dinero(long centimos) {
+        this.centimos = centimos;
+    }
+
+    // ============ CREACIÓN ============
+
+    public static Dinero deCentimos(long centimos) {
+        return centimos == 0 ? CERO : new Dinero(centimos);
+    }
+
+    public static Dinero deEuros(long euros) {
+        return deCentimos(Math.multiplyExact(euros, 100L));
+    }
+
+    /**
+     * Importe de una columna DECIMAL; null si la columna es NULL. Se redondea al céntimo.
+     */
+    public static Dinero de(BigDecimal euros) {
+        if (euros == null) return null;
+        return deCentimos(euros.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact());
+    }
+
+    /**
+     * Importe escrito por el usuario o leído de un fichero: "12.5", "12,50"...
+     * @throws NumberFormatException Si el texto no es un número.
+     */
+    public static Dinero parse(String texto) {
+        return de(new BigDecimal(texto.trim().replace(',', '.')));
+    }
+
+    // ============ OPERACIONES ============
+
+    public Dinero mas(Dinero otro) {
+        return deCentimos(Math.addExact(centimos, otro.centimos));
+    }
+
+    public Dinero menos(Dinero otro) {
+        return deCentimos(Math.subtractExact(centimos, otro.centimos));
+    }
+
+    public Dinero por(int cantidad) {
+        return deCentimos(porCantidad(centimos, cantidad));
+    }
+
+    /**
+     * El porcentaje indicado de este importe (por ejemplo, el IVA de una base imponible).
+     */
+    public Dinero porcentaje(int porcentaje) {
+        return deCentimos(porcentaje(centimos, porcentaje));
+    }
+
+    /**
+     * Parte de este importe (IVA incluido) que es base imponible, con el tipo de IVA indicado.
+     */
+    public Dinero baseImponible(int porcentajeIva) {
+        return deCentimos(baseImponible(centimos, porcentajeIva));
+    }
+
+    public static long porCantidad(long centimos, int cantidad) {
+        return Math.multiplyExact(centimos, (long) cantidad);
+    }
+
+    public static long porcentaje(long centimos, int porcentaje) {
+        return dividir(Math.multiplyExact(centimos, (long) porcentaje), 100);
+    }
+
+    public static long baseImponible(long centimosConIva, int porcentajeIva) {
+        return dividir(Math.multiplyExact(centimosConIva, 100L), 100L + porcentajeIva);
+    }
+
+    // División entera redondeando la mitad hacia arriba en valor absoluto; el divisor es positivo
+    private static long dividir(long dividendo, long divisor) {
+        long cociente = dividendo / divisor;
+        long resto = dividendo % divisor;
+        if (Math.abs(resto) * 2 >= divisor) cociente += Long.signum(dividendo);
+        return cociente;
+    }
+
+    // ============ GETTERS ============
+
+    public long getCentimos() {
+        return centimos;
+    }
+
+    public boolean esCero() {
+        return centimos == 0;
+    }
+
+    public BigDecimal toBigDecimal() {
+        return BigDecimal.valueOf(centimos, 2);
+    }
+
+    @Override
+    public int compareTo(Dinero otro) {
+        return Long.compare(centimos, otro.centimos);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof Dinero && ((Dinero) o).centimos == centimos;
+    }
+
+    @Override
+    public int hashCode() {
+        return Long.hashCode(centimos);
+    }
+
+    /**
+     * Importe con dos decimales y punto, sin símbolo: "12.50".
+     */
+    @Override
+    public String toString() {
+        long absoluto = Math.abs(centimos);
+        long decimales = absoluto % 100;
+        return (centimos < 0 ? "-" : "") + absoluto / 100 + (decimales < 10 ? ".0" : ".") + decimales;
+    }
+
+    /**
+     * En JSON se escribe como número ("precio": 12.50) para que los clientes que lo leían como double sigan igual.
+     */
+    public static class AdaptadorJson extends TypeAdapter<Dinero> {
+
+        @Override
+        public void write(JsonWriter out, Dinero dinero) throws IOException {
+            if (dinero == null) {
+                out.nullValue();
+            } else {
+                out.value(dinero.toBigDecimal());
+            }
+        }
+
+        @Override
+        public Dinero read(JsonReader in) throws IOException {
+            if (in.peek() == JsonToken.NULL) {
+                in.nextNull();
+                return null;
+            }
+            return parse(in.nextString());
+        }
+    }
+}
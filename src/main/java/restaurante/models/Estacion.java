@@ -0,0 +1,53 @@
+package restaurante.models;
+
+/**
+ * Partida (estación) de cocina o barra que prepara un producto.
+ * Cada pantalla de estación recibe solo las líneas que le corresponden.
+ */
+public enum Estacion {
+
+    PLANCHA("plancha", "Plancha", true),
+    FRIOS("frios", "Fríos", true),
+    PASTELERIA("pasteleria", "Pastelería", true),
+    BARRA("barra", "Barra", false);
+
+    private final String codigo;
+    private final String nombre;
+    private final boolean cocina;
+
+    Estacion(String codigo, String nombre, boolean cocina) {
+        this.codigo = codigo;
+        this.nombre = nombre;
+        this.cocina = cocina;
+    }
+
+    /** Código usado en la base de datos y en las URL (?estacion=plancha). */
+    public String getCodigo() {
+        return codigo;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** true si la estación forma parte de la cocina (la barra no sale en la pantalla de cocina). */
+    public boolean isCocina() {
+        return cocina;
+    }
+
+    /**
+     * Estación a partir de su código o nombre, sin distinguir mayúsculas.
+     * @return La estación, o null si el texto está vacío o no corresponde a ninguna.
+     */
+    public static Estacion desde(String texto) {
+        if (texto == null || texto.isBlank()) return null;
+        String valor = texto.trim();
+        for (Estacion estacion : values()) {
+            if (estacion.codigo.equalsIgnoreCase(valor) || estacion.name().equalsIgnoreCase(valor)
+                    || estacion.nombre.equalsIgnoreCase(valor)) {
+                return estacion;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,24 @@
+package restaurante.models;
+
+/**
+ * Estado de preparación de una línea de pedido en cocina.
+ * Se guarda en la columna items_pedido.estado junto con la hora en que se alcanzó cada estado.
+ */
+public enum EstadoItem {
+    PENDIENTE,
+    EN_PREPARACION,
+    LISTO,
+    SERVIDO;
+
+    /**
+     * Convierte el valor de la base de datos; los valores desconocidos o nulos se tratan como PENDIENTE.
+     */
+    public static EstadoItem desde(String valor) {
+        if (valor == null) return PENDIENTE;
+        try {
+            return valueOf(valor.trim().toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return PENDIENTE;
+        }
+    }
+}
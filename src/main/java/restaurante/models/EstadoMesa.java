@@ -0,0 +1,46 @@
+package restaurante.models;
+
+/**
+ * Estado de una mesa tal como se pinta en el plano de la sala.
+ * El color se guarda en hexadecimal para que el modelo no dependa de JavaFX.
+ */
+public enum EstadoMesa {
+    LIBRE("Libre", "#008000"),
+    RESERVADA("Reservada", "#2980b9"),
+    OCUPADA("Ocupada", "#ff0000"),
+    CON_PEDIDO("Con pedido", "#f1c40f"),
+    EN_COCINA("En cocina", "#e67e22");
+
+    private final String nombre;
+    private final String color;
+
+    EstadoMesa(String nombre, String color) {
+        this.nombre = nombre;
+        this.color = color;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /** Color de relleno de la mesa (#rrggbb). */
+    public String getColor() {
+        return color;
+    }
+
+    /** true si la mesa tiene un pedido abierto (enviado o no a cocina). */
+    public boolean isConPedido() {
+        return this == CON_PEDIDO || this == EN_COCINA;
+    }
+
+    /**
+     * Estado de una mesa a partir de sus datos: el pedido abierto manda sobre la marca de ocupada
+     * y esta sobre la reserva.
+     * @param estadoPedido CON_PEDIDO o EN_COCINA si la mesa tiene pedido abierto, null si no.
+     */
+    public static EstadoMesa de(Mesa mesa, EstadoMesa estadoPedido, boolean reservada) {
+        if (estadoPedido != null) return estadoPedido;
+        if (mesa.isOcupada()) return OCUPADA;
+        return reservada ? RESERVADA : LIBRE;
+    }
+}
@@ -0,0 +1,115 @@
+package restaurante.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Índice espacial de las mesas del plano: rejilla uniforme con celdas del tamaño de una mesa.
+ *
+ * Cada mesa se apunta en las celdas que toca (como mucho cuatro), así que buscar lo que hay en un punto o en
+ * un rectángulo solo recorre las mesas de esas celdas y no todas las del plano.
+ * La posición se lee de la propia Mesa: hay que quitarla antes de cambiarla y volver a insertarla después.
+ */
+public class IndiceEspacial {
+
+    private final double lado;
+    private final Map<Long, List<Mesa>> celdas = new HashMap<>();
+
+    /**
+     * @param lado Lado de una mesa; también es el lado de cada celda.
+     */
+    public IndiceEspacial(double lado) {
+        this.lado = lado;
+    }
+
+    public void limpiar() {
+        celdas.clear();
+    }
+
+    public void insertar(Mesa mesa) {
+        int x0 = celda(mesa.getPosicionX()), x1 = celda(mesa.getPosicionX() + lado);
+        int y0 = celda(mesa.getPosicionY()), y1 = celda(mesa.getPosicionY() + lado);
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                celdas.computeIfAbsent(clave(cx, cy), k -> new ArrayList<>(2)).add(mesa);
+            }
+        }
+    }
+
+    /**
+     * Quita una mesa de las celdas de su posición actual.
+     */
+    public void quitar(Mesa mesa) {
+        int x0 = celda(mesa.getPosicionX()), x1 = celda(mesa.getPosicionX() + lado);
+        int y0 = celda(mesa.getPosicionY()), y1 = celda(mesa.getPosicionY() + lado);
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                Long clave = clave(cx, cy);
+                List<Mesa> enCelda = celdas.get(clave);
+                if (enCelda == null) continue;
+                enCelda.remove(mesa);
+                if (enCelda.isEmpty()) celdas.remove(clave);
+            }
+        }
+    }
+
+    /**
+     * Mesas que pueden cortar el rectángulo indicado (las de sus celdas), sin repetir y en ningún orden concreto.
+     * Quien llama comprueba el corte exacto.
+     */
+    public List<Mesa> candidatas(double x, double y, double ancho, double alto) {
+        int x0 = celda(x), x1 = celda(x + ancho);
+        int y0 = celda(y), y1 = celda(y + alto);
+        if (x0 == x1 && y0 == y1) {
+            List<Mesa> enCelda = celdas.get(clave(x0, y0));
+            return enCelda != null ? new ArrayList<>(enCelda) : Collections.emptyList();
+        }
+
+        Set<Mesa> vistas = Collections.newSetFromMap(new IdentityHashMap<>());
+        List<Mesa> resultado = new ArrayList<>();
+        for (int cx = x0; cx <= x1; cx++) {
+            for (int cy = y0; cy <= y1; cy++) {
+                List<Mesa> enCelda = celdas.get(clave(cx, cy));
+                if (enCelda == null) continue;
+                for (Mesa mesa : enCelda) {
+                    if (vistas.add(mesa)) resultado.add(mesa);
+                }
+            }
+        }
+        return resultado;
+    }
+
+    /**
+     * Mesa cuyo centro está más cerca del punto, sin pasar de la distancia máxima, o null.
+     * @param excluida Mesa que no se tiene en cuenta (la que se está arrastrando), o null.
+     */
+    public Mesa masCercana(double x, double y, double distanciaMaxima, Mesa excluida) {
+        double radio = distanciaMaxima + lado / 2;
+        Mesa mejor = null;
+        double mejorDistancia = distanciaMaxima * distanciaMaxima;
+        for (Mesa mesa : candidatas(x - radio, y - radio, 2 * radio, 2 * radio)) {
+            if (mesa == excluida) continue;
+            double dx = mesa.getPosicionX() + lado / 2 - x;
+            double dy = mesa.getPosicionY() + lado / 2 - y;
+            double distancia = dx * dx + dy * dy;
+            if (distancia <= mejorDistancia) {
+                mejor = mesa;
+                mejorDistancia = distancia;
+            }
+        }
+        return mejor;
+    }
+
+    private int celda(double coordenada) {
+        return (int) Math.floor(coordenada / lado);
+    }
+
+    private static Long clave(int cx, int cy) {
+        return ((long) cx << 32) | (cy & 0xffffffffL);
+    }
+}
@@ -4,12 +4,17 @@ package restaurante.models;
  * Representa una mesa del restaurante.
  */
 public class Mesa{
+
+    // Sala de las mesas que no tienen otra asignada (valor por defecto de la columna mesas.sala)
+    public static final String SALA_POR_DEFECTO = "Salón";
+
     private int id_mesa;
     private int numeroMesa;
     private double posicionX;
     private double posicionY;
     private boolean ocupada;
     private boolean bloqueada;
+    private String sala = SALA_POR_DEFECTO;
 
     public Mesa() {}
 
@@ -70,6 +75,16 @@ public class Mesa{
     public void setBloqueada(boolean bloqueada) {
         this.bloqueada = bloqueada;
     }
+
+    /** Sala (zona) en la que está la mesa: salón, terraza, reservado... */
+    public String getSala() {
+        return sala;
+    }
+
+    public void setSala(String sala) {
+        this.sala = sala != null ? sala : SALA_POR_DEFECTO;
+    }
+
     @Override
     public String toString() {
         return "Mesa " + numeroMesa;
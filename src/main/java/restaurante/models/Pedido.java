@@ -4,8 +4,9 @@ import restaurante.api.ItemPedidoAPI;
 import restaurante.api.PedidoAPI;
 
 import java.time.LocalDateTime;
-import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Clase que representa un pedido realizado en el restaurante.
@@ -17,6 +18,11 @@ import java.util.List;
  * 3. Métodos principales: Gestión de items y cálculos
  * 4. Estado: Control del flujo del pedido (enviado, cerrado)
  * 5. Patrones: Ejemplo de modelo en arquitectura MVC
+ *
+ * Los ítems se guardan por ID de producto (una línea por producto, en el orden en que se añadieron), así que
+ * añadir o buscar un producto no recorre el pedido. getItems() devuelve una foto inmutable que se reutiliza
+ * hasta el siguiente cambio. Cada cambio de línea actualiza también la {@link Cuenta} del pedido, así que el total
+ * y el desglose de IVA están siempre al día sin volver a sumar las líneas.
  */
 public class Pedido {
 
@@ -24,12 +30,13 @@ public class Pedido {
 
     private int id;  // ID único del pedido
     private int Id_Mesa;  // ID de la mesa asignada
-    private List<ItemPedido> items;  // Lista de productos pedidos
+    private final Map<Integer, ItemPedido> items = new LinkedHashMap<>();  // Productos pedidos, por ID de producto
+    private transient List<ItemPedido> foto;  // Copia inmutable de items para getItems() (null tras un cambio)
     private transient LocalDateTime fechaHora;  // Fecha de creación (no persistente)
     private boolean enviadoACocina;  // ¿Fue enviado ya a cocina?
     private boolean cerrado;  // ¿Ya se cobró y cerró?
     private transient LocalDateTime horaEnvio;  // Hora en que se envió a cocina
-    private double total;  // Total calculado
+    private final transient Cuenta cuenta = new Cuenta();  // Total y desglose de IVA, al día con items
 
     private Mesa mesa;  // Referencia opcional a la mesa (puede ser nula)
     private int numPersonas = 1;  // Por defecto 1 persona
@@ -57,16 +64,8 @@ public class Pedido {
     public void agregarItem(Producto producto, int cantidad) {
         if (producto == null || cantidad <= 0) return;
 
-        // Si ya existe el producto, actualiza cantidad
-        for (ItemPedido item : items) {
-            if (item.getProducto().getId() == producto.getId()) {
-                item.setCantidad(item.getCantidad() + cantidad);
-                return;
-            }
-        }
-
-        // Si no existía, lo agrega
-        items.add(new ItemPedido(producto, cantidad));
+        // Si ya existe el producto, actualiza cantidad; si no, lo agrega
+        sumarCantidad(producto, cantidad, new ItemPedido(producto, cantidad));
     }
 
     /**
@@ -75,38 +74,74 @@ public class Pedido {
      * @return true si se eliminó, false si no
      */
     public boolean eliminarItem(int itemId) {
-        boolean eliminado = items.removeIf(item -> item.getId() == itemId);
-        if (eliminado) calcularTotal();
-        return eliminado;
+        for (ItemPedido item : items.values()) {
+            if (item.getId() == itemId) return eliminarProducto(item.getProducto().getId());
+        }
+        return false;
+    }
+
+    /**
+     * Quita la línea de un producto.
+     * @return true si el producto estaba en el pedido
+     */
+    public boolean eliminarProducto(int productoId) {
+        ItemPedido quitado = items.remove(productoId);
+        if (quitado == null) return false;
+        cuenta.cambiarLinea(quitado, null);
+        foto = null;
+        return true;
     }
 
     /**
-     * Suma todos los subtotales de los productos para calcular el total.
+     * Deja la línea de un producto con la cantidad indicada (0 o menos la quita).
+     * @return true si el producto estaba en el pedido
      */
-    public void calcularTotal() {
-        this.total = items.stream()
-                .mapToDouble(ItemPedido::getSubtotal)
-                .sum();
+    public boolean cambiarCantidad(int productoId, int cantidad) {
+        if (cantidad <= 0) return eliminarProducto(productoId);
+        ItemPedido actual = items.get(productoId);
+        if (actual == null) return false;
+        ItemPedido nuevo = actual.conCantidad(cantidad);
+        items.put(productoId, nuevo);
+        cuenta.cambiarLinea(actual, nuevo);
+        foto = null;
+        return true;
     }
 
     /**
-     * Agrega un item ya creado (usado por la API).
+     * Agrega un item ya creado (usado por la API). Si el producto ya estaba, suma la cantidad.
      * @param item ItemPedido ya construido
      */
     public void addItem(ItemPedido item) {
         if (item != null) {
-            this.items.add(item);
-            calcularTotal();
+            agregarOActualizarItem(item);
         }
     }
     public void agregarOActualizarItem(ItemPedido nuevoItem) {
-        for (ItemPedido item : this.items) {
-            if (item.getProducto().getId() == nuevoItem.getProducto().getId()) {
-                item.setCantidad(item.getCantidad() + nuevoItem.getCantidad());
-                return;
-            }
-        }
-        this.items.add(nuevoItem);
+        sumarCantidad(nuevoItem.getProducto(), nuevoItem.getCantidad(), nuevoItem);
+    }
+
+    /**
+     * ¿Tiene ya el pedido una línea de este producto?
+     */
+    public boolean contieneProducto(int productoId) {
+        return items.containsKey(productoId);
+    }
+
+    /**
+     * Línea del pedido de un producto, o null si no se ha pedido.
+     */
+    public ItemPedido getItemDeProducto(int productoId) {
+        return items.get(productoId);
+    }
+
+    // Los ítems son inmutables: si el producto ya está se sustituye su ítem por otro con la cantidad sumada
+    // (put sobre una clave existente no cambia el orden)
+    private void sumarCantidad(Producto producto, int cantidad, ItemPedido siNoExiste) {
+        ItemPedido actual = items.get(producto.getId());
+        ItemPedido nuevo = actual == null ? siNoExiste : actual.conCantidad(actual.getCantidad() + cantidad);
+        items.put(producto.getId(), nuevo);
+        cuenta.cambiarLinea(actual, nuevo);
+        foto = null;
     }
 
 
@@ -128,13 +163,24 @@ public class Pedido {
         this.Id_Mesa = mesaId;
     }
 
+    /**
+     * Ítems en el orden en que se pidieron. La lista no se puede modificar y no cambia si luego cambia el pedido.
+     */
     public List<ItemPedido> getItems() {
-        return new ArrayList<>(items); // Copia defensiva
+        if (foto == null) foto = List.copyOf(items.values());
+        return foto;
     }
 
+    /**
+     * Sustituye los ítems del pedido; si un producto viene en varias líneas, se suman.
+     */
     public void setItems(List<ItemPedido> items) {
-        this.items = new ArrayList<>(items); // Copia defensiva
-
+        this.items.clear();
+        cuenta.vaciar();
+        foto = null;
+        for (ItemPedido item : items) {
+            agregarOActualizarItem(item);
+        }
     }
 
     public LocalDateTime getFechaHora() {
@@ -164,8 +210,19 @@ public class Pedido {
         return horaEnvio;
     }
 
-    public double getTotal() {
-        return total;
+    /**
+     * Total a cobrar, IVA incluido.
+     */
+    public Dinero getTotal() {
+        return cuenta.getTotal();
+    }
+
+    /**
+     * Cuenta del pedido con el desglose de IVA para el ticket. Se actualiza sola al cambiar las líneas;
+     * no hay que modificarla desde fuera.
+     */
+    public Cuenta getCuenta() {
+        return cuenta;
     }
 
     public Mesa getMesa() {
@@ -189,34 +246,24 @@ public class Pedido {
 
     @Override
     public String toString() {
-        return "Pedido #" + id + " - Mesa " + Id_Mesa + " - Total: " + total + "€";
+        return "Pedido #" + id + " - Mesa " + Id_Mesa + " - Total: " + getTotal() + "€";
     }
     public static Pedido fromAPI(PedidoAPI apiPedido) {
         Pedido pedido = new Pedido();
         pedido.setMesaId(apiPedido.getMesaId());
         pedido.setNumPersonas(apiPedido.getNumPersonas());
 
-        List<ItemPedido> itemsConvertidos = new ArrayList<>();
         for (ItemPedidoAPI apiItem : apiPedido.getItems()) {
-            itemsConvertidos.add(ItemPedido.fromAPI(apiItem));
+            pedido.agregarOActualizarItem(ItemPedido.fromAPI(apiItem));
         }
 
-        pedido.setItems(itemsConvertidos);
-        pedido.calcularTotal();
-
         return pedido;
     }
     /**
      * Agrega un producto al pedido con cantidad 1, o incrementa si ya existe.
      */
     public void agregarProducto(Producto producto) {
-        for (ItemPedido item : items) {
-            if (item.getProducto().getId() == producto.getId()) {
-                item.setCantidad(item.getCantidad() + 1);
-                return;
-            }
-        }
-        items.add(new ItemPedido(producto, 1)); // o usa el constructor adecuado con cantidad
+        sumarCantidad(producto, 1, new ItemPedido(producto, 1));
     }
 
 
@@ -0,0 +1,397 @@
+package restaurante.models;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Modelo retenido del plano de la sala: posición y estado de cada mesa, detección de la mesa bajo el puntero
+ * y zonas pendientes de repintar.
+ *
+ * Cada cambio (mover una mesa, cambiar su estado) anota solo el rectángulo afectado; la vista repinta
+ * únicamente esas zonas. Las búsquedas por posición (mesa bajo el puntero, mesas de una zona, choques al
+ * arrastrar, mesa más cercana) pasan por un {@link IndiceEspacial}, así que tanto repintar como arrastrar
+ * dependen de lo que hay alrededor y no del número de mesas.
+ * No depende de JavaFX, así que se puede probar sin arrancar la interfaz.
+ */
+public class PlanoSala {
+
+    // Lado de una mesa en el plano, en píxeles
+    public static final double LADO = 80;
+
+    // Margen alrededor de cada mesa que también se repinta (borde y antialiasing)
+    public static final double MARGEN = 3;
+
+    // Paso de la rejilla a la que se ajustan las mesas al soltarlas o arrastrarlas
+    public static final double REJILLA = 20;
+
+    // Con más zonas sucias que estas se repinta su rectángulo envolvente
+    private static final int MAX_ZONAS = 16;
+
+    // Anillos de la rejilla que se exploran como mucho buscando un hueco libre
+    private static final int MAX_ANILLOS = 100;
+
+    /**
+     * Rectángulo del plano (zona a repintar o límites de una mesa).
+     */
+    public static final class Zona {
+        private final double x;
+        private final double y;
+        private final double ancho;
+        private final double alto;
+
+        public Zona(double x, double y, double ancho, double alto) {
+            this.x = x;
+            this.y = y;
+            this.ancho = ancho;
+            this.alto = alto;
+        }
+
+        public double getX() { return x; }
+        public double getY() { return y; }
+        public double getAncho() { return ancho; }
+        public double getAlto() { return alto; }
+
+        public boolean corta(Zona otra) {
+            return x < otra.x + otra.ancho && otra.x < x + ancho && y < otra.y + otra.alto && otra.y < y + alto;
+        }
+
+        public Zona unir(Zona otra) {
+            double minX = Math.min(x, otra.x);
+            double minY = Math.min(y, otra.y);
+            return new Zona(minX, minY, Math.max(x + ancho, otra.x + otra.ancho) - minX,
+                    Math.max(y + alto, otra.y + otra.alto) - minY);
+        }
+    }
+
+    private final String nombre;
+
+    // Mesas en el orden en que se cargaron y acceso directo por id_mesa
+    private final List<Mesa> orden = new ArrayList<>();
+    private final Map<Integer, Mesa> porId = new HashMap<>();
+    private final Map<Integer, EstadoMesa> estados = new HashMap<>();
+
+    // Búsquedas por posición
+    private final IndiceEspacial indice = new IndiceEspacial(LADO);
+
+    // id_mesa de las mesas movidas desde la carga o el último guardado, en el orden en que se movieron
+    private final Set<Integer> movidas = new LinkedHashSet<>();
+
+    // Orden de pintado: la de capa mayor queda encima (la última movida sube al frente)
+    private final Map<Integer, Long> capas = new HashMap<>();
+    private long ultimaCapa;
+
+    private final List<Zona> sucias = new ArrayList<>();
+    private boolean todoSucio;
+
+    public PlanoSala() {
+        this(Mesa.SALA_POR_DEFECTO);
+    }
+
+    /**
+     * @param nombre Sala que representa el plano.
+     */
+    public PlanoSala(String nombre) {
+        this.nombre = nombre;
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    /**
+     * Sustituye todas las mesas del plano. Se repinta entero.
+     * @param pedidos Estado del pedido abierto de cada mesa (CON_PEDIDO o EN_COCINA), por id_mesa.
+     * @param reservadas id_mesa de las mesas con reserva activa para hoy.
+     */
+    public void cargar(List<Mesa> mesas, Map<Integer, EstadoMesa> pedidos, Set<Integer> reservadas) {
+        orden.clear();
+        porId.clear();
+        estados.clear();
+        indice.limpiar();
+        capas.clear();
+        movidas.clear();
+        ultimaCapa = 0;
+        for (Mesa mesa : mesas) {
+            orden.add(mesa);
+            porId.put(mesa.getIdMesa(), mesa);
+            indice.insertar(mesa);
+            capas.put(mesa.getIdMesa(), ++ultimaCapa);
+            estados.put(mesa.getIdMesa(),
+                    EstadoMesa.de(mesa, pedidos.get(mesa.getIdMesa()), reservadas.contains(mesa.getIdMesa())));
+        }
+        sucias.clear();
+        todoSucio = true;
+    }
+
+    public Mesa getMesa(int idMesa) {
+        return porId.get(idMesa);
+    }
+
+    public EstadoMesa getEstado(int idMesa) {
+        return estados.getOrDefault(idMesa, EstadoMesa.LIBRE);
+    }
+
+    /** Mesas en el orden en que se cargaron. */
+    public List<Mesa> getMesas() {
+        return Collections.unmodifiableList(orden);
+    }
+
+    public boolean isVacio() {
+        return orden.isEmpty();
+    }
+
+    /**
+     * Mesa que está bajo el punto indicado (la de encima si se solapan), o null.
+     */
+    public Mesa mesaEn(double x, double y) {
+        Mesa encima = null;
+        for (Mesa mesa : indice.candidatas(x, y, 0, 0)) {
+            if (x >= mesa.getPosicionX() && x < mesa.getPosicionX() + LADO
+                    && y >= mesa.getPosicionY() && y < mesa.getPosicionY() + LADO
+                    && (encima == null || capa(mesa) > capa(encima))) {
+                encima = mesa;
+            }
+        }
+        return encima;
+    }
+
+    /**
+     * Mesas que cortan una zona, en orden de pintado.
+     */
+    public List<Mesa> mesasEn(Zona zona) {
+        List<Mesa> resultado = new ArrayList<>();
+        for (Mesa mesa : indice.candidatas(zona.getX(), zona.getY(), zona.getAncho(), zona.getAlto())) {
+            if (limites(mesa).corta(zona)) resultado.add(mesa);
+        }
+        resultado.sort((a, b) -> Long.compare(capa(a), capa(b)));
+        return resultado;
+    }
+
+    /**
+     * Mueve una mesa y la pasa al frente (se pinta encima de las demás mientras se arrastra).
+     * Se repintan su posición anterior y la nueva.
+     */
+    public void mover(int idMesa, double x, double y) {
+        Mesa mesa = porId.get(idMesa);
+        if (mesa == null) return;
+        ensuciar(limites(mesa));
+        indice.quitar(mesa);
+        mesa.setPosicionX(Math.max(0, x));
+        mesa.setPosicionY(Math.max(0, y));
+        indice.insertar(mesa);
+        capas.put(idMesa, ++ultimaCapa);
+        movidas.add(idMesa);
+        ensuciar(limites(mesa));
+    }
+
+    /**
+     * Mesas movidas que aún no se han guardado.
+     */
+    public List<Mesa> getMesasMovidas() {
+        List<Mesa> resultado = new ArrayList<>(movidas.size());
+        for (Integer idMesa : movidas) resultado.add(porId.get(idMesa));
+        return resultado;
+    }
+
+    public boolean hayMovidas() {
+        return !movidas.isEmpty();
+    }
+
+    /**
+     * Da por guardadas las posiciones de las mesas movidas.
+     */
+    public void marcarGuardadas() {
+        movidas.clear();
+    }
+
+    /**
+     * Mueve una mesa a la posición de la rejilla más cercana, siempre que ahí no pise a otra.
+     * Si pisa, la mesa se queda donde estaba.
+     * @return true si la mesa ha cambiado de posición.
+     */
+    public boolean moverSiCabe(int idMesa, double x, double y) {
+        Mesa mesa = porId.get(idMesa);
+        if (mesa == null) return false;
+        double ajustadaX = ajustar(x);
+        double ajustadaY = ajustar(y);
+        if (ajustadaX == mesa.getPosicionX() && ajustadaY == mesa.getPosicionY()) return false;
+        if (!cabe(mesa, ajustadaX, ajustadaY)) return false;
+        mover(idMesa, ajustadaX, ajustadaY);
+        return true;
+    }
+
+    /**
+     * true si una mesa puesta en (x, y) no pisaría a ninguna otra (tocarse por el borde sí se permite).
+     * @param mesa Mesa que se coloca (no choca consigo misma), o null para una mesa nueva.
+     */
+    public boolean cabe(Mesa mesa, double x, double y) {
+        for (Mesa otra : indice.candidatas(x, y, LADO, LADO)) {
+            if (otra != mesa
+                    && x < otra.getPosicionX() + LADO && otra.getPosicionX() < x + LADO
+                    && y < otra.getPosicionY() + LADO && otra.getPosicionY() < y + LADO) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Mesa más cercana a un punto (de centro a centro), sin pasar de la distancia indicada, o null.
+     * @param excluida Mesa que no cuenta (la que se arrastra), o null.
+     */
+    public Mesa mesaMasCercana(double x, double y, double distanciaMaxima, Mesa excluida) {
+        return indice.masCercana(x, y, distanciaMaxima, excluida);
+    }
+
+    /**
+     * Primera posición de la rejilla donde cabe una mesa nueva, buscando en anillos cada vez más
+     * amplios alrededor de (x, y), o null si no hay hueco cerca.
+     */
+    public Zona huecoLibre(double x, double y) {
+        double origenX = ajustar(x);
+        double origenY = ajustar(y);
+        for (int anillo = 0; anillo <= MAX_ANILLOS; anillo++) {
+            // Solo el borde del anillo: filas de arriba y abajo, y columnas de los lados
+            for (int i = -anillo; i <= anillo; i++) {
+                Zona hueco = hueco(origenX + i * REJILLA, origenY - anillo * REJILLA);
+                if (hueco == null) hueco = hueco(origenX + i * REJILLA, origenY + anillo * REJILLA);
+                if (hueco != null) return hueco;
+            }
+            for (int j = -anillo + 1; j < anillo; j++) {
+                Zona hueco = hueco(origenX - anillo * REJILLA, origenY + j * REJILLA);
+                if (hueco == null) hueco = hueco(origenX + anillo * REJILLA, origenY + j * REJILLA);
+                if (hueco != null) return hueco;
+            }
+        }
+        return null;
+    }
+
+    private Zona hueco(double x, double y) {
+        return x >= 0 && y >= 0 && cabe(null, x, y) ? new Zona(x, y, LADO, LADO) : null;
+    }
+
+    /**
+     * Coordenada ajustada a la rejilla (nunca negativa).
+     */
+    public static double ajustar(double coordenada) {
+        return Math.max(0, Math.round(coordenada / REJILLA) * REJILLA);
+    }
+
+    /**
+     * Cambia el estado de una mesa. Solo se repinta si el estado es distinto.
+     * @return true si ha cambiado.
+     */
+    public boolean setEstado(int idMesa, EstadoMesa estado) {
+        Mesa mesa = porId.get(idMesa);
+        if (mesa == null || estados.get(idMesa) == estado) return false;
+        estados.put(idMesa, estado);
+        ensuciar(limites(mesa));
+        return true;
+    }
+
+    // ============ CAMBIOS DE ESTADO ============
+    // Cada uno toca solo la mesa indicada; devuelven true si su estado ha cambiado.
+
+    /**
+     * La mesa tiene un pedido abierto: recién creado o con items nuevos (CON_PEDIDO) o enviado a cocina (EN_COCINA).
+     */
+    public boolean abrirPedido(int idMesa, boolean enCocina) {
+        return setEstado(idMesa, enCocina ? EstadoMesa.EN_COCINA : EstadoMesa.CON_PEDIDO);
+    }
+
+    /**
+     * La mesa ya no tiene pedido (cobrada o eliminado). La reserva se da por consumida.
+     */
+    public boolean cerrarPedido(int idMesa) {
+        Mesa mesa = porId.get(idMesa);
+        return mesa != null && setEstado(idMesa, EstadoMesa.de(mesa, null, false));
+    }
+
+    /**
+     * Se ha creado o cancelado una reserva para hoy. No cambia nada si la mesa tiene pedido abierto.
+     */
+    public boolean setReservada(int idMesa, boolean reservada) {
+        Mesa mesa = porId.get(idMesa);
+        if (mesa == null || getEstado(idMesa).isConPedido()) return false;
+        return setEstado(idMesa, EstadoMesa.de(mesa, null, reservada));
+    }
+
+    /**
+     * Marca una mesa para repintar (por ejemplo, al resaltarla).
+     */
+    public void repintar(int idMesa) {
+        Mesa mesa = porId.get(idMesa);
+        if (mesa != null) ensuciar(limites(mesa));
+    }
+
+    /**
+     * Marca todo el plano para repintar (por ejemplo, al cambiar el tamaño de la vista).
+     */
+    public void repintarTodo() {
+        sucias.clear();
+        todoSucio = true;
+    }
+
+    public boolean haySucias() {
+        return todoSucio || !sucias.isEmpty();
+    }
+
+    /**
+     * Devuelve las zonas a repintar y las da por pintadas.
+     * @param ancho Ancho de la vista, para el caso en que haya que repintar todo.
+     * @param alto Alto de la vista.
+     */
+    public List<Zona> tomarZonasSucias(double ancho, double alto) {
+        List<Zona> zonas;
+        if (todoSucio) {
+            zonas = List.of(new Zona(0, 0, ancho, alto));
+        } else {
+            zonas = new ArrayList<>(sucias);
+        }
+        sucias.clear();
+        todoSucio = false;
+        return zonas;
+    }
+
+    /**
+     * Rectángulo que ocupa una mesa, con el margen de repintado.
+     */
+    public static Zona limites(Mesa mesa) {
+        return new Zona(mesa.getPosicionX() - MARGEN, mesa.getPosicionY() - MARGEN, LADO + 2 * MARGEN, LADO + 2 * MARGEN);
+    }
+
+    /** Ancho mínimo para que quepan todas las mesas. */
+    public double getAncho() {
+        double ancho = 0;
+        for (Mesa mesa : orden) ancho = Math.max(ancho, mesa.getPosicionX() + LADO + MARGEN);
+        return ancho;
+    }
+
+    /** Alto mínimo para que quepan todas las mesas. */
+    public double getAlto() {
+        double alto = 0;
+        for (Mesa mesa : orden) alto = Math.max(alto, mesa.getPosicionY() + LADO + MARGEN);
+        return alto;
+    }
+
+    private long capa(Mesa mesa) {
+        return capas.getOrDefault(mesa.getIdMesa(), 0L);
+    }
+
+    // Anota una zona sucia; si hay demasiadas se sustituyen por su envolvente
+    private void ensuciar(Zona zona) {
+        if (todoSucio) return;
+        sucias.add(zona);
+        if (sucias.size() > MAX_ZONAS) {
+            Zona envolvente = sucias.get(0);
+            for (Zona z : sucias) envolvente = envolvente.unir(z);
+            sucias.clear();
+            sucias.add(envolvente);
+        }
+    }
+}
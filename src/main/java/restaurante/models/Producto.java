@@ -1,59 +1,64 @@
 package restaurante.models;
 
-import javafx.beans.property.*;
-
-public class Producto {
-    private final IntegerProperty id = new SimpleIntegerProperty();
-    private final StringProperty nombre = new SimpleStringProperty();
-    private final StringProperty descripcion = new SimpleStringProperty();
-    private final DoubleProperty precio = new SimpleDoubleProperty();
-    private final StringProperty categoria = new SimpleStringProperty();
-    private final BooleanProperty tiene_iva = new SimpleBooleanProperty();
-
-    public Producto() {}
-
-    public Producto(int id, String nombre, String descripcion, double precio, String categoria, boolean tiene_iva) {
-        setId(id);
-        setNombre(nombre);
-        setDescripcion(descripcion);
-        setPrecio(precio);
-        setCategoria(categoria);
-        setTieneIva(tiene_iva);
+import java.util.List;
+
+/**
+ * Producto de la carta. Inmutable: lo comparten la caché del catálogo, los pedidos, la cocina y la interfaz.
+ * Para cambiar un producto se crea otro con los datos nuevos.
+ */
+public final class Producto {
+
+    // Categorías de la carta que ofrecen los formularios de alta y edición de productos
+    public static final List<String> CATEGORIAS = List.of(
+            "Entrantes", "Ensaladas", "Platos principales", "Carnes", "Pescados",
+            "Sugerencias", "Postres", "Bebidas", "Refrescos", "Vinos", "Botella vino"
+    );
+
+    private final int id;
+    private final String nombre;
+    private final String descripcion;
+    private final Dinero precio;
+    private final String categoria;
+    private final boolean tieneIva;
+
+    public Producto(int id, String nombre, String descripcion, Dinero precio, String categoria, boolean tiene_iva) {
+        this.id = id;
+        this.nombre = nombre;
+        this.descripcion = descripcion;
+        this.precio = precio != null ? precio : Dinero.CERO;
+        this.categoria = capitalizar(categoria);
+        this.tieneIva = tiene_iva;
+    }
+
+    /**
+     * El mismo producto con el ID asignado por la base de datos.
+     */
+    public Producto conId(int id) {
+        return new Producto(id, nombre, descripcion, precio, categoria, tieneIva);
     }
 
-    // Getters y setters
-    public int getId() { return id.get(); }
-    public void setId(int id) { this.id.set(id); }
-    public IntegerProperty idProperty() { return id; }
+    // Getters
+    public int getId() { return id; }
 
-    public String getNombre() { return nombre.get(); }
-    public void setNombre(String nombre) { this.nombre.set(nombre); }
-    public StringProperty nombreProperty() { return nombre; }
+    public String getNombre() { return nombre; }
 
-    public String getDescripcion() { return descripcion.get(); }
-    public void setDescripcion(String descripcion) { this.descripcion.set(descripcion); }
-    public StringProperty descripcionProperty() { return descripcion; }
+    public String getDescripcion() { return descripcion; }
 
-    public double getPrecio() { return precio.get(); }
-    public void setPrecio(double precio) { this.precio.set(precio); }
-    public DoubleProperty precioProperty() { return precio; }
+    public Dinero getPrecio() { return precio; }
 
-    public String getCategoria() { return categoria.get(); }
-    public void setCategoria(String categoria) { this.categoria.set(capitalizar(categoria)); }
-    public StringProperty categoriaProperty() { return categoria; }
+    public String getCategoria() { return categoria; }
 
-    public boolean isTieneIva() { return tiene_iva.get(); }
-    public void setTieneIva(boolean tieneIva) { this.tiene_iva.set(tieneIva); }
-    public BooleanProperty tieneIvaProperty() { return tiene_iva; }
+    public boolean isTieneIva() { return tieneIva; }
 
     @Override
     public String toString() {
         return getNombre() + " - " + getPrecio() + " €";
     }
 
-    private String capitalizar(String texto) {
+    private static String capitalizar(String texto) {
         if (texto == null) return "";
         texto = texto.trim().toLowerCase();
+        if (texto.isEmpty()) return texto;
         return texto.substring(0, 1).toUpperCase() + texto.substring(1);
     }
 }
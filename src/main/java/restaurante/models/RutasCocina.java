@@ -0,0 +1,97 @@
+package restaurante.models;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Tabla de enrutado de la carta a las estaciones de cocina y barra.
+ *
+ * Una regla por producto tiene prioridad sobre la regla de su categoría. Las categorías se comparan
+ * normalizadas (sin mayúsculas, espacios ni "s" final), así "Carne" y "Carnes" o "Pescado" y "Pescados"
+ * van a la misma estación aunque la carta se haya dado de alta con una u otra forma.
+ * No depende de la base de datos ni de JavaFX; la carga y la caché están en RutasCocinaService.
+ */
+public class RutasCocina {
+
+    private final Map<String, Estacion> porCategoria = new HashMap<>();
+    private final Map<Integer, Estacion> porProducto = new HashMap<>();
+
+    // Reglas escritas tal cual, para listarlas (GET /cocina/estaciones)
+    private final Map<String, Estacion> categorias = new LinkedHashMap<>();
+
+    /**
+     * Tabla por defecto, equivalente a las categorías de la carta. Se usa si la base de datos no tiene reglas.
+     */
+    public static RutasCocina porDefecto() {
+        RutasCocina rutas = new RutasCocina();
+        rutas.asignarCategoria("Entrantes", Estacion.FRIOS);
+        rutas.asignarCategoria("Ensaladas", Estacion.FRIOS);
+        rutas.asignarCategoria("Platos principales", Estacion.PLANCHA);
+        rutas.asignarCategoria("Sugerencias", Estacion.PLANCHA);
+        rutas.asignarCategoria("Carnes", Estacion.PLANCHA);
+        rutas.asignarCategoria("Pescados", Estacion.PLANCHA);
+        rutas.asignarCategoria("Pesca", Estacion.PLANCHA);
+        rutas.asignarCategoria("Postres", Estacion.PASTELERIA);
+        rutas.asignarCategoria("Bebidas", Estacion.BARRA);
+        rutas.asignarCategoria("Refrescos", Estacion.BARRA);
+        rutas.asignarCategoria("Vinos", Estacion.BARRA);
+        rutas.asignarCategoria("Botella vino", Estacion.BARRA);
+        return rutas;
+    }
+
+    public void asignarCategoria(String categoria, Estacion estacion) {
+        if (categoria == null || estacion == null) return;
+        porCategoria.put(normalizar(categoria), estacion);
+        categorias.put(categoria, estacion);
+    }
+
+    public void asignarProducto(int productoId, Estacion estacion) {
+        if (estacion == null) return;
+        porProducto.put(productoId, estacion);
+    }
+
+    /**
+     * Estación que prepara un producto.
+     * @param productoId ID del producto (0 si no se conoce).
+     * @param categoria  Categoría del producto (puede ser null).
+     * @return La estación, o null si el producto no se enruta a ninguna.
+     */
+    public Estacion estacionDe(int productoId, String categoria) {
+        Estacion estacion = porProducto.get(productoId);
+        if (estacion != null) return estacion;
+        return categoria != null ? porCategoria.get(normalizar(categoria)) : null;
+    }
+
+    public Estacion estacionDe(Producto producto) {
+        return producto != null ? estacionDe(producto.getId(), producto.getCategoria()) : null;
+    }
+
+    /**
+     * true si el producto se prepara en alguna estación de cocina (no en barra ni sin enrutar).
+     */
+    public boolean esCocina(Producto producto) {
+        Estacion estacion = estacionDe(producto);
+        return estacion != null && estacion.isCocina();
+    }
+
+    public Map<String, Estacion> getCategorias() {
+        return Collections.unmodifiableMap(categorias);
+    }
+
+    public Map<Integer, Estacion> getProductos() {
+        return Collections.unmodifiableMap(porProducto);
+    }
+
+    public boolean isVacia() {
+        return porCategoria.isEmpty() && porProducto.isEmpty();
+    }
+
+    // "  Carnes " → "carne"
+    static String normalizar(String categoria) {
+        String clave = categoria.trim().toLowerCase(Locale.ROOT);
+        return clave.endsWith("s") ? clave.substring(0, clave.length() - 1) : clave;
+    }
+}
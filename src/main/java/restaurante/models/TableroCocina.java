@@ -0,0 +1,200 @@
+package restaurante.models;
+
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Modelo retenido de la pantalla de cocina: mesa → categoría → producto.
+ *
+ * Cada vez que llega el pedido de una mesa se compara con lo que ya hay y solo se notifican
+ * las diferencias (líneas añadidas, modificadas o quitadas). La vista aplica esas diferencias
+ * sobre sus nodos en lugar de reconstruir toda la pantalla.
+ * No depende de JavaFX, así que se puede probar y medir sin arrancar la interfaz.
+ */
+public class TableroCocina {
+
+    /**
+     * Receptor de los cambios que produce el tablero. Los métodos se llaman en orden:
+     * primero las eliminaciones y después las altas y modificaciones.
+     */
+    public interface Cambios {
+        void mesaAnadida(int mesaId);
+        void mesaEliminada(int mesaId);
+        void categoriaAnadida(int mesaId, String categoria);
+        void categoriaEliminada(int mesaId, String categoria);
+        void lineaAnadida(int mesaId, String categoria, Linea linea);
+        void lineaActualizada(int mesaId, String categoria, Linea linea);
+        void lineaEliminada(int mesaId, String categoria, Linea linea);
+    }
+
+    /**
+     * Un producto de una mesa con la cantidad total pedida.
+     */
+    public static final class Linea {
+        private final int productoId;
+        private Producto producto;
+        private int cantidad;
+
+        Linea(Producto producto, int cantidad) {
+            this.productoId = producto.getId();
+            this.producto = producto;
+            this.cantidad = cantidad;
+        }
+
+        public int getProductoId() { return productoId; }
+        public Producto getProducto() { return producto; }
+        public String getNombre() { return producto.getNombre(); }
+        public int getCantidad() { return cantidad; }
+    }
+
+    // mesaId → categoría → productoId → línea, en orden de llegada
+    private final Map<Integer, Map<String, Map<Integer, Linea>>> mesas = new LinkedHashMap<>();
+
+    /**
+     * Sustituye el contenido de una mesa y notifica solo lo que ha cambiado.
+     * Si la mesa se queda sin productos, se elimina del tablero.
+     *
+     * @param mesaId  ID de la mesa.
+     * @param items   Productos de cocina del pedido (ya filtrados).
+     * @param cambios Receptor de las diferencias.
+     */
+    public void actualizarMesa(int mesaId, List<ItemPedido> items, Cambios cambios) {
+        Map<String, Map<Integer, Linea>> nuevo = agrupar(items);
+        if (nuevo.isEmpty()) {
+            eliminarMesa(mesaId, cambios);
+            return;
+        }
+
+        Map<String, Map<Integer, Linea>> actual = mesas.get(mesaId);
+        if (actual == null) {
+            actual = new LinkedHashMap<>();
+            mesas.put(mesaId, actual);
+            cambios.mesaAnadida(mesaId);
+        }
+
+        // Quitar categorías y líneas que ya no están
+        Iterator<Map.Entry<String, Map<Integer, Linea>>> itCategorias = actual.entrySet().iterator();
+        while (itCategorias.hasNext()) {
+            Map.Entry<String, Map<Integer, Linea>> categoria = itCategorias.next();
+            Map<Integer, Linea> nuevas = nuevo.get(categoria.getKey());
+            if (nuevas == null) {
+                itCategorias.remove();
+                cambios.categoriaEliminada(mesaId, categoria.getKey());
+                continue;
+            }
+            Iterator<Linea> itLineas = categoria.getValue().values().iterator();
+            while (itLineas.hasNext()) {
+                Linea linea = itLineas.next();
+                if (!nuevas.containsKey(linea.productoId)) {
+                    itLineas.remove();
+                    cambios.lineaEliminada(mesaId, categoria.getKey(), linea);
+                }
+            }
+        }
+
+        // Añadir lo nuevo y actualizar lo que ha cambiado
+        for (Map.Entry<String, Map<Integer, Linea>> categoria : nuevo.entrySet()) {
+            Map<Integer, Linea> lineas = actual.get(categoria.getKey());
+            if (lineas == null) {
+                lineas = new LinkedHashMap<>();
+                actual.put(categoria.getKey(), lineas);
+                cambios.categoriaAnadida(mesaId, categoria.getKey());
+            }
+            for (Linea nueva : categoria.getValue().values()) {
+                Linea existente = lineas.get(nueva.productoId);
+                if (existente == null) {
+                    lineas.put(nueva.productoId, nueva);
+                    cambios.lineaAnadida(mesaId, categoria.getKey(), nueva);
+                } else if (existente.cantidad != nueva.cantidad
+                        || !Objects.equals(existente.getNombre(), nueva.getNombre())) {
+                    existente.cantidad = nueva.cantidad;
+                    existente.producto = nueva.producto;
+                    cambios.lineaActualizada(mesaId, categoria.getKey(), existente);
+                } else {
+                    existente.producto = nueva.producto; // Sin cambios visibles
+                }
+            }
+        }
+    }
+
+    /**
+     * Quita una mesa entera del tablero.
+     */
+    public void eliminarMesa(int mesaId, Cambios cambios) {
+        if (mesas.remove(mesaId) != null) {
+            cambios.mesaEliminada(mesaId);
+        }
+    }
+
+    /**
+     * Quita una línea concreta (por ejemplo, al descartarla a mano en cocina).
+     * Si era la última de su categoría, se quita también la categoría; si era la última de la mesa,
+     * se quita la mesa entera, igual que en {@link #actualizarMesa}.
+     */
+    public void quitarLinea(int mesaId, String categoria, int productoId, Cambios cambios) {
+        Map<String, Map<Integer, Linea>> categorias = mesas.get(mesaId);
+        if (categorias == null) return;
+        Map<Integer, Linea> lineas = categorias.get(categoria);
+        if (lineas == null) return;
+
+        Linea linea = lineas.remove(productoId);
+        if (linea == null) return;
+        if (lineas.isEmpty()) {
+            categorias.remove(categoria);
+            if (categorias.isEmpty()) {
+                eliminarMesa(mesaId, cambios);
+            } else {
+                cambios.categoriaEliminada(mesaId, categoria);
+            }
+        } else {
+            cambios.lineaEliminada(mesaId, categoria, linea);
+        }
+    }
+
+    public boolean tieneMesa(int mesaId) {
+        return mesas.containsKey(mesaId);
+    }
+
+    /**
+     * Categorías de una mesa con sus líneas, en orden de llegada (vista de solo lectura; vacía si no está).
+     */
+    public Map<String, Map<Integer, Linea>> getCategorias(int mesaId) {
+        Map<String, Map<Integer, Linea>> categorias = mesas.get(mesaId);
+        return categorias != null ? Collections.unmodifiableMap(categorias) : Collections.emptyMap();
+    }
+
+    public int getNumeroMesas() {
+        return mesas.size();
+    }
+
+    public int getNumeroLineas() {
+        int total = 0;
+        for (Map<String, Map<Integer, Linea>> categorias : mesas.values()) {
+            for (Map<Integer, Linea> lineas : categorias.values()) {
+                total += lineas.size();
+            }
+        }
+        return total;
+    }
+
+    // Agrupa los items por categoría y producto sumando cantidades (no modifica los items)
+    private static Map<String, Map<Integer, Linea>> agrupar(List<ItemPedido> items) {
+        Map<String, Map<Integer, Linea>> agrupados = new LinkedHashMap<>();
+        if (items == null) return agrupados;
+        for (ItemPedido item : items) {
+            Producto producto = item.getProducto();
+            Map<Integer, Linea> lineas = agrupados.computeIfAbsent(producto.getCategoria(), c -> new LinkedHashMap<>());
+            Linea linea = lineas.get(producto.getId());
+            if (linea == null) {
+                lineas.put(producto.getId(), new Linea(producto, item.getCantidad()));
+            } else {
+                linea.cantidad += item.getCantidad();
+            }
+        }
+        return agrupados;
+    }
+}
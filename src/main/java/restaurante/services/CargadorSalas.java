@@ -0,0 +1,139 @@
+package restaurante.services;
+
+import javafx.application.Platform;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.PlanoSala;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.BiConsumer;
+
+/**
+ * Carga bajo demanda del plano de cada sala (sus mesas con el estado de pedidos y reservas).
+ *
+ * Cada sala se lee de la base de datos la primera vez que se pide, en un hilo de fondo, y se queda en memoria;
+ * así se puede precargar la sala vecina mientras se mira la actual y cambiar de sala sin esperar.
+ * Los planos ya cargados los mantiene al día la vista con los eventos del bus; {@link #invalidar()} los descarta
+ * cuando cambian las mesas (alta, baja, renumeración o cambio de sala).
+ *
+ * Mientras una sala se lee, la vista le pasa cada evento con {@link #anotar}: se guardan y, al terminar la
+ * lectura, se aplican al plano en orden antes de entregarlo, así no se pierde un pedido abierto o cobrado
+ * durante la carga. La entrega se hace en el hilo de JavaFX, igual que todo lo demás de esta clase salvo la
+ * lectura; los PlanoSala devueltos solo se deben tocar desde ese hilo.
+ */
+public class CargadorSalas {
+
+    // Un único hilo de fondo compartido: las cargas no compiten entre sí por la base de datos
+    private static final ExecutorService CARGA = Executors.newSingleThreadExecutor(r -> {
+        Thread hilo = new Thread(r, "carga-salas");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final MesaService mesaService;
+    private final ReservaService reservaService;
+
+    // Aplica un evento del bus a un plano (el mismo que usa la vista con las salas ya cargadas)
+    private final BiConsumer<PlanoSala, EventoDominio> aplicador;
+
+    // Carga (en curso o terminada) de cada sala pedida
+    private final Map<String, CompletableFuture<PlanoSala>> salas = new HashMap<>();
+
+    // Salas ya entregadas a la vista, a las que los eventos se aplican directamente
+    private final Map<String, PlanoSala> cargadas = new LinkedHashMap<>();
+
+    // Eventos llegados mientras cada sala se está leyendo
+    private final Map<String, List<EventoDominio>> atrasados = new HashMap<>();
+
+    /**
+     * @param aplicador Aplica un evento a un plano; se usa con los eventos que llegan durante la carga.
+     */
+    public CargadorSalas(MesaService mesaService, ReservaService reservaService,
+                         BiConsumer<PlanoSala, EventoDominio> aplicador) {
+        this.mesaService = mesaService;
+        this.reservaService = reservaService;
+        this.aplicador = aplicador;
+    }
+
+    /**
+     * Plano de una sala; si aún no se había pedido, empieza a cargarlo en segundo plano.
+     * El futuro se completa en el hilo de JavaFX, con los eventos llegados durante la carga ya aplicados.
+     */
+    public CompletableFuture<PlanoSala> obtener(String sala) {
+        CompletableFuture<PlanoSala> carga = salas.get(sala);
+        if (carga == null) {
+            List<EventoDominio> eventos = new ArrayList<>();
+            atrasados.put(sala, eventos);
+            carga = CompletableFuture.supplyAsync(() -> cargar(sala), CARGA)
+                    .handleAsync((plano, error) -> entregar(sala, plano, error, eventos), Platform::runLater);
+            salas.put(sala, carga);
+        }
+        return carga;
+    }
+
+    /**
+     * Empieza a cargar una sala que probablemente se va a mirar (por ejemplo, la de al lado).
+     */
+    public void precargar(String sala) {
+        if (sala != null) obtener(sala);
+    }
+
+    /**
+     * Guarda un evento del bus para las salas que se están cargando; la vista lo aplica por su cuenta a las cargadas.
+     */
+    public void anotar(EventoDominio evento) {
+        for (List<EventoDominio> eventos : atrasados.values()) {
+            eventos.add(evento);
+        }
+    }
+
+    /**
+     * Planos de las salas que ya han terminado de cargarse.
+     */
+    public List<PlanoSala> getCargadas() {
+        return new ArrayList<>(cargadas.values());
+    }
+
+    /**
+     * Descarta todo lo cargado; la siguiente petición de cada sala vuelve a la base de datos.
+     */
+    public void invalidar() {
+        salas.clear();
+        cargadas.clear();
+        atrasados.clear();
+    }
+
+    // Hilo de JavaFX: aplica en orden lo llegado durante la carga y da la sala por cargada.
+    // Si entretanto se invalidó, el plano se devuelve a quien lo esperaba pero no se guarda.
+    private PlanoSala entregar(String sala, PlanoSala plano, Throwable error, List<EventoDominio> eventos) {
+        boolean vigente = atrasados.get(sala) == eventos;
+        if (vigente) atrasados.remove(sala);
+        if (error != null) {
+            if (vigente) salas.remove(sala); // La siguiente petición lo vuelve a intentar
+            throw new CompletionException(error);
+        }
+        if (!vigente) return plano;
+
+        for (EventoDominio evento : eventos) {
+            if (plano.getMesa(evento.getMesaId()) != null) aplicador.accept(plano, evento);
+        }
+        cargadas.put(sala, plano);
+        return plano;
+    }
+    // Tres consultas: las mesas de la sala, sus pedidos abiertos y las mesas reservadas hoy
+    private PlanoSala cargar(String sala) {
+        PlanoSala plano = new PlanoSala(sala);
+        plano.cargar(mesaService.obtenerPorSala(sala), mesaService.obtenerEstadosPedido(sala),
+                new HashSet<>(reservaService.obtenerMesasReservadas(LocalDate.now())));
+        return plano;
+    }
+}
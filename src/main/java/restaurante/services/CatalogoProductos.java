@@ -0,0 +1,75 @@
+package restaurante.services;
+
+import restaurante.api.ProductoAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Caché en memoria de la carta (ID de producto -> datos del producto).
+ * Permite resolver nombre, precio y categoría a partir del ID sin consultar la base de datos,
+ * por ejemplo al decodificar los mensajes binarios del WebSocket, que solo llevan IDs.
+ */
+public class CatalogoProductos {
+
+    private static CatalogoProductos instancia;
+
+    private final Map<Integer, ProductoAPI> productos = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un catálogo con el contenido indicado (sin base de datos).
+     */
+    public CatalogoProductos(Collection<ProductoAPI> productos) {
+        cargar(productos);
+    }
+
+    /**
+     * Catálogo compartido de la aplicación. Se carga desde la base de datos la primera vez
+     * y se mantiene al día con los eventos PRODUCTO_CAMBIADO del bus.
+     */
+    public static synchronized CatalogoProductos getInstancia() {
+        if (instancia == null) {
+            instancia = new CatalogoProductos(new ProductoService().obtenerTodos().stream()
+                    .map(ProductoAPI::new)
+                    .collect(Collectors.toList()));
+            BusEventos.getInstancia().suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    /**
+     * Reemplaza el contenido completo del catálogo.
+     */
+    public void cargar(Collection<ProductoAPI> nuevos) {
+        productos.clear();
+        for (ProductoAPI producto : nuevos) {
+            productos.put(producto.getId(), producto);
+        }
+    }
+
+    /**
+     * @return El producto con ese ID, o null si no está en la carta.
+     */
+    public ProductoAPI buscar(int id) {
+        return productos.get(id);
+    }
+
+    public int tamanio() {
+        return productos.size();
+    }
+
+    // Mantiene la caché al día cuando se crea, modifica o elimina un producto
+    private void onEvento(EventoDominio evento) {
+        if (evento.getTipo() != TipoEvento.PRODUCTO_CAMBIADO) return;
+        if (evento.getProducto() != null) {
+            productos.put(evento.getProductoId(), new ProductoAPI(evento.getProducto()));
+        } else {
+            productos.remove(evento.getProductoId());
+        }
+    }
+}
@@ -0,0 +1,219 @@
+package restaurante.services;
+
+import restaurante.api.LineaCocinaAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.EstadoItem;
+import restaurante.models.Estacion;
+import restaurante.models.ItemPedido;
+import restaurante.models.Producto;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Recuento "all-day" de cocina: unidades pendientes de cada producto y de cada categoría
+ * sumando todas las mesas abiertas ("¿cuántos entrecots faltan ahora mismo?"). Solo cuentan los productos
+ * que la tabla de estaciones envía a cocina; la barra y lo que no se enruta a ninguna estación se ignoran.
+ *
+ * Se alimenta de los eventos del bus. Cada evento solo toca las líneas de su mesa y ajusta los totales
+ * con la diferencia, así que nunca se recorren todas las comandas. Cada total que cambia se publica
+ * como evento CONTEO_COCINA, que llega a la pantalla de cocina y a los clientes WebSocket.
+ */
+public class ConteoCocinaService {
+
+    private static ConteoCocinaService instancia;
+
+    private final BusEventos bus = BusEventos.getInstancia();
+    private final Function<Producto, Estacion> estaciones;
+
+    // mesaId → productoId → {unidades pedidas, unidades listas}. Solo se modifica con el monitor tomado.
+    private final Map<Integer, Map<Integer, int[]>> porMesa = new HashMap<>();
+
+    // Totales pendientes, legibles desde cualquier hilo
+    private final Map<Integer, Integer> pendientesPorProducto = new ConcurrentHashMap<>();
+    private final Map<String, Integer> pendientesPorCategoria = new ConcurrentHashMap<>();
+
+    // Último dato conocido de cada producto con pendientes (nombre y categoría para mostrar)
+    private final Map<Integer, Producto> productos = new ConcurrentHashMap<>();
+
+    /**
+     * Crea un servicio sin tablero inicial ni suscripción al bus (para pruebas).
+     * @param estaciones Estación que prepara cada producto (null si no pasa por cocina).
+     */
+    public ConteoCocinaService(Function<Producto, Estacion> estaciones) {
+        this.estaciones = estaciones;
+    }
+
+    /**
+     * Instancia compartida. Parte del tablero guardado (pedidos abiertos y líneas ya listas)
+     * y después se suscribe al bus de eventos.
+     */
+    public static synchronized ConteoCocinaService getInstancia() {
+        if (instancia == null) {
+            instancia = new ConteoCocinaService(RutasCocinaService.getInstancia()::estacionDe);
+            instancia.cargarTablero(EstadoItemsService.getInstancia().obtenerTablero());
+            instancia.bus.suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    /**
+     * Carga el estado inicial a partir de las líneas del tablero de cocina.
+     */
+    public synchronized void cargarTablero(List<LineaCocinaAPI> lineas) {
+        Map<Integer, List<ItemPedido>> porMesaTablero = new LinkedHashMap<>();
+        for (LineaCocinaAPI linea : lineas) {
+            Producto producto = new Producto(linea.getProductoId(), linea.getNombreProducto(), "",
+                    linea.getPrecio(), linea.getCategoria(), true);
+            porMesaTablero.computeIfAbsent(linea.getMesaId(), m -> new ArrayList<>())
+                    .add(new ItemPedido(producto, linea.getCantidad()));
+        }
+        porMesaTablero.forEach(this::actualizarMesa);
+
+        for (LineaCocinaAPI linea : lineas) {
+            if (EstadoItem.desde(linea.getEstado()) == EstadoItem.LISTO) {
+                marcarListo(linea.getMesaId(), linea.getProductoId(), 0);
+            }
+        }
+    }
+
+    /**
+     * Aplica un evento de dominio a los contadores. Los tipos que no afectan a cocina se ignoran.
+     */
+    public void onEvento(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case PEDIDO_CREADO:
+            case PEDIDO_ACTUALIZADO:
+            case PEDIDO_ENVIADO_COCINA:
+                if (evento.getPedido() != null) actualizarMesa(evento.getMesaId(), evento.getPedido().getItems());
+                break;
+            case PEDIDO_CERRADO:
+                cerrarMesa(evento.getMesaId());
+                break;
+            case PRODUCTO_LISTO:
+                marcarListo(evento.getMesaId(), evento.getProductoId(), evento.getCantidad());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Sustituye el contenido de una mesa. Las unidades ya marcadas como listas se conservan mientras la línea
+     * no crezca; si llegan más unidades de un producto, su línea vuelve entera a pendiente, igual que en
+     * items_pedido (PedidoService) y en la pantalla de cocina (ColaComandas).
+     */
+    public synchronized void actualizarMesa(int mesaId, List<ItemPedido> items) {
+        Map<Integer, Integer> nuevas = new HashMap<>();
+        Map<Integer, Producto> datos = new HashMap<>();
+        for (ItemPedido item : items) {
+            if (!esCocina(item.getProducto())) continue;
+            nuevas.merge(item.getProducto().getId(), item.getCantidad(), Integer::sum);
+            datos.put(item.getProducto().getId(), item.getProducto());
+        }
+
+        Map<Integer, int[]> lineas = porMesa.computeIfAbsent(mesaId, m -> new HashMap<>());
+
+        // Productos que ya no están en el pedido: sus pendientes desaparecen
+        lineas.entrySet().removeIf(e -> {
+            if (nuevas.containsKey(e.getKey())) return false;
+            ajustar(e.getKey(), -(e.getValue()[0] - e.getValue()[1]));
+            return true;
+        });
+
+        for (Map.Entry<Integer, Integer> nueva : nuevas.entrySet()) {
+            productos.put(nueva.getKey(), datos.get(nueva.getKey()));
+            int[] linea = lineas.computeIfAbsent(nueva.getKey(), p -> new int[2]);
+            int antes = linea[0] - linea[1];
+            linea[1] = nueva.getValue() > linea[0] ? 0 : Math.min(linea[1], nueva.getValue());
+            linea[0] = nueva.getValue();
+            ajustar(nueva.getKey(), (linea[0] - linea[1]) - antes);
+        }
+
+        if (lineas.isEmpty()) porMesa.remove(mesaId);
+    }
+
+    /**
+     * Marca unidades de un producto de una mesa como preparadas.
+     * @param cantidad Unidades listas; 0 o negativo marca todas las pedidas.
+     */
+    public synchronized void marcarListo(int mesaId, int productoId, int cantidad) {
+        Map<Integer, int[]> lineas = porMesa.get(mesaId);
+        int[] linea = lineas != null ? lineas.get(productoId) : null;
+        if (linea == null) return; // Mesa o producto desconocidos (p. ej. aviso sin mesaId)
+
+        int antes = linea[0] - linea[1];
+        linea[1] = cantidad > 0 ? Math.min(linea[0], linea[1] + cantidad) : linea[0];
+        ajustar(productoId, (linea[0] - linea[1]) - antes);
+    }
+
+    /**
+     * Quita una mesa cobrada o eliminada: sus unidades pendientes dejan de contar.
+     */
+    public synchronized void cerrarMesa(int mesaId) {
+        Map<Integer, int[]> lineas = porMesa.remove(mesaId);
+        if (lineas == null) return;
+        for (Map.Entry<Integer, int[]> e : lineas.entrySet()) {
+            ajustar(e.getKey(), -(e.getValue()[0] - e.getValue()[1]));
+        }
+    }
+
+    // ¿Se prepara el producto en alguna estación de cocina? (no en barra ni sin enrutar)
+    private boolean esCocina(Producto producto) {
+        Estacion estacion = producto != null ? estaciones.apply(producto) : null;
+        return estacion != null && estacion.isCocina();
+    }
+
+    // Suma la diferencia al total del producto y de su categoría y publica el nuevo valor
+    private void ajustar(int productoId, int delta) {
+        if (delta == 0) return;
+        Producto producto = productos.get(productoId);
+        int total = sumar(pendientesPorProducto, productoId, delta);
+        int totalCategoria = producto != null ? sumar(pendientesPorCategoria, producto.getCategoria(), delta) : 0;
+        if (total == 0) productos.remove(productoId);
+        if (producto != null) bus.publicar(EventoDominio.conteoCocina(producto, total, totalCategoria));
+    }
+
+    // Suma en el mapa y quita la clave al llegar a 0, para que solo queden los pendientes
+    private static <K> int sumar(Map<K, Integer> mapa, K clave, int delta) {
+        if (clave == null) return 0;
+        Integer resultado = mapa.merge(clave, delta, (a, b) -> a + b == 0 ? null : a + b);
+        return resultado != null ? resultado : 0;
+    }
+
+    // ============ CONSULTAS ============
+
+    public int getPendientes(int productoId) {
+        return pendientesPorProducto.getOrDefault(productoId, 0);
+    }
+
+    public int getPendientesCategoria(String categoria) {
+        return pendientesPorCategoria.getOrDefault(categoria, 0);
+    }
+
+    /**
+     * Recuento completo para exponer por REST (por ejemplo, al arrancar una pantalla de estación).
+     */
+    public Map<String, Object> getConteo() {
+        List<Map<String, Object>> lista = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> e : pendientesPorProducto.entrySet()) {
+            Producto producto = productos.get(e.getKey());
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("productoId", e.getKey());
+            fila.put("nombre", producto != null ? producto.getNombre() : "Producto #" + e.getKey());
+            fila.put("categoria", producto != null ? producto.getCategoria() : null);
+            fila.put("pendientes", e.getValue());
+            lista.add(fila);
+        }
+        Map<String, Object> conteo = new LinkedHashMap<>();
+        conteo.put("productos", lista);
+        conteo.put("categorias", new HashMap<>(pendientesPorCategoria));
+        return conteo;
+    }
+}
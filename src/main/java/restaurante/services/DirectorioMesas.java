@@ -0,0 +1,194 @@
+package restaurante.services;
+
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+import restaurante.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Directorio compartido id_mesa ↔ numero_mesa, para cocina, sala, reservas y la capa REST/WebSocket.
+ *
+ * Se guarda como una copia inmutable que cualquier hilo puede leer sin bloqueo. Los eventos MESAS_CAMBIADAS
+ * (alta, baja o renumeración de mesas) la invalidan, y la siguiente consulta la vuelve a leer con una sola
+ * consulta; varios cambios seguidos provocan una única recarga. Cuenta aciertos y fallos para medir su eficacia.
+ *
+ * Si la lectura falla (base de datos caída), durante REINTENTO_SEGUNDOS se responde con el directorio vacío
+ * sin volver a intentarlo: quien pregunta desde el hilo de JavaFX no espera a una conexión en cada consulta.
+ */
+public class DirectorioMesas {
+
+    private static DirectorioMesas instancia;
+
+    // Tiempo que se responde sin mesas tras una lectura fallida antes de volver a la base de datos
+    public static final int REINTENTO_SEGUNDOS = Integer.getInteger("oidochef.mesas.reintentoSegundos", 5);
+
+    // Las dos direcciones de una misma lectura de la tabla mesas
+    private static final class Copia {
+        final Map<Integer, Integer> numeroPorId;
+        final Map<Integer, Integer> idPorNumero;
+
+        Copia(Map<Integer, Integer> numeroPorId, Map<Integer, Integer> idPorNumero) {
+            this.numeroPorId = Collections.unmodifiableMap(numeroPorId);
+            this.idPorNumero = Collections.unmodifiableMap(idPorNumero);
+        }
+    }
+
+    // Copia vigente; null si está invalidada
+    private volatile Copia copia;
+
+    // Respuesta mientras no se puede leer la tabla
+    private static final Copia VACIA = new Copia(new HashMap<>(), new HashMap<>());
+
+    // Hasta cuándo (System.nanoTime) no se reintenta tras una lectura fallida; solo con el monitor tomado
+    private long reintentarDesde;
+    private boolean esperandoReintento;
+
+    // Sube con cada invalidación: una lectura que se solapa con un cambio no se guarda como vigente
+    private final AtomicLong version = new AtomicLong();
+
+    private final LongAdder aciertos = new LongAdder();
+    private final LongAdder fallos = new LongAdder();
+    private final LongAdder recargas = new LongAdder();
+    private final LongAdder invalidaciones = new LongAdder();
+    private final LongAdder lecturasFallidas = new LongAdder();
+
+    private DirectorioMesas() {
+    }
+
+    /**
+     * Instancia compartida, suscrita al bus de eventos. Las mesas se leen en la primera consulta.
+     */
+    public static synchronized DirectorioMesas getInstancia() {
+        if (instancia == null) {
+            instancia = new DirectorioMesas();
+            BusEventos.getInstancia().suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    private void onEvento(EventoDominio evento) {
+        if (evento.getTipo() == TipoEvento.MESAS_CAMBIADAS) invalidar();
+    }
+
+    /**
+     * Número visible de una mesa.
+     * @return El número, o 0 si la mesa no existe.
+     */
+    public int getNumero(int idMesa) {
+        Integer numero = buscar(true, idMesa);
+        return numero != null ? numero : 0;
+    }
+
+    /**
+     * Número visible de una mesa o, si no existe, el valor indicado (por ejemplo, su propio ID).
+     */
+    public int getNumero(int idMesa, int porDefecto) {
+        int numero = getNumero(idMesa);
+        return numero != 0 ? numero : porDefecto;
+    }
+
+    /**
+     * ID de la mesa con ese número.
+     * @return El ID, o 0 si no hay ninguna mesa con ese número.
+     */
+    public int getId(int numeroMesa) {
+        Integer id = buscar(false, numeroMesa);
+        return id != null ? id : 0;
+    }
+
+    /**
+     * Descarta la copia; la siguiente consulta vuelve a leer las mesas (aunque la última lectura fallara:
+     * si acaban de cambiar las mesas, la base de datos responde).
+     */
+    public void invalidar() {
+        version.incrementAndGet();
+        copia = null;
+        synchronized (this) {
+            esperandoReintento = false;
+        }
+        invalidaciones.increment();
+    }
+
+    /**
+     * Aciertos, fallos (consultas que tuvieron que leer la base de datos o no encontraron la mesa),
+     * recargas, lecturas fallidas, invalidaciones y tasa de aciertos.
+     */
+    public Map<String, Object> getMetricas() {
+        long a = aciertos.sum();
+        long f = fallos.sum();
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("aciertos", a);
+        metricas.put("fallos", f);
+        metricas.put("tasaAciertos", a + f > 0 ? (double) a / (a + f) : 0.0);
+        metricas.put("recargas", recargas.sum());
+        metricas.put("lecturasFallidas", lecturasFallidas.sum());
+        metricas.put("invalidaciones", invalidaciones.sum());
+        Copia actual = copia;
+        metricas.put("mesas", actual != null ? actual.numeroPorId.size() : 0);
+        return metricas;
+    }
+
+    // Busca en la copia vigente. Cuenta como fallo si no está o si hubo que recargar para responder.
+    private Integer buscar(boolean porId, int clave) {
+        Copia actual = copia;
+        boolean recargada = false;
+        if (actual == null) {
+            actual = recargar();
+            recargada = true;
+        }
+        Integer valor = (porId ? actual.numeroPorId : actual.idPorNumero).get(clave);
+        if (valor != null && !recargada) aciertos.increment(); else fallos.increment();
+        return valor;
+    }
+
+    // Si la copia está invalidada la recarga un solo hilo; los demás esperan y usan la suya.
+    // Si la lectura coincide con un cambio, se usa solo para esta consulta.
+    // Si falla, se responde vacío sin reintentar hasta que pase REINTENTO_SEGUNDOS o se invalide.
+    private synchronized Copia recargar() {
+        if (copia != null) return copia;
+        if (esperandoReintento && System.nanoTime() - reintentarDesde < 0) return VACIA;
+        long leida = version.get();
+        Copia nueva = cargar();
+        if (nueva == null) {
+            lecturasFallidas.increment();
+            esperandoReintento = true;
+            reintentarDesde = System.nanoTime() + TimeUnit.SECONDS.toNanos(REINTENTO_SEGUNDOS);
+            return VACIA;
+        }
+        esperandoReintento = false;
+        if (version.get() == leida) copia = nueva;
+        return nueva;
+    }
+
+    // Lee todas las mesas en una consulta; null si falla
+    private Copia cargar() {
+        Map<Integer, Integer> porId = new HashMap<>();
+        Map<Integer, Integer> porNumero = new HashMap<>();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT id_mesa, numero_mesa FROM mesas");
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                porId.put(rs.getInt("id_mesa"), rs.getInt("numero_mesa"));
+                porNumero.put(rs.getInt("numero_mesa"), rs.getInt("id_mesa"));
+            }
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return null;
+        }
+        recargas.increment();
+        return new Copia(porId, porNumero);
+    }
+}
@@ -0,0 +1,227 @@
+package restaurante.services;
+
+import restaurante.api.LineaCocinaAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.Dinero;
+import restaurante.models.EstadoItem;
+import restaurante.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Estado de preparación de las líneas de pedido (PENDIENTE, EN_PREPARACION, LISTO, SERVIDO) con la hora de cada estado.
+ * Requiere las columnas de sql/items_pedido_estado.sql.
+ *
+ * Los cambios se encolan y se escriben por lotes: cada ESCRITURA_MS (o al llegar a LOTE_MAXIMO cambios)
+ * se vuelcan todos en una sola transacción con un único batch JDBC, en el orden en que llegaron.
+ * Si la transacción falla, el lote se conserva y se reintenta por delante de los cambios nuevos, con una espera
+ * que se dobla en cada fallo hasta REINTENTO_MAXIMO_MS; ningún cambio se descarta mientras la aplicación sigue en marcha.
+ * Los avisos "productoListo" de cocina llegan por el bus como PRODUCTO_LISTO.
+ */
+public class EstadoItemsService {
+
+    // Intervalo entre escrituras y tamaño de lote que fuerza una escritura inmediata
+    public static final int ESCRITURA_MS = Integer.getInteger("oidochef.cocina.escrituraMs", 500);
+    public static final int LOTE_MAXIMO = Integer.getInteger("oidochef.cocina.loteMaximo", 100);
+    // Espera máxima entre reintentos mientras la base de datos no responde
+    public static final int REINTENTO_MAXIMO_MS = Integer.getInteger("oidochef.cocina.reintentoMaximoMs", 30_000);
+
+    // La línea se identifica por el pedido abierto de la mesa y el producto (pedido_id + producto_id).
+    // Cada columna de hora se rellena solo la primera vez que se alcanza su estado; volver a PENDIENTE las borra.
+    // SQL estándar (subconsulta y CASE en vez de UPDATE ... JOIN e IF) para que valga también en la base embebida del simulador.
+    private static final String SQL_ACTUALIZAR =
+            "UPDATE items_pedido SET " +
+            "estado = ?, " +
+            "hora_inicio = CASE WHEN ? THEN NULL ELSE COALESCE(hora_inicio, ?) END, " +
+            "hora_listo = CASE WHEN ? THEN NULL ELSE COALESCE(hora_listo, ?) END, " +
+            "hora_servido = CASE WHEN ? THEN NULL ELSE COALESCE(hora_servido, ?) END " +
+            "WHERE producto_id = ? AND pedido_id IN (SELECT id FROM pedido WHERE id_mesa = ? AND cerrado = false)";
+
+    // Todo el tablero de cocina en una consulta: líneas no servidas de los pedidos abiertos
+    private static final String SQL_TABLERO =
+            "SELECT p.id_mesa, m.numero_mesa, p.id AS pedido_id, i.producto_id, pr.nombre, pr.precio, pr.categoria, " +
+            "i.cantidad, i.estado, i.hora_pedido, i.hora_inicio, i.hora_listo " +
+            "FROM pedido p " +
+            "JOIN items_pedido i ON i.pedido_id = p.id " +
+            "JOIN productos pr ON pr.id = i.producto_id " +
+            "LEFT JOIN mesas m ON m.id_mesa = p.id_mesa " +
+            "WHERE p.cerrado = false AND i.estado <> 'SERVIDO' " +
+            "ORDER BY i.hora_pedido, p.id, i.producto_id";
+
+    private static EstadoItemsService instancia;
+
+    // Cambio pendiente de escribir
+    private static final class Cambio {
+        final int mesaId;
+        final int productoId;
+        final EstadoItem estado;
+        final long instante;
+
+        Cambio(int mesaId, int productoId, EstadoItem estado, long instante) {
+            this.mesaId = mesaId;
+            this.productoId = productoId;
+            this.estado = estado;
+            this.instante = instante;
+        }
+    }
+
+    private final Queue<Cambio> pendientes = new ConcurrentLinkedQueue<>();
+
+    // Solo los usa el hilo "estado-items": último lote que no se pudo escribir y espera hasta el siguiente intento
+    private final List<Cambio> fallidos = new ArrayList<>();
+    private long esperaMs;
+    private long reintentarDesde;
+
+    private final ScheduledExecutorService escritor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "estado-items");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private EstadoItemsService() {
+        escritor.scheduleWithFixedDelay(() -> escribirPendientes(false), ESCRITURA_MS, ESCRITURA_MS, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Instancia compartida, suscrita al bus de eventos.
+     */
+    public static synchronized EstadoItemsService getInstancia() {
+        if (instancia == null) {
+            instancia = new EstadoItemsService();
+            BusEventos.getInstancia().suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    private void onEvento(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case PRODUCTO_LISTO:
+                cambiarEstado(evento.getMesaId(), evento.getProductoId(), EstadoItem.LISTO, evento.getInstante());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Encola el cambio de estado de una línea del pedido abierto de una mesa.
+     * Retorna inmediatamente; la escritura se hace en el siguiente lote.
+     */
+    public void cambiarEstado(int mesaId, int productoId, EstadoItem estado, long instante) {
+        if (mesaId <= 0 || productoId <= 0 || estado == null) return; // Aviso sin mesa: no se puede localizar la línea
+        pendientes.add(new Cambio(mesaId, productoId, estado, instante));
+        if (pendientes.size() >= LOTE_MAXIMO) {
+            escritor.execute(() -> escribirPendientes(false));
+        }
+    }
+
+    /**
+     * Escribe ya los cambios pendientes (por ejemplo, antes de reconstruir el tablero o al cerrar),
+     * sin esperar a que pase la espera de un fallo anterior.
+     */
+    public void vaciar() {
+        try {
+            escritor.submit(() -> escribirPendientes(true)).get();
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    // Hilo "estado-items": vuelca la cola en una transacción con un solo batch.
+    // Sin forzar, no se intenta nada hasta que pase la espera del último fallo
+    private void escribirPendientes(boolean forzar) {
+        if (pendientes.isEmpty() && fallidos.isEmpty()) return;
+        if (!forzar && System.currentTimeMillis() < reintentarDesde) return;
+
+        // Lo que falló va primero: así se conserva el orden de llegada
+        List<Cambio> lote = new ArrayList<>(fallidos);
+        fallidos.clear();
+        Cambio cambio;
+        while ((cambio = pendientes.poll()) != null) lote.add(cambio);
+
+        try (Connection conn = DatabaseConnection.getConnection()) {
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(SQL_ACTUALIZAR)) {
+                for (Cambio c : lote) {
+                    boolean reiniciar = c.estado == EstadoItem.PENDIENTE;
+                    Timestamp hora = new Timestamp(c.instante);
+                    stmt.setString(1, c.estado.name());
+                    stmt.setBoolean(2, reiniciar);
+                    stmt.setTimestamp(3, c.estado == EstadoItem.EN_PREPARACION ? hora : null);
+                    stmt.setBoolean(4, reiniciar);
+                    stmt.setTimestamp(5, c.estado == EstadoItem.LISTO ? hora : null);
+                    stmt.setBoolean(6, reiniciar);
+                    stmt.setTimestamp(7, c.estado == EstadoItem.SERVIDO ? hora : null);
+                    stmt.setInt(8, c.productoId);
+                    stmt.setInt(9, c.mesaId);
+                    stmt.addBatch();
+                }
+                stmt.executeBatch();
+                conn.commit();
+            } catch (SQLException e) {
+                conn.rollback();
+                throw e;
+            }
+            esperaMs = 0;
+            reintentarDesde = 0;
+        } catch (SQLException e) {
+            fallidos.addAll(lote);
+            esperaMs = esperaMs == 0 ? ESCRITURA_MS : Math.min(esperaMs * 2, REINTENTO_MAXIMO_MS);
+            reintentarDesde = System.currentTimeMillis() + esperaMs;
+            System.err.println("❌ No se pudo guardar el estado de " + lote.size() + " líneas (se reintenta en "
+                    + esperaMs + " ms): " + e.getMessage());
+        }
+    }
+
+    /**
+     * Tablero de cocina completo (líneas no servidas de los pedidos abiertos) en una sola consulta.
+     * Antes de leer se escriben los cambios pendientes para no devolver un estado atrasado.
+     */
+    public List<LineaCocinaAPI> obtenerTablero() {
+        vaciar();
+        List<LineaCocinaAPI> lineas = new ArrayList<>();
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_TABLERO);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                LineaCocinaAPI linea = new LineaCocinaAPI();
+                linea.setMesaId(rs.getInt("id_mesa"));
+                linea.setNumeroMesa(rs.getInt("numero_mesa"));
+                linea.setPedidoId(rs.getInt("pedido_id"));
+                linea.setProductoId(rs.getInt("producto_id"));
+                linea.setNombreProducto(rs.getString("nombre"));
+                linea.setPrecio(Dinero.de(rs.getBigDecimal("precio")));
+                linea.setCategoria(rs.getString("categoria"));
+                linea.setCantidad(rs.getInt("cantidad"));
+                linea.setEstado(EstadoItem.desde(rs.getString("estado")).name());
+                linea.setHoraPedido(milisegundos(rs.getTimestamp("hora_pedido")));
+                linea.setHoraInicio(milisegundos(rs.getTimestamp("hora_inicio")));
+                linea.setHoraListo(milisegundos(rs.getTimestamp("hora_listo")));
+                lineas.add(linea);
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return lineas;
+    }
+
+    private static long milisegundos(Timestamp hora) {
+        return hora != null ? hora.getTime() : 0;
+    }
+}
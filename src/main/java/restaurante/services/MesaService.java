@@ -1,14 +1,19 @@
 package restaurante.services;
 
-import javafx.scene.Node;
-import javafx.scene.control.Button;
-import javafx.scene.layout.Pane;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.EstadoMesa;
 import restaurante.models.Mesa;
 import restaurante.util.DatabaseConnection;
 
 import java.sql.*;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Servicio que maneja operaciones sobre las mesas en la base de datos.
@@ -16,6 +21,8 @@ import java.util.List;
  */
 public class MesaService {
 
+    private final BusEventos bus = BusEventos.getInstancia();
+
     /**
      * Obtiene todas las mesas existentes desde la base de datos.
      */
@@ -28,15 +35,31 @@ public class MesaService {
              ResultSet rs = stmt.executeQuery(sql)) {
 
             while (rs.next()) {
-                Mesa m = new Mesa(
-                        rs.getInt("id_mesa"),
-                        rs.getInt("numero_mesa"),
-                        rs.getDouble("posicionX"),
-                        rs.getDouble("posicionY"),
-                        rs.getBoolean("ocupada"),
-                        rs.getBoolean("bloqueada")
-                );
-                lista.add(m);
+                lista.add(leerMesa(rs));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return lista;
+    }
+
+    /**
+     * Obtiene solo las mesas de una sala.
+     */
+    public List<Mesa> obtenerPorSala(String sala) {
+        List<Mesa> lista = new ArrayList<>();
+        String sql = "SELECT * FROM mesas WHERE sala = ?";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            stmt.setString(1, sala);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    lista.add(leerMesa(rs));
+                }
             }
 
         } catch (SQLException e) {
@@ -46,11 +69,46 @@ public class MesaService {
         return lista;
     }
 
+    /**
+     * Nombres de las salas que tienen alguna mesa, en orden alfabético.
+     */
+    public List<String> obtenerSalas() {
+        List<String> salas = new ArrayList<>();
+        String sql = "SELECT DISTINCT sala FROM mesas ORDER BY sala";
+
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql);
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                salas.add(rs.getString("sala"));
+            }
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+        }
+
+        return salas;
+    }
+
+    private static Mesa leerMesa(ResultSet rs) throws SQLException {
+        Mesa m = new Mesa(
+                rs.getInt("id_mesa"),
+                rs.getInt("numero_mesa"),
+                rs.getDouble("posicionX"),
+                rs.getDouble("posicionY"),
+                rs.getBoolean("ocupada"),
+                rs.getBoolean("bloqueada")
+        );
+        m.setSala(rs.getString("sala"));
+        return m;
+    }
+
     /**
      * Inserta una nueva mesa en la base de datos.
      */
     public void insertarMesa(Mesa mesa) {
-        String sql = "INSERT INTO mesas (numero_mesa, posicionX, posicionY, ocupada, bloqueada) VALUES (?, ?, ?, ?, ?)";
+        String sql = "INSERT INTO mesas (numero_mesa, posicionX, posicionY, ocupada, bloqueada, sala) VALUES (?, ?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
@@ -60,7 +118,9 @@ public class MesaService {
             stmt.setDouble(3, mesa.getPosicionY());
             stmt.setBoolean(4, mesa.isOcupada());
             stmt.setBoolean(5, mesa.isBloqueada());
+            stmt.setString(6, mesa.getSala());
             stmt.executeUpdate();
+            bus.publicar(EventoDominio.mesasCambiadas()); // Invalida el directorio id → número
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -88,37 +148,111 @@ public class MesaService {
     }
 
     /**
-     * Elimina la última mesa (mayor número) y actualiza el número del resto si es necesario.
+     * Elimina la última mesa (mayor número) de una sala, salvo que tenga un pedido abierto.
+     * Las demás conservan su número, así que no hace falta renumerar.
+     * @return 1 si se eliminó, 0 si la sala no tiene mesas o la última está ocupada, o -1 si hubo un error.
      */
-    public void eliminarUltimaMesa() {
+    public int eliminarUltimaMesa(String sala) {
+        // La tabla derivada evita el error de MySQL al leer en la subconsulta la misma tabla que se borra
+        String sql = "DELETE FROM mesas WHERE sala = ? AND numero_mesa = " +
+                "(SELECT ultima.numero FROM (SELECT MAX(numero_mesa) AS numero FROM mesas WHERE sala = ?) ultima) " +
+                "AND id_mesa NOT IN (SELECT id_mesa FROM pedido WHERE cerrado = false)";
+        return ejecutarCambioMesas(sql, Arrays.asList(sala, sala));
+    }
+
+    // ============ OPERACIONES EN BLOQUE ============
+    // Una sola sentencia por operación y un solo evento mesasCambiadas, afecte a una mesa o a cien.
+
+    /**
+     * Elimina a la vez todas las mesas indicadas que no tengan un pedido abierto.
+     * Los números de las demás no cambian (se pueden compactar con {@link #renumerar}).
+     * @return Número de mesas eliminadas, o -1 si hubo un error.
+     */
+    public int eliminarMesas(Collection<Integer> idsMesa) {
+        if (idsMesa.isEmpty()) return 0;
+        String sql = "DELETE FROM mesas WHERE id_mesa IN (" + marcadores(idsMesa.size()) + ") " +
+                "AND id_mesa NOT IN (SELECT id_mesa FROM pedido WHERE cerrado = false)";
+        return ejecutarCambioMesas(sql, new ArrayList<>(idsMesa));
+    }
+
+    /**
+     * Desplaza los números de un rango de mesas para que empiecen en otro número, conservando su orden
+     * (por ejemplo 41..60 → 21..40 tras cerrar la terraza).
+     * Si algún número del rango de destino lo usa una mesa de fuera del rango de origen no se cambia ninguna:
+     * la comprobación va en la misma sentencia, así que tampoco puede colarse una mesa nueva entre medias.
+     * @return Número de mesas renumeradas (0 si el destino estaba ocupado), o -1 si hubo un error.
+     */
+    public int renumerar(int desde, int hasta, int primerNumero) {
+        if (hasta < desde || primerNumero == desde || primerNumero < 1) return 0;
+        int ultimoNumero = primerNumero + (hasta - desde);
+        // Como en eliminarUltimaMesa, la subconsulta agregada sobre una tabla derivada evita el error de MySQL
+        // al leer la misma tabla que se actualiza
+        String sql = "UPDATE mesas SET numero_mesa = numero_mesa + ? WHERE numero_mesa BETWEEN ? AND ? " +
+                "AND (SELECT ocupadas.total FROM (SELECT COUNT(*) AS total FROM mesas " +
+                "WHERE numero_mesa BETWEEN ? AND ? AND numero_mesa NOT BETWEEN ? AND ?) ocupadas) = 0";
+        return ejecutarCambioMesas(sql, Arrays.asList(primerNumero - desde, desde, hasta,
+                primerNumero, ultimoNumero, desde, hasta));
+    }
+
+    /**
+     * Pasa a otra sala todas las mesas indicadas.
+     * @return Número de mesas movidas, o -1 si hubo un error.
+     */
+    public int moverASala(Collection<Integer> idsMesa, String sala) {
+        if (idsMesa.isEmpty()) return 0;
+        List<Object> parametros = new ArrayList<>(idsMesa.size() + 1);
+        parametros.add(sala);
+        parametros.addAll(idsMesa);
+        String sql = "UPDATE mesas SET sala = ? WHERE id_mesa IN (" + marcadores(idsMesa.size()) + ")";
+        return ejecutarCambioMesas(sql, parametros);
+    }
+
+    // Ejecuta una sentencia que cambia el conjunto de mesas y, si ha tocado alguna, publica un único evento
+    private int ejecutarCambioMesas(String sql, List<?> parametros) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(sql)) {
+
+            for (int i = 0; i < parametros.size(); i++) {
+                stmt.setObject(i + 1, parametros.get(i));
+            }
+            int filas = stmt.executeUpdate();
+            if (filas > 0) {
+                bus.publicar(EventoDominio.mesasCambiadas()); // Invalida el directorio id → número y recarga el plano
+            }
+            return filas;
+
+        } catch (SQLException e) {
+            e.printStackTrace();
+            return -1;
+        }
+    }
+
+    // "?, ?, ?" para una lista IN de n elementos
+    private static String marcadores(int n) {
+        return String.join(", ", Collections.nCopies(n, "?"));
+    }
+
+    /**
+     * Guarda las posiciones de las mesas indicadas (solo las que han cambiado) por id_mesa,
+     * en un solo lote y una sola transacción: o se guardan todas o ninguna.
+     * @return true si se han guardado.
+     */
+    public boolean guardarPosiciones(Collection<Mesa> mesas) {
+        if (mesas.isEmpty()) return true;
+        String sql = "UPDATE mesas SET posicionX = ?, posicionY = ? WHERE id_mesa = ?";
+
         try (Connection conn = DatabaseConnection.getConnection()) {
-            conn.setAutoCommit(false); // Iniciar transacción
-
-            // 1. Obtener última mesa
-            String obtenerUltima = "SELECT id_mesa, numero_mesa FROM mesas ORDER BY numero_mesa DESC LIMIT 1";
-            try (PreparedStatement stmt1 = conn.prepareStatement(obtenerUltima);
-                 ResultSet rs = stmt1.executeQuery()) {
-
-                if (rs.next()) {
-                    int idUltimaMesa = rs.getInt("id_mesa");
-                    int numeroUltimaMesa = rs.getInt("numero_mesa");
-
-                    // 2. Eliminar esa mesa
-                    String eliminar = "DELETE FROM mesas WHERE id_mesa = ?";
-                    try (PreparedStatement stmt2 = conn.prepareStatement(eliminar)) {
-                        stmt2.setInt(1, idUltimaMesa);
-                        stmt2.executeUpdate();
-                    }
-
-                    // 3. Reducir número de las siguientes mesas
-                    String actualizar = "UPDATE mesas SET numero_mesa = numero_mesa - 1 WHERE numero_mesa > ?";
-                    try (PreparedStatement stmt3 = conn.prepareStatement(actualizar)) {
-                        stmt3.setInt(1, numeroUltimaMesa);
-                        stmt3.executeUpdate();
-                    }
-
-                    conn.commit(); // Confirmar cambios
+            conn.setAutoCommit(false);
+            try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+                for (Mesa mesa : mesas) {
+                    stmt.setDouble(1, mesa.getPosicionX());
+                    stmt.setDouble(2, mesa.getPosicionY());
+                    stmt.setInt(3, mesa.getIdMesa());
+                    stmt.addBatch(); // Añadir a lote
                 }
+                stmt.executeBatch(); // Ejecutar todas las actualizaciones juntas
+                conn.commit();
+                return true;
             } catch (SQLException e) {
                 conn.rollback(); // Si falla algo, deshacer
                 throw e;
@@ -127,39 +261,38 @@ public class MesaService {
             }
 
         } catch (SQLException e) {
+            System.err.println("❌ Error al guardar posiciones de mesas: " + e.getMessage());
             e.printStackTrace();
+            return false;
         }
     }
 
     /**
-     * Guarda las posiciones de las mesas representadas como botones dentro de un Pane.
-     * Utiliza el texto del botón como número de mesa.
+     * Estado del pedido activo (no cerrado) de cada mesa de una sala que tiene uno, en una sola consulta:
+     * EN_COCINA si ya se envió a cocina, CON_PEDIDO si no. Clave: id_mesa.
      */
-    public void guardarPosicionesDesdePane(Pane pane) {
-        String sql = "UPDATE mesas SET posicionX = ?, posicionY = ? WHERE numero_mesa = ?";
+    public Map<Integer, EstadoMesa> obtenerEstadosPedido(String sala) {
+        Map<Integer, EstadoMesa> estados = new HashMap<>();
+        String sql = "SELECT p.id_mesa, p.enviado_a_cocina FROM pedido p " +
+                "JOIN mesas m ON m.id_mesa = p.id_mesa WHERE p.cerrado = false AND m.sala = ?";
 
         try (Connection conn = DatabaseConnection.getConnection();
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
-            for (Node node : pane.getChildren()) {
-                if (node instanceof Button) {
-                    Button btn = (Button) node;
-                    String text = btn.getText().replace("Mesa ", ""); // Extrae el número de mesa
-                    int numero = Integer.parseInt(text);
-                    double x = btn.getLayoutX();
-                    double y = btn.getLayoutY();
-
-                    stmt.setDouble(1, x);
-                    stmt.setDouble(2, y);
-                    stmt.setInt(3, numero);
-                    stmt.addBatch(); // Añadir a lote
+            stmt.setString(1, sala);
+            try (ResultSet rs = stmt.executeQuery()) {
+                while (rs.next()) {
+                    EstadoMesa estado = rs.getBoolean("enviado_a_cocina") ? EstadoMesa.EN_COCINA : EstadoMesa.CON_PEDIDO;
+                    // Con varios pedidos abiertos en la misma mesa basta uno enviado
+                    estados.merge(rs.getInt("id_mesa"), estado, (a, b) -> a == EstadoMesa.EN_COCINA ? a : b);
                 }
             }
-            stmt.executeBatch(); // Ejecutar todas las actualizaciones juntas
 
         } catch (SQLException e) {
             e.printStackTrace();
         }
+
+        return estados;
     }
 
     /**
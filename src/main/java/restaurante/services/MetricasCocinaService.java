@@ -0,0 +1,313 @@
+package restaurante.services;
+
+import restaurante.api.LineaCocinaAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.EstadoItem;
+import restaurante.models.Dinero;
+import restaurante.models.Estacion;
+import restaurante.models.ItemPedido;
+import restaurante.models.Pedido;
+import restaurante.models.Producto;
+import restaurante.util.DatabaseConnection;
+import restaurante.util.HistogramaDeslizante;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/**
+ * Tiempos de cocina para dimensionar el personal en las horas punta:
+ * - envío → primer plato listo de cada comanda,
+ * - envío → listo de cada línea (total, por estación y por producto),
+ * - comandas enviadas por tramo de 15 minutos.
+ *
+ * Se alimenta de los eventos de pedido y PRODUCTO_LISTO del bus y guarda las medidas en histogramas deslizantes
+ * en memoria (HistogramaDeslizante). Las medidas se cuentan en el tramo de la hora de envío, así los tramos
+ * muestran cuándo entró el trabajo. Al arrancar se recupera la ventana con las columnas hora_* de items_pedido.
+ */
+public class MetricasCocinaService {
+
+    // Tamaño de tramo y de ventana de los histogramas
+    public static final int TRAMO_MINUTOS = Integer.getInteger("oidochef.metricas.tramoMinutos", 15);
+    public static final int VENTANA_HORAS = Integer.getInteger("oidochef.metricas.ventanaHoras", 12);
+
+    private static final long TRAMO_MS = TRAMO_MINUTOS * 60_000L;
+    private static final int TRAMOS = Math.max(1, VENTANA_HORAS * 60 / TRAMO_MINUTOS);
+
+    // Líneas pedidas en la ventana (una consulta): por pedido, primero las listas por hora_listo y después las pendientes
+    private static final String SQL_HISTORICO =
+            "SELECT i.pedido_id, i.producto_id, pr.nombre, pr.categoria, i.hora_pedido, i.hora_listo " +
+            "FROM items_pedido i JOIN productos pr ON pr.id = i.producto_id " +
+            "WHERE i.hora_pedido >= ? " +
+            "ORDER BY i.pedido_id, i.hora_listo IS NULL, i.hora_listo";
+
+    private static MetricasCocinaService instancia;
+
+    // Comanda de una mesa en cocina: hora de envío y hora de envío de cada línea aún no lista
+    private static final class Comanda {
+        final long envio;
+        final Map<Integer, Long> pendientes = new HashMap<>();
+        final Set<Integer> listas = new HashSet<>();
+        boolean primerListo;
+
+        Comanda(long envio) {
+            this.envio = envio;
+        }
+    }
+
+    private final Function<Producto, Estacion> estaciones;
+
+    private final HistogramaDeslizante envioPrimerListo = new HistogramaDeslizante(TRAMO_MS, TRAMOS);
+    // Una muestra (duración 0) por comanda, en el tramo de su envío: cuenta las comandas aunque no haya salido ningún plato
+    private final HistogramaDeslizante comandasEnviadas = new HistogramaDeslizante(TRAMO_MS, TRAMOS);
+    private final HistogramaDeslizante envioListo = new HistogramaDeslizante(TRAMO_MS, TRAMOS);
+    private final Map<Estacion, HistogramaDeslizante> listoPorEstacion = new EnumMap<>(Estacion.class);
+    private final Map<Integer, HistogramaDeslizante> listoPorProducto = new ConcurrentHashMap<>();
+    private final Map<Integer, Producto> productos = new ConcurrentHashMap<>();
+
+    // mesaId → comanda abierta. Solo se modifica con el monitor tomado.
+    private final Map<Integer, Comanda> comandas = new HashMap<>();
+
+    /**
+     * Crea un servicio sin base de datos ni bus (para pruebas).
+     * @param estaciones Estación que prepara cada producto (null si no pasa por cocina).
+     */
+    public MetricasCocinaService(Function<Producto, Estacion> estaciones) {
+        this.estaciones = estaciones;
+        for (Estacion estacion : Estacion.values()) {
+            listoPorEstacion.put(estacion, new HistogramaDeslizante(TRAMO_MS, TRAMOS));
+        }
+    }
+
+    /**
+     * Instancia compartida. Recupera la ventana guardada y las comandas abiertas y se suscribe al bus.
+     */
+    public static synchronized MetricasCocinaService getInstancia() {
+        if (instancia == null) {
+            RutasCocinaService rutas = RutasCocinaService.getInstancia();
+            instancia = new MetricasCocinaService(rutas::estacionDe);
+            instancia.cargarHistorico(System.currentTimeMillis() - (long) TRAMOS * TRAMO_MS);
+            instancia.cargarTablero(EstadoItemsService.getInstancia().obtenerTablero());
+            BusEventos.getInstancia().suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    private void onEvento(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case PEDIDO_CREADO:
+            case PEDIDO_ACTUALIZADO:
+            case PEDIDO_ENVIADO_COCINA:
+                if (evento.getPedido() != null) {
+                    registrarEnvio(evento.getMesaId(), evento.getPedido().getItems(), horaEnvio(evento), evento.getInstante());
+                }
+                break;
+            case PRODUCTO_LISTO:
+                registrarListo(evento.getMesaId(), evento.getProductoId(), evento.getInstante());
+                break;
+            case PEDIDO_CERRADO:
+                cerrarMesa(evento.getMesaId());
+                break;
+            default:
+                break;
+        }
+    }
+
+    /**
+     * Anota las líneas de cocina nuevas de una mesa. La primera vez abre la comanda con su hora de envío
+     * y la cuenta en el tramo de ese envío; las líneas que se añaden después cuentan desde el momento en que llegan.
+     * @param envio    Hora de envío a cocina del pedido (ms).
+     * @param instante Momento del evento (ms).
+     */
+    public synchronized void registrarEnvio(int mesaId, List<ItemPedido> items, long envio, long instante) {
+        Comanda comanda = comandas.get(mesaId);
+        long llegada = comanda != null ? instante : envio; // Las líneas de una comanda nueva cuentan desde el envío
+        for (ItemPedido item : items) {
+            Producto producto = item.getProducto();
+            if (producto == null || estaciones.apply(producto) == null) continue;
+            if (comanda == null) {
+                comanda = new Comanda(envio);
+                comandas.put(mesaId, comanda);
+                comandasEnviadas.registrar(envio, 0);
+            }
+            productos.put(producto.getId(), producto);
+            if (!comanda.listas.contains(producto.getId())) {
+                comanda.pendientes.putIfAbsent(producto.getId(), llegada);
+            }
+        }
+    }
+
+    /**
+     * Mide una línea marcada como lista: envío → listo y, si es la primera de la comanda, envío → primer listo.
+     */
+    public synchronized void registrarListo(int mesaId, int productoId, long instante) {
+        Comanda comanda = comandas.get(mesaId);
+        if (comanda == null) return; // Aviso sin mesa o de una comanda anterior al arranque
+        Long envio = comanda.pendientes.remove(productoId);
+        if (envio == null) return;
+        comanda.listas.add(productoId);
+
+        envioListo.registrar(envio, instante - envio);
+        Producto producto = productos.get(productoId);
+        Estacion estacion = producto != null ? estaciones.apply(producto) : null;
+        if (estacion != null) listoPorEstacion.get(estacion).registrar(envio, instante - envio);
+        listoPorProducto.computeIfAbsent(productoId, p -> new HistogramaDeslizante(TRAMO_MS, TRAMOS))
+                .registrar(envio, instante - envio);
+
+        if (!comanda.primerListo) {
+            comanda.primerListo = true;
+            envioPrimerListo.registrar(comanda.envio, instante - comanda.envio);
+        }
+    }
+
+    /**
+     * La mesa se cobra o se elimina: la comanda deja de seguirse.
+     */
+    public synchronized void cerrarMesa(int mesaId) {
+        comandas.remove(mesaId);
+    }
+
+    /**
+     * Métricas de la ventana que termina en {@code ahora}, para exponer por REST y en el panel de cocina.
+     */
+    public Map<String, Object> getMetricas(long ahora) {
+        Map<String, Object> porEstacion = new LinkedHashMap<>();
+        listoPorEstacion.forEach((estacion, histograma) -> {
+            HistogramaDeslizante.Resumen resumen = histograma.resumen(ahora);
+            if (resumen.getMuestras() > 0) porEstacion.put(estacion.getCodigo(), resumen);
+        });
+
+        List<Map<String, Object>> porProducto = new ArrayList<>();
+        listoPorProducto.forEach((productoId, histograma) -> {
+            HistogramaDeslizante.Resumen resumen = histograma.resumen(ahora);
+            if (resumen.getMuestras() == 0) return;
+            Producto producto = productos.get(productoId);
+            Map<String, Object> fila = new LinkedHashMap<>();
+            fila.put("productoId", productoId);
+            fila.put("nombre", producto != null ? producto.getNombre() : "Producto #" + productoId);
+            fila.put("tiempos", resumen);
+            porProducto.add(fila);
+        });
+
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("tramoMinutos", TRAMO_MINUTOS);
+        metricas.put("ventanaHoras", VENTANA_HORAS);
+        metricas.put("envioPrimerListo", envioPrimerListo.resumen(ahora));
+        metricas.put("envioListo", envioListo.resumen(ahora));
+        metricas.put("envioListoPorEstacion", porEstacion);
+        metricas.put("envioListoPorProducto", porProducto);
+        metricas.put("comandasPorTramo", getComandasPorTramo(ahora));
+        synchronized (this) {
+            metricas.put("comandasAbiertas", comandas.size());
+        }
+        return metricas;
+    }
+
+    public HistogramaDeslizante.Resumen getEnvioPrimerListo(long ahora) {
+        return envioPrimerListo.resumen(ahora);
+    }
+
+    public HistogramaDeslizante.Resumen getEnvioListo(long ahora) {
+        return envioListo.resumen(ahora);
+    }
+
+    public HistogramaDeslizante.Resumen getEnvioListo(Estacion estacion, long ahora) {
+        return listoPorEstacion.get(estacion).resumen(ahora);
+    }
+
+    /**
+     * Comandas enviadas en cada tramo de la ventana, de la más antigua a la actual.
+     * Una comanda se cuenta en el tramo de su envío desde que llega a cocina, sin esperar a su primer plato.
+     */
+    public long[] getComandasPorTramo(long ahora) {
+        return comandasEnviadas.muestrasPorTramo(ahora);
+    }
+
+    // Recupera las medidas de la ventana a partir de las horas guardadas en items_pedido
+    private void cargarHistorico(long desde) {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(SQL_HISTORICO)) {
+            stmt.setTimestamp(1, new Timestamp(desde));
+            try (ResultSet rs = stmt.executeQuery()) {
+                int pedidoAnterior = -1;
+                long envioComanda = 0;
+                boolean primerListo = false;
+                while (rs.next()) {
+                    Producto producto = new Producto(rs.getInt("producto_id"), rs.getString("nombre"), "", Dinero.CERO,
+                            rs.getString("categoria"), true);
+                    long envio = rs.getTimestamp("hora_pedido").getTime();
+                    Timestamp horaListo = rs.getTimestamp("hora_listo");
+                    if (estaciones.apply(producto) == null) continue;
+
+                    synchronized (this) {
+                        productos.put(producto.getId(), producto);
+                        if (rs.getInt("pedido_id") != pedidoAnterior) {
+                            pedidoAnterior = rs.getInt("pedido_id");
+                            envioComanda = envio;
+                            primerListo = false;
+                            comandasEnviadas.registrar(envioComanda, 0);
+                        }
+                        if (horaListo == null) continue; // Línea aún pendiente: solo cuenta la comanda
+                        long listo = horaListo.getTime();
+                        if (!primerListo) {
+                            // Las filas listas vienen por hora_listo: la primera de cada pedido es su primer plato
+                            primerListo = true;
+                            envioPrimerListo.registrar(envioComanda, listo - envioComanda);
+                        }
+                        envioListo.registrar(envio, listo - envio);
+                        Estacion estacion = estaciones.apply(producto);
+                        listoPorEstacion.get(estacion).registrar(envio, listo - envio);
+                        listoPorProducto.computeIfAbsent(producto.getId(), p -> new HistogramaDeslizante(TRAMO_MS, TRAMOS))
+                                .registrar(envio, listo - envio);
+                    }
+                }
+            }
+        } catch (SQLException e) {
+            System.err.println("No se pudo recuperar el histórico de tiempos de cocina: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Reabre las comandas del tablero guardado, para medir las líneas que se terminen después de un reinicio.
+     */
+    public synchronized void cargarTablero(List<LineaCocinaAPI> lineas) {
+        for (LineaCocinaAPI linea : lineas) {
+            Producto producto = new Producto(linea.getProductoId(), linea.getNombreProducto(), "",
+                    linea.getPrecio(), linea.getCategoria(), true);
+            if (estaciones.apply(producto) == null) continue;
+            productos.put(producto.getId(), producto);
+
+            long envio = linea.getHoraPedido() > 0 ? linea.getHoraPedido() : System.currentTimeMillis();
+            Comanda comanda = comandas.computeIfAbsent(linea.getMesaId(), m -> new Comanda(envio));
+            if (EstadoItem.desde(linea.getEstado()) == EstadoItem.LISTO) {
+                comanda.listas.add(producto.getId());
+                comanda.primerListo = true;
+            } else {
+                comanda.pendientes.putIfAbsent(producto.getId(), envio);
+            }
+        }
+    }
+
+    // Hora de envío a cocina del pedido o, si no la tiene, la de publicación del evento
+    private static long horaEnvio(EventoDominio evento) {
+        Pedido pedido = evento.getPedido();
+        if (pedido.getHoraEnvio() != null) {
+            return pedido.getHoraEnvio().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return evento.getInstante();
+    }
+}
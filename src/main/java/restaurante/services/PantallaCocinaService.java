@@ -0,0 +1,204 @@
+package restaurante.services;
+
+import javafx.application.Platform;
+import restaurante.api.LineaCocinaAPI;
+import restaurante.controllers.CocinaController;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.EstadoItem;
+import restaurante.models.ItemPedido;
+import restaurante.models.Pedido;
+import restaurante.models.Producto;
+
+import java.io.IOException;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pantalla de cocina única de la aplicación.
+ *
+ * Se alimenta de los eventos de pedido del bus: quien crea, modifica o cierra un pedido solo publica
+ * el evento y esta clase actualiza la ventana de cocina, que se crea una sola vez y se reutiliza.
+ * Los eventos que llegan seguidos se agrupan por mesa y se aplican en una única pasada del hilo de JavaFX.
+ * Al crear la ventana se reconstruye el tablero guardado (EstadoItemsService), así un reinicio no pierde el progreso.
+ */
+public class PantallaCocinaService {
+
+    private static PantallaCocinaService instancia;
+
+    // Último evento de cada mesa pendiente de pintar (clave: mesaId)
+    private final Map<Integer, EventoDominio> pendientes = new ConcurrentHashMap<>();
+
+    // Último recuento "all-day" de cada producto pendiente de pintar (clave: productoId)
+    private final Map<Integer, EventoDominio> conteos = new ConcurrentHashMap<>();
+
+    // Avisos de producto listo pendientes de pintar, en orden de llegada (por REST, desde otra pantalla...)
+    private final Queue<EventoDominio> listos = new ConcurrentLinkedQueue<>();
+
+    // true si ya hay una actualización programada en el hilo de JavaFX
+    private final AtomicBoolean actualizacionProgramada = new AtomicBoolean(false);
+
+    // Controlador de la ventana; solo se usa desde el hilo de JavaFX
+    private CocinaController cocina;
+
+    private PantallaCocinaService() {
+    }
+
+    /**
+     * Instancia única. La primera llamada la suscribe al bus de eventos, por lo que conviene
+     * hacerla al arrancar la aplicación para no perder pedidos.
+     */
+    public static synchronized PantallaCocinaService getInstancia() {
+        if (instancia == null) {
+            instancia = new PantallaCocinaService();
+            BusEventos.getInstancia().suscribir(instancia::onEvento);
+        }
+        return instancia;
+    }
+
+    /**
+     * Muestra la ventana de cocina (creándola si todavía no existe) y la trae al frente.
+     * Debe llamarse desde el hilo de JavaFX.
+     */
+    public void mostrar() {
+        if (obtenerVentana() != null) {
+            cocina.mostrar();
+        }
+    }
+
+    /**
+     * Número de comandas (mesas) abiertas en la pantalla de cocina.
+     */
+    public int getComandasAbiertas() {
+        return cocina != null ? cocina.getComandasAbiertas() : 0;
+    }
+
+    // Hilo del bus: guarda el último estado de la mesa y programa una sola actualización de la interfaz
+    private void onEvento(EventoDominio evento) {
+        switch (evento.getTipo()) {
+            case PEDIDO_CREADO:
+            case PEDIDO_ACTUALIZADO:
+            case PEDIDO_ENVIADO_COCINA:
+                if (evento.getPedido() == null) return;
+                pendientes.put(evento.getMesaId(), evento);
+                break;
+            case PEDIDO_CERRADO:
+                pendientes.put(evento.getMesaId(), evento);
+                break;
+            case CONTEO_COCINA:
+                conteos.put(evento.getProductoId(), evento);
+                break;
+            case PRODUCTO_LISTO:
+                if (evento.getMesaId() <= 0) return;
+                listos.add(evento);
+                break;
+            default:
+                return;
+        }
+        if (actualizacionProgramada.compareAndSet(false, true)) {
+            Platform.runLater(this::aplicarPendientes);
+        }
+    }
+
+    // Hilo de JavaFX: aplica todas las mesas acumuladas desde la última vez
+    private void aplicarPendientes() {
+        actualizacionProgramada.set(false);
+        if (obtenerVentana() == null) return;
+
+        boolean hayPedidos = false;
+        for (Integer mesaId : new ArrayList<>(pendientes.keySet())) {
+            EventoDominio evento = pendientes.remove(mesaId);
+            if (evento == null) continue;
+            if (evento.getTipo() == TipoEvento.PEDIDO_CERRADO) {
+                cocina.retirarMesa(mesaId);
+            } else {
+                cocina.cargarProductosParaCocina(evento.getPedido().getItems(), mesaId, horaEnvio(evento));
+                hayPedidos = true;
+            }
+        }
+
+        // Después de los pedidos, para que la línea ya esté en pantalla; marcar una línea ya lista no hace nada
+        EventoDominio listo;
+        while ((listo = listos.poll()) != null) {
+            if (cocina.tieneMesa(listo.getMesaId())) cocina.restaurarListo(listo.getMesaId(), listo.getProductoId());
+        }
+
+        for (Integer productoId : new ArrayList<>(conteos.keySet())) {
+            EventoDominio conteo = conteos.remove(productoId);
+            if (conteo != null) cocina.actualizarConteo(conteo.getProducto(), conteo.getCantidad(), conteo.getCantidadCategoria());
+        }
+
+        // Como hacía la ventana por pedido: si llega trabajo nuevo, la cocina se ve
+        if (hayPedidos) cocina.mostrar();
+    }
+
+    // Hora de envío a cocina del pedido o, si no la tiene, la de publicación del evento
+    private static long horaEnvio(EventoDominio evento) {
+        Pedido pedido = evento.getPedido();
+        if (pedido.getHoraEnvio() != null) {
+            return pedido.getHoraEnvio().atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+        }
+        return evento.getInstante();
+    }
+
+    // Crea la ventana la primera vez (sin mostrarla) y la devuelve
+    private CocinaController obtenerVentana() {
+        if (cocina == null) {
+            try {
+                cocina = CocinaController.crearVentana();
+                reconstruirTablero();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+        return cocina;
+    }
+
+    // Lee el tablero guardado fuera del hilo de JavaFX (una consulta) y lo aplica después en él
+    private void reconstruirTablero() {
+        Thread hilo = new Thread(() -> {
+            List<LineaCocinaAPI> lineas = EstadoItemsService.getInstancia().obtenerTablero();
+            Platform.runLater(() -> aplicarTablero(lineas));
+        }, "tablero-cocina");
+        hilo.setDaemon(true);
+        hilo.start();
+    }
+
+    // Hilo de JavaFX: pinta las mesas del tablero y restaura las líneas que ya estaban listas
+    private void aplicarTablero(List<LineaCocinaAPI> lineas) {
+        Map<Integer, List<LineaCocinaAPI>> porMesa = new LinkedHashMap<>();
+        for (LineaCocinaAPI linea : lineas) {
+            porMesa.computeIfAbsent(linea.getMesaId(), m -> new ArrayList<>()).add(linea);
+        }
+
+        for (Map.Entry<Integer, List<LineaCocinaAPI>> mesa : porMesa.entrySet()) {
+            int mesaId = mesa.getKey();
+            if (cocina.tieneMesa(mesaId)) continue; // Ya llegó un evento más reciente de esta mesa
+
+            List<ItemPedido> items = new ArrayList<>();
+            long horaEnvio = Long.MAX_VALUE;
+            for (LineaCocinaAPI linea : mesa.getValue()) {
+                Producto producto = new Producto(linea.getProductoId(), linea.getNombreProducto(), "",
+                        linea.getPrecio(), linea.getCategoria(), true);
+                items.add(new ItemPedido(producto, linea.getCantidad()));
+                if (linea.getHoraPedido() > 0) horaEnvio = Math.min(horaEnvio, linea.getHoraPedido());
+            }
+            cocina.cargarProductosParaCocina(items, mesaId,
+                    horaEnvio != Long.MAX_VALUE ? horaEnvio : System.currentTimeMillis());
+
+            for (int i = 0; i < items.size(); i++) {
+                if (EstadoItem.desde(mesa.getValue().get(i).getEstado()) == EstadoItem.LISTO) {
+                    cocina.restaurarListo(mesaId, items.get(i).getProducto().getId());
+                }
+            }
+        }
+    }
+}
@@ -3,9 +3,12 @@ package restaurante.services;
 import restaurante.api.ItemPedidoAPI;
 import restaurante.api.MesaAPI;
 import restaurante.api.PedidoAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
 import restaurante.models.ItemPedido;
 import restaurante.models.Mesa;
 import restaurante.models.Pedido;
+import restaurante.models.Dinero;
 import restaurante.models.Producto;
 import restaurante.util.DatabaseConnection;
 
@@ -22,6 +25,9 @@ public class PedidoService {
     // Servicio para obtener datos de productos
     private final ProductoService productoService = new ProductoService();
 
+    // Bus donde se publican los cambios de pedidos y mesas
+    private final BusEventos bus = BusEventos.getInstancia();
+
     /**
      * Guarda o actualiza un pedido recibido desde Android o JavaFX.
      * Si ya existe un pedido activo para la mesa, actualiza los productos existentes.
@@ -44,6 +50,7 @@ public class PedidoService {
                     actualizarOInsertarItem(itemAPI, pedidoExistente.getId(), conn);
                 }
                 pedidoExistente.setItems(convertirItems(itemListByPedidoId(pedidoExistente.getId(), conn)));
+                bus.publicar(EventoDominio.pedidoActualizado(pedidoExistente));
                 return pedidoExistente;
             }
 
@@ -64,6 +71,8 @@ public class PedidoService {
             nuevo.setNumPersonas(pedidoAPI.getNumPersonas());
             nuevo.setItems(convertirItems(itemListByPedidoId(nuevoPedidoId, conn)));
 
+            bus.publicar(EventoDominio.pedidoCreado(nuevo));
+            bus.publicar(EventoDominio.mesaEstado(nuevo.getMesaId(), true));
             return nuevo;
 
         } catch (SQLException e) {
@@ -132,7 +141,6 @@ public class PedidoService {
                 pedido.setCerrado(rs.getBoolean("cerrado"));
                 pedido.setEnviadoACocina(rs.getBoolean("enviado_a_cocina"));
                 pedido.setItems(convertirItems(itemListByPedidoId(pedido.getId(), conn)));
-                pedido.calcularTotal();
                 return pedido;
             }
         }
@@ -164,7 +172,7 @@ public class PedidoService {
                 items.add(new ItemPedidoAPI(
                         rs.getInt("id"),
                         rs.getString("nombre"),
-                        rs.getDouble("precio"),
+                        Dinero.de(rs.getBigDecimal("precio")),
                         rs.getInt("cantidad")
                 ));
             }
@@ -208,7 +216,7 @@ public class PedidoService {
                         rs.getInt("id"),
                         rs.getString("nombre"),
                         rs.getString("descripcion"),
-                        rs.getDouble("precio"),
+                        Dinero.de(rs.getBigDecimal("precio")),
                         rs.getString("categoria"),
                         rs.getBoolean("tiene_iva")
                 );
@@ -234,7 +242,10 @@ public class PedidoService {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, pedido.getId());
-            stmt.executeUpdate();
+            if (stmt.executeUpdate() > 0) {
+                pedido.setEnviadoACocina(true);
+                bus.publicar(EventoDominio.pedidoEnviadoCocina(pedido));
+            }
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -253,7 +264,9 @@ public class PedidoService {
             String eliminarPedido = "DELETE FROM pedido WHERE id_mesa = ? AND cerrado = false";
             try (PreparedStatement stmtPedido = conn.prepareStatement(eliminarPedido)) {
                 stmtPedido.setInt(1, mesaId);
-                stmtPedido.executeUpdate();
+                if (stmtPedido.executeUpdate() > 0) {
+                    publicarCierre(mesaId);
+                }
             }
 
             return true;
@@ -322,6 +335,8 @@ public class PedidoService {
             }
 
             conn.commit();
+            bus.publicar(EventoDominio.pedidoCreado(pedido));
+            bus.publicar(EventoDominio.mesaEstado(pedido.getMesaId(), true));
             return pedido;
 
         } catch (SQLException e) {
@@ -338,6 +353,9 @@ public class PedidoService {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
             stmt.setInt(1, mesaId);
             int filas = stmt.executeUpdate();
+            if (filas > 0) {
+                publicarCierre(mesaId);
+            }
             return filas > 0;
         } catch (SQLException e) {
             e.printStackTrace();
@@ -345,9 +363,18 @@ public class PedidoService {
         }
     }
 
+    // Notifica que la mesa ya no tiene pedido activo (cobrado o eliminado)
+    private void publicarCierre(int mesaId) {
+        bus.publicar(EventoDominio.pedidoCerrado(mesaId));
+        bus.publicar(EventoDominio.mesaEstado(mesaId, false));
+    }
+
     // Actualiza cantidad si el producto ya existe en el pedido, si no lo inserta
     private void actualizarOInsertarItem(ItemPedidoAPI item, int pedidoId, Connection conn) throws SQLException {
-        String sqlUpdate = "UPDATE items_pedido SET cantidad = cantidad + ? WHERE pedido_id = ? AND producto_id = ?";
+        // Las unidades nuevas hay que prepararlas: la línea vuelve entera a PENDIENTE (ver EstadoItemsService).
+        // ConteoCocinaService y ColaComandas aplican la misma regla en memoria, así que un reinicio no cambia el recuento
+        String sqlUpdate = "UPDATE items_pedido SET cantidad = cantidad + ?, estado = 'PENDIENTE', " +
+                "hora_inicio = NULL, hora_listo = NULL, hora_servido = NULL WHERE pedido_id = ? AND producto_id = ?";
         try (PreparedStatement stmt = conn.prepareStatement(sqlUpdate)) {
             stmt.setInt(1, item.getCantidad());
             stmt.setInt(2, pedidoId);
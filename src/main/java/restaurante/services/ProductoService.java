@@ -1,5 +1,8 @@
 package restaurante.services;
 
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.Dinero;
 import restaurante.models.Producto;
 import restaurante.models.Usuario;
 import restaurante.util.DatabaseConnection;
@@ -30,7 +33,7 @@ public class ProductoService {
                         rs.getInt("id"),
                         rs.getString("nombre"),
                         rs.getString("descripcion"),
-                        rs.getDouble("precio"),
+                        Dinero.de(rs.getBigDecimal("precio")),
                         rs.getString("categoria"),
                         rs.getBoolean("tiene_iva")
                 );
@@ -75,15 +78,20 @@ public class ProductoService {
         String sql = "INSERT INTO productos (nombre, descripcion, precio, categoria, tiene_iva) VALUES (?, ?, ?, ?, ?)";
 
         try (Connection conn = DatabaseConnection.getConnection();
-             PreparedStatement stmt = conn.prepareStatement(sql)) {
+             PreparedStatement stmt = conn.prepareStatement(sql, Statement.RETURN_GENERATED_KEYS)) {
 
             stmt.setString(1, producto.getNombre());
             stmt.setString(2, producto.getDescripcion());
-            stmt.setDouble(3, producto.getPrecio());
+            stmt.setBigDecimal(3, producto.getPrecio().toBigDecimal());
             stmt.setString(4, producto.getCategoria());
             stmt.setBoolean(5, producto.isTieneIva());
 
-            return stmt.executeUpdate() > 0;
+            boolean creado = stmt.executeUpdate() > 0;
+            Producto conId = producto;
+            try (ResultSet rs = stmt.getGeneratedKeys()) {
+                if (rs.next()) conId = producto.conId(rs.getInt(1)); // El evento lleva el ID asignado
+            }
+            return publicarSiCambio(creado, conId);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -104,12 +112,12 @@ public class ProductoService {
 
             stmt.setString(1, producto.getNombre());
             stmt.setString(2, producto.getDescripcion());
-            stmt.setDouble(3, producto.getPrecio());
+            stmt.setBigDecimal(3, producto.getPrecio().toBigDecimal());
             stmt.setString(4, producto.getCategoria());
             stmt.setBoolean(5, producto.isTieneIva());
             stmt.setInt(6, producto.getId());
 
-            return stmt.executeUpdate() > 0;
+            return publicarSiCambio(stmt.executeUpdate() > 0, producto);
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -129,7 +137,11 @@ public class ProductoService {
              PreparedStatement stmt = conn.prepareStatement(sql)) {
 
             stmt.setInt(1, id);
-            return stmt.executeUpdate() > 0;
+            boolean eliminado = stmt.executeUpdate() > 0;
+            if (eliminado) {
+                BusEventos.getInstancia().publicar(EventoDominio.productoEliminado(id));
+            }
+            return eliminado;
 
         } catch (SQLException e) {
             e.printStackTrace();
@@ -153,6 +165,14 @@ public class ProductoService {
         return agrupados;
     }
 
+    // Publica PRODUCTO_CAMBIADO cuando la escritura afectó a alguna fila
+    private boolean publicarSiCambio(boolean cambiado, Producto producto) {
+        if (cambiado) {
+            BusEventos.getInstancia().publicar(EventoDominio.productoCambiado(producto));
+        }
+        return cambiado;
+    }
+
     /**
      * Mapea un ResultSet a un objeto Producto.
      * @param rs ResultSet que contiene los datos de un producto
@@ -164,7 +184,7 @@ public class ProductoService {
                 rs.getInt("id"),
                 rs.getString("nombre"),
                 rs.getString("descripcion"),
-                rs.getDouble("precio"),
+                Dinero.de(rs.getBigDecimal("precio")),
                 rs.getString("categoria"),
                 rs.getBoolean("tiene_iva")
         );
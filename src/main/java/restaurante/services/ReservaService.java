@@ -1,5 +1,7 @@
 package restaurante.services;
 
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
 import restaurante.models.Reserva;
 import restaurante.util.DatabaseConnection;
 
@@ -16,6 +18,8 @@ import static restaurante.util.DatabaseConnection.getConnection;
  */
 public class ReservaService {
 
+    private final BusEventos bus = BusEventos.getInstancia();
+
     /**
      * Inserta una nueva reserva en la base de datos.
      * @param reserva Objeto Reserva con la información a guardar.
@@ -38,6 +42,9 @@ public class ReservaService {
             statement.setString(7, reserva.getEstado());
 
             int result = statement.executeUpdate();
+            if (result > 0 && "ACTIVA".equals(reserva.getEstado()) && esDeHoy(reserva.getFechaReserva())) {
+                bus.publicar(EventoDominio.mesaReservada(reserva.getIdMesa(), true));
+            }
             return result > 0;
 
         } catch (SQLException e) {
@@ -90,13 +97,38 @@ public class ReservaService {
              PreparedStatement pstmt = conn.prepareStatement(sql)) {
 
             pstmt.setInt(1, idReserva);
-            return pstmt.executeUpdate() > 0;
+            if (pstmt.executeUpdate() == 0) return false;
+            publicarSiEsDeHoy(conn, idReserva);
+            return true;
         } catch (SQLException e) {
             e.printStackTrace();
             return false;
         }
     }
 
+    // Si la reserva cancelada era de hoy, avisa de si a la mesa le queda alguna otra reserva activa hoy
+    private void publicarSiEsDeHoy(Connection conn, int idReserva) throws SQLException {
+        String sql = "SELECT r.mesa_id, r.fecha_reserva, " +
+                "(SELECT COUNT(*) FROM reservas o WHERE o.mesa_id = r.mesa_id AND o.estado = 'ACTIVA' " +
+                "AND DATE(o.fecha_reserva) = ?) AS activas " +
+                "FROM reservas r WHERE r.id = ?";
+
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            stmt.setDate(1, Date.valueOf(LocalDate.now()));
+            stmt.setInt(2, idReserva);
+            try (ResultSet rs = stmt.executeQuery()) {
+                if (rs.next() && esDeHoy(rs.getTimestamp("fecha_reserva").toLocalDateTime())) {
+                    bus.publicar(EventoDominio.mesaReservada(rs.getInt("mesa_id"), rs.getInt("activas") > 0));
+                }
+            }
+        }
+    }
+
+    // Solo las reservas de hoy cambian el color de la mesa en el plano
+    private static boolean esDeHoy(LocalDateTime fecha) {
+        return fecha != null && fecha.toLocalDate().equals(LocalDate.now());
+    }
+
     /**
      * Obtiene todas las reservas correspondientes a una fecha específica.
      * @param fecha Fecha (con hora) que se desea consultar.
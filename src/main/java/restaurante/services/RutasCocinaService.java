@@ -0,0 +1,97 @@
+package restaurante.services;
+
+import restaurante.api.ProductoAPI;
+import restaurante.models.Estacion;
+import restaurante.models.Producto;
+import restaurante.models.RutasCocina;
+import restaurante.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Caché de la tabla de enrutado a estaciones (sql/estaciones_cocina.sql).
+ *
+ * Se lee de la base de datos una vez y se consulta en memoria para cada línea de pedido y cada evento.
+ * Si la tabla no existe o está vacía se usa RutasCocina.porDefecto(). {@link #recargar()} vuelve a leerla
+ * tras cambiar las reglas, sin reiniciar.
+ */
+public class RutasCocinaService {
+
+    private static RutasCocinaService instancia;
+
+    // Tabla vigente; se sustituye entera al recargar, nunca se modifica en uso
+    private volatile RutasCocina rutas;
+
+    private RutasCocinaService(RutasCocina rutas) {
+        this.rutas = rutas;
+    }
+
+    public static synchronized RutasCocinaService getInstancia() {
+        if (instancia == null) {
+            instancia = new RutasCocinaService(cargar());
+        }
+        return instancia;
+    }
+
+    /**
+     * Vuelve a leer las reglas de la base de datos.
+     */
+    public void recargar() {
+        rutas = cargar();
+    }
+
+    public RutasCocina getRutas() {
+        return rutas;
+    }
+
+    public Estacion estacionDe(Producto producto) {
+        return rutas.estacionDe(producto);
+    }
+
+    /**
+     * Estación de un producto del que puede faltar la categoría (por ejemplo, un aviso productoListo
+     * que solo trae el ID): en ese caso se completa con el catálogo en memoria.
+     */
+    public Estacion estacionDe(int productoId, String categoria) {
+        if (categoria == null && productoId > 0) {
+            ProductoAPI producto = CatalogoProductos.getInstancia().buscar(productoId);
+            if (producto != null) categoria = producto.getCategoria();
+        }
+        return rutas.estacionDe(productoId, categoria);
+    }
+
+    public boolean esCocina(Producto producto) {
+        return rutas.esCocina(producto);
+    }
+
+    // Lee las reglas de la base de datos; sin reglas se usa la tabla por defecto
+    private static RutasCocina cargar() {
+        RutasCocina leidas = new RutasCocina();
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement(
+                     "SELECT categoria, producto_id, estacion FROM estaciones_cocina");
+             ResultSet rs = stmt.executeQuery()) {
+
+            while (rs.next()) {
+                Estacion estacion = Estacion.desde(rs.getString("estacion"));
+                if (estacion == null) {
+                    System.err.println("Estación desconocida en estaciones_cocina: " + rs.getString("estacion"));
+                    continue;
+                }
+                int productoId = rs.getInt("producto_id");
+                if (!rs.wasNull()) {
+                    leidas.asignarProducto(productoId, estacion);
+                } else {
+                    leidas.asignarCategoria(rs.getString("categoria"), estacion);
+                }
+            }
+
+        } catch (SQLException e) {
+            System.err.println("No se pudo leer estaciones_cocina, se usan las estaciones por defecto: " + e.getMessage());
+        }
+        return leidas.isVacia() ? RutasCocina.porDefecto() : leidas;
+    }
+}
@@ -12,12 +12,13 @@ public class DatabaseConnection {
 
     // URL de conexión JDBC a la base de datos MySQL.
     // Incluye dirección IP, puerto (3306 por defecto) y nombre de la base de datos.
+    // Se puede cambiar con -Doidochef.db.url (p. ej. el simulador de carga y las pruebas usan una base embebida).
     private static final String URL = "jdbc:mysql://127.0.0.1:3306/restaurante";
 
-    // Usuario con permisos de acceso a la base de datos.
+    // Usuario con permisos de acceso a la base de datos (-Doidochef.db.usuario).
     private static final String USER = "root";
 
-    // Contraseña correspondiente al usuario de la base de datos.
+    // Contraseña correspondiente al usuario de la base de datos (-Doidochef.db.password).
     private static final String PASSWORD = "1234";
 
     /**
@@ -28,6 +29,9 @@ public class DatabaseConnection {
      */
     public static Connection getConnection() throws SQLException {
         // Se usa el DriverManager para crear y devolver una conexión con los parámetros definidos.
-        return DriverManager.getConnection(URL, USER, PASSWORD);
+        // Las propiedades se leen en cada conexión: una prueba puede apuntar a su base embebida aunque la clase ya esté cargada
+        return DriverManager.getConnection(System.getProperty("oidochef.db.url", URL),
+                System.getProperty("oidochef.db.usuario", USER),
+                System.getProperty("oidochef.db.password", PASSWORD));
     }
 }
@@ -0,0 +1,172 @@
+package restaurante.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Histograma de duraciones sobre una ventana deslizante (por ejemplo, las últimas 12 horas en tramos de 15 minutos).
+ *
+ * Cada tramo guarda cuántas muestras cayeron en cada cubeta de LIMITES_SEGUNDOS, su suma y su máximo.
+ * Los tramos forman un anillo: al llegar una muestra de un tramo nuevo se reutiliza la posición del más antiguo,
+ * así que la memoria es fija y registrar una muestra cuesta O(1). Los percentiles se estiman con el límite
+ * superior de la cubeta (nunca por encima del máximo real).
+ */
+public class HistogramaDeslizante {
+
+    // Límites superiores de las cubetas en segundos; la última cubeta recoge lo que pasa de una hora
+    public static final long[] LIMITES_SEGUNDOS = {30, 60, 120, 180, 240, 300, 420, 600, 900, 1200, 1800, 2700, 3600};
+
+    /**
+     * Resumen de la ventana (tiempos en segundos).
+     */
+    public static final class Resumen {
+        private final long muestras;
+        private final long media;
+        private final long p50;
+        private final long p90;
+        private final long p95;
+        private final long maximo;
+        private final Map<String, Long> cubetas;
+
+        Resumen(long muestras, long media, long p50, long p90, long p95, long maximo, Map<String, Long> cubetas) {
+            this.muestras = muestras;
+            this.media = media;
+            this.p50 = p50;
+            this.p90 = p90;
+            this.p95 = p95;
+            this.maximo = maximo;
+            this.cubetas = cubetas;
+        }
+
+        public long getMuestras() { return muestras; }
+        public long getMedia() { return media; }
+        public long getP50() { return p50; }
+        public long getP90() { return p90; }
+        public long getP95() { return p95; }
+        public long getMaximo() { return maximo; }
+        public Map<String, Long> getCubetas() { return cubetas; }
+    }
+
+    private final long tramoMs;
+    private final long[] idTramo;    // Número de tramo (instante / tramoMs) que ocupa cada posición del anillo
+    private final long[][] cubetas;  // Por posición: muestras de cada cubeta
+    private final long[] sumaMs;
+    private final long[] maximoMs;
+
+    /**
+     * @param tramoMs Duración de cada tramo en milisegundos.
+     * @param tramos  Número de tramos de la ventana.
+     */
+    public HistogramaDeslizante(long tramoMs, int tramos) {
+        this.tramoMs = tramoMs;
+        this.idTramo = new long[tramos];
+        this.cubetas = new long[tramos][LIMITES_SEGUNDOS.length + 1];
+        this.sumaMs = new long[tramos];
+        this.maximoMs = new long[tramos];
+        Arrays.fill(idTramo, -1);
+    }
+
+    /**
+     * Añade una muestra.
+     * @param instante   Momento de la medida (ms desde epoch); decide el tramo.
+     * @param duracionMs Duración medida. Las negativas y las anteriores a la ventana se ignoran.
+     */
+    public synchronized void registrar(long instante, long duracionMs) {
+        if (duracionMs < 0) return;
+        int posicion = posicion(instante);
+        if (posicion < 0) return;
+        cubetas[posicion][cubeta(duracionMs)]++;
+        sumaMs[posicion] += duracionMs;
+        maximoMs[posicion] = Math.max(maximoMs[posicion], duracionMs);
+    }
+
+    /**
+     * Resumen de las muestras de la ventana que termina en {@code ahora}.
+     */
+    public synchronized Resumen resumen(long ahora) {
+        long[] total = new long[LIMITES_SEGUNDOS.length + 1];
+        long muestras = 0;
+        long suma = 0;
+        long maximo = 0;
+        for (int posicion = 0; posicion < idTramo.length; posicion++) {
+            if (!enVentana(posicion, ahora)) continue;
+            for (int c = 0; c < total.length; c++) {
+                total[c] += cubetas[posicion][c];
+                muestras += cubetas[posicion][c];
+            }
+            suma += sumaMs[posicion];
+            maximo = Math.max(maximo, maximoMs[posicion]);
+        }
+
+        Map<String, Long> porCubeta = new LinkedHashMap<>();
+        for (int c = 0; c < total.length; c++) {
+            porCubeta.put(c < LIMITES_SEGUNDOS.length ? "<=" + LIMITES_SEGUNDOS[c] : ">" + LIMITES_SEGUNDOS[c - 1], total[c]);
+        }
+        long maximoSegundos = maximo / 1000;
+        return new Resumen(muestras, muestras > 0 ? suma / muestras / 1000 : 0,
+                percentil(total, muestras, 0.50, maximoSegundos),
+                percentil(total, muestras, 0.90, maximoSegundos),
+                percentil(total, muestras, 0.95, maximoSegundos),
+                maximoSegundos, porCubeta);
+    }
+
+    /**
+     * Número de muestras de cada tramo de la ventana, del más antiguo al actual.
+     */
+    public synchronized long[] muestrasPorTramo(long ahora) {
+        long actual = ahora / tramoMs;
+        long[] porTramo = new long[idTramo.length];
+        for (int posicion = 0; posicion < idTramo.length; posicion++) {
+            if (!enVentana(posicion, ahora)) continue;
+            long muestras = 0;
+            for (long n : cubetas[posicion]) muestras += n;
+            porTramo[idTramo.length - 1 - (int) (actual - idTramo[posicion])] = muestras;
+        }
+        return porTramo;
+    }
+
+    public long getTramoMs() {
+        return tramoMs;
+    }
+
+    // Posición del anillo para el instante; si la ocupa un tramo anterior se vacía. -1 si la muestra es demasiado antigua.
+    private int posicion(long instante) {
+        long id = instante / tramoMs;
+        int posicion = (int) (id % idTramo.length);
+        if (idTramo[posicion] == id) return posicion;
+        if (idTramo[posicion] > id) return -1;
+        idTramo[posicion] = id;
+        Arrays.fill(cubetas[posicion], 0);
+        sumaMs[posicion] = 0;
+        maximoMs[posicion] = 0;
+        return posicion;
+    }
+
+    private boolean enVentana(int posicion, long ahora) {
+        long actual = ahora / tramoMs;
+        return idTramo[posicion] >= 0 && idTramo[posicion] <= actual && idTramo[posicion] > actual - idTramo.length;
+    }
+
+    private static int cubeta(long duracionMs) {
+        long segundos = duracionMs / 1000;
+        for (int c = 0; c < LIMITES_SEGUNDOS.length; c++) {
+            if (segundos <= LIMITES_SEGUNDOS[c]) return c;
+        }
+        return LIMITES_SEGUNDOS.length;
+    }
+
+    // Límite superior de la cubeta donde cae el percentil, acotado por el máximo observado
+    private static long percentil(long[] total, long muestras, double fraccion, long maximo) {
+        if (muestras == 0) return 0;
+        long objetivo = (long) Math.ceil(muestras * fraccion);
+        long acumuladas = 0;
+        for (int c = 0; c < total.length; c++) {
+            acumuladas += total[c];
+            if (acumuladas >= objetivo) {
+                return c < LIMITES_SEGUNDOS.length ? Math.min(LIMITES_SEGUNDOS[c], maximo) : maximo;
+            }
+        }
+        return maximo;
+    }
+}
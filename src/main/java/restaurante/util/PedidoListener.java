@@ -2,6 +2,8 @@ package restaurante.util;
 
 import restaurante.models.Pedido;
 
+import java.util.List;
+
 /**
  * Interfaz que define el contrato para recibir notificaciones de pedidos.
  */
@@ -12,4 +14,15 @@ public interface PedidoListener {
      * @param pedido El pedido recibido.
      */
     void onPedidoRecibido(Pedido pedido);
+
+    /**
+     * Método que se llama con todos los pedidos llegados desde la última actualización de la interfaz,
+     * como mucho uno por mesa (el más reciente). Por defecto los entrega uno a uno.
+     * @param pedidos Los pedidos recibidos.
+     */
+    default void onPedidosRecibidos(List<Pedido> pedidos) {
+        for (Pedido pedido : pedidos) {
+            onPedidoRecibido(pedido);
+        }
+    }
 }
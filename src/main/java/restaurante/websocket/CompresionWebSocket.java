@@ -0,0 +1,85 @@
+package restaurante.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.extensions.ExtensionConfig;
+import org.java_websocket.drafts.Draft;
+import org.java_websocket.drafts.Draft_6455;
+import org.java_websocket.extensions.permessage_deflate.PerMessageDeflateExtension;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+/**
+ * Configuración de la compresión permessage-deflate (RFC 7692) para el canal de pedidos.
+ *
+ * Jetty negocia la extensión automáticamente cuando el cliente la ofrece; el cliente JavaFX
+ * la ofrece mediante {@link #crearDraftCliente()}. El umbral solo se aplica en el cliente: sus mensajes
+ * por debajo de UMBRAL_BYTES salen sin comprimir. El servidor envía todo por el RemoteEndpoint de la sesión
+ * y, con la extensión negociada, Jetty comprime todos los mensajes: su PerMessageDeflateExtension (9.4) no tiene
+ * umbral, y escribir en la conexión saltándose la pila de extensiones podría adelantar tramas a las que
+ * siguen en su cola.
+ */
+public final class CompresionWebSocket {
+
+    // Nombre de la extensión en la cabecera Sec-WebSocket-Extensions
+    public static final String EXTENSION = "permessage-deflate";
+
+    // Tamaño mínimo (en bytes) a partir del cual el cliente comprime un mensaje.
+    // Se puede ajustar con -Doidochef.ws.umbralCompresion=N
+    public static final int UMBRAL_BYTES = Integer.getInteger("oidochef.ws.umbralCompresion", 256);
+
+    private CompresionWebSocket() {
+    }
+
+    /**
+     * Crea el draft del cliente Java-WebSocket ofreciendo permessage-deflate con el umbral configurado.
+     *
+     * @return Draft listo para pasar al constructor de WebSocketClient.
+     */
+    public static Draft crearDraftCliente() {
+        PerMessageDeflateExtension deflate = new PerMessageDeflateExtension();
+        deflate.setThreshold(UMBRAL_BYTES);
+        return new Draft_6455(deflate);
+    }
+
+    /**
+     * Indica si la sesión negoció permessage-deflate durante el handshake.
+     */
+    public static boolean estaNegociada(Session session) {
+        if (session.getUpgradeResponse() == null) return false;
+        for (ExtensionConfig config : session.getUpgradeResponse().getExtensions()) {
+            if (EXTENSION.equalsIgnoreCase(config.getName())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Envía un mensaje de texto por el RemoteEndpoint de la sesión, como el resto de envíos (pings incluidos).
+     * Si la sesión negoció deflate, la extensión de Jetty lo comprime sea cual sea su tamaño. Los envíos de este
+     * canal a una misma sesión se serializan: el envío bloqueante de Jetty no admite dos mensajes a la vez.
+     *
+     * @param session Sesión destino.
+     * @param mensaje Texto a enviar.
+     * @throws IOException si falla la escritura.
+     */
+    public static void enviarTexto(Session session, String mensaje) throws IOException {
+        synchronized (session) {
+            session.getRemote().sendString(mensaje);
+        }
+    }
+
+    /**
+     * Envía un mensaje binario, igual que {@link #enviarTexto}.
+     *
+     * @param session Sesión destino.
+     * @param datos   Bytes a enviar (no se modifican).
+     * @throws IOException si falla la escritura.
+     */
+    public static void enviarBinario(Session session, byte[] datos) throws IOException {
+        synchronized (session) {
+            session.getRemote().sendBytes(ByteBuffer.wrap(datos));
+        }
+    }
+}
@@ -1,18 +1,34 @@
 package restaurante.websocket;
 
 import com.google.gson.Gson;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
 import javafx.application.Platform;
+import restaurante.api.EventoAPI;
 import restaurante.api.PedidoAPI;
+import restaurante.eventos.TipoEvento;
 import restaurante.models.ItemPedido;
+import restaurante.models.Pedido;
+import restaurante.services.CatalogoProductos;
 import restaurante.util.PedidoListener;
 import org.java_websocket.client.WebSocketClient;
 import org.java_websocket.handshake.ServerHandshake;
 
 import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 /**
  * Cliente WebSocket para aplicaciones JavaFX que recibe notificaciones de nuevos pedidos desde el servidor.
  * Esta clase es un singleton para asegurar una única conexión WebSocket activa.
+ *
+ * Los mensajes se interpretan y se convierten a modelo en el hilo del socket. El hilo de JavaFX solo recibe
+ * lotes: las llegadas se acumulan por mesa (el estado más reciente de cada mesa sustituye al anterior) y se
+ * entregan de una vez en la siguiente vuelta del hilo de la interfaz.
  */
 public class PedidoWebSocketClientFX {
 
@@ -28,6 +44,15 @@ public class PedidoWebSocketClientFX {
     // Conversor JSON para serialización/deserialización de objetos PedidoAPI
     private final Gson gson = new Gson();
 
+    // Si es true se pide al servidor el formato binario compacto (-Doidochef.ws.binario=true)
+    private final boolean binario = Boolean.getBoolean("oidochef.ws.binario");
+
+    // Último pedido recibido de cada mesa que aún no se ha entregado a la interfaz (clave: mesaId)
+    private final Map<Integer, Pedido> pendientes = new ConcurrentHashMap<>();
+
+    // true si ya hay una entrega programada en el hilo de JavaFX
+    private final AtomicBoolean entregaProgramada = new AtomicBoolean(false);
+
     // Constructor privado para restringir instanciación directa (patrón singleton)
     private PedidoWebSocketClientFX() {
     }
@@ -65,8 +90,10 @@ public class PedidoWebSocketClientFX {
         this.listener = listener;
 
         try {
-            // Dirección del servidor WebSocket
-            client = new WebSocketClient(new URI("ws://192.168.1.16:4567/ws/pedidos")) {
+            // Dirección del servidor WebSocket (se ofrece permessage-deflate en el handshake)
+            String uri = "ws://192.168.1.16:4567/ws/pedidos"
+                    + (binario ? "?" + ProtocoloBinario.PARAMETRO + "=" + ProtocoloBinario.VALOR_BINARIO : "");
+            client = new WebSocketClient(new URI(uri), CompresionWebSocket.crearDraftCliente()) {
 
                 // Se ejecuta cuando la conexión WebSocket se abre exitosamente
                 @Override
@@ -82,17 +109,28 @@ public class PedidoWebSocketClientFX {
                 // Se ejecuta al recibir un mensaje desde el servidor
                 @Override
                 public void onMessage(String message) {
-                    System.out.println("Mensaje recibido: " + message);
+                    // Solo los mensajes con contenido de pedido se entregan al listener
+                    // (los eventos de mesa, producto o cierre no traen items)
+                    JsonObject json = JsonParser.parseString(message).getAsJsonObject();
+                    if (!esMensajeDePedido(json.has("tipo") ? json.get("tipo").getAsString() : null)) return;
 
                     // Convierte el mensaje JSON a objeto PedidoAPI
-                    PedidoAPI pedidoAPI = gson.fromJson(message, PedidoAPI.class);
-
-                    // Llama al listener en el hilo de JavaFX
-                    Platform.runLater(() -> {
-                        if (listener != null) {
-                            listener.onPedidoRecibido(pedidoAPI.toModel());
-                        }
-                    });
+                    entregar(gson.fromJson(json, PedidoAPI.class));
+                }
+
+                // Se ejecuta al recibir un mensaje binario (solo si se pidió el formato binario)
+                @Override
+                public void onMessage(ByteBuffer bytes) {
+                    try {
+                        EventoAPI evento = ProtocoloBinario.decodificar(bytes, CatalogoProductos.getInstancia());
+                        if (!esMensajeDePedido(evento.getTipo())) return;
+
+                        PedidoAPI pedidoAPI = new PedidoAPI(evento.getMesaId(), evento.getNumPersonas(), evento.getItems());
+                        pedidoAPI.setNumeroMesa(evento.getNumeroMesa());
+                        entregar(pedidoAPI);
+                    } catch (IllegalArgumentException e) {
+                        System.err.println("Mensaje binario descartado: " + e.getMessage());
+                    }
                 }
 
                 // Se ejecuta cuando la conexión se cierra
@@ -116,6 +154,39 @@ public class PedidoWebSocketClientFX {
         }
     }
 
+    // Construye el modelo en el hilo del socket y lo deja pendiente; como mucho hay una entrega en cola
+    private void entregar(PedidoAPI pedidoAPI) {
+        if (listener == null) return;
+        Pedido pedido = pedidoAPI.toModel();
+        pendientes.put(pedido.getMesaId(), pedido);
+        if (entregaProgramada.compareAndSet(false, true)) {
+            Platform.runLater(this::entregarPendientes);
+        }
+    }
+
+    // Hilo de JavaFX: entrega en un solo lote todo lo acumulado desde la última vez
+    private void entregarPendientes() {
+        // Se libera antes de vaciar: lo que llegue mientras tanto programará otra entrega
+        entregaProgramada.set(false);
+
+        List<Pedido> lote = new ArrayList<>(pendientes.size());
+        for (Integer mesaId : pendientes.keySet()) {
+            Pedido pedido = pendientes.remove(mesaId);
+            if (pedido != null) lote.add(pedido);
+        }
+        if (!lote.isEmpty() && listener != null) {
+            listener.onPedidosRecibidos(lote);
+        }
+    }
+
+    // Mensajes reenviados sin tipo (formato antiguo) o eventos de pedido creado/actualizado/enviado
+    private static boolean esMensajeDePedido(String tipo) {
+        if (tipo == null) return true;
+        return TipoEvento.PEDIDO_CREADO.getNombreMensaje().equals(tipo)
+                || TipoEvento.PEDIDO_ACTUALIZADO.getNombreMensaje().equals(tipo)
+                || TipoEvento.PEDIDO_ENVIADO_COCINA.getNombreMensaje().equals(tipo);
+    }
+
     /**
      * Verifica si el cliente WebSocket está conectado.
      *
@@ -128,15 +199,28 @@ public class PedidoWebSocketClientFX {
     /**
      * Envía un mensaje al servidor indicando que un producto está listo.
      *
-     * @param item El producto que ha sido preparado (cocinado).
+     * @param item       El producto que ha sido preparado (cocinado).
+     * @param mesaId     ID de la mesa (0 si no se conoce); el servidor lo usa para el recuento de cocina.
+     * @param numeroMesa Número visible de la mesa.
      */
-    public void enviarProductoHecho(ItemPedido item, int numeroMesa) {
+    public void enviarProductoHecho(ItemPedido item, int mesaId, int numeroMesa) {
         if (client != null && client.isOpen() && item != null) {
+            if (binario) {
+                EventoAPI listo = new EventoAPI();
+                listo.setTipo(ProtocoloBinario.PRODUCTO_LISTO);
+                listo.setProductoId(item.getProducto().getId());
+                listo.setCantidad(item.getCantidad());
+                listo.setMesaId(mesaId);
+                listo.setNumeroMesa(numeroMesa);
+                client.send(ProtocoloBinario.codificar(listo));
+                return;
+            }
             String mensaje = String.format(
-                    "{\"tipo\":\"productoListo\", \"productoId\":%d, \"nombre\":\"%s\", \"cantidad\":%d, \"numeroMesa\":%d}",
+                    "{\"tipo\":\"productoListo\", \"productoId\":%d, \"nombre\":\"%s\", \"cantidad\":%d, \"mesaId\":%d, \"numeroMesa\":%d}",
                     item.getProducto().getId(),
                     item.getProducto().getNombre(),
                     item.getCantidad(),
+                    mesaId,
                     numeroMesa
             );
 
@@ -144,6 +228,11 @@ public class PedidoWebSocketClientFX {
             System.out.println("Notificación producto listo enviada: " + mensaje);
         }
     }
+    // Sin ID de mesa: el aviso se reenvía pero no cuenta en el recuento de cocina
+    public void enviarProductoHecho(ItemPedido item, int numeroMesa) {
+        enviarProductoHecho(item, 0, numeroMesa);
+    }
+
     // Método viejo que mantiene compatibilidad
     public void enviarProductoHecho(ItemPedido item) {
         enviarProductoHecho(item, -1); // Usa -1 si no se conoce el número de mesa
@@ -1,12 +1,26 @@
 package restaurante.websocket;
 
+import com.google.gson.Gson;
 import org.eclipse.jetty.websocket.api.Session;
 import org.eclipse.jetty.websocket.api.WebSocketListener;
+import org.eclipse.jetty.websocket.api.WebSocketPingPongListener;
+import restaurante.api.EventoAPI;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.eventos.BusEventos;
+import restaurante.eventos.EventoDominio;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.Estacion;
+import restaurante.services.CatalogoProductos;
+import restaurante.services.DirectorioMesas;
+import restaurante.services.RutasCocinaService;
 
 import java.io.IOException;
-import java.util.Collections;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
 
 /**
  * Manejador WebSocket del lado del servidor para la recepción y envío de mensajes de pedidos.
@@ -15,12 +29,18 @@ import java.util.concurrent.ConcurrentHashMap;
  * - Gestionar conexiones de clientes (JavaFX, Android, etc.).
  * - Escuchar mensajes entrantes.
  * - Reenviar mensajes a todos los clientes conectados (broadcast).
+ * - Difundir los eventos de dominio publicados por los servicios (pedidos, mesas, productos).
+ * - Responder al latido (ping/pong) con el que RegistroSesiones detecta conexiones muertas.
+ * - Hablar el formato binario de ProtocoloBinario con los clientes que lo pidieron al conectar.
+ * - Enviar a cada pantalla de estación (?estacion=plancha) solo las líneas que prepara, filtradas en el servidor.
  */
-public class PedidoWebSocketHandler implements WebSocketListener {
+public class PedidoWebSocketHandler implements WebSocketListener, WebSocketPingPongListener {
 
-    // Conjunto de sesiones activas (clientes conectados)
-    // Se usa ConcurrentHashMap para acceso concurrente seguro
-    private static final Set<Session> sessions = Collections.newSetFromMap(new ConcurrentHashMap<>());
+    // Registro de sesiones activas (clientes conectados), compartido por todos los manejadores
+    private static final RegistroSesiones registro = RegistroSesiones.getInstancia();
+
+    // Conversor JSON para los eventos generados en el servidor
+    private static final Gson gson = new Gson();
 
     // Referencia a la sesión individual del cliente conectado actualmente
     private Session session;
@@ -32,8 +52,13 @@ public class PedidoWebSocketHandler implements WebSocketListener {
     @Override
     public void onWebSocketConnect(Session session) {
         this.session = session;
-        sessions.add(session); // Se registra la nueva sesión
-        System.out.println("Cliente conectado: " + session.getRemoteAddress().getAddress());
+        if (!registro.registrar(session)) { // Se registra la nueva sesión (si no supera el límite por IP)
+            System.out.println("Conexión rechazada, límite por dirección: " + session.getRemoteAddress().getAddress());
+            return;
+        }
+        System.out.println("Cliente conectado: " + session.getRemoteAddress().getAddress()
+                + (CompresionWebSocket.estaNegociada(session) ? " (permessage-deflate)" : "")
+                + (registro.getSesion(session).isBinario() ? " (binario)" : ""));
     }
 
     /**
@@ -43,7 +68,7 @@ public class PedidoWebSocketHandler implements WebSocketListener {
      */
     @Override
     public void onWebSocketClose(int statusCode, String reason) {
-        sessions.remove(session); // Se elimina la sesión cerrada
+        registro.eliminar(session); // Se elimina la sesión cerrada
         System.out.println("Cliente desconectado: " + reason);
     }
 
@@ -54,6 +79,7 @@ public class PedidoWebSocketHandler implements WebSocketListener {
     @Override
     public void onWebSocketError(Throwable cause) {
         cause.printStackTrace();
+        if (session != null) registro.eliminar(session);
     }
 
     /**
@@ -64,30 +90,156 @@ public class PedidoWebSocketHandler implements WebSocketListener {
     @Override
     public void onWebSocketText(String message) {
         System.out.println("Mensaje recibido: " + message);
-        broadcast(message); // Reenvía a todos los demás clientes
+        registro.marcarActividad(session);
+        EventoAPI mensaje = leer(message);
+        broadcast(mensaje, message, mensaje != null ? ProtocoloBinario.codificar(mensaje) : null); // Reenvía a todos los demás clientes
+        publicarSiProductoListo(mensaje);
     }
 
     /**
-     * Método no implementado: no se usa en esta aplicación ya que no se reciben mensajes binarios.
+     * Se ejecuta al recibir un mensaje binario (ProtocoloBinario), por ejemplo un producto listo desde cocina.
+     * Se valida y se reenvía: en binario a los clientes binarios y en JSON al resto.
      */
     @Override
     public void onWebSocketBinary(byte[] payload, int offset, int len) {
-        // No usado en esta aplicación
+        registro.marcarActividad(session);
+        try {
+            EventoAPI mensaje = ProtocoloBinario.decodificar(ByteBuffer.wrap(payload, offset, len), CatalogoProductos.getInstancia());
+            byte[] binario = new byte[len];
+            System.arraycopy(payload, offset, binario, 0, len);
+            broadcast(mensaje, gson.toJson(mensaje), binario);
+            publicarSiProductoListo(mensaje);
+        } catch (IllegalArgumentException e) {
+            System.err.println("Mensaje binario descartado: " + e.getMessage());
+        }
     }
 
     /**
-     * Envia un mensaje a todos los clientes conectados al WebSocket.
-     * @param message El mensaje a enviar.
+     * Jetty responde automáticamente a los pings del cliente; solo se anota la actividad.
      */
-    private void broadcast(String message) {
-        for (Session sess : sessions) {
-            if (sess.isOpen()) {
-                try {
-                    sess.getRemote().sendString(message);
-                } catch (IOException e) {
-                    e.printStackTrace();
+    @Override
+    public void onWebSocketPing(ByteBuffer payload) {
+        registro.marcarActividad(session);
+    }
+
+    /**
+     * Respuesta al ping enviado por RegistroSesiones: la conexión sigue viva.
+     */
+    @Override
+    public void onWebSocketPong(ByteBuffer payload) {
+        registro.marcarActividad(session);
+    }
+
+    /**
+     * Convierte un evento de dominio a JSON y lo envía a todos los clientes conectados.
+     * Se registra como suscriptor del bus de eventos en RestServer.
+     * @param evento Evento publicado por la capa de servicios.
+     */
+    public static void difundirEvento(EventoDominio evento) {
+        // Los avisos de producto listo que llegaron de un cliente ya se reenviaron tal cual; los de REST no
+        if (evento.isReenviado()) return;
+
+        EventoAPI mensaje = new EventoAPI(evento);
+        if (evento.getTipo() == TipoEvento.PRODUCTO_LISTO) {
+            // Mismos campos que el aviso que envía la pantalla de cocina (productoId, nombre, cantidad, mesa)
+            ProductoAPI producto = CatalogoProductos.getInstancia().buscar(mensaje.getProductoId());
+            if (producto != null) mensaje.setNombre(producto.getNombre());
+        }
+        if (mensaje.getNumeroMesa() == 0 && mensaje.getMesaId() > 0) {
+            // Mesas cobradas, estados de mesa... no traen el pedido: el número sale del directorio
+            mensaje.setNumeroMesa(DirectorioMesas.getInstancia().getNumero(mensaje.getMesaId()));
+        }
+        broadcast(mensaje, gson.toJson(mensaje), ProtocoloBinario.codificar(mensaje));
+    }
+
+    // Interpreta un mensaje JSON de cliente (p. ej. productoListo), o null si no tiene un formato conocido
+    private static EventoAPI leer(String message) {
+        try {
+            return gson.fromJson(message, EventoAPI.class);
+        } catch (RuntimeException e) {
+            return null; // Solo se reenvía como texto
+        }
+    }
+
+    // Un producto marcado como listo en cocina se publica en el bus (recuento de cocina, estado de las líneas...)
+    // como ya reenviado, para que difundirEvento no lo mande por segunda vez
+    private static void publicarSiProductoListo(EventoAPI mensaje) {
+        if (mensaje != null && ProtocoloBinario.PRODUCTO_LISTO.equals(mensaje.getTipo())) {
+            BusEventos.getInstancia().publicar(
+                    EventoDominio.productoListoReenviado(mensaje.getMesaId(), mensaje.getProductoId(), mensaje.getCantidad()));
+        }
+    }
+
+    // Un mensaje ya serializado en sus dos formatos
+    private static final class Trama {
+        final String json;
+        final byte[] binario;
+
+        Trama(String json, byte[] binario) {
+            this.json = json;
+            this.binario = binario;
+        }
+    }
+
+    // Marca de "este mensaje no es para la estación"
+    private static final Trama NADA = new Trama(null, null);
+
+    /**
+     * Envía el mensaje a todos los clientes, en binario a quienes lo negociaron si hay versión binaria.
+     * Las pantallas de estación reciben su versión filtrada, que se serializa una sola vez por estación.
+     * Los mensajes grandes viajan comprimidos si el cliente negoció permessage-deflate.
+     * Una sesión en la que falla la escritura se descarta en el acto.
+     * @param mensaje Mensaje interpretado, o null si no tiene un formato conocido (se reenvía igual a todos).
+     * @param message Mensaje en JSON.
+     * @param binario El mismo mensaje codificado con ProtocoloBinario, o null si no tiene forma binaria.
+     */
+    private static void broadcast(EventoAPI mensaje, String message, byte[] binario) {
+        Trama completa = new Trama(message, binario);
+        Map<Estacion, Trama> porEstacion = new EnumMap<>(Estacion.class);
+
+        for (SesionCliente cliente : registro.getSesiones()) {
+            Session sess = cliente.getSession();
+            if (!sess.isOpen()) {
+                registro.descartar(sess);
+                continue;
+            }
+            Trama trama = completa;
+            if (cliente.getEstacion() != null && mensaje != null) {
+                trama = porEstacion.computeIfAbsent(cliente.getEstacion(), e -> paraEstacion(mensaje, e, completa));
+                if (trama == NADA) continue;
+            }
+            try {
+                if (trama.binario != null && cliente.isBinario()) {
+                    CompresionWebSocket.enviarBinario(sess, trama.binario);
+                } else {
+                    CompresionWebSocket.enviarTexto(sess, trama.json);
                 }
+            } catch (IOException e) {
+                System.err.println("Error enviando a " + cliente.getDireccion() + ": " + e.getMessage());
+                registro.descartar(sess);
+            }
+        }
+    }
+
+    // Versión del mensaje para una estación: los pedidos llevan solo sus líneas (aunque queden vacíos, para
+    // que la pantalla retire las que ya no están) y los avisos de un producto solo llegan a la estación que lo prepara
+    private static Trama paraEstacion(EventoAPI mensaje, Estacion estacion, Trama completa) {
+        RutasCocinaService rutas = RutasCocinaService.getInstancia();
+
+        if (!mensaje.getItems().isEmpty()) {
+            List<ItemPedidoAPI> propios = new ArrayList<>();
+            for (ItemPedidoAPI item : mensaje.getItems()) {
+                if (rutas.estacionDe(item.getProductoId(), item.getCategoria()) == estacion) propios.add(item);
             }
+            if (propios.size() == mensaje.getItems().size()) return completa;
+            EventoAPI filtrado = mensaje.conItems(propios);
+            return new Trama(gson.toJson(filtrado), ProtocoloBinario.codificar(filtrado));
+        }
+
+        String tipo = mensaje.getTipo();
+        if (TipoEvento.PRODUCTO_LISTO.getNombreMensaje().equals(tipo) || TipoEvento.CONTEO_COCINA.getNombreMensaje().equals(tipo)) {
+            return rutas.estacionDe(mensaje.getProductoId(), mensaje.getCategoria()) == estacion ? completa : NADA;
         }
+        return completa;
     }
 }
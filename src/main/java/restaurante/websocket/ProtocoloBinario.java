@@ -0,0 +1,231 @@
+package restaurante.websocket;
+
+import restaurante.api.EventoAPI;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.Dinero;
+import restaurante.services.CatalogoProductos;
+
+import java.nio.ByteBuffer;
+import java.nio.BufferUnderflowException;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Codificación binaria compacta de los mensajes más frecuentes del WebSocket de pedidos.
+ * Es opcional: el cliente la pide al conectar con {@code ?formato=binario}; el resto sigue recibiendo JSON.
+ *
+ * Formato (enteros de ID de 4 bytes big-endian, cantidades en varint sin signo):
+ * <pre>
+ * cabecera   1 byte: versión (4 bits altos) | tipo de mensaje (4 bits bajos)
+ * PEDIDO       evento(1) mesaId(4) numeroMesa(4) pedidoId(4) numPersonas(v) nLineas(v) { productoId(4) cantidad(v) }*
+ * ITEM_LISTO   productoId(4) cantidad(v) mesaId(4) numeroMesa(4)
+ * ESTADO_MESA  mesaId(4) ocupada(1)
+ * </pre>
+ * Los nombres, precios y categorías no viajan: el receptor los resuelve con su {@link CatalogoProductos}.
+ */
+public final class ProtocoloBinario {
+
+    // Valor del parámetro de conexión que activa este formato
+    public static final String PARAMETRO = "formato";
+    public static final String VALOR_BINARIO = "binario";
+
+    public static final int VERSION = 1;
+
+    public static final byte TIPO_PEDIDO = 1;
+    public static final byte TIPO_ITEM_LISTO = 2;
+    public static final byte TIPO_ESTADO_MESA = 3;
+
+    // Nombre del mensaje de cocina que avisa de un producto preparado
+    public static final String PRODUCTO_LISTO = TipoEvento.PRODUCTO_LISTO.getNombreMensaje();
+
+    // Eventos de pedido que se pueden codificar, en el orden de su código en el mensaje
+    private static final TipoEvento[] EVENTOS_PEDIDO = {
+            TipoEvento.PEDIDO_CREADO, TipoEvento.PEDIDO_ACTUALIZADO,
+            TipoEvento.PEDIDO_ENVIADO_COCINA, TipoEvento.PEDIDO_CERRADO
+    };
+
+    private ProtocoloBinario() {
+    }
+
+    // ============ CODIFICACIÓN ============
+
+    /**
+     * Codifica un mensaje si su tipo tiene representación binaria.
+     *
+     * @param evento Mensaje en su forma JSON/DTO.
+     * @return Los bytes del mensaje, o null si el tipo solo existe en JSON (por ejemplo productoCambiado).
+     */
+    public static byte[] codificar(EventoAPI evento) {
+        if (evento == null || evento.getTipo() == null) return null;
+
+        if (PRODUCTO_LISTO.equals(evento.getTipo())) {
+            ByteBuffer buf = ByteBuffer.allocate(1 + 4 + 5 + 4 + 4);
+            buf.put(cabecera(TIPO_ITEM_LISTO));
+            buf.putInt(evento.getProductoId());
+            escribirVarint(buf, evento.getCantidad());
+            buf.putInt(evento.getMesaId());
+            buf.putInt(evento.getNumeroMesa());
+            return recortar(buf);
+        }
+
+        if (TipoEvento.MESA_ESTADO.getNombreMensaje().equals(evento.getTipo())) {
+            ByteBuffer buf = ByteBuffer.allocate(1 + 4 + 1);
+            buf.put(cabecera(TIPO_ESTADO_MESA));
+            buf.putInt(evento.getMesaId());
+            buf.put((byte) (evento.isOcupada() ? 1 : 0));
+            return buf.array();
+        }
+
+        int codigoEvento = codigoEventoPedido(evento.getTipo());
+        if (codigoEvento < 0) return null;
+
+        List<ItemPedidoAPI> items = evento.getItems();
+        ByteBuffer buf = ByteBuffer.allocate(1 + 1 + 4 + 4 + 4 + 5 + 5 + items.size() * (4 + 5));
+        buf.put(cabecera(TIPO_PEDIDO));
+        buf.put((byte) codigoEvento);
+        buf.putInt(evento.getMesaId());
+        buf.putInt(evento.getNumeroMesa());
+        buf.putInt(evento.getPedidoId());
+        escribirVarint(buf, evento.getNumPersonas());
+        escribirVarint(buf, items.size());
+        for (ItemPedidoAPI item : items) {
+            buf.putInt(item.getProductoId());
+            escribirVarint(buf, item.getCantidad());
+        }
+        return recortar(buf);
+    }
+
+    // ============ DECODIFICACIÓN ============
+
+    /**
+     * Decodifica un mensaje binario resolviendo los productos con el catálogo.
+     * Un producto que no esté en el catálogo se devuelve con nombre "Producto #id" y precio 0.
+     *
+     * @param datos    Bytes recibidos (se lee desde la posición actual hasta el límite).
+     * @param catalogo Catálogo con el que resolver nombre, precio y categoría.
+     * @return El mensaje con la misma forma que tendría en JSON.
+     * @throws IllegalArgumentException si el mensaje está truncado, es de otra versión o de un tipo desconocido.
+     */
+    public static EventoAPI decodificar(ByteBuffer datos, CatalogoProductos catalogo) {
+        try {
+            int cabecera = datos.get() & 0xFF;
+            if ((cabecera >>> 4) != VERSION) {
+                throw new IllegalArgumentException("Versión de protocolo no soportada: " + (cabecera >>> 4));
+            }
+
+            EventoAPI evento = new EventoAPI();
+            switch (cabecera & 0x0F) {
+                case TIPO_PEDIDO:
+                    leerPedido(datos, evento, catalogo);
+                    break;
+                case TIPO_ITEM_LISTO:
+                    evento.setTipo(PRODUCTO_LISTO);
+                    evento.setProductoId(datos.getInt());
+                    evento.setCantidad(leerVarint(datos));
+                    evento.setMesaId(datos.getInt());
+                    evento.setNumeroMesa(datos.getInt());
+                    ProductoAPI producto = catalogo != null ? catalogo.buscar(evento.getProductoId()) : null;
+                    evento.setNombre(producto != null ? producto.getNombre() : "Producto #" + evento.getProductoId());
+                    break;
+                case TIPO_ESTADO_MESA:
+                    evento.setTipo(TipoEvento.MESA_ESTADO.getNombreMensaje());
+                    evento.setMesaId(datos.getInt());
+                    evento.setOcupada(datos.get() != 0);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Tipo de mensaje binario desconocido: " + (cabecera & 0x0F));
+            }
+
+            if (datos.hasRemaining()) {
+                throw new IllegalArgumentException("Sobran " + datos.remaining() + " bytes al final del mensaje");
+            }
+            return evento;
+        } catch (BufferUnderflowException e) {
+            throw new IllegalArgumentException("Mensaje binario truncado", e);
+        }
+    }
+
+    private static void leerPedido(ByteBuffer datos, EventoAPI evento, CatalogoProductos catalogo) {
+        int codigoEvento = datos.get();
+        if (codigoEvento < 0 || codigoEvento >= EVENTOS_PEDIDO.length) {
+            throw new IllegalArgumentException("Evento de pedido desconocido: " + codigoEvento);
+        }
+        evento.setTipo(EVENTOS_PEDIDO[codigoEvento].getNombreMensaje());
+        evento.setMesaId(datos.getInt());
+        evento.setNumeroMesa(datos.getInt());
+        evento.setPedidoId(datos.getInt());
+        evento.setNumPersonas(leerVarint(datos));
+        evento.setOcupada(EVENTOS_PEDIDO[codigoEvento] != TipoEvento.PEDIDO_CERRADO);
+
+        int lineas = leerVarint(datos);
+        // Cada línea ocupa al menos 5 bytes: evita reservar listas enormes con un contador corrupto
+        if (lineas > datos.remaining() / 5) {
+            throw new IllegalArgumentException("Número de líneas inválido: " + lineas);
+        }
+        List<ItemPedidoAPI> items = new ArrayList<>(lineas);
+        for (int i = 0; i < lineas; i++) {
+            int productoId = datos.getInt();
+            int cantidad = leerVarint(datos);
+            ProductoAPI producto = catalogo != null ? catalogo.buscar(productoId) : null;
+            ItemPedidoAPI item;
+            if (producto != null) {
+                item = new ItemPedidoAPI(productoId, producto.getNombre(), producto.getPrecio(), cantidad);
+                item.setCategoria(producto.getCategoria());
+            } else {
+                item = new ItemPedidoAPI(productoId, "Producto #" + productoId, Dinero.CERO, cantidad);
+            }
+            items.add(item);
+        }
+        evento.setItems(items);
+    }
+
+    // ============ UTILIDADES ============
+
+    /**
+     * Escribe un entero no negativo en formato varint (7 bits por byte, LEB128).
+     * Los valores negativos se escriben como 0.
+     */
+    static void escribirVarint(ByteBuffer buf, int valor) {
+        int v = Math.max(valor, 0);
+        while ((v & ~0x7F) != 0) {
+            buf.put((byte) ((v & 0x7F) | 0x80));
+            v >>>= 7;
+        }
+        buf.put((byte) v);
+    }
+
+    /**
+     * Lee un varint escrito con {@link #escribirVarint}.
+     */
+    static int leerVarint(ByteBuffer buf) {
+        int resultado = 0;
+        for (int desplazamiento = 0; desplazamiento < 35; desplazamiento += 7) {
+            byte b = buf.get();
+            resultado |= (b & 0x7F) << desplazamiento;
+            if ((b & 0x80) == 0) {
+                if (resultado < 0) throw new IllegalArgumentException("Varint fuera de rango");
+                return resultado;
+            }
+        }
+        throw new IllegalArgumentException("Varint demasiado largo");
+    }
+
+    private static byte cabecera(byte tipo) {
+        return (byte) ((VERSION << 4) | tipo);
+    }
+
+    private static int codigoEventoPedido(String tipo) {
+        for (int i = 0; i < EVENTOS_PEDIDO.length; i++) {
+            if (EVENTOS_PEDIDO[i].getNombreMensaje().equals(tipo)) return i;
+        }
+        return -1;
+    }
+
+    private static byte[] recortar(ByteBuffer buf) {
+        byte[] resultado = new byte[buf.position()];
+        System.arraycopy(buf.array(), 0, resultado, 0, resultado.length);
+        return resultado;
+    }
+}
@@ -0,0 +1,214 @@
+package restaurante.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.eclipse.jetty.websocket.api.StatusCode;
+import org.eclipse.jetty.websocket.api.WebSocketException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Registro de las sesiones WebSocket activas del servidor.
+ * Además de guardar las sesiones para la difusión:
+ * - Envía pings periódicos y elimina las sesiones que dejan de responder (enlace TCP muerto sin cierre).
+ * - Limita el número de sesiones simultáneas por dirección remota.
+ * - Mantiene contadores de sesiones activas, inactivas y eliminadas.
+ *
+ * Parámetros configurables con propiedades del sistema:
+ * -Doidochef.ws.pingSegundos (15), -Doidochef.ws.timeoutSegundos (45), -Doidochef.ws.maxPorDireccion (8)
+ */
+public class RegistroSesiones {
+
+    public static final int PING_SEGUNDOS = Integer.getInteger("oidochef.ws.pingSegundos", 15);
+    public static final int TIMEOUT_SEGUNDOS = Integer.getInteger("oidochef.ws.timeoutSegundos", 45);
+    public static final int MAX_POR_DIRECCION = Integer.getInteger("oidochef.ws.maxPorDireccion", 8);
+
+    // Instancia única compartida por todos los manejadores
+    private static final RegistroSesiones instancia = new RegistroSesiones();
+
+    // Estado de cada sesión conectada
+    private final Map<Session, SesionCliente> sesiones = new ConcurrentHashMap<>();
+
+    // Número de sesiones abiertas por dirección remota. Solo se modifica dentro de compute/computeIfPresent,
+    // y una dirección sin sesiones se quita del mapa para que no crezca con cada cliente visto en el turno
+    private final Map<String, AtomicInteger> porDireccion = new ConcurrentHashMap<>();
+
+    // Total de sesiones eliminadas por no responder o por fallo de escritura
+    private final AtomicLong eliminadas = new AtomicLong();
+
+    // Total de conexiones rechazadas por superar el límite por dirección
+    private final AtomicLong rechazadas = new AtomicLong();
+
+    private final ScheduledExecutorService latido = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread hilo = new Thread(r, "ws-latido");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private RegistroSesiones() {
+        latido.scheduleAtFixedRate(this::revisarSesiones, PING_SEGUNDOS, PING_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    public static RegistroSesiones getInstancia() {
+        return instancia;
+    }
+
+    /**
+     * Registra una sesión nueva si su dirección no ha alcanzado el límite.
+     * Si lo ha alcanzado, la sesión se cierra con POLICY_VIOLATION.
+     *
+     * @return true si la sesión quedó registrada.
+     */
+    public boolean registrar(Session session) {
+        String direccion = direccionDe(session);
+        boolean[] admitida = new boolean[1];
+        porDireccion.compute(direccion, (d, contador) -> {
+            int abiertas = contador != null ? contador.get() : 0;
+            if (abiertas >= MAX_POR_DIRECCION) return contador; // Rechazada: la entrada queda como estaba
+            admitida[0] = true;
+            if (contador == null) contador = new AtomicInteger();
+            contador.incrementAndGet();
+            return contador;
+        });
+        if (!admitida[0]) {
+            rechazadas.incrementAndGet();
+            session.close(StatusCode.POLICY_VIOLATION, "Demasiadas conexiones desde " + direccion);
+            return false;
+        }
+        sesiones.put(session, new SesionCliente(session, direccion));
+        return true;
+    }
+
+    /**
+     * Quita una sesión del registro (cierre normal o error). Es idempotente.
+     */
+    public void eliminar(Session session) {
+        SesionCliente cliente = sesiones.remove(session);
+        if (cliente != null) {
+            porDireccion.computeIfPresent(cliente.getDireccion(), (d, c) -> c.decrementAndGet() <= 0 ? null : c);
+        }
+    }
+
+    /**
+     * Anota actividad de la sesión (mensaje o pong recibido).
+     */
+    public void marcarActividad(Session session) {
+        SesionCliente cliente = sesiones.get(session);
+        if (cliente != null) cliente.marcarActividad();
+    }
+
+    /**
+     * Elimina una sesión que ya no responde: se corta la conexión sin esperar al cierre ordenado.
+     */
+    public void descartar(Session session) {
+        if (sesiones.containsKey(session)) {
+            eliminar(session);
+            eliminadas.incrementAndGet();
+            try {
+                session.disconnect();
+            } catch (IOException e) {
+                // La conexión ya estaba rota; no hay nada más que hacer
+            }
+        }
+    }
+
+    public Collection<SesionCliente> getSesiones() {
+        return sesiones.values();
+    }
+
+    public SesionCliente getSesion(Session session) {
+        return sesiones.get(session);
+    }
+
+    // Tarea periódica: ping a las sesiones calladas y descarte de las que superan el timeout.
+    // Una excepción que escapara de aquí cancelaría la tarea para siempre (así lo hace el
+    // ScheduledExecutorService): el fallo de una sesión se anota y se sigue con las demás.
+    private void revisarSesiones() {
+        long ahora = System.currentTimeMillis();
+        for (SesionCliente cliente : sesiones.values()) {
+            try {
+                revisar(cliente, ahora);
+            } catch (RuntimeException e) {
+                System.err.println("Error al revisar la sesión de " + cliente.getDireccion() + ": " + e);
+            }
+        }
+    }
+
+    private void revisar(SesionCliente cliente, long ahora) {
+        Session session = cliente.getSession();
+        long inactivo = ahora - cliente.getUltimaActividad();
+
+        if (!session.isOpen() || inactivo > TIMEOUT_SEGUNDOS * 1000L) {
+            System.out.println("Sesión sin respuesta eliminada: " + cliente.getDireccion());
+            descartar(session);
+        } else if (inactivo >= PING_SEGUNDOS * 1000L) {
+            try {
+                session.getRemote().sendPing(ByteBuffer.allocate(0));
+            } catch (IOException | WebSocketException e) {
+                // Jetty lanza WebSocketException (no comprobada) si la conexión ya está cerrándose
+                descartar(session);
+            }
+        }
+    }
+
+    // ============ MÉTRICAS ============
+
+    /** Sesiones registradas en este momento. */
+    public int getActivas() {
+        return sesiones.size();
+    }
+
+    /** Sesiones que llevan al menos un intervalo de ping sin mandar nada (esperando pong). */
+    public int getInactivas() {
+        long limite = System.currentTimeMillis() - PING_SEGUNDOS * 1000L;
+        int n = 0;
+        for (SesionCliente cliente : sesiones.values()) {
+            if (cliente.getUltimaActividad() < limite) n++;
+        }
+        return n;
+    }
+
+    public long getEliminadas() {
+        return eliminadas.get();
+    }
+
+    public long getRechazadas() {
+        return rechazadas.get();
+    }
+
+    /** Direcciones remotas con alguna sesión abierta. */
+    public int getDirecciones() {
+        return porDireccion.size();
+    }
+
+    /**
+     * Resumen de las métricas para exponer por REST.
+     */
+    public Map<String, Object> getMetricas() {
+        Map<String, Object> metricas = new LinkedHashMap<>();
+        metricas.put("activas", getActivas());
+        metricas.put("inactivas", getInactivas());
+        metricas.put("eliminadas", getEliminadas());
+        metricas.put("rechazadas", getRechazadas());
+        metricas.put("direcciones", getDirecciones());
+        metricas.put("pingSegundos", PING_SEGUNDOS);
+        metricas.put("timeoutSegundos", TIMEOUT_SEGUNDOS);
+        metricas.put("maxPorDireccion", MAX_POR_DIRECCION);
+        return metricas;
+    }
+
+    private static String direccionDe(Session session) {
+        return session.getRemoteAddress() != null
+                ? session.getRemoteAddress().getAddress().getHostAddress()
+                : "desconocida";
+    }
+}
@@ -0,0 +1,49 @@
+package restaurante.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import restaurante.models.Estacion;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Estado que el servidor guarda de cada cliente WebSocket conectado.
+ */
+public class SesionCliente {
+
+    // Parámetro de conexión con el que una pantalla de estación pide solo sus líneas
+    public static final String PARAMETRO_ESTACION = "estacion";
+
+    private final Session session;
+    private final String direccion;                 // IP remota del cliente
+    private final boolean binario;                  // ¿Pidió el formato binario al conectar?
+    private final Estacion estacion;                // Estación de la pantalla (?estacion=plancha), o null para todo
+    private volatile long ultimaActividad;          // Último mensaje o pong recibido (ms)
+
+    public SesionCliente(Session session, String direccion) {
+        this.session = session;
+        this.direccion = direccion;
+        this.binario = ProtocoloBinario.VALOR_BINARIO.equals(parametro(session, ProtocoloBinario.PARAMETRO));
+        this.estacion = Estacion.desde(parametro(session, PARAMETRO_ESTACION));
+        this.ultimaActividad = System.currentTimeMillis();
+    }
+
+    // Valor de un parámetro de la URL de conexión (ws://...?clave=valor), o null
+    static String parametro(Session session, String clave) {
+        if (session.getUpgradeRequest() == null) return null;
+        Map<String, List<String>> parametros = session.getUpgradeRequest().getParameterMap();
+        if (parametros == null) return null;
+        List<String> valores = parametros.get(clave);
+        return (valores == null || valores.isEmpty()) ? null : valores.get(0);
+    }
+
+    public void marcarActividad() {
+        ultimaActividad = System.currentTimeMillis();
+    }
+
+    public Session getSession() { return session; }
+    public String getDireccion() { return direccion; }
+    public boolean isBinario() { return binario; }
+    public Estacion getEstacion() { return estacion; }
+    public long getUltimaActividad() { return ultimaActividad; }
+}
@@ -0,0 +1,27 @@
+-- Enrutado de la carta a las estaciones de cocina y barra (plancha, frios, pasteleria, barra).
+-- Cada fila asigna una categoría o un producto concreto (producto_id) a una estación; la regla de producto manda.
+-- Lo carga y cachea RutasCocinaService. Si la tabla está vacía se usa la tabla por defecto de RutasCocina.
+-- Ejecutar una vez sobre la base de datos "restaurante".
+
+CREATE TABLE IF NOT EXISTS estaciones_cocina (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    categoria   VARCHAR(50) NULL,
+    producto_id INT         NULL,
+    estacion    VARCHAR(20) NOT NULL,
+    CONSTRAINT fk_estaciones_producto FOREIGN KEY (producto_id) REFERENCES productos (id) ON DELETE CASCADE
+);
+
+-- "Carne"/"Carnes" y "Pescado"/"Pescados" se tratan como la misma categoría; "Pesca" se añade aparte
+INSERT INTO estaciones_cocina (categoria, estacion) VALUES
+    ('Entrantes', 'frios'),
+    ('Ensaladas', 'frios'),
+    ('Platos principales', 'plancha'),
+    ('Sugerencias', 'plancha'),
+    ('Carnes', 'plancha'),
+    ('Pescados', 'plancha'),
+    ('Pesca', 'plancha'),
+    ('Postres', 'pasteleria'),
+    ('Bebidas', 'barra'),
+    ('Refrescos', 'barra'),
+    ('Vinos', 'barra'),
+    ('Botella vino', 'barra');
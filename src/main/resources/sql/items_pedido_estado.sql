@@ -0,0 +1,14 @@
+-- Estado de preparación de cada línea de pedido (una fila de items_pedido = pedido_id + producto_id).
+-- Lo usan EstadoItemsService (escritura por lotes y tablero de cocina) y las métricas de cocina.
+-- Ejecutar una vez sobre la base de datos "restaurante".
+
+-- Una columna por sentencia para que el script valga también en la base embebida del simulador de carga
+ALTER TABLE items_pedido ADD COLUMN estado       VARCHAR(20) NOT NULL DEFAULT 'PENDIENTE';
+ALTER TABLE items_pedido ADD COLUMN hora_pedido  DATETIME    NOT NULL DEFAULT CURRENT_TIMESTAMP;  -- alta de la línea (envío a cocina)
+ALTER TABLE items_pedido ADD COLUMN hora_inicio  DATETIME    NULL;                               -- EN_PREPARACION
+ALTER TABLE items_pedido ADD COLUMN hora_listo   DATETIME    NULL;                               -- LISTO
+ALTER TABLE items_pedido ADD COLUMN hora_servido DATETIME    NULL;                               -- SERVIDO
+
+-- El tablero de cocina se reconstruye filtrando por pedidos abiertos y líneas no servidas
+CREATE INDEX idx_items_pedido_pedido_estado ON items_pedido (pedido_id, estado);
+CREATE INDEX idx_pedido_abiertos ON pedido (cerrado, id_mesa);
@@ -0,0 +1,4 @@
+-- Sala a la que pertenece cada mesa (salón, terraza, reservado...). Las mesas existentes quedan en el salón.
+-- Ejecutar una vez sobre la base de datos "restaurante".
+
+ALTER TABLE mesas ADD COLUMN sala VARCHAR(30) NOT NULL DEFAULT 'Salón';
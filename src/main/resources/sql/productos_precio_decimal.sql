@@ -0,0 +1,4 @@
+-- Precio de los productos como importe exacto en euros con dos decimales (la aplicación lo maneja en céntimos, ver Dinero).
+-- Ejecutar una vez sobre la base de datos "restaurante"; si la columna ya era DECIMAL(10,2) no cambia nada.
+
+ALTER TABLE productos MODIFY COLUMN precio DECIMAL(10,2) NOT NULL;
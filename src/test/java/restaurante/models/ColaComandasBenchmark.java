@@ -0,0 +1,82 @@
+package restaurante.models;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de recolocar una comanda en la pantalla de cocina con 10, 50 y 200 comandas abiertas.
+ *
+ * - posicion: ColaComandas.posicion, que cuenta las comandas por delante en el árbol (O(n)).
+ * - marcarYRecolocar: lo que hace CocinaController al pulsar "Listo" o al llegar una ampliación: recolocar
+ *   la comanda en la cola (O(log n)), pedir su posición y moverla en la lista de la vista (indexOf, remove
+ *   y add sobre un ArrayList, como la lista de items del ListView).
+ *
+ * La comanda del medio alterna entre terminada (pasa al final de la cola) y pendiente otra vez
+ * (vuelve a su sitio), así que cada llamada la mueve de verdad.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ColaComandasBenchmark {
+
+    @Param({"10", "50", "200"})
+    public int comandas;
+
+    private final Producto entrecot = new Producto(1, "Entrecot", "", Dinero.deEuros(20), "Platos principales", true);
+    private ColaComandas cola;
+    private List<Integer> vista;
+    private int mesaMedio;
+    private int cantidad = 1;
+    private boolean terminada;
+
+    @Setup
+    public void preparar() {
+        cola = new ColaComandas();
+        vista = new ArrayList<>();
+        for (int mesa = 0; mesa < comandas; mesa++) {
+            cola.registrar(mesa, mesa * 1_000L, List.of(new ItemPedido(entrecot, 1)));
+            vista.add(mesa);
+        }
+        mesaMedio = comandas / 2;
+    }
+
+    @Benchmark
+    public int posicion() {
+        return cola.posicion(mesaMedio);
+    }
+
+    @Benchmark
+    public void marcarYRecolocar(Blackhole bh) {
+        terminada = !terminada;
+        if (terminada) {
+            cola.marcarListo(mesaMedio, entrecot.getId());
+        } else {
+            cola.registrar(mesaMedio, 0, List.of(new ItemPedido(entrecot, ++cantidad))); // La línea crece: vuelve a pendiente
+        }
+
+        // Igual que CocinaController.recolocar
+        int posicion = cola.posicion(mesaMedio);
+        int actual = vista.indexOf(mesaMedio);
+        if (actual != posicion) {
+            if (actual >= 0) vista.remove(actual);
+            vista.add(Math.min(posicion, vista.size()), mesaMedio);
+        }
+        bh.consume(vista);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ColaComandasBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
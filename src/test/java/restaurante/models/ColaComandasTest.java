@@ -0,0 +1,126 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColaComandasTest {
+
+    private static final long MINUTO = 60_000L;
+
+    private final Producto croquetas = new Producto(1, "Croquetas", "", Dinero.deCentimos(800), "Entrantes", true);
+    private final Producto entrecot = new Producto(2, "Entrecot", "", Dinero.deCentimos(1850), "Platos principales", true);
+    private final Producto tarta = new Producto(3, "Tarta de queso", "", Dinero.deCentimos(500), "Postres", true);
+
+    private ColaComandas cola;
+
+    @BeforeEach
+    void setUp() {
+        cola = new ColaComandas(10 * MINUTO, 20 * MINUTO);
+    }
+
+    @Test
+    void comandas_deberianOrdenarsePorHoraDeEnvio() {
+        cola.registrar(3, 3_000, List.of(new ItemPedido(entrecot, 1)));
+        cola.registrar(1, 1_000, List.of(new ItemPedido(entrecot, 1)));
+        cola.registrar(2, 2_000, List.of(new ItemPedido(entrecot, 1)));
+
+        assertEquals(Arrays.asList(1, 2, 3), mesasEnOrden());
+        assertEquals(0, cola.posicion(1));
+        assertEquals(2, cola.posicion(3));
+    }
+
+    @Test
+    void cursoActual_deberiaAvanzarAlMarcarListos() {
+        cola.registrar(1, 0, Arrays.asList(
+                new ItemPedido(tarta, 1), new ItemPedido(entrecot, 2), new ItemPedido(croquetas, 1)));
+
+        assertEquals(Curso.ENTRANTES, cola.getComanda(1).getCursoActual());
+        cola.marcarListo(1, croquetas.getId());
+        assertEquals(Curso.PRINCIPALES, cola.getComanda(1).getCursoActual());
+        cola.marcarListo(1, entrecot.getId());
+        assertEquals(Curso.POSTRES, cola.getComanda(1).getCursoActual());
+        cola.marcarListo(1, tarta.getId());
+        assertTrue(cola.getComanda(1).isTerminada());
+    }
+
+    @Test
+    void comandaTerminada_deberiaPasarAlFinal() {
+        cola.registrar(1, 1_000, List.of(new ItemPedido(entrecot, 1)));
+        cola.registrar(2, 2_000, List.of(new ItemPedido(entrecot, 1)));
+
+        cola.marcarListo(1, entrecot.getId());
+
+        assertEquals(Arrays.asList(2, 1), mesasEnOrden());
+    }
+
+    @Test
+    void actualizarComanda_deberiaConservarHoraYProductosListos() {
+        cola.registrar(1, 1_000, List.of(new ItemPedido(croquetas, 1)));
+        cola.marcarListo(1, croquetas.getId());
+
+        cola.registrar(1, 9_000, Arrays.asList(new ItemPedido(croquetas, 1), new ItemPedido(entrecot, 1)));
+
+        ColaComandas.Comanda comanda = cola.getComanda(1);
+        assertEquals(1_000, comanda.getHoraEnvio());
+        assertFalse(comanda.isPendiente(croquetas.getId()));
+        assertEquals(Curso.PRINCIPALES, comanda.getCursoActual());
+    }
+
+    @Test
+    void masCantidadDeUnProductoListo_deberiaVolverAPendiente() {
+        cola.registrar(1, 0, List.of(new ItemPedido(croquetas, 1)));
+        cola.marcarListo(1, croquetas.getId());
+
+        cola.registrar(1, 0, List.of(new ItemPedido(croquetas, 2)));
+
+        assertTrue(cola.getComanda(1).isPendiente(croquetas.getId()));
+
+        // La cantidad lista no se arrastra: volver a la cantidad anterior no la da por preparada
+        cola.registrar(1, 0, List.of(new ItemPedido(croquetas, 1)));
+        assertTrue(cola.getComanda(1).isPendiente(croquetas.getId()));
+    }
+
+    @Test
+    void escalado_deberiaAdelantarComandasAntiguas() {
+        cola.registrar(1, 0, List.of(new ItemPedido(entrecot, 1)));
+        cola.registrar(2, 5 * MINUTO, List.of(new ItemPedido(entrecot, 1)));
+        cola.registrar(3, 6 * MINUTO, List.of(new ItemPedido(entrecot, 1)));
+
+        // La mesa 1 es la única que supera el primer umbral
+        List<ColaComandas.Comanda> cambiadas = cola.revisarEscalado(12 * MINUTO);
+        assertEquals(1, cambiadas.size());
+        assertEquals(1, cola.getComanda(1).getNivel());
+
+        // Más tarde: mesa 1 urgente, mesas 2 y 3 en aviso
+        cambiadas = cola.revisarEscalado(21 * MINUTO);
+        assertEquals(3, cambiadas.size());
+        assertEquals(2, cola.getComanda(1).getNivel());
+        assertEquals(1, cola.getComanda(3).getNivel());
+        assertEquals(Arrays.asList(1, 2, 3), mesasEnOrden());
+
+        // Sin nuevos umbrales superados no hay cambios
+        assertTrue(cola.revisarEscalado(21 * MINUTO).isEmpty());
+    }
+
+    @Test
+    void comandaRetirada_noDeberiaEscalar() {
+        cola.registrar(1, 0, List.of(new ItemPedido(entrecot, 1)));
+        cola.retirar(1);
+
+        assertTrue(cola.revisarEscalado(30 * MINUTO).isEmpty());
+        assertEquals(0, cola.tamanio());
+        assertEquals(-1, cola.posicion(1));
+    }
+
+    private List<Integer> mesasEnOrden() {
+        List<Integer> mesas = new ArrayList<>();
+        for (ColaComandas.Comanda comanda : cola.enOrden()) mesas.add(comanda.getMesaId());
+        return mesas;
+    }
+}
@@ -0,0 +1,73 @@
+package restaurante.models;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de cambiar una línea de la cuenta de una mesa y sacar su desglose de IVA, con 5, 20 y 50 líneas
+ * (la mitad de productos con IVA y la otra mitad exentos).
+ *
+ * - incremental: Pedido.cambiarCantidad actualiza su Cuenta y el desglose sale de los acumulados por tipo.
+ * - recalcular: volver a sumar todas las líneas en una Cuenta nueva antes de pedir el desglose, que es lo que
+ *   habría que hacer con cada cambio si no se llevara al día.
+ *
+ * Se ejecuta con el perfilador de GC para ver también los bytes reservados por cuenta.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CuentaBenchmark {
+
+    @Param({"5", "20", "50"})
+    public int lineas;
+
+    private Pedido pedido;
+    private int cantidad;
+
+    @Setup
+    public void preparar() {
+        List<ItemPedido> items = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            Producto producto = new Producto(i + 1, "Producto " + i, "", Dinero.deCentimos(195 + 85 * i),
+                    "Entrantes", i % 2 == 0);
+            items.add(new ItemPedido(producto, 1 + i % 4));
+        }
+        pedido = new Pedido(1);
+        pedido.setItems(items);
+    }
+
+    @Benchmark
+    public List<Cuenta.LineaIva> incremental() {
+        cantidad = cantidad % 4 + 1;
+        pedido.cambiarCantidad(1, cantidad);
+        return pedido.getCuenta().getDesglose();
+    }
+
+    @Benchmark
+    public List<Cuenta.LineaIva> recalcular() {
+        cantidad = cantidad % 4 + 1;
+        pedido.cambiarCantidad(1, cantidad);
+        Cuenta cuenta = new Cuenta();
+        for (ItemPedido item : pedido.getItems()) {
+            cuenta.sumar(item.getProducto(), item.getCantidad());
+        }
+        return cuenta.getDesglose();
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(CuentaBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
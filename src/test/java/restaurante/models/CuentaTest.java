@@ -0,0 +1,91 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CuentaTest {
+
+    private final Producto entrecot = new Producto(1, "Entrecot", "", Dinero.parse("18.50"), "Platos principales", true);
+    private final Producto cana = new Producto(2, "Caña", "", Dinero.parse("2.20"), "Bebidas", true);
+    private final Producto pan = new Producto(3, "Pan", "", Dinero.parse("1.00"), "Varios", false);
+
+    @Test
+    void desglosePorTipoConElIvaIncluido() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.sumar(entrecot, 2);
+        cuenta.sumar(cana, 5);
+        cuenta.sumar(pan, 2);
+
+        assertEquals(Dinero.parse("50.00"), cuenta.getTotal());
+        List<Cuenta.LineaIva> desglose = cuenta.getDesglose();
+        assertEquals(2, desglose.size());
+
+        assertEquals(0, desglose.get(0).getTipo());
+        assertEquals(Dinero.parse("2.00"), desglose.get(0).getBase());
+        assertEquals(Dinero.CERO, desglose.get(0).getIva());
+
+        assertEquals(Cuenta.IVA_HOSTELERIA, desglose.get(1).getTipo());
+        assertEquals(Dinero.parse("48.00"), desglose.get(1).getTotal());
+        assertEquals(Dinero.parse("43.64"), desglose.get(1).getBase()); // 48 / 1.10 = 43.636...
+        assertEquals(Dinero.parse("4.36"), desglose.get(1).getIva());
+
+        assertEquals(Dinero.parse("45.64"), cuenta.getBaseImponible());
+        assertEquals(Dinero.parse("4.36"), cuenta.getIva());
+    }
+
+    @Test
+    void elPedidoLaLlevaAlDiaConCadaCambio() {
+        Pedido pedido = new Pedido(5);
+        pedido.agregarItem(entrecot, 1);
+        pedido.agregarProducto(cana);
+        pedido.agregarItem(pan, 3);
+        assertEquals(Dinero.parse("23.70"), pedido.getTotal());
+
+        assertTrue(pedido.cambiarCantidad(1, 3));
+        assertEquals(Dinero.parse("60.70"), pedido.getTotal());
+
+        assertTrue(pedido.eliminarProducto(3));
+        assertFalse(pedido.eliminarProducto(3));
+        assertEquals(1, pedido.getCuenta().getDesglose().size()); // Sin el pan ya no hay línea exenta
+
+        assertTrue(pedido.cambiarCantidad(2, 0)); // Cantidad 0: se quita
+        assertEquals(Dinero.parse("55.50"), pedido.getTotal());
+        assertFalse(pedido.cambiarCantidad(99, 2));
+
+        pedido.setItems(Arrays.asList(new ItemPedido(pan, 1)));
+        assertEquals(Dinero.parse("1.00"), pedido.getTotal());
+        assertEquals(0, pedido.getCuenta().getDesglose().get(0).getTipo());
+    }
+
+    @Test
+    void incrementalIgualQueSumarDeNuevo() {
+        Pedido pedido = new Pedido(6);
+        for (int i = 0; i < 50; i++) {
+            Producto producto = new Producto(i + 1, "Producto " + i, "", Dinero.deCentimos(195 + 37 * i), "Entrantes", i % 3 != 0);
+            pedido.agregarItem(producto, 1 + i % 4);
+        }
+        for (int i = 1; i <= 50; i += 7) pedido.cambiarCantidad(i, i % 5);
+        pedido.eliminarProducto(2);
+
+        Cuenta desdeCero = new Cuenta();
+        for (ItemPedido item : pedido.getItems()) desdeCero.sumar(item.getProducto(), item.getCantidad());
+
+        assertEquals(desdeCero.getTotal(), pedido.getTotal());
+        assertEquals(desdeCero.getBaseImponible(), pedido.getCuenta().getBaseImponible());
+        assertEquals(desdeCero.getDesglose().toString(), pedido.getCuenta().getDesglose().toString());
+    }
+
+    @Test
+    void vaciar() {
+        Cuenta cuenta = new Cuenta();
+        cuenta.sumar(cana, 2);
+        cuenta.vaciar();
+        assertTrue(cuenta.estaVacia());
+        assertSame(Dinero.CERO, cuenta.getTotal());
+        assertTrue(cuenta.getDesglose().isEmpty());
+    }
+}
@@ -0,0 +1,66 @@
+package restaurante.models;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.Test;
+import restaurante.api.ItemPedidoAPI;
+
+import java.math.BigDecimal;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DineroTest {
+
+    @Test
+    void sumarLineasNoArrastraErroresDeDouble() {
+        // 0.1 + 0.2 con double da 0.30000000000000004
+        assertEquals(Dinero.deCentimos(30), Dinero.parse("0.10").mas(Dinero.parse("0.20")));
+
+        Pedido pedido = new Pedido(1);
+        pedido.setItems(Arrays.asList(
+                new ItemPedido(new Producto(1, "Caña", "", Dinero.parse("2.10"), "Bebidas", true), 3),
+                new ItemPedido(new Producto(2, "Tapa", "", Dinero.parse("1.10"), "Entrantes", true), 7)));
+        assertEquals("14.00", pedido.getTotal().toString());
+    }
+
+    @Test
+    void parseYColumnaDecimalRedondeanAlCentimo() {
+        assertEquals(1250, Dinero.parse(" 12,5 ").getCentimos());
+        assertEquals(1001, Dinero.parse("10.005").getCentimos());
+        assertEquals(-101, Dinero.parse("-1.005").getCentimos());
+        assertEquals(new BigDecimal("18.50"), Dinero.de(new BigDecimal("18.5")).toBigDecimal());
+        assertNull(Dinero.de(null));
+        assertThrows(NumberFormatException.class, () -> Dinero.parse("doce"));
+    }
+
+    @Test
+    void ivaYBaseImponible() {
+        Dinero base = Dinero.parse("12.35");
+        assertEquals(Dinero.parse("1.24"), base.porcentaje(10)); // 1.235 -> 1.24
+
+        Dinero conIva = Dinero.parse("11.00");
+        assertEquals(Dinero.parse("10.00"), conIva.baseImponible(10));
+        assertEquals(Dinero.parse("9.09"), Dinero.parse("11.00").baseImponible(21)); // 9.0909...
+        assertEquals(Dinero.parse("-10.00"), Dinero.parse("-11.00").baseImponible(10));
+    }
+
+    @Test
+    void textoConDosDecimales() {
+        assertEquals("0.05", Dinero.deCentimos(5).toString());
+        assertEquals("-3.40", Dinero.deCentimos(-340).toString());
+        assertEquals("7.00", Dinero.deEuros(7).toString());
+        assertSame(Dinero.CERO, Dinero.deCentimos(0));
+    }
+
+    @Test
+    void jsonComoNumero() {
+        Gson gson = new Gson();
+        ItemPedidoAPI item = new ItemPedidoAPI(7, "Entrecot", Dinero.parse("18.5"), 2);
+        String json = gson.toJson(item);
+        assertTrue(json.contains("\"precio\":18.50"), json);
+
+        assertEquals(Dinero.deCentimos(1850), gson.fromJson(json, ItemPedidoAPI.class).getPrecio());
+        assertEquals(Dinero.deCentimos(1850), gson.fromJson("{\"precio\":18.5}", ItemPedidoAPI.class).getPrecio());
+        assertNull(gson.fromJson("{\"productoId\":7}", ItemPedidoAPI.class).getPrecio());
+    }
+}
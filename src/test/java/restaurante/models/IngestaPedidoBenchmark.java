@@ -0,0 +1,63 @@
+package restaurante.models;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.PedidoAPI;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de convertir a modelo un pedido recibido por REST o WebSocket, con 5 y 20 líneas.
+ *
+ * - toModel: PedidoAPI.toModel (guardado de pedidos y cliente WebSocket).
+ * - fromAPI: Pedido.fromAPI / ItemPedido.fromAPI.
+ *
+ * Se ejecuta con el perfilador de GC: gc.alloc.rate.norm son los bytes reservados por pedido convertido.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class IngestaPedidoBenchmark {
+
+    @Param({"5", "20"})
+    public int lineas;
+
+    private PedidoAPI pedidoAPI;
+
+    @Setup
+    public void preparar() {
+        List<ItemPedidoAPI> items = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            ItemPedidoAPI item = new ItemPedidoAPI(100 + i, "Producto de la carta " + i, Dinero.deCentimos(450 + 100 * i), 1 + i % 3);
+            item.setCategoria(i % 2 == 0 ? "Entrantes" : "Platos principales");
+            items.add(item);
+        }
+        pedidoAPI = new PedidoAPI(12, 4, items);
+    }
+
+    @Benchmark
+    public Pedido toModel() {
+        return pedidoAPI.toModel();
+    }
+
+    @Benchmark
+    public Pedido fromAPI() {
+        return Pedido.fromAPI(pedidoAPI);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(IngestaPedidoBenchmark.class.getSimpleName())
+                .addProfiler(GCProfiler.class)
+                .build()).run();
+    }
+}
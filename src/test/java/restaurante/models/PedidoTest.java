@@ -0,0 +1,64 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PedidoTest {
+
+    private final Producto croquetas = new Producto(1, "Croquetas", "", Dinero.parse("8.00"), "Entrantes", true);
+    private final Producto entrecot = new Producto(2, "Entrecot", "", Dinero.parse("18.50"), "Platos principales", true);
+    private final Producto tarta = new Producto(3, "Tarta de queso", "", Dinero.parse("5.00"), "Postres", true);
+
+    @Test
+    void unaLineaPorProductoEnOrdenDePedido() {
+        Pedido pedido = new Pedido(4);
+        pedido.agregarItem(entrecot, 2);
+        pedido.agregarProducto(croquetas);
+        pedido.agregarOActualizarItem(new ItemPedido(entrecot, 1));
+        pedido.addItem(new ItemPedido(tarta, 3));
+
+        assertEquals(Arrays.asList(2, 1, 3), productos(pedido.getItems()));
+        assertEquals(3, pedido.getItemDeProducto(2).getCantidad());
+        assertTrue(pedido.contieneProducto(3));
+        assertFalse(pedido.contieneProducto(99));
+        assertEquals(Dinero.parse("78.50"), pedido.getTotal());
+    }
+
+    @Test
+    void setItemsSumaLasLineasRepetidas() {
+        Pedido pedido = new Pedido(4);
+        pedido.setItems(Arrays.asList(
+                new ItemPedido(10, 7, tarta, 1), new ItemPedido(11, 7, croquetas, 2), new ItemPedido(12, 7, tarta, 2)));
+
+        assertEquals(Arrays.asList(3, 1), productos(pedido.getItems()));
+        assertEquals(3, pedido.getItemDeProducto(3).getCantidad());
+
+        assertTrue(pedido.eliminarItem(11));
+        assertFalse(pedido.contieneProducto(1));
+        assertEquals(Dinero.parse("15.00"), pedido.getTotal());
+    }
+
+    @Test
+    void getItemsEsUnaFotoInmutableQueSeReutiliza() {
+        Pedido pedido = new Pedido(4);
+        assertTrue(pedido.getItems().isEmpty()); // Sin items no falla aunque no se haya llamado a setItems
+        pedido.agregarItem(croquetas, 1);
+
+        List<ItemPedido> foto = pedido.getItems();
+        assertSame(foto, pedido.getItems());
+        assertThrows(UnsupportedOperationException.class, () -> foto.add(new ItemPedido(tarta, 1)));
+
+        pedido.agregarItem(croquetas, 1);
+        assertNotSame(foto, pedido.getItems());
+        assertEquals(1, foto.get(0).getCantidad()); // La foto anterior no cambia
+        assertEquals(2, pedido.getItems().get(0).getCantidad());
+    }
+
+    private static List<Integer> productos(List<ItemPedido> items) {
+        return Arrays.asList(items.stream().map(item -> item.getProducto().getId()).toArray(Integer[]::new));
+    }
+}
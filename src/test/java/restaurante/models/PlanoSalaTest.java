@@ -0,0 +1,195 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PlanoSalaTest {
+
+    private PlanoSala plano;
+
+    @BeforeEach
+    void setUp() {
+        plano = new PlanoSala();
+        plano.cargar(Arrays.asList(
+                new Mesa(1, 1, 0, 0, false, false),
+                new Mesa(2, 2, 200, 0, true, false),
+                new Mesa(3, 3, 240, 40, false, false),
+                new Mesa(4, 4, 0, 200, false, false)), Map.of(3, EstadoMesa.CON_PEDIDO), Set.of(3, 4));
+        plano.tomarZonasSucias(1000, 800);
+    }
+
+    @Test
+    void estadoInicialSegunPedidoYOcupada() {
+        assertEquals(EstadoMesa.LIBRE, plano.getEstado(1));
+        assertEquals(EstadoMesa.OCUPADA, plano.getEstado(2));
+        assertEquals(EstadoMesa.CON_PEDIDO, plano.getEstado(3)); // El pedido manda sobre la reserva
+        assertEquals(EstadoMesa.RESERVADA, plano.getEstado(4));
+    }
+
+    @Test
+    void cicloDelPedido_soloEnsuciaLaMesaAfectada() {
+        assertTrue(plano.abrirPedido(1, false));
+        assertFalse(plano.abrirPedido(1, false)); // Items añadidos a un pedido ya abierto
+        assertTrue(plano.abrirPedido(1, true));
+        assertEquals(EstadoMesa.EN_COCINA, plano.getEstado(1));
+
+        List<PlanoSala.Zona> zonas = plano.tomarZonasSucias(1000, 800);
+        assertEquals(2, zonas.size());
+        assertEquals(Arrays.asList(1), ids(plano.mesasEn(zonas.get(0))));
+
+        assertTrue(plano.cerrarPedido(1));
+        assertEquals(EstadoMesa.LIBRE, plano.getEstado(1));
+        assertTrue(plano.cerrarPedido(3)); // Cobrada: la reserva se da por consumida
+        assertEquals(EstadoMesa.LIBRE, plano.getEstado(3));
+        assertFalse(plano.cerrarPedido(99));
+    }
+
+    @Test
+    void reservaNoTapaUnPedidoAbierto() {
+        assertFalse(plano.setReservada(3, true));
+        assertEquals(EstadoMesa.CON_PEDIDO, plano.getEstado(3));
+
+        assertTrue(plano.setReservada(1, true));
+        assertEquals(EstadoMesa.RESERVADA, plano.getEstado(1));
+        assertTrue(plano.setReservada(4, false));
+        assertEquals(EstadoMesa.LIBRE, plano.getEstado(4));
+        assertFalse(plano.setReservada(2, true)); // Ocupada manda sobre la reserva
+    }
+
+    @Test
+    void mesaEn_devuelveLaDeEncimaSiSeSolapan() {
+        assertEquals(1, plano.mesaEn(10, 10).getIdMesa());
+        assertEquals(3, plano.mesaEn(250, 50).getIdMesa()); // La 3 se pintó después que la 2
+        assertEquals(2, plano.mesaEn(210, 10).getIdMesa());
+        assertNull(plano.mesaEn(100, 100));
+
+        plano.mover(2, 200, 0); // Al moverla pasa al frente
+        assertEquals(2, plano.mesaEn(250, 50).getIdMesa());
+    }
+
+    @Test
+    void mover_ensuciaLaPosicionAnteriorYLaNueva() {
+        plano.mover(1, 500, 300);
+
+        List<PlanoSala.Zona> zonas = plano.tomarZonasSucias(1000, 800);
+        assertEquals(2, zonas.size());
+        assertEquals(-PlanoSala.MARGEN, zonas.get(0).getX());
+        assertEquals(500 - PlanoSala.MARGEN, zonas.get(1).getX());
+        assertFalse(plano.haySucias());
+        assertEquals(1, plano.mesaEn(510, 310).getIdMesa());
+    }
+
+    @Test
+    void setEstado_soloEnsuciaSiCambia() {
+        assertFalse(plano.setEstado(2, EstadoMesa.OCUPADA));
+        assertFalse(plano.haySucias());
+
+        assertTrue(plano.setEstado(2, EstadoMesa.CON_PEDIDO));
+        List<PlanoSala.Zona> zonas = plano.tomarZonasSucias(1000, 800);
+        assertEquals(1, zonas.size());
+        // Solo las mesas que cortan la zona se vuelven a pintar
+        assertEquals(Arrays.asList(2, 3), ids(plano.mesasEn(zonas.get(0))));
+    }
+
+    @Test
+    void muchasZonasSeAgrupanEnSuEnvolvente() {
+        for (int i = 1; i <= 20; i++) plano.mover(1, i * 10, 0);
+
+        List<PlanoSala.Zona> zonas = plano.tomarZonasSucias(1000, 800);
+        assertTrue(zonas.size() <= 16);
+        PlanoSala.Zona envolvente = zonas.get(0);
+        for (PlanoSala.Zona zona : zonas) envolvente = envolvente.unir(zona);
+        assertEquals(-PlanoSala.MARGEN, envolvente.getX());
+        assertTrue(envolvente.getX() + envolvente.getAncho() >= 200 + PlanoSala.LADO);
+    }
+
+    @Test
+    void moverSiCabe_ajustaALaRejillaYNoPisaOtraMesa() {
+        assertTrue(plano.moverSiCabe(1, 47, 71));
+        assertEquals(40, plano.getMesa(1).getPosicionX());
+        assertEquals(80, plano.getMesa(1).getPosicionY());
+
+        assertFalse(plano.moverSiCabe(1, 150, 20)); // Pisaría a la 2 (200,0)
+        assertEquals(40, plano.getMesa(1).getPosicionX());
+        assertTrue(plano.moverSiCabe(1, 120, 20)); // Tocarse por el borde sí vale
+        assertEquals(1, plano.mesaEn(130, 30).getIdMesa());
+        assertNull(plano.mesaEn(50, 90)); // El índice ya no la tiene en su posición anterior
+    }
+
+    @Test
+    void mesaMasCercana_ignoraLaExcluidaYLasLejanas() {
+        Mesa primera = plano.getMesa(1);
+        assertEquals(2, plano.mesaMasCercana(230, 30, 100, null).getIdMesa());
+        assertEquals(3, plano.mesaMasCercana(260, 60, 100, null).getIdMesa());
+        assertNull(plano.mesaMasCercana(40, 40, 100, primera));
+        assertNull(plano.mesaMasCercana(600, 600, 100, null));
+    }
+
+    @Test
+    void huecoLibre_buscaLaPosicionMasCercanaSinSolape() {
+        PlanoSala.Zona hueco = plano.huecoLibre(0, 0);
+        assertNotNull(hueco);
+        assertTrue(plano.cabe(null, hueco.getX(), hueco.getY()));
+        assertEquals(80, Math.max(hueco.getX(), hueco.getY()));
+
+        PlanoSala.Zona libre = plano.huecoLibre(600, 400);
+        assertEquals(600, libre.getX());
+        assertEquals(400, libre.getY());
+    }
+
+    @Test
+    void muchasMesas_consultasPorIndice() {
+        List<Mesa> mesas = new java.util.ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            mesas.add(new Mesa(i + 1, i + 1, (i % 25) * 100, (i / 25) * 100, false, false));
+        }
+        plano.cargar(mesas, Map.of(), Set.of());
+
+        assertEquals(264, plano.mesaEn(1310, 1010).getIdMesa()); // Fila 10, columna 13 (id = 10 * 25 + 13 + 1)
+        assertEquals(4, plano.mesasEn(new PlanoSala.Zona(170, 170, 40, 40)).size());
+        assertFalse(plano.moverSiCabe(1, 60, 0));
+        assertTrue(plano.moverSiCabe(500, 2400, 2000));
+        assertEquals(500, plano.mesaEn(2410, 2010).getIdMesa());
+    }
+
+    @Test
+    void soloSeGuardanLasMesasMovidas() {
+        List<Mesa> mesas = new java.util.ArrayList<>();
+        for (int i = 0; i < 150; i++) {
+            mesas.add(new Mesa(i + 1, i + 1, (i % 15) * 100, (i / 15) * 100, false, false));
+        }
+        plano.cargar(mesas, Map.of(), Set.of());
+        assertFalse(plano.hayMovidas());
+
+        plano.moverSiCabe(7, 620, 20);
+        plano.moverSiCabe(40, 900, 220);
+        plano.moverSiCabe(7, 640, 20);
+        assertFalse(plano.moverSiCabe(1, 100, 0)); // Pisa a la 2: no cuenta como movida
+
+        assertEquals(Arrays.asList(7, 40), ids(plano.getMesasMovidas()));
+        plano.marcarGuardadas();
+        assertFalse(plano.hayMovidas());
+    }
+
+    @Test
+    void repintarTodo_devuelveLaVistaEntera() {
+        plano.setEstado(1, EstadoMesa.OCUPADA);
+        plano.repintarTodo();
+
+        List<PlanoSala.Zona> zonas = plano.tomarZonasSucias(1000, 800);
+        assertEquals(1, zonas.size());
+        assertEquals(1000, zonas.get(0).getAncho());
+        assertEquals(800, zonas.get(0).getAlto());
+    }
+
+    private static List<Integer> ids(List<Mesa> mesas) {
+        return Arrays.asList(mesas.stream().map(Mesa::getIdMesa).toArray(Integer[]::new));
+    }
+}
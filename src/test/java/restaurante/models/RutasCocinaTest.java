@@ -0,0 +1,47 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RutasCocinaTest {
+
+    @Test
+    void singularYPluralVanALaMismaEstacion() {
+        RutasCocina rutas = RutasCocina.porDefecto();
+
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(1, "Carne"));
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(1, "Carnes"));
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(1, "Pescado"));
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(1, "Pesca"));
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(1, " pescados "));
+    }
+
+    @Test
+    void laReglaDeProductoMandaSobreLaDeCategoria() {
+        RutasCocina rutas = RutasCocina.porDefecto();
+        rutas.asignarProducto(7, Estacion.FRIOS); // Carpaccio en la carta de carnes
+
+        assertEquals(Estacion.FRIOS, rutas.estacionDe(7, "Carnes"));
+        assertEquals(Estacion.PLANCHA, rutas.estacionDe(8, "Carnes"));
+    }
+
+    @Test
+    void laBarraYLoSinEnrutarNoSonCocina() {
+        RutasCocina rutas = RutasCocina.porDefecto();
+
+        assertTrue(rutas.esCocina(new Producto(1, "Tarta", "", Dinero.deEuros(5), "Postres", true)));
+        assertFalse(rutas.esCocina(new Producto(2, "Caña", "", Dinero.deEuros(2), "Bebidas", true)));
+        assertFalse(rutas.esCocina(new Producto(3, "Pan", "", Dinero.deEuros(1), "Varios", true)));
+        assertNull(rutas.estacionDe(3, null));
+    }
+
+    @Test
+    void estacionDesdeCodigoONombre() {
+        assertEquals(Estacion.PASTELERIA, Estacion.desde("pasteleria"));
+        assertEquals(Estacion.PASTELERIA, Estacion.desde("Pastelería"));
+        assertEquals(Estacion.FRIOS, Estacion.desde("FRIOS"));
+        assertNull(Estacion.desde("horno"));
+        assertNull(Estacion.desde(""));
+    }
+}
@@ -0,0 +1,119 @@
+package restaurante.models;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Coste de actualizar la pantalla de cocina cuando cambia el pedido de una sola mesa,
+ * con 10, 50 y 200 comandas abiertas.
+ *
+ * - incremental: el tablero retenido calcula la diferencia y solo notifica la línea cambiada.
+ * - reconstruccionCompleta: lo que hacía actualizarVista, vaciar y volver a crear todas las filas.
+ *
+ * Cada notificación equivale a crear o tocar un nodo JavaFX; el receptor solo las cuenta,
+ * así que el resultado mide el trabajo del modelo sin arrancar la interfaz.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class TableroCocinaBenchmark {
+
+    private static final String[] CATEGORIAS = {"Entrantes", "Platos principales", "Postres"};
+
+    @Param({"10", "50", "200"})
+    public int comandas;
+
+    private List<List<ItemPedido>> pedidos;
+    private List<ItemPedido> pedidoModificadoA;
+    private List<ItemPedido> pedidoModificadoB;
+    private TableroCocina tablero;
+    private boolean alternar;
+
+    @Setup
+    public void preparar() {
+        List<Producto> carta = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            carta.add(new Producto(i + 1, "Producto " + i, "", Dinero.deEuros(5 + i), CATEGORIAS[i % CATEGORIAS.length], true));
+        }
+
+        pedidos = new ArrayList<>();
+        for (int mesa = 0; mesa < comandas; mesa++) {
+            List<ItemPedido> items = new ArrayList<>();
+            for (int l = 0; l < 6; l++) {
+                items.add(new ItemPedido(carta.get((mesa * 7 + l * 5) % carta.size()), 1 + l % 2));
+            }
+            pedidos.add(items);
+        }
+
+        // La mesa del medio alterna entre dos versiones que solo difieren en la cantidad de una línea
+        pedidoModificadoA = pedidos.get(comandas / 2);
+        pedidoModificadoB = new ArrayList<>(pedidoModificadoA);
+        ItemPedido ultimo = pedidoModificadoB.remove(pedidoModificadoB.size() - 1);
+        pedidoModificadoB.add(new ItemPedido(ultimo.getProducto(), ultimo.getCantidad() + 1));
+
+        tablero = new TableroCocina();
+        Contador nulo = new Contador(null);
+        for (int mesa = 0; mesa < comandas; mesa++) {
+            tablero.actualizarMesa(mesa, pedidos.get(mesa), nulo);
+        }
+    }
+
+    @Benchmark
+    public void incremental(Blackhole bh) {
+        alternar = !alternar;
+        Contador contador = new Contador(bh);
+        tablero.actualizarMesa(comandas / 2, alternar ? pedidoModificadoB : pedidoModificadoA, contador);
+        bh.consume(contador.nodos);
+    }
+
+    @Benchmark
+    public void reconstruccionCompleta(Blackhole bh) {
+        alternar = !alternar;
+        Contador contador = new Contador(bh);
+        TableroCocina nuevo = new TableroCocina();
+        for (int mesa = 0; mesa < comandas; mesa++) {
+            List<ItemPedido> items = mesa == comandas / 2
+                    ? (alternar ? pedidoModificadoB : pedidoModificadoA)
+                    : pedidos.get(mesa);
+            nuevo.actualizarMesa(mesa, items, contador);
+        }
+        bh.consume(contador.nodos);
+    }
+
+    // Cuenta los nodos que la vista tendría que crear o modificar
+    private static final class Contador implements TableroCocina.Cambios {
+        private final Blackhole bh;
+        int nodos;
+
+        Contador(Blackhole bh) { this.bh = bh; }
+
+        private void tocar(Object o) {
+            nodos++;
+            if (bh != null) bh.consume(o);
+        }
+
+        public void mesaAnadida(int mesaId) { tocar(mesaId); }
+        public void mesaEliminada(int mesaId) { tocar(mesaId); }
+        public void categoriaAnadida(int mesaId, String categoria) { tocar(categoria); }
+        public void categoriaEliminada(int mesaId, String categoria) { tocar(categoria); }
+        public void lineaAnadida(int mesaId, String categoria, TableroCocina.Linea linea) { tocar(linea); }
+        public void lineaActualizada(int mesaId, String categoria, TableroCocina.Linea linea) { tocar(linea); }
+        public void lineaEliminada(int mesaId, String categoria, TableroCocina.Linea linea) { tocar(linea); }
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(TableroCocinaBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
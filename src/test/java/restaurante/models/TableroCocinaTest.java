@@ -0,0 +1,149 @@
+package restaurante.models;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TableroCocinaTest {
+
+    private final Producto ensalada = new Producto(1, "Ensalada César", "", Dinero.deCentimos(900), "Ensaladas", true);
+    private final Producto entrecot = new Producto(2, "Entrecot", "", Dinero.deCentimos(1850), "Platos principales", true);
+    private final Producto tarta = new Producto(3, "Tarta de queso", "", Dinero.deCentimos(500), "Postres", true);
+
+    private TableroCocina tablero;
+    private Registro cambios;
+
+    @BeforeEach
+    void setUp() {
+        tablero = new TableroCocina();
+        cambios = new Registro();
+    }
+
+    @Test
+    void mesaNueva_deberiaAnadirMesaCategoriasYLineas() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2)), cambios);
+
+        assertEquals(Arrays.asList(
+                "+mesa 5", "+cat 5 Ensaladas", "+linea 5 Ensaladas Ensalada César x1",
+                "+cat 5 Platos principales", "+linea 5 Platos principales Entrecot x2"), cambios.lista);
+    }
+
+    @Test
+    void mismoPedido_noDeberiaProducirCambios() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2)), cambios);
+        cambios.lista.clear();
+
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2)), cambios);
+
+        assertTrue(cambios.lista.isEmpty());
+    }
+
+    @Test
+    void cambioDeUnaLinea_deberiaNotificarSoloEsaLinea() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2)), cambios);
+        tablero.actualizarMesa(8, Collections.singletonList(new ItemPedido(tarta, 1)), cambios);
+        cambios.lista.clear();
+
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 3)), cambios);
+
+        assertEquals(Collections.singletonList("~linea 5 Platos principales Entrecot x3"), cambios.lista);
+    }
+
+    @Test
+    void productoRepetido_deberiaSumarCantidadesSinModificarLosItems() {
+        ItemPedido primero = new ItemPedido(entrecot, 1);
+        tablero.actualizarMesa(5, Arrays.asList(primero, new ItemPedido(entrecot, 2)), cambios);
+
+        assertTrue(cambios.lista.contains("+linea 5 Platos principales Entrecot x3"));
+        assertEquals(1, primero.getCantidad());
+    }
+
+    @Test
+    void categoriaQueDesaparece_deberiaEliminarse() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(tarta, 1)), cambios);
+        cambios.lista.clear();
+
+        tablero.actualizarMesa(5, Collections.singletonList(new ItemPedido(ensalada, 1)), cambios);
+
+        assertEquals(Collections.singletonList("-cat 5 Postres"), cambios.lista);
+        assertEquals(1, tablero.getNumeroLineas());
+    }
+
+    @Test
+    void mesaSinProductos_deberiaEliminarse() {
+        tablero.actualizarMesa(5, Collections.singletonList(new ItemPedido(ensalada, 1)), cambios);
+        cambios.lista.clear();
+
+        tablero.actualizarMesa(5, new ArrayList<>(), cambios);
+
+        assertEquals(Collections.singletonList("-mesa 5"), cambios.lista);
+        assertEquals(0, tablero.getNumeroMesas());
+    }
+
+    @Test
+    void quitarLinea_deberiaVolverAAparecerSiSigueEnElPedido() {
+        List<ItemPedido> items = Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2));
+        tablero.actualizarMesa(5, items, cambios);
+        cambios.lista.clear();
+
+        tablero.quitarLinea(5, "Ensaladas", ensalada.getId(), cambios);
+        tablero.actualizarMesa(5, items, cambios);
+
+        assertEquals(Arrays.asList("-cat 5 Ensaladas", "+cat 5 Ensaladas", "+linea 5 Ensaladas Ensalada César x1"),
+                cambios.lista);
+    }
+
+    @Test
+    void quitarUltimaLinea_deberiaEliminarLaMesa() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 2)), cambios);
+        tablero.actualizarMesa(8, Collections.singletonList(new ItemPedido(tarta, 1)), cambios);
+        cambios.lista.clear();
+
+        tablero.quitarLinea(5, "Ensaladas", ensalada.getId(), cambios);
+        tablero.quitarLinea(5, "Platos principales", entrecot.getId(), cambios);
+
+        assertEquals(Arrays.asList("-cat 5 Ensaladas", "-mesa 5"), cambios.lista);
+        assertFalse(tablero.tieneMesa(5));
+        assertEquals(1, tablero.getNumeroMesas());
+    }
+
+    @Test
+    void getCategorias_deberiaDevolverLasLineasDeLaMesaSinPermitirModificarlas() {
+        tablero.actualizarMesa(5, Arrays.asList(new ItemPedido(entrecot, 2), new ItemPedido(ensalada, 1)), cambios);
+
+        Map<String, Map<Integer, TableroCocina.Linea>> categorias = tablero.getCategorias(5);
+        assertTrue(tablero.tieneMesa(5));
+        assertEquals(Arrays.asList("Platos principales", "Ensaladas"), new ArrayList<>(categorias.keySet()));
+        assertEquals(2, categorias.get("Platos principales").get(entrecot.getId()).getCantidad());
+        assertThrows(UnsupportedOperationException.class, () -> categorias.remove("Ensaladas"));
+
+        assertFalse(tablero.tieneMesa(8));
+        assertTrue(tablero.getCategorias(8).isEmpty());
+    }
+
+    // Anota los cambios recibidos como texto para comparar fácilmente
+    private static class Registro implements TableroCocina.Cambios {
+        final List<String> lista = new ArrayList<>();
+
+        public void mesaAnadida(int mesaId) { lista.add("+mesa " + mesaId); }
+        public void mesaEliminada(int mesaId) { lista.add("-mesa " + mesaId); }
+        public void categoriaAnadida(int mesaId, String categoria) { lista.add("+cat " + mesaId + " " + categoria); }
+        public void categoriaEliminada(int mesaId, String categoria) { lista.add("-cat " + mesaId + " " + categoria); }
+        public void lineaAnadida(int mesaId, String categoria, TableroCocina.Linea linea) {
+            lista.add("+linea " + mesaId + " " + categoria + " " + linea.getNombre() + " x" + linea.getCantidad());
+        }
+        public void lineaActualizada(int mesaId, String categoria, TableroCocina.Linea linea) {
+            lista.add("~linea " + mesaId + " " + categoria + " " + linea.getNombre() + " x" + linea.getCantidad());
+        }
+        public void lineaEliminada(int mesaId, String categoria, TableroCocina.Linea linea) {
+            lista.add("-linea " + mesaId + " " + categoria + " " + linea.getNombre());
+        }
+    }
+}
@@ -0,0 +1,113 @@
+package restaurante.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import restaurante.eventos.EventoDominio;
+import restaurante.models.Dinero;
+import restaurante.models.ItemPedido;
+import restaurante.models.Pedido;
+import restaurante.models.Producto;
+import restaurante.models.RutasCocina;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ConteoCocinaServiceTest {
+
+    private final Producto entrecot = new Producto(1, "Entrecot", "", Dinero.deCentimos(1850), "Platos principales", true);
+    private final Producto lubina = new Producto(2, "Lubina", "", Dinero.deCentimos(1700), "Platos principales", true);
+    private final Producto tarta = new Producto(3, "Tarta de queso", "", Dinero.deCentimos(500), "Postres", true);
+    private final Producto cana = new Producto(4, "Caña", "", Dinero.deCentimos(250), "Bebidas", true);
+    private final Producto menu = new Producto(5, "Menú del día", "", Dinero.deCentimos(1400), "Menús", true);
+
+    private ConteoCocinaService conteo;
+
+    @BeforeEach
+    void setUp() {
+        conteo = new ConteoCocinaService(RutasCocina.porDefecto()::estacionDe);
+    }
+
+    @Test
+    void pedidosDeVariasMesas_deberianSumarse() {
+        conteo.actualizarMesa(1, Arrays.asList(new ItemPedido(entrecot, 2), new ItemPedido(tarta, 1)));
+        conteo.actualizarMesa(2, List.of(new ItemPedido(entrecot, 3)));
+
+        assertEquals(5, conteo.getPendientes(entrecot.getId()));
+        assertEquals(5, conteo.getPendientesCategoria("Platos principales"));
+        assertEquals(1, conteo.getPendientesCategoria("Postres"));
+    }
+
+    @Test
+    void actualizarMesa_deberiaAplicarSoloLaDiferencia() {
+        conteo.actualizarMesa(1, List.of(new ItemPedido(entrecot, 2)));
+        conteo.actualizarMesa(2, List.of(new ItemPedido(entrecot, 1)));
+
+        conteo.actualizarMesa(1, Arrays.asList(new ItemPedido(entrecot, 1), new ItemPedido(lubina, 1)));
+
+        assertEquals(2, conteo.getPendientes(entrecot.getId()));
+        assertEquals(1, conteo.getPendientes(lubina.getId()));
+        assertEquals(3, conteo.getPendientesCategoria("Platos principales"));
+    }
+
+    @Test
+    void marcarListo_deberiaDescontarYConservarseAlActualizar() {
+        conteo.actualizarMesa(1, List.of(new ItemPedido(entrecot, 3)));
+
+        conteo.marcarListo(1, entrecot.getId(), 2);
+        assertEquals(1, conteo.getPendientes(entrecot.getId()));
+
+        // Cambia otra línea de la mesa: las 2 listas siguen descontadas
+        conteo.actualizarMesa(1, Arrays.asList(new ItemPedido(entrecot, 3), new ItemPedido(tarta, 1)));
+        assertEquals(1, conteo.getPendientes(entrecot.getId()));
+
+        conteo.marcarListo(1, entrecot.getId(), 0);
+        assertEquals(0, conteo.getPendientes(entrecot.getId()));
+        assertEquals(0, conteo.getPendientesCategoria("Platos principales"));
+    }
+
+    @Test
+    void masUnidadesDeUnaLinea_deberianVolverLaEnteraAPendiente() {
+        conteo.actualizarMesa(1, List.of(new ItemPedido(entrecot, 3)));
+        conteo.marcarListo(1, entrecot.getId(), 2);
+
+        // Llega una ronda más del mismo producto: como en items_pedido, la línea vuelve entera a pendiente
+        conteo.actualizarMesa(1, List.of(new ItemPedido(entrecot, 4)));
+        assertEquals(4, conteo.getPendientes(entrecot.getId()));
+        assertEquals(4, conteo.getPendientesCategoria("Platos principales"));
+    }
+
+    @Test
+    void productosDeBarraOSinEstacion_noDeberianContar() {
+        conteo.actualizarMesa(1, Arrays.asList(new ItemPedido(entrecot, 1), new ItemPedido(cana, 4), new ItemPedido(menu, 2)));
+
+        assertEquals(1, conteo.getPendientes(entrecot.getId()));
+        assertEquals(0, conteo.getPendientes(cana.getId()));
+        assertEquals(0, conteo.getPendientes(menu.getId()));
+        assertEquals(0, conteo.getPendientesCategoria("Bebidas"));
+        assertEquals(1, ((List<?>) conteo.getConteo().get("productos")).size());
+    }
+
+    @Test
+    void mesaCerrada_deberiaDejarDeContar() {
+        Pedido pedido = new Pedido(1);
+        pedido.setItems(Arrays.asList(new ItemPedido(entrecot, 2), new ItemPedido(tarta, 1)));
+        conteo.onEvento(EventoDominio.pedidoCreado(pedido));
+        conteo.actualizarMesa(2, List.of(new ItemPedido(entrecot, 1)));
+
+        conteo.onEvento(EventoDominio.pedidoCerrado(1));
+
+        assertEquals(1, conteo.getPendientes(entrecot.getId()));
+        assertEquals(0, conteo.getPendientes(tarta.getId()));
+    }
+
+    @Test
+    void productoListoDeMesaDesconocida_deberiaIgnorarse() {
+        conteo.actualizarMesa(1, List.of(new ItemPedido(entrecot, 2)));
+
+        conteo.onEvento(EventoDominio.productoListo(0, entrecot.getId(), 2));
+
+        assertEquals(2, conteo.getPendientes(entrecot.getId()));
+    }
+}
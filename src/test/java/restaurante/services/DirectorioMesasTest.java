@@ -0,0 +1,70 @@
+package restaurante.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import restaurante.simulacion.BaseDatosEmbebida;
+
+import java.net.ServerSocket;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Directorio id_mesa ↔ numero_mesa con la base de datos caída y después disponible (H2 embebida).
+ */
+public class DirectorioMesasTest {
+
+    private static final String[] PROPIEDADES = {"oidochef.db.url", "oidochef.db.usuario", "oidochef.db.password"};
+
+    private final DirectorioMesas directorio = DirectorioMesas.getInstancia();
+    private BaseDatosEmbebida base;
+
+    @AfterEach
+    void tearDown() {
+        if (base != null) base.parar();
+        for (String propiedad : PROPIEDADES) System.clearProperty(propiedad);
+        directorio.invalidar(); // Otras pruebas del mismo proceso no heredan la copia ni la espera
+    }
+
+    @Test
+    void lecturaFallida_noDeberiaReintentarseEnCadaConsulta() throws Exception {
+        apuntarABaseCaida();
+        long antes = lecturasFallidas();
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(0, directorio.getNumero(1));
+            assertEquals(7, directorio.getNumero(1, 7));
+        }
+
+        assertEquals(1, lecturasFallidas() - antes);
+    }
+
+    @Test
+    void invalidar_deberiaReintentarSinEsperar() throws Exception {
+        apuntarABaseCaida();
+        assertEquals(0, directorio.getNumero(2));
+
+        base = new BaseDatosEmbebida();
+        base.arrancar(3);
+        System.setProperty("oidochef.db.url", base.getUrl());
+        System.setProperty("oidochef.db.usuario", base.getUsuario());
+        System.setProperty("oidochef.db.password", base.getPassword());
+        directorio.invalidar(); // Como al llegar MESAS_CAMBIADAS
+
+        assertEquals(2, directorio.getNumero(2));
+        assertEquals(3, directorio.getId(3));
+    }
+
+    // Un puerto en el que no escucha nadie: cada conexión falla en el acto
+    private void apuntarABaseCaida() throws Exception {
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        System.setProperty("oidochef.db.url", "jdbc:h2:tcp://127.0.0.1:" + puerto + "/mem:caida");
+        directorio.invalidar();
+    }
+
+    private long lecturasFallidas() {
+        return (Long) directorio.getMetricas().get("lecturasFallidas");
+    }
+}
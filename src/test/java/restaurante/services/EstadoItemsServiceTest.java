@@ -0,0 +1,84 @@
+package restaurante.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import restaurante.models.EstadoItem;
+import restaurante.simulacion.BaseDatosEmbebida;
+import restaurante.util.DatabaseConnection;
+
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Escritura por lotes del estado de las líneas con la base de datos caída y después disponible (H2 embebida).
+ */
+public class EstadoItemsServiceTest {
+
+    private static final String[] PROPIEDADES = {"oidochef.db.url", "oidochef.db.usuario", "oidochef.db.password"};
+
+    private final EstadoItemsService estados = EstadoItemsService.getInstancia();
+    private BaseDatosEmbebida base;
+
+    @AfterEach
+    void tearDown() {
+        if (base != null) base.parar();
+        for (String propiedad : PROPIEDADES) System.clearProperty(propiedad);
+    }
+
+    @Test
+    void loteFallido_deberiaEscribirseAlVolverLaBase() throws Exception {
+        apuntarABaseCaida();
+        estados.cambiarEstado(1, 1, EstadoItem.LISTO, System.currentTimeMillis());
+        estados.vaciar(); // Falla: el cambio se queda para el siguiente intento
+
+        base = new BaseDatosEmbebida();
+        base.arrancar(2);
+        base.cargarCartaEjemplo();
+        System.setProperty("oidochef.db.url", base.getUrl());
+        System.setProperty("oidochef.db.usuario", base.getUsuario());
+        System.setProperty("oidochef.db.password", base.getPassword());
+        abrirPedido(1, 1, 2);
+
+        estados.cambiarEstado(1, 2, EstadoItem.EN_PREPARACION, System.currentTimeMillis());
+        estados.vaciar();
+
+        assertEquals("LISTO", estadoDe(1));
+        assertEquals("EN_PREPARACION", estadoDe(2));
+    }
+
+    // Un puerto en el que no escucha nadie: cada conexión falla en el acto
+    private static void apuntarABaseCaida() throws Exception {
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        System.setProperty("oidochef.db.url", "jdbc:h2:tcp://127.0.0.1:" + puerto + "/mem:caida");
+    }
+
+    // Pedido abierto en la mesa con una unidad de cada producto
+    private static void abrirPedido(int mesaId, int... productos) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             Statement stmt = conn.createStatement()) {
+            stmt.executeUpdate("INSERT INTO pedido (id, id_mesa, num_personas) VALUES (1, " + mesaId + ", 2)");
+            for (int productoId : productos) {
+                stmt.executeUpdate("INSERT INTO items_pedido (pedido_id, producto_id, cantidad) VALUES (1, " + productoId + ", 1)");
+            }
+        }
+    }
+
+    private static String estadoDe(int productoId) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("SELECT estado FROM items_pedido WHERE producto_id = ?")) {
+            stmt.setInt(1, productoId);
+            try (ResultSet rs = stmt.executeQuery()) {
+                assertTrue(rs.next());
+                return rs.getString(1);
+            }
+        }
+    }
+}
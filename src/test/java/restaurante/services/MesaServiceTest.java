@@ -0,0 +1,130 @@
+package restaurante.services;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import restaurante.models.Mesa;
+import restaurante.simulacion.BaseDatosEmbebida;
+import restaurante.util.DatabaseConnection;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Operaciones en bloque de MesaService sobre la base embebida (H2 en modo MySQL), con seis mesas numeradas
+ * de 1 a 6 cuyo id coincide con el número.
+ */
+public class MesaServiceTest {
+
+    private static final String[] PROPIEDADES = {"oidochef.db.url", "oidochef.db.usuario", "oidochef.db.password"};
+
+    private BaseDatosEmbebida base;
+    private MesaService mesaService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        base = new BaseDatosEmbebida();
+        base.arrancar(6);
+        System.setProperty("oidochef.db.url", base.getUrl());
+        System.setProperty("oidochef.db.usuario", base.getUsuario());
+        System.setProperty("oidochef.db.password", base.getPassword());
+        mesaService = new MesaService();
+    }
+
+    @AfterEach
+    void tearDown() {
+        base.parar();
+        for (String propiedad : PROPIEDADES) System.clearProperty(propiedad);
+    }
+
+    @Test
+    void eliminarMesas_deberiaRespetarLasQueTienenPedidoAbierto() throws Exception {
+        abrirPedido(2);
+
+        assertEquals(2, mesaService.eliminarMesas(Arrays.asList(1, 2, 3)));
+        assertEquals(List.of(2, 4, 5, 6), new ArrayList<>(numerosPorId().keySet()));
+        assertEquals(0, mesaService.eliminarMesas(Collections.emptyList()));
+    }
+
+    @Test
+    void renumerar_deberiaDesplazarElRangoConservandoElOrden() {
+        mesaService.eliminarMesas(Arrays.asList(2, 3));
+
+        assertEquals(3, mesaService.renumerar(4, 6, 2));
+
+        Map<Integer, Integer> numeros = numerosPorId();
+        assertEquals(1, numeros.get(1));
+        assertEquals(2, numeros.get(4));
+        assertEquals(3, numeros.get(5));
+        assertEquals(4, numeros.get(6));
+    }
+
+    @Test
+    void renumerar_dentroDeSuPropioRango_deberiaPermitirse() {
+        assertEquals(5, mesaService.renumerar(2, 6, 3));
+
+        assertEquals(List.of(1, 3, 4, 5, 6, 7), numerosOrdenados());
+    }
+
+    @Test
+    void renumerar_conDestinoOcupado_noDeberiaCambiarNada() {
+        // 5..6 → 2..3: los números 2 y 3 los tienen otras mesas
+        assertEquals(0, mesaService.renumerar(5, 6, 2));
+        // 1..2 → 6..7: el 6 está fuera del rango de origen
+        assertEquals(0, mesaService.renumerar(1, 2, 6));
+
+        assertEquals(List.of(1, 2, 3, 4, 5, 6), numerosOrdenados());
+    }
+
+    @Test
+    void moverASala_deberiaMoverSoloLasIndicadas() {
+        assertEquals(2, mesaService.moverASala(Arrays.asList(5, 6), "Terraza"));
+
+        List<Integer> terraza = mesaService.obtenerPorSala("Terraza").stream()
+                .map(Mesa::getIdMesa).sorted().collect(Collectors.toList());
+        assertEquals(List.of(5, 6), terraza);
+        assertEquals(4, mesaService.obtenerPorSala("Salón").size());
+        assertEquals(List.of("Salón", "Terraza"), mesaService.obtenerSalas());
+        assertEquals(0, mesaService.moverASala(Collections.emptyList(), "Terraza"));
+    }
+
+    @Test
+    void eliminarUltimaMesa_deberiaLimitarseALaSalaYRespetarLosPedidosAbiertos() throws Exception {
+        mesaService.moverASala(Arrays.asList(2, 3), "Terraza");
+
+        assertEquals(1, mesaService.eliminarUltimaMesa("Terraza"));
+        assertEquals(List.of(1, 2, 4, 5, 6), new ArrayList<>(numerosPorId().keySet()));
+
+        abrirPedido(2);
+        assertEquals(0, mesaService.eliminarUltimaMesa("Terraza"));
+        assertEquals(0, mesaService.eliminarUltimaMesa("Reservado"));
+        assertEquals(5, mesaService.obtenerTodas().size());
+    }
+
+    private Map<Integer, Integer> numerosPorId() {
+        Map<Integer, Integer> numeros = new TreeMap<>();
+        for (Mesa mesa : mesaService.obtenerTodas()) numeros.put(mesa.getIdMesa(), mesa.getNumeroMesa());
+        return numeros;
+    }
+
+    private List<Integer> numerosOrdenados() {
+        return mesaService.obtenerTodas().stream().map(Mesa::getNumeroMesa).sorted().collect(Collectors.toList());
+    }
+
+    private static void abrirPedido(int mesaId) throws Exception {
+        try (Connection conn = DatabaseConnection.getConnection();
+             PreparedStatement stmt = conn.prepareStatement("INSERT INTO pedido (id_mesa, num_personas) VALUES (?, 2)")) {
+            stmt.setInt(1, mesaId);
+            stmt.executeUpdate();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package restaurante.services;
+
+import org.junit.jupiter.api.Test;
+import restaurante.models.Dinero;
+import restaurante.models.Estacion;
+import restaurante.models.ItemPedido;
+import restaurante.models.Producto;
+import restaurante.models.RutasCocina;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MetricasCocinaServiceTest {
+
+    private static final long T0 = 1_000 * 15 * 60_000L; // Inicio de un tramo
+
+    private final MetricasCocinaService metricas = new MetricasCocinaService(RutasCocina.porDefecto()::estacionDe);
+
+    private final Producto entrecot = new Producto(1, "Entrecot", "", Dinero.deEuros(20), "Carnes", true);
+    private final Producto ensalada = new Producto(2, "Ensalada", "", Dinero.deEuros(8), "Ensaladas", true);
+    private final Producto cana = new Producto(3, "Caña", "", Dinero.deEuros(2), "Bebidas", true);
+
+    @Test
+    void mideEnvioPrimerListoYEnvioListoPorEstacion() {
+        metricas.registrarEnvio(5, List.of(new ItemPedido(entrecot, 2), new ItemPedido(ensalada, 1)), T0, T0);
+
+        metricas.registrarListo(5, 2, T0 + 120_000);
+        metricas.registrarListo(5, 1, T0 + 600_000);
+
+        long ahora = T0 + 700_000;
+        assertEquals(1, metricas.getEnvioPrimerListo(ahora).getMuestras());
+        assertEquals(120, metricas.getEnvioPrimerListo(ahora).getMedia());
+        assertEquals(2, metricas.getEnvioListo(ahora).getMuestras());
+        assertEquals(600, metricas.getEnvioListo(Estacion.PLANCHA, ahora).getMaximo());
+        assertEquals(120, metricas.getEnvioListo(Estacion.FRIOS, ahora).getMaximo());
+    }
+
+    @Test
+    void lasLineasAnadidasDespuesCuentanDesdeQueLlegan() {
+        metricas.registrarEnvio(5, List.of(new ItemPedido(ensalada, 1)), T0, T0);
+        metricas.registrarEnvio(5, List.of(new ItemPedido(ensalada, 1), new ItemPedido(entrecot, 1)), T0, T0 + 300_000);
+
+        metricas.registrarListo(5, 1, T0 + 360_000);
+
+        assertEquals(60, metricas.getEnvioListo(Estacion.PLANCHA, T0 + 400_000).getMedia());
+    }
+
+    @Test
+    void unaLineaSoloSeMideUnaVez() {
+        metricas.registrarEnvio(5, List.of(new ItemPedido(entrecot, 1), new ItemPedido(cana, 1)), T0, T0);
+        metricas.registrarListo(5, 1, T0 + 60_000);
+        metricas.registrarListo(5, 1, T0 + 90_000);                        // Aviso repetido
+        metricas.registrarEnvio(5, List.of(new ItemPedido(entrecot, 1)), T0, T0 + 100_000); // Reenvío del pedido
+        metricas.registrarListo(5, 3, T0 + 120_000);                       // Caña, en barra
+
+        assertEquals(2, metricas.getEnvioListo(T0 + 200_000).getMuestras());
+        assertEquals(1, metricas.getEnvioListo(Estacion.PLANCHA, T0 + 200_000).getMuestras());
+        assertEquals(1, metricas.getEnvioListo(Estacion.BARRA, T0 + 200_000).getMuestras());
+    }
+
+    @Test
+    void cuentaComandasPorTramoDeEnvio() {
+        metricas.registrarEnvio(1, List.of(new ItemPedido(entrecot, 1)), T0, T0);
+        metricas.registrarEnvio(2, List.of(new ItemPedido(entrecot, 1)), T0 + 60_000, T0 + 60_000);
+        metricas.registrarEnvio(3, List.of(new ItemPedido(entrecot, 1)), T0 + 15 * 60_000L, T0 + 15 * 60_000L);
+        metricas.registrarListo(1, 1, T0 + 20 * 60_000L);
+        metricas.registrarListo(2, 1, T0 + 20 * 60_000L);
+        metricas.registrarListo(3, 1, T0 + 20 * 60_000L);
+
+        long[] porTramo = metricas.getComandasPorTramo(T0 + 20 * 60_000L);
+        assertEquals(1, porTramo[porTramo.length - 1]);
+        assertEquals(2, porTramo[porTramo.length - 2]);
+    }
+
+    @Test
+    void cuentaLasComandasAunqueNoHayaSalidoNingunPlato() {
+        // Hora punta: tres comandas en el mismo tramo, solo una con un plato listo
+        metricas.registrarEnvio(1, List.of(new ItemPedido(entrecot, 1)), T0, T0);
+        metricas.registrarEnvio(2, List.of(new ItemPedido(ensalada, 1)), T0 + 60_000, T0 + 60_000);
+        metricas.registrarEnvio(3, List.of(new ItemPedido(entrecot, 1)), T0 + 120_000, T0 + 120_000);
+        metricas.registrarEnvio(3, List.of(new ItemPedido(entrecot, 2)), T0 + 120_000, T0 + 180_000); // Ampliación
+        metricas.registrarListo(2, 2, T0 + 240_000);
+
+        long[] porTramo = metricas.getComandasPorTramo(T0 + 300_000);
+        assertEquals(3, porTramo[porTramo.length - 1]);
+        assertEquals(1, metricas.getEnvioPrimerListo(T0 + 300_000).getMuestras());
+    }
+
+    @Test
+    void cerrarMesaDejaDeSeguirLaComanda() {
+        metricas.registrarEnvio(5, List.of(new ItemPedido(entrecot, 1)), T0, T0);
+        metricas.cerrarMesa(5);
+        metricas.registrarListo(5, 1, T0 + 60_000);
+
+        assertEquals(0, metricas.getEnvioListo(T0 + 60_000).getMuestras());
+    }
+}
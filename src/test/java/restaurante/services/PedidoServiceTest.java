@@ -4,6 +4,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import restaurante.api.ItemPedidoAPI;
 import restaurante.api.PedidoAPI;
+import restaurante.models.Dinero;
 import restaurante.models.Pedido;
 import restaurante.util.DatabaseConnection;
 
@@ -44,7 +45,7 @@ public class PedidoServiceTest {
         PedidoAPI pedidoAPI = new PedidoAPI(
                 100, // ID de mesa preparado
                 2,
-                Collections.singletonList(new ItemPedidoAPI(200, "Test Café", 1.2, 1))
+                Collections.singletonList(new ItemPedidoAPI(200, "Test Café", Dinero.deCentimos(120), 1))
         );
 
         Pedido resultado = pedidoService.guardarPedidoDesdeAPI(pedidoAPI);
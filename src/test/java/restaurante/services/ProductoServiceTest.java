@@ -2,6 +2,7 @@ package restaurante.services;
 
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import restaurante.models.Dinero;
 import restaurante.models.Producto;
 import restaurante.services.ProductoService;
 
@@ -32,7 +33,7 @@ class ProductoServiceTest {
 
     @Test
     void crearYEliminarProducto_deberiaCrearYEliminarCorrectamente() {
-        Producto nuevo = new Producto(0, "TestProducto", "Prueba", 9.99, "Test", false);
+        Producto nuevo = new Producto(0, "TestProducto", "Prueba", Dinero.deCentimos(999), "Test", false);
         boolean creado = productoService.crearProducto(nuevo);
         assertTrue(creado);
 
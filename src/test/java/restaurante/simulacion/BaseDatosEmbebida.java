@@ -0,0 +1,148 @@
+package restaurante.simulacion;
+
+import org.h2.tools.RunScript;
+import org.h2.tools.Server;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Base de datos H2 en memoria (modo MySQL) servida por TCP solo en loopback, para el simulador de carga.
+ * Los servicios se conectan a ella como a MySQL, por JDBC y en otro socket, así que cada consulta paga
+ * el viaje por red igual que en producción.
+ *
+ * Crea las tablas base (simulacion/esquema.sql), aplica los mismos scripts que la base real
+ * (sql/items_pedido_estado.sql y sql/estaciones_cocina.sql) y carga la carta y las mesas.
+ */
+public class BaseDatosEmbebida {
+
+    private static final String USUARIO = "sa";
+    private static final String PASSWORD = "";
+
+    private Server servidor;
+    private String url;
+
+    /**
+     * Arranca el servidor en un puerto libre de 127.0.0.1 y crea el esquema.
+     * @param mesas Número de mesas a crear.
+     */
+    public void arrancar(int mesas) throws SQLException, IOException {
+        servidor = Server.createTcpServer("-tcpPort", "0", "-ifNotExists").start();
+        url = "jdbc:h2:tcp://127.0.0.1:" + servidor.getPort() + "/mem:restaurante"
+                + ";MODE=MySQL;DATABASE_TO_LOWER=TRUE;DB_CLOSE_DELAY=-1";
+
+        try (Connection conn = DriverManager.getConnection(url, USUARIO, PASSWORD)) {
+            ejecutar(conn, "/simulacion/esquema.sql");
+            ejecutar(conn, "/sql/items_pedido_estado.sql");
+            ejecutar(conn, "/sql/estaciones_cocina.sql");
+            ejecutar(conn, "/sql/mesas_sala.sql");
+            ejecutar(conn, "/sql/productos_precio_decimal.sql");
+            crearMesas(conn, mesas);
+        }
+    }
+
+    /**
+     * Carga la carta de ejemplo del simulador.
+     */
+    public void cargarCartaEjemplo() throws SQLException, IOException {
+        try (Connection conn = DriverManager.getConnection(url, USUARIO, PASSWORD)) {
+            ejecutar(conn, "/simulacion/catalogo.sql");
+        }
+    }
+
+    /**
+     * Copia la carta real (tabla productos) de otra base de datos, conservando los id.
+     * @return Número de productos copiados.
+     */
+    public int copiarCarta(String urlOrigen, String usuario, String password) throws SQLException {
+        String insertar = "INSERT INTO productos (id, nombre, descripcion, precio, categoria, tiene_iva) VALUES (?, ?, ?, ?, ?, ?)";
+        int copiados = 0;
+
+        try (Connection origen = DriverManager.getConnection(urlOrigen, usuario, password);
+             PreparedStatement leer = origen.prepareStatement("SELECT id, nombre, descripcion, precio, categoria, tiene_iva FROM productos");
+             ResultSet rs = leer.executeQuery();
+             Connection destino = DriverManager.getConnection(url, USUARIO, PASSWORD);
+             PreparedStatement escribir = destino.prepareStatement(insertar)) {
+
+            while (rs.next()) {
+                escribir.setInt(1, rs.getInt("id"));
+                escribir.setString(2, rs.getString("nombre"));
+                escribir.setString(3, rs.getString("descripcion"));
+                escribir.setBigDecimal(4, rs.getBigDecimal("precio"));
+                escribir.setString(5, rs.getString("categoria"));
+                escribir.setBoolean(6, rs.getBoolean("tiene_iva"));
+                escribir.addBatch();
+                copiados++;
+            }
+            escribir.executeBatch();
+            // El autoincremento sigue después del último id copiado
+            try (PreparedStatement maximo = destino.prepareStatement("SELECT COALESCE(MAX(id), 0) FROM productos");
+                 ResultSet rsMaximo = maximo.executeQuery()) {
+                rsMaximo.next();
+                try (PreparedStatement reiniciar = destino.prepareStatement(
+                        "ALTER TABLE productos ALTER COLUMN id RESTART WITH " + (rsMaximo.getInt(1) + 1))) {
+                    reiniciar.execute();
+                }
+            }
+        }
+        return copiados;
+    }
+
+    public String getUrl() {
+        return url;
+    }
+
+    public String getUsuario() {
+        return USUARIO;
+    }
+
+    public String getPassword() {
+        return PASSWORD;
+    }
+
+    /**
+     * Borra la base en memoria y para el servidor; otra prueba del mismo proceso puede volver a arrancarla.
+     */
+    public void parar() {
+        if (servidor == null) return;
+        try (Connection conn = DriverManager.getConnection(url, USUARIO, PASSWORD);
+             Statement stmt = conn.createStatement()) {
+            stmt.execute("SHUTDOWN");
+        } catch (SQLException e) {
+            System.err.println("No se pudo cerrar la base embebida: " + e.getMessage());
+        }
+        servidor.stop();
+    }
+
+    // Mesas numeradas de 1 a n, colocadas en una cuadrícula como las crea MesaService
+    private static void crearMesas(Connection conn, int mesas) throws SQLException {
+        String sql = "INSERT INTO mesas (numero_mesa, posicionX, posicionY, ocupada, bloqueada) VALUES (?, ?, ?, false, false)";
+        try (PreparedStatement stmt = conn.prepareStatement(sql)) {
+            for (int numero = 1; numero <= mesas; numero++) {
+                stmt.setInt(1, numero);
+                stmt.setDouble(2, 20 + ((numero - 1) % 10) * 90);
+                stmt.setDouble(3, 20 + ((numero - 1) / 10) * 90);
+                stmt.addBatch();
+            }
+            stmt.executeBatch();
+        }
+    }
+
+    // Ejecuta un script SQL del classpath
+    private static void ejecutar(Connection conn, String recurso) throws SQLException, IOException {
+        InputStream entrada = BaseDatosEmbebida.class.getResourceAsStream(recurso);
+        if (entrada == null) throw new IOException("No se encuentra el script " + recurso);
+        try (Reader lector = new InputStreamReader(entrada, StandardCharsets.UTF_8)) {
+            RunScript.execute(conn, lector);
+        }
+    }
+}
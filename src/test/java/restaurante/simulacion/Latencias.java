@@ -0,0 +1,67 @@
+package restaurante.simulacion;
+
+import java.util.Arrays;
+
+/**
+ * Latencias de un tipo de evento del simulador (en milisegundos), con sus percentiles exactos.
+ * Guarda todas las muestras: una simulación de minutos son decenas de miles como mucho.
+ * Se puede registrar desde varios hilos.
+ */
+public class Latencias {
+
+    private final long umbralMs;
+
+    private long[] muestras = new long[1024];
+    private int total;
+    private long suma;
+    private int tardias;
+
+    /**
+     * @param umbralMs A partir de esta latencia el evento cuenta como tardío.
+     */
+    public Latencias(long umbralMs) {
+        this.umbralMs = umbralMs;
+    }
+
+    public synchronized void registrar(long ms) {
+        if (total == muestras.length) muestras = Arrays.copyOf(muestras, total * 2);
+        muestras[total++] = ms;
+        suma += ms;
+        if (ms > umbralMs) tardias++;
+    }
+
+    public synchronized int getMuestras() {
+        return total;
+    }
+
+    public synchronized int getTardias() {
+        return tardias;
+    }
+
+    public long getUmbralMs() {
+        return umbralMs;
+    }
+
+    public synchronized double getMedia() {
+        return total == 0 ? 0 : (double) suma / total;
+    }
+
+    /**
+     * Percentil por rango más cercano: el menor valor que deja por debajo (o igual) al menos ese porcentaje de muestras.
+     * @param percentil Entre 0 y 100.
+     * @return La latencia en ms, o 0 si no hay muestras.
+     */
+    public synchronized long percentil(double percentil) {
+        if (total == 0) return 0;
+        long[] ordenadas = Arrays.copyOf(muestras, total);
+        Arrays.sort(ordenadas);
+        int rango = (int) Math.ceil(percentil / 100.0 * total);
+        return ordenadas[Math.max(0, Math.min(total, rango) - 1)];
+    }
+
+    public synchronized long getMaximo() {
+        long maximo = 0;
+        for (int i = 0; i < total; i++) maximo = Math.max(maximo, muestras[i]);
+        return maximo;
+    }
+}
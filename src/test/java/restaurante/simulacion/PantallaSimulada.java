@@ -0,0 +1,125 @@
+package restaurante.simulacion;
+
+import com.google.gson.Gson;
+import org.java_websocket.client.WebSocketClient;
+import org.java_websocket.handshake.ServerHandshake;
+import restaurante.api.EventoAPI;
+import restaurante.models.Estacion;
+import restaurante.services.CatalogoProductos;
+import restaurante.websocket.ProtocoloBinario;
+
+import java.net.URI;
+import java.nio.ByteBuffer;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BiConsumer;
+
+/**
+ * Pantalla de cocina simulada: un cliente WebSocket conectado a /ws/pedidos, general (el pase)
+ * o de una estación (?estacion=plancha), en JSON o en el formato binario.
+ * Cada mensaje se interpreta al llegar y se entrega al simulador con la hora de recepción.
+ */
+public class PantallaSimulada extends WebSocketClient {
+
+    private static final Gson gson = new Gson();
+
+    private final String nombre;
+    private final Estacion estacion;
+    private final BiConsumer<PantallaSimulada, EventoAPI> receptor;
+
+    private final AtomicInteger mensajes = new AtomicInteger();
+    private final AtomicInteger ilegibles = new AtomicInteger();
+    private volatile String cierre;
+
+    /**
+     * @param nombre Nombre único de la pantalla en el informe.
+     * @param base URI del WebSocket (ws://127.0.0.1:puerto/ws/pedidos).
+     * @param estacion Estación de la pantalla, o null para la pantalla general.
+     * @param binario true para pedir el formato binario.
+     * @param receptor Recibe cada evento interpretado, en el hilo del socket.
+     */
+    public PantallaSimulada(String nombre, String base, Estacion estacion, boolean binario, BiConsumer<PantallaSimulada, EventoAPI> receptor) {
+        super(URI.create(base + consulta(estacion, binario)));
+        this.nombre = nombre;
+        this.estacion = estacion;
+        this.receptor = receptor;
+    }
+
+    private static String consulta(Estacion estacion, boolean binario) {
+        StringBuilder consulta = new StringBuilder();
+        if (estacion != null) consulta.append("estacion=").append(estacion.getCodigo());
+        if (binario) {
+            if (consulta.length() > 0) consulta.append('&');
+            consulta.append(ProtocoloBinario.PARAMETRO).append('=').append(ProtocoloBinario.VALOR_BINARIO);
+        }
+        return consulta.length() > 0 ? "?" + consulta : "";
+    }
+
+    /**
+     * Envía un aviso de producto listo, como hace la pantalla de cocina al pulsar una línea.
+     */
+    public void enviarListo(int mesaId, int productoId, int cantidad) {
+        EventoAPI listo = new EventoAPI();
+        listo.setTipo(ProtocoloBinario.PRODUCTO_LISTO);
+        listo.setMesaId(mesaId);
+        listo.setProductoId(productoId);
+        listo.setCantidad(cantidad);
+        listo.setInstante(System.currentTimeMillis());
+        send(gson.toJson(listo));
+    }
+
+    @Override
+    public void onOpen(ServerHandshake handshake) {
+    }
+
+    @Override
+    public void onMessage(String message) {
+        mensajes.incrementAndGet();
+        try {
+            EventoAPI evento = gson.fromJson(message, EventoAPI.class);
+            if (evento != null && evento.getTipo() != null) receptor.accept(this, evento);
+        } catch (RuntimeException e) {
+            ilegibles.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onMessage(ByteBuffer bytes) {
+        mensajes.incrementAndGet();
+        try {
+            receptor.accept(this, ProtocoloBinario.decodificar(bytes, CatalogoProductos.getInstancia()));
+        } catch (IllegalArgumentException e) {
+            ilegibles.incrementAndGet();
+        }
+    }
+
+    @Override
+    public void onClose(int code, String reason, boolean remote) {
+        cierre = code + (reason != null && !reason.isEmpty() ? " " + reason : "");
+    }
+
+    @Override
+    public void onError(Exception ex) {
+        System.err.println("Pantalla " + nombre + ": " + ex.getMessage());
+    }
+
+    public String getNombre() {
+        return nombre;
+    }
+
+    public Estacion getEstacion() {
+        return estacion;
+    }
+
+    public int getMensajes() {
+        return mensajes.get();
+    }
+
+    public int getIlegibles() {
+        return ilegibles.get();
+    }
+
+    /** Código y motivo del cierre si la conexión se cerró, o null. */
+    public String getCierre() {
+        return cierre;
+    }
+}
@@ -0,0 +1,126 @@
+package restaurante.simulacion;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Entregas esperadas de los eventos del simulador y lo que de verdad llegó a cada pantalla.
+ *
+ * Antes de cada acción (enviar un pedido, marcar un producto listo, cerrar una mesa) se anota qué evento
+ * debe llegar, a cuántas pantallas y cuándo empezó. Cada pantalla que lo recibe registra su latencia.
+ * Al cerrar la espera (o al final de la simulación) las pantallas que no lo recibieron cuentan como perdidas.
+ */
+public class RegistroEntregas {
+
+    // Un evento esperado: clave como "pedidoCreado:12" (tipo y mesa) o "productoListo:12:7"
+    private static final class Espera {
+        final String tipo;
+        final long inicio;
+        final int esperadas;
+        final Set<String> recibidas = ConcurrentHashMap.newKeySet();
+
+        Espera(String tipo, long inicio, int esperadas) {
+            this.tipo = tipo;
+            this.inicio = inicio;
+            this.esperadas = esperadas;
+        }
+    }
+
+    // Totales de un tipo de evento
+    public static final class Totales {
+        private int esperadas;
+        private int recibidas;
+        private int perdidas;
+        private int duplicadas;
+        private int inesperadas;
+
+        public int getEsperadas() { return esperadas; }
+        public int getRecibidas() { return recibidas; }
+        public int getPerdidas() { return perdidas; }
+        public int getDuplicadas() { return duplicadas; }
+        public int getInesperadas() { return inesperadas; }
+    }
+
+    private final long umbralMs;
+    private final Map<String, Espera> esperas = new ConcurrentHashMap<>();
+    private final Map<String, Latencias> latencias = new ConcurrentHashMap<>();
+    private final Map<String, Totales> totales = new LinkedHashMap<>();
+
+    /**
+     * @param umbralMs Latencia a partir de la cual una entrega cuenta como tardía.
+     */
+    public RegistroEntregas(long umbralMs) {
+        this.umbralMs = umbralMs;
+    }
+
+    /**
+     * Anota un evento que debe llegar a varias pantallas. Si ya había una espera con la misma clave,
+     * se cierra antes (lo que no llegó de ella se da por perdido).
+     */
+    public void esperar(String tipo, String clave, long inicio, int pantallas) {
+        cerrar(clave);
+        esperas.put(clave, new Espera(tipo, inicio, pantallas));
+        synchronized (totales) {
+            totales(tipo).esperadas += pantallas;
+        }
+    }
+
+    /**
+     * Una pantalla recibió el evento. Registra la latencia desde el inicio de la acción.
+     */
+    public void recibir(String tipo, String clave, String pantalla, long ahora) {
+        Espera espera = esperas.get(clave);
+        if (espera == null) {
+            synchronized (totales) {
+                totales(tipo).inesperadas++;
+            }
+            return;
+        }
+        boolean primera = espera.recibidas.add(pantalla);
+        synchronized (totales) {
+            if (primera) totales(tipo).recibidas++;
+            else totales(tipo).duplicadas++;
+        }
+        if (primera) latencias(tipo).registrar(Math.max(0, ahora - espera.inicio));
+    }
+
+    /**
+     * Deja de esperar un evento: las pantallas que faltan cuentan como perdidas.
+     */
+    public void cerrar(String clave) {
+        Espera espera = esperas.remove(clave);
+        if (espera == null) return;
+        synchronized (totales) {
+            totales(espera.tipo).perdidas += Math.max(0, espera.esperadas - espera.recibidas.size());
+        }
+    }
+
+    /**
+     * Cierra todas las esperas abiertas (fin de la simulación).
+     */
+    public void cerrarTodo() {
+        for (String clave : esperas.keySet()) cerrar(clave);
+    }
+
+    /**
+     * Latencias de un tipo de evento (se crean al pedirlas por primera vez).
+     */
+    public Latencias latencias(String tipo) {
+        return latencias.computeIfAbsent(tipo, t -> new Latencias(umbralMs));
+    }
+
+    /**
+     * Copia de los totales por tipo de evento, en el orden en que aparecieron.
+     */
+    public Map<String, Totales> getTotales() {
+        synchronized (totales) {
+            return new LinkedHashMap<>(totales);
+        }
+    }
+
+    private Totales totales(String tipo) {
+        return totales.computeIfAbsent(tipo, t -> new Totales());
+    }
+}
@@ -0,0 +1,54 @@
+package restaurante.simulacion;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RegistroEntregasTest {
+
+    @Test
+    void percentilesPorRangoMasCercano() {
+        Latencias latencias = new Latencias(50);
+        for (int ms = 100; ms >= 1; ms--) latencias.registrar(ms);
+
+        assertEquals(100, latencias.getMuestras());
+        assertEquals(50, latencias.percentil(50));
+        assertEquals(90, latencias.percentil(90));
+        assertEquals(99, latencias.percentil(99));
+        assertEquals(100, latencias.getMaximo());
+        assertEquals(50, latencias.getTardias()); // 51..100 superan el umbral
+        assertEquals(0, new Latencias(50).percentil(99));
+    }
+
+    @Test
+    void cuentaRecibidasDuplicadasYPerdidas() {
+        RegistroEntregas entregas = new RegistroEntregas(1000);
+        entregas.esperar("pedido", "pedido:1", 1_000, 3);
+        entregas.recibir("pedido", "pedido:1", "pase", 1_040);
+        entregas.recibir("pedido", "pedido:1", "plancha", 1_060);
+        entregas.recibir("pedido", "pedido:1", "plancha", 1_070);
+        entregas.recibir("pedido", "pedido:2", "pase", 1_080); // Nadie lo esperaba
+        entregas.cerrarTodo();
+
+        RegistroEntregas.Totales totales = entregas.getTotales().get("pedido");
+        assertEquals(3, totales.getEsperadas());
+        assertEquals(2, totales.getRecibidas());
+        assertEquals(1, totales.getDuplicadas());
+        assertEquals(1, totales.getInesperadas());
+        assertEquals(1, totales.getPerdidas());
+        assertEquals(60, entregas.latencias("pedido").getMaximo());
+    }
+
+    @Test
+    void unaNuevaEsperaConLaMismaClaveCierraLaAnterior() {
+        RegistroEntregas entregas = new RegistroEntregas(1000);
+        entregas.esperar("pedido", "pedido:1", 0, 2);
+        entregas.recibir("pedido", "pedido:1", "pase", 10);
+        entregas.esperar("pedido", "pedido:1", 100, 2); // Segunda ronda de la mesa
+
+        assertEquals(1, entregas.getTotales().get("pedido").getPerdidas());
+        entregas.recibir("pedido", "pedido:1", "pase", 130);
+        assertEquals(2, entregas.getTotales().get("pedido").getRecibidas());
+        assertEquals(30, entregas.latencias("pedido").percentil(100));
+    }
+}
@@ -0,0 +1,469 @@
+package restaurante.simulacion;
+
+import com.google.gson.Gson;
+import restaurante.api.EventoAPI;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.MesaAPI;
+import restaurante.api.PedidoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.controllers.RestServer;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.Estacion;
+import restaurante.services.RutasCocinaService;
+import spark.Spark;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Simulador de carga de cocina: arranca RestServer contra una base H2 embebida en loopback, conecta
+ * pantallas de cocina por WebSocket (el pase y una por estación) y genera comandas como lo harían los camareros.
+ *
+ * - Llegadas de Poisson a pedidosPorMinuto × factor (factor 3 = el triple de un sábado).
+ * - Cada comanda ocupa una mesa libre y se compone con la carta real servida en GET /productos:
+ *   por comensal un plato de plancha y una bebida, entrantes para compartir y a veces una segunda ronda de postres y cafés.
+ * - La pantalla de la estación de cada línea la marca lista (productoListo) pasado el tiempo de preparación;
+ *   con todas las líneas listas, y tras la sobremesa, la mesa se libera con DELETE /pedido/mesa/:id.
+ *
+ * Mide la latencia de extremo a extremo (desde la petición REST o el aviso de la pantalla hasta la llegada
+ * a cada pantalla) de los pedidos, los avisos de listo y los cierres, y cuenta los eventos tardíos
+ * (más de umbralMs) y perdidos (pantallas que nunca los recibieron). Sale con código 1 si hubo pérdidas o errores.
+ *
+ * Se lanza desde el IDE o con:
+ * mvn -q test-compile exec:java -Dexec.classpathScope=test -Dexec.mainClass=restaurante.simulacion.SimuladorCocina -Dsimulador.factor=3
+ */
+public class SimuladorCocina {
+
+    // Configuración (-Dsimulador.*)
+    private static final double PEDIDOS_POR_MINUTO = decimal("simulador.pedidosPorMinuto", 2.0);
+    private static final double FACTOR = decimal("simulador.factor", 3.0);
+    private static final double MINUTOS = decimal("simulador.minutos", 5.0);
+    private static final int MESAS = Integer.getInteger("simulador.mesas", 60);
+    private static final int COMENSALES_MAX = Integer.getInteger("simulador.comensalesMax", 6);
+    private static final double SEGUNDA_RONDA = decimal("simulador.segundaRonda", 0.4);
+    private static final int PREPARACION_SEGUNDOS = Integer.getInteger("simulador.preparacionSegundos", 20);
+    private static final int SOBREMESA_SEGUNDOS = Integer.getInteger("simulador.sobremesaSegundos", 10);
+    private static final String ESTACIONES = System.getProperty("simulador.estaciones", "plancha,frios,pasteleria,barra");
+    private static final int PANTALLAS_PASE = Math.max(1, Integer.getInteger("simulador.pantallasPase", 1));
+    private static final boolean BINARIO = Boolean.getBoolean("simulador.binario");
+    private static final long UMBRAL_MS = Long.getLong("simulador.umbralMs", 1000);
+    private static final int PUERTO = Integer.getInteger("simulador.puerto", 4568);
+    private static final long SEMILLA = Long.getLong("simulador.semilla", 42);
+
+    // Tipos de evento del informe
+    private static final String PEDIDO = "pedido";
+    private static final String LISTO = TipoEvento.PRODUCTO_LISTO.getNombreMensaje();
+    private static final String CIERRE = TipoEvento.PEDIDO_CERRADO.getNombreMensaje();
+
+    private static final Gson gson = new Gson();
+
+    // Mesa con comanda abierta
+    private static final class MesaSimulada {
+        final int id;
+        final int comensales;
+        int ronda;
+        final Set<Integer> enPedido = ConcurrentHashMap.newKeySet();   // Productos pedidos en cualquier ronda
+        final Set<Integer> programados = ConcurrentHashMap.newKeySet(); // Líneas con el aviso de listo ya programado
+        final AtomicInteger pendientes = new AtomicInteger();           // Líneas de la ronda actual sin marcar
+
+        MesaSimulada(int id, int comensales) {
+            this.id = id;
+            this.comensales = comensales;
+        }
+    }
+
+    private final String baseHttp = "http://127.0.0.1:" + PUERTO;
+    private final HttpClient http = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+    private final Random aleatorio = new Random(SEMILLA);
+    private final ScheduledExecutorService programador = Executors.newScheduledThreadPool(4, r -> {
+        Thread hilo = new Thread(r, "simulador");
+        hilo.setDaemon(true);
+        return hilo;
+    });
+
+    private final RegistroEntregas entregas = new RegistroEntregas(UMBRAL_MS);
+    private final Latencias latenciaPost = new Latencias(UMBRAL_MS);
+    private final Latencias latenciaDelete = new Latencias(UMBRAL_MS);
+
+    private final List<PantallaSimulada> pantallas = new ArrayList<>();
+    private final Map<Estacion, PantallaSimulada> pantallaDeEstacion = new EnumMap<>(Estacion.class);
+    private final Map<Estacion, List<ProductoAPI>> carta = new EnumMap<>(Estacion.class);
+    private final List<ProductoAPI> cartaCompleta = new ArrayList<>();
+
+    private final Queue<Integer> libres = new ConcurrentLinkedQueue<>();
+    private final Map<Integer, MesaSimulada> ocupadas = new ConcurrentHashMap<>();
+
+    private final AtomicInteger comandas = new AtomicInteger();
+    private final AtomicInteger rondas = new AtomicInteger();
+    private final AtomicInteger salaLlena = new AtomicInteger();
+    private final AtomicInteger erroresHttp = new AtomicInteger();
+    private final AtomicInteger erroresEnvio = new AtomicInteger();
+
+    private long inicio;
+    private long fin;
+
+    public static void main(String[] args) throws Exception {
+        BaseDatosEmbebida base = new BaseDatosEmbebida();
+        int resultado = 1;
+        try {
+            base.arrancar(MESAS);
+            String catalogo = System.getProperty("simulador.catalogo.url");
+            if (catalogo != null) {
+                int copiados = base.copiarCarta(catalogo,
+                        System.getProperty("simulador.catalogo.usuario", "root"),
+                        System.getProperty("simulador.catalogo.password", "1234"));
+                System.out.println("Carta copiada de " + catalogo + ": " + copiados + " productos");
+            } else {
+                base.cargarCartaEjemplo();
+            }
+
+            // Los servicios leen su configuración al cargarse: se fija antes de tocar RestServer
+            System.setProperty("oidochef.db.url", base.getUrl());
+            System.setProperty("oidochef.db.usuario", base.getUsuario());
+            System.setProperty("oidochef.db.password", base.getPassword());
+            System.setProperty("oidochef.ip", "127.0.0.1");
+            System.setProperty("oidochef.puerto", String.valueOf(PUERTO));
+            if (System.getProperty("oidochef.ws.maxPorDireccion") == null) {
+                System.setProperty("oidochef.ws.maxPorDireccion", String.valueOf(PANTALLAS_PASE + Estacion.values().length + 4));
+            }
+
+            RestServer.init();
+            Spark.awaitInitialization();
+            resultado = new SimuladorCocina().ejecutar();
+        } catch (Exception e) {
+            e.printStackTrace();
+        } finally {
+            Spark.stop();
+            Spark.awaitStop();
+            base.parar();
+        }
+        System.exit(resultado);
+    }
+
+    // Prepara carta, mesas y pantallas, genera la carga, espera a que se vacíe la sala e imprime el informe
+    private int ejecutar() throws Exception {
+        cargarCarta();
+        cargarMesas();
+        conectarPantallas();
+
+        inicio = System.currentTimeMillis();
+        fin = inicio + (long) (MINUTOS * 60_000);
+        System.out.printf("%nSimulando %.1f comandas/min (%.1f × %.1f) durante %.1f min, %d mesas, %d pantallas%n",
+                PEDIDOS_POR_MINUTO * FACTOR, PEDIDOS_POR_MINUTO, FACTOR, MINUTOS, libres.size(), pantallas.size());
+
+        programarLlegada();
+        while (System.currentTimeMillis() < fin) {
+            Thread.sleep(Math.min(30_000, Math.max(1, fin - System.currentTimeMillis())));
+            System.out.printf("  %3ds: %d comandas, %d mesas ocupadas%n",
+                    (System.currentTimeMillis() - inicio) / 1000, comandas.get(), ocupadas.size());
+        }
+
+        // Sin llegadas nuevas: la cocina termina lo que tiene y las mesas se van cerrando
+        long limite = System.currentTimeMillis() + (PREPARACION_SEGUNDOS * 3L + SOBREMESA_SEGUNDOS * 2L) * 1000 + 30_000;
+        while (!ocupadas.isEmpty() && System.currentTimeMillis() < limite) {
+            Thread.sleep(500);
+        }
+        Thread.sleep(Math.max(2_000, UMBRAL_MS)); // Eventos aún en camino
+        entregas.cerrarTodo();
+        programador.shutdownNow();
+
+        int perdidas = imprimirInforme();
+        for (PantallaSimulada pantalla : pantallas) pantalla.closeBlocking();
+        return perdidas == 0 && erroresHttp.get() == 0 && erroresEnvio.get() == 0 && ocupadas.isEmpty() ? 0 : 1;
+    }
+
+    // ============ PREPARACIÓN ============
+
+    // La carta la sirve el propio servidor, como a la app de los camareros, y se reparte por estación
+    private void cargarCarta() throws Exception {
+        ProductoAPI[] productos = gson.fromJson(get("/productos"), ProductoAPI[].class);
+        RutasCocinaService rutas = RutasCocinaService.getInstancia();
+        for (ProductoAPI producto : productos) {
+            cartaCompleta.add(producto);
+            Estacion estacion = rutas.estacionDe(producto.getId(), producto.getCategoria());
+            if (estacion != null) carta.computeIfAbsent(estacion, e -> new ArrayList<>()).add(producto);
+        }
+        if (cartaCompleta.isEmpty()) throw new IllegalStateException("La carta está vacía");
+    }
+
+    private void cargarMesas() throws Exception {
+        for (MesaAPI mesa : gson.fromJson(get("/mesas"), MesaAPI[].class)) {
+            libres.add(mesa.getId());
+        }
+    }
+
+    // El pase (todas las líneas, en JSON) y una pantalla por estación (binaria con -Dsimulador.binario=true)
+    private void conectarPantallas() throws InterruptedException {
+        String ws = "ws://127.0.0.1:" + PUERTO + "/ws/pedidos";
+        for (int i = 1; i <= PANTALLAS_PASE; i++) {
+            pantallas.add(new PantallaSimulada("pase-" + i, ws, null, false, this::recibir));
+        }
+        for (String codigo : ESTACIONES.split(",")) {
+            Estacion estacion = Estacion.desde(codigo);
+            if (estacion == null || pantallaDeEstacion.containsKey(estacion)) {
+                System.err.println("Estación ignorada: " + codigo);
+                continue;
+            }
+            PantallaSimulada pantalla = new PantallaSimulada(estacion.getCodigo(), ws, estacion, BINARIO, this::recibir);
+            pantallas.add(pantalla);
+            pantallaDeEstacion.put(estacion, pantalla);
+        }
+        for (PantallaSimulada pantalla : pantallas) {
+            if (!pantalla.connectBlocking(5, TimeUnit.SECONDS)) {
+                throw new IllegalStateException("La pantalla " + pantalla.getNombre() + " no pudo conectar");
+            }
+        }
+    }
+
+    // ============ CAMAREROS ============
+
+    // Siguiente llegada con espera exponencial (proceso de Poisson)
+    private void programarLlegada() {
+        double mediaMs = 60_000.0 / (PEDIDOS_POR_MINUTO * FACTOR);
+        long espera = (long) (-Math.log(1 - aleatorio.nextDouble()) * mediaMs);
+        if (System.currentTimeMillis() + espera >= fin) return;
+        programador.schedule(() -> {
+            llegada();
+            programarLlegada();
+        }, espera, TimeUnit.MILLISECONDS);
+    }
+
+    private void llegada() {
+        Integer mesaId = libres.poll();
+        if (mesaId == null) {
+            salaLlena.incrementAndGet();
+            return;
+        }
+        MesaSimulada mesa = new MesaSimulada(mesaId, 1 + aleatorio.nextInt(COMENSALES_MAX));
+        ocupadas.put(mesaId, mesa);
+        comandas.incrementAndGet();
+        enviarRonda(mesa, primeraRonda(mesa));
+    }
+
+    // Por comensal un principal y una bebida, y un entrante por cada dos
+    private Map<Integer, ItemPedidoAPI> primeraRonda(MesaSimulada mesa) {
+        Map<Integer, ItemPedidoAPI> items = new LinkedHashMap<>();
+        for (int i = 0; i < mesa.comensales; i++) {
+            elegir(Estacion.PLANCHA, items, mesa);
+            elegir(Estacion.BARRA, items, mesa);
+        }
+        for (int i = 0; i < (mesa.comensales + 1) / 2; i++) {
+            elegir(Estacion.FRIOS, items, mesa);
+        }
+        return items;
+    }
+
+    // Postres y cafés de productos que la mesa aún no ha pedido (las líneas nuevas vuelven a cocina)
+    private Map<Integer, ItemPedidoAPI> segundaRonda(MesaSimulada mesa) {
+        Map<Integer, ItemPedidoAPI> items = new LinkedHashMap<>();
+        for (int i = 0; i < mesa.comensales; i++) {
+            if (aleatorio.nextBoolean()) elegir(Estacion.PASTELERIA, items, mesa);
+            if (aleatorio.nextBoolean()) elegir(Estacion.BARRA, items, mesa);
+        }
+        return items;
+    }
+
+    // Suma una unidad de un producto al azar de la estación (de toda la carta si la estación no tiene productos)
+    private void elegir(Estacion estacion, Map<Integer, ItemPedidoAPI> items, MesaSimulada mesa) {
+        List<ProductoAPI> candidatos = carta.getOrDefault(estacion, cartaCompleta);
+        if (mesa.ronda > 0) {
+            List<ProductoAPI> nuevos = new ArrayList<>();
+            for (ProductoAPI producto : candidatos) {
+                if (!mesa.enPedido.contains(producto.getId()) || items.containsKey(producto.getId())) nuevos.add(producto);
+            }
+            candidatos = nuevos;
+        }
+        if (candidatos.isEmpty()) return;
+
+        ProductoAPI producto = candidatos.get(aleatorio.nextInt(candidatos.size()));
+        ItemPedidoAPI item = items.get(producto.getId());
+        if (item == null) {
+            item = new ItemPedidoAPI(producto.getId(), producto.getNombre(), producto.getPrecio(), 0);
+            item.setCategoria(producto.getCategoria());
+            items.put(producto.getId(), item);
+        }
+        item.setCantidad(item.getCantidad() + 1);
+    }
+
+    // POST /pedido de una ronda. La espera se anota antes de enviar: el evento puede llegar antes que la respuesta
+    private void enviarRonda(MesaSimulada mesa, Map<Integer, ItemPedidoAPI> items) {
+        mesa.ronda++;
+        mesa.enPedido.addAll(items.keySet());
+        mesa.pendientes.set(items.size());
+        rondas.incrementAndGet();
+
+        PedidoAPI pedido = new PedidoAPI(mesa.id, mesa.comensales, new ArrayList<>(items.values()));
+        long t0 = System.currentTimeMillis();
+        entregas.esperar(PEDIDO, PEDIDO + ":" + mesa.id, t0, pantallas.size());
+
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(baseHttp + "/pedido"))
+                .timeout(Duration.ofSeconds(10))
+                .header("Content-Type", "application/json")
+                .POST(HttpRequest.BodyPublishers.ofString(gson.toJson(pedido)))
+                .build();
+        http.sendAsync(peticion, HttpResponse.BodyHandlers.ofString()).whenComplete((respuesta, error) -> {
+            latenciaPost.registrar(System.currentTimeMillis() - t0);
+            if (error != null || respuesta.statusCode() != 200) {
+                erroresHttp.incrementAndGet();
+                System.err.println("POST /pedido mesa " + mesa.id + ": " + (error != null ? error : respuesta.statusCode()));
+                cerrarMesa(mesa);
+            }
+        });
+    }
+
+    // Ronda terminada: a veces postres y cafés, si no la mesa se va tras la sobremesa
+    private void terminarRonda(MesaSimulada mesa) {
+        programador.schedule(() -> {
+            Map<Integer, ItemPedidoAPI> items = mesa.ronda == 1 && aleatorio.nextDouble() < SEGUNDA_RONDA
+                    ? segundaRonda(mesa) : Map.of();
+            if (items.isEmpty()) {
+                cerrarMesa(mesa);
+            } else {
+                enviarRonda(mesa, items);
+            }
+        }, SOBREMESA_SEGUNDOS, TimeUnit.SECONDS);
+    }
+
+    // DELETE /pedido/mesa/:id (la API REST no cobra; borrar el pedido publica el mismo pedidoCerrado)
+    private void cerrarMesa(MesaSimulada mesa) {
+        long t0 = System.currentTimeMillis();
+        entregas.esperar(CIERRE, CIERRE + ":" + mesa.id, t0, pantallas.size());
+
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(baseHttp + "/pedido/mesa/" + mesa.id))
+                .timeout(Duration.ofSeconds(10))
+                .DELETE()
+                .build();
+        http.sendAsync(peticion, HttpResponse.BodyHandlers.ofString()).whenComplete((respuesta, error) -> {
+            latenciaDelete.registrar(System.currentTimeMillis() - t0);
+            if (error != null || respuesta.statusCode() != 200) {
+                erroresHttp.incrementAndGet();
+                System.err.println("DELETE /pedido/mesa/" + mesa.id + ": " + (error != null ? error : respuesta.statusCode()));
+            }
+            ocupadas.remove(mesa.id);
+            libres.add(mesa.id);
+        });
+    }
+
+    // ============ PANTALLAS ============
+
+    // Hilo del socket de cada pantalla: anota la entrega y, si la línea es de su estación, programa el aviso de listo
+    private void recibir(PantallaSimulada pantalla, EventoAPI evento) {
+        long ahora = System.currentTimeMillis();
+        String tipo = evento.getTipo();
+        int mesaId = evento.getMesaId();
+
+        if (TipoEvento.PEDIDO_CREADO.getNombreMensaje().equals(tipo) || TipoEvento.PEDIDO_ACTUALIZADO.getNombreMensaje().equals(tipo)) {
+            entregas.recibir(PEDIDO, PEDIDO + ":" + mesaId, pantalla.getNombre(), ahora);
+            MesaSimulada mesa = ocupadas.get(mesaId);
+            if (mesa == null) return;
+            for (ItemPedidoAPI item : evento.getItems()) {
+                if (responsable(item.getProductoId(), item.getCategoria()) == pantalla && mesa.programados.add(item.getProductoId())) {
+                    programarListo(pantalla, mesa, item);
+                }
+            }
+        } else if (LISTO.equals(tipo)) {
+            entregas.recibir(LISTO, LISTO + ":" + mesaId + ":" + evento.getProductoId(), pantalla.getNombre(), ahora);
+        } else if (CIERRE.equals(tipo)) {
+            entregas.recibir(CIERRE, CIERRE + ":" + mesaId, pantalla.getNombre(), ahora);
+        }
+    }
+
+    // Pantalla que marca la línea: la de su estación o, si no hay, el pase
+    private PantallaSimulada responsable(int productoId, String categoria) {
+        Estacion estacion = RutasCocinaService.getInstancia().estacionDe(productoId, categoria);
+        PantallaSimulada pantalla = estacion != null ? pantallaDeEstacion.get(estacion) : null;
+        return pantalla != null ? pantalla : pantallas.get(0);
+    }
+
+    // Pantallas a las que el servidor reenvía el aviso: las generales y las de la estación del producto
+    private int destinatariosListo(int productoId) {
+        Estacion estacion = RutasCocinaService.getInstancia().estacionDe(productoId, null);
+        int destinatarios = 0;
+        for (PantallaSimulada pantalla : pantallas) {
+            if (pantalla.getEstacion() == null || pantalla.getEstacion() == estacion) destinatarios++;
+        }
+        return destinatarios;
+    }
+
+    // Tiempo de preparación uniforme entre la mitad y vez y media del configurado
+    private void programarListo(PantallaSimulada pantalla, MesaSimulada mesa, ItemPedidoAPI item) {
+        long preparacion = (long) (PREPARACION_SEGUNDOS * 1000L * (0.5 + aleatorio.nextDouble()));
+        programador.schedule(() -> {
+            entregas.esperar(LISTO, LISTO + ":" + mesa.id + ":" + item.getProductoId(),
+                    System.currentTimeMillis(), destinatariosListo(item.getProductoId()));
+            try {
+                pantalla.enviarListo(mesa.id, item.getProductoId(), item.getCantidad());
+            } catch (RuntimeException e) {
+                erroresEnvio.incrementAndGet();
+                System.err.println("Pantalla " + pantalla.getNombre() + " no pudo enviar: " + e.getMessage());
+            }
+            if (mesa.pendientes.decrementAndGet() == 0) terminarRonda(mesa);
+        }, preparacion, TimeUnit.MILLISECONDS);
+    }
+
+    // ============ INFORME ============
+
+    // Imprime el informe y devuelve el total de entregas perdidas
+    private int imprimirInforme() throws Exception {
+        long duracion = System.currentTimeMillis() - inicio;
+        System.out.printf("%n=== Simulación de cocina: %.1f s ===%n", duracion / 1000.0);
+        System.out.printf("Comandas: %d (rondas: %d, sin mesa libre: %d), errores HTTP: %d, avisos no enviados: %d, mesas sin cerrar: %d%n",
+                comandas.get(), rondas.get(), salaLlena.get(), erroresHttp.get(), erroresEnvio.get(), ocupadas.size());
+        System.out.printf("%n%-16s %9s %9s %8s %8s %8s %7s %7s %7s %7s%n",
+                "Evento", "Esperadas", "Recibidas", "Perdidas", "Duplic.", "Tardías", "p50", "p90", "p99", "máx");
+
+        int perdidas = 0;
+        for (Map.Entry<String, RegistroEntregas.Totales> e : entregas.getTotales().entrySet()) {
+            RegistroEntregas.Totales t = e.getValue();
+            Latencias l = entregas.latencias(e.getKey());
+            System.out.printf("%-16s %9d %9d %8d %8d %8d %7d %7d %7d %7d%n", e.getKey(),
+                    t.getEsperadas(), t.getRecibidas(), t.getPerdidas(), t.getDuplicadas(), l.getTardias(),
+                    l.percentil(50), l.percentil(90), l.percentil(99), l.getMaximo());
+            perdidas += t.getPerdidas();
+        }
+        imprimirLatencias("POST /pedido", latenciaPost);
+        imprimirLatencias("DELETE /pedido", latenciaDelete);
+        System.out.printf("(latencias en ms; tardía = más de %d ms)%n", UMBRAL_MS);
+
+        System.out.println();
+        for (PantallaSimulada pantalla : pantallas) {
+            System.out.printf("Pantalla %-12s %6d mensajes%s%s%n", pantalla.getNombre(), pantalla.getMensajes(),
+                    pantalla.getIlegibles() > 0 ? ", " + pantalla.getIlegibles() + " ilegibles" : "",
+                    pantalla.getCierre() != null ? ", cerrada: " + pantalla.getCierre() : "");
+        }
+        System.out.println("\nServidor /metricas/websocket: " + get("/metricas/websocket"));
+        return perdidas;
+    }
+
+    private static void imprimirLatencias(String nombre, Latencias l) {
+        System.out.printf("%-16s %9d %9s %8s %8s %8d %7d %7d %7d %7d%n", nombre, l.getMuestras(), "", "", "",
+                l.getTardias(), l.percentil(50), l.percentil(90), l.percentil(99), l.getMaximo());
+    }
+
+    private String get(String ruta) throws Exception {
+        HttpRequest peticion = HttpRequest.newBuilder(URI.create(baseHttp + ruta)).timeout(Duration.ofSeconds(10)).GET().build();
+        return http.send(peticion, HttpResponse.BodyHandlers.ofString()).body();
+    }
+
+    private static double decimal(String propiedad, double porDefecto) {
+        String valor = System.getProperty(propiedad);
+        return valor != null ? Double.parseDouble(valor) : porDefecto;
+    }
+}
@@ -0,0 +1,54 @@
+package restaurante.util;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HistogramaDeslizanteTest {
+
+    private static final long TRAMO = 15 * 60_000L;
+
+    @Test
+    void resumenConMediaPercentilesYMaximo() {
+        HistogramaDeslizante histograma = new HistogramaDeslizante(TRAMO, 4);
+        long ahora = 100 * TRAMO;
+        for (int i = 0; i < 9; i++) histograma.registrar(ahora, 100_000);  // 1:40
+        histograma.registrar(ahora, 1_000_000);                            // 16:40
+
+        HistogramaDeslizante.Resumen resumen = histograma.resumen(ahora);
+        assertEquals(10, resumen.getMuestras());
+        assertEquals(190, resumen.getMedia());
+        assertEquals(120, resumen.getP50()); // Límite de la cubeta "<=120"
+        assertEquals(120, resumen.getP90());
+        assertEquals(1000, resumen.getP95()); // Cubeta "<=1200", acotada por el máximo
+        assertEquals(1000, resumen.getMaximo());
+    }
+
+    @Test
+    void losTramosAntiguosSalenDeLaVentana() {
+        HistogramaDeslizante histograma = new HistogramaDeslizante(TRAMO, 4);
+        long inicio = 100 * TRAMO;
+        histograma.registrar(inicio, 60_000);
+        histograma.registrar(inicio + TRAMO, 60_000);
+        histograma.registrar(inicio + TRAMO, 60_000);
+
+        assertArrayEquals(new long[]{0, 0, 1, 2}, histograma.muestrasPorTramo(inicio + TRAMO));
+        assertEquals(3, histograma.resumen(inicio + 3 * TRAMO).getMuestras());
+        assertEquals(2, histograma.resumen(inicio + 4 * TRAMO).getMuestras());
+
+        // Una muestra nueva reutiliza la posición del tramo caducado
+        histograma.registrar(inicio + 4 * TRAMO, 30_000);
+        assertArrayEquals(new long[]{2, 0, 0, 1}, histograma.muestrasPorTramo(inicio + 4 * TRAMO));
+    }
+
+    @Test
+    void ignoraMuestrasAnterioresALaVentanaYNegativas() {
+        HistogramaDeslizante histograma = new HistogramaDeslizante(TRAMO, 4);
+        long ahora = 100 * TRAMO;
+        histograma.registrar(ahora, 60_000);
+        histograma.registrar(ahora - 4 * TRAMO, 60_000); // Misma posición del anillo, tramo anterior
+        histograma.registrar(ahora, -1);
+
+        assertEquals(1, histograma.resumen(ahora).getMuestras());
+    }
+}
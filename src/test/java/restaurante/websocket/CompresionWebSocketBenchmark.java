@@ -0,0 +1,141 @@
+package restaurante.websocket;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.PedidoAPI;
+import restaurante.models.Dinero;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.Deflater;
+
+/**
+ * Benchmark de permessage-deflate sobre mensajes de pedidos reales.
+ * JMH mide el tiempo de CPU por mensaje (avgt); main imprime antes los bytes por mensaje que salen al cable.
+ *
+ * Ejecutar con: java -cp target/test-classes:... restaurante.websocket.CompresionWebSocketBenchmark
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class CompresionWebSocketBenchmark {
+
+    // Cola que deflate añade con SYNC_FLUSH y que permessage-deflate elimina de cada mensaje
+    private static final int COLA_SYNC_FLUSH = 4;
+
+    private static final String[][] CARTA = {
+            {"Croquetas caseras", "Entrantes"}, {"Ensalada César", "Ensaladas"},
+            {"Entrecot a la brasa", "Carnes"}, {"Lubina a la sal", "Pescados"},
+            {"Tarta de queso", "Postres"}, {"Agua mineral", "Bebidas"},
+            {"Patatas bravas", "Entrantes"}, {"Secreto ibérico", "Carnes"}
+    };
+
+    @Param({"1", "5", "20"})
+    public int lineas;
+
+    private byte[] mensaje;
+    private byte[] salida;
+    private Deflater conContexto;
+    private Deflater sinContexto;
+
+    @Setup
+    public void preparar() {
+        mensaje = crearMensaje(lineas);
+        salida = new byte[mensaje.length * 2 + 64];
+        conContexto = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+        sinContexto = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+    }
+
+    @TearDown
+    public void liberar() {
+        conContexto.end();
+        sinContexto.end();
+    }
+
+    @Benchmark
+    public int sinComprimir() {
+        return mensaje.length;
+    }
+
+    @Benchmark
+    public int deflateConContexto() {
+        // Comportamiento por defecto: el diccionario se conserva entre mensajes de la misma sesión
+        return comprimir(conContexto, mensaje, salida);
+    }
+
+    @Benchmark
+    public int deflateSinContexto() {
+        // Equivale a negociar server_no_context_takeover
+        sinContexto.reset();
+        return comprimir(sinContexto, mensaje, salida);
+    }
+
+    @Benchmark
+    public int deflateConUmbral() {
+        // Lo que hace CompresionWebSocket: solo se comprime a partir del umbral
+        return mensaje.length < CompresionWebSocket.UMBRAL_BYTES ? mensaje.length : comprimir(conContexto, mensaje, salida);
+    }
+
+    // Pedido de ejemplo serializado igual que lo envía el servidor
+    private static byte[] crearMensaje(int lineas) {
+        List<ItemPedidoAPI> items = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            String[] producto = CARTA[i % CARTA.length];
+            ItemPedidoAPI item = new ItemPedidoAPI(100 + i, producto[0], Dinero.deCentimos(450 + 100 * i), 1 + i % 3);
+            item.setCategoria(producto[1]);
+            items.add(item);
+        }
+        return new Gson().toJson(new PedidoAPI(12, 4, items)).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static int comprimir(Deflater deflater, byte[] mensaje, byte[] salida) {
+        deflater.setInput(mensaje);
+        int n = deflater.deflate(salida, 0, salida.length, Deflater.SYNC_FLUSH);
+        return n - COLA_SYNC_FLUSH;
+    }
+
+    // Bytes por mensaje en el cable (cabecera + payload), media de 100 mensajes seguidos en la misma sesión
+    private static void imprimirBytesEnCable() {
+        System.out.printf("%-8s %12s %14s %14s %14s%n", "lineas", "sin comprimir", "con contexto", "sin contexto", "con umbral");
+        for (int lineas : new int[]{1, 5, 20}) {
+            byte[] mensaje = crearMensaje(lineas);
+            byte[] salida = new byte[mensaje.length * 2 + 64];
+            Deflater conContexto = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            Deflater sinContexto = new Deflater(Deflater.DEFAULT_COMPRESSION, true);
+            long crudo = 0, con = 0, sin = 0, umbral = 0;
+            for (int i = 0; i < 100; i++) {
+                crudo += cabecera(mensaje.length) + mensaje.length;
+                int n = comprimir(conContexto, mensaje, salida);
+                con += cabecera(n) + n;
+                umbral += mensaje.length < CompresionWebSocket.UMBRAL_BYTES ? cabecera(mensaje.length) + mensaje.length : cabecera(n) + n;
+                sinContexto.reset();
+                int m = comprimir(sinContexto, mensaje, salida);
+                sin += cabecera(m) + m;
+            }
+            conContexto.end();
+            sinContexto.end();
+            System.out.printf("%-8d %12d B %12d B %12d B %12d B%n", lineas, crudo / 100, con / 100, sin / 100, umbral / 100);
+        }
+    }
+
+    // Cabecera de trama servidor -> cliente (sin máscara)
+    private static int cabecera(int payload) {
+        return payload < 126 ? 2 : (payload < 65536 ? 4 : 10);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        imprimirBytesEnCable();
+        new Runner(new OptionsBuilder()
+                .include(CompresionWebSocketBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,152 @@
+package restaurante.websocket;
+
+import com.google.gson.Gson;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import restaurante.api.EventoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.controllers.RestServer;
+import restaurante.services.CatalogoProductos;
+import restaurante.simulacion.BaseDatosEmbebida;
+import restaurante.simulacion.PantallaSimulada;
+import spark.Spark;
+
+import java.net.ServerSocket;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Los avisos de producto listo llegan a las pantallas una sola vez, vengan de REST o de otra pantalla.
+ * Arranca el servidor completo sobre la base embebida del simulador y escucha con pantallas simuladas.
+ */
+class DifusionProductoListoTest {
+
+    private static final Gson gson = new Gson();
+    private static final String[] PROPIEDADES = {
+            "oidochef.db.url", "oidochef.db.usuario", "oidochef.db.password", "oidochef.ip", "oidochef.puerto"};
+
+    private static BaseDatosEmbebida base;
+    private static String http;
+    private static String ws;
+    private static ProductoAPI producto;
+
+    private final HttpClient cliente = HttpClient.newHttpClient();
+    private final List<PantallaSimulada> pantallas = new ArrayList<>();
+
+    @BeforeAll
+    static void arrancarServidor() throws Exception {
+        base = new BaseDatosEmbebida();
+        base.arrancar(4);
+        base.cargarCartaEjemplo();
+
+        int puerto;
+        try (ServerSocket libre = new ServerSocket(0)) {
+            puerto = libre.getLocalPort();
+        }
+        System.setProperty("oidochef.db.url", base.getUrl());
+        System.setProperty("oidochef.db.usuario", base.getUsuario());
+        System.setProperty("oidochef.db.password", base.getPassword());
+        System.setProperty("oidochef.ip", "127.0.0.1");
+        System.setProperty("oidochef.puerto", String.valueOf(puerto));
+
+        RestServer.init();
+        Spark.awaitInitialization();
+        http = "http://127.0.0.1:" + puerto;
+        ws = "ws://127.0.0.1:" + puerto + "/ws/pedidos";
+
+        // La carta del servidor, también en el catálogo compartido por si otra prueba ya lo cargó sin base
+        ProductoAPI[] carta = gson.fromJson(HttpClient.newHttpClient().send(
+                HttpRequest.newBuilder(URI.create(http + "/productos")).build(),
+                HttpResponse.BodyHandlers.ofString()).body(), ProductoAPI[].class);
+        CatalogoProductos.getInstancia().cargar(Arrays.asList(carta));
+        producto = carta[0];
+    }
+
+    @AfterAll
+    static void pararServidor() {
+        Spark.stop();
+        Spark.awaitStop();
+        base.parar();
+        for (String propiedad : PROPIEDADES) System.clearProperty(propiedad);
+    }
+
+    @AfterEach
+    void cerrarPantallas() throws InterruptedException {
+        for (PantallaSimulada pantalla : pantallas) pantalla.closeBlocking();
+        long limite = System.currentTimeMillis() + 5_000;
+        while (!RegistroSesiones.getInstancia().getSesiones().isEmpty() && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+    }
+
+    @Test
+    void listoPorRest_deberiaLlegarALasPantallas() throws Exception {
+        BlockingQueue<EventoAPI> recibidos = conectar("pase");
+
+        HttpResponse<String> respuesta = cliente.send(HttpRequest.newBuilder(URI.create(http + "/cocina/linea/estado"))
+                        .POST(HttpRequest.BodyPublishers.ofString(
+                                "{\"mesaId\":2, \"productoId\":" + producto.getId() + ", \"estado\":\"LISTO\"}"))
+                        .build(),
+                HttpResponse.BodyHandlers.ofString());
+        assertEquals(202, respuesta.statusCode());
+
+        EventoAPI listo = siguienteListo(recibidos);
+        assertNotNull(listo, "El aviso de REST no llegó a la pantalla");
+        assertEquals(2, listo.getMesaId());
+        assertEquals(producto.getId(), listo.getProductoId());
+        assertEquals(producto.getNombre(), listo.getNombre());
+        assertNull(siguienteListo(recibidos), "El aviso llegó repetido");
+    }
+
+    @Test
+    void listoDesdeUnaPantalla_deberiaReenviarseUnaSolaVez() throws Exception {
+        BlockingQueue<EventoAPI> emisora = conectar("emisora");
+        BlockingQueue<EventoAPI> recibidos = conectar("pase");
+
+        pantallas.get(0).enviarListo(3, producto.getId(), 1);
+
+        EventoAPI listo = siguienteListo(recibidos);
+        assertNotNull(listo, "El aviso de la pantalla no se reenvió");
+        assertEquals(3, listo.getMesaId());
+        assertNull(siguienteListo(recibidos), "El bus volvió a difundir un aviso ya reenviado");
+        assertNotNull(siguienteListo(emisora));
+    }
+
+    // Pantalla general en JSON; devuelve la cola donde van quedando sus mensajes.
+    // El cliente da la conexión por abierta antes de que el servidor la registre: se espera a que esté en el registro
+    private BlockingQueue<EventoAPI> conectar(String nombre) throws InterruptedException {
+        BlockingQueue<EventoAPI> recibidos = new LinkedBlockingQueue<>();
+        PantallaSimulada pantalla = new PantallaSimulada(nombre, ws, null, false, (p, evento) -> recibidos.add(evento));
+        assertTrue(pantalla.connectBlocking(5, TimeUnit.SECONDS));
+        pantallas.add(pantalla);
+
+        long limite = System.currentTimeMillis() + 5_000;
+        while (RegistroSesiones.getInstancia().getSesiones().size() < pantallas.size()
+                && System.currentTimeMillis() < limite) {
+            Thread.sleep(10);
+        }
+        return recibidos;
+    }
+
+    // Siguiente aviso productoListo (otros eventos, como el recuento de cocina, se saltan), o null si no llega
+    private static EventoAPI siguienteListo(BlockingQueue<EventoAPI> recibidos) throws InterruptedException {
+        long limite = System.currentTimeMillis() + 1_500;
+        EventoAPI evento;
+        while ((evento = recibidos.poll(Math.max(1, limite - System.currentTimeMillis()), TimeUnit.MILLISECONDS)) != null) {
+            if (ProtocoloBinario.PRODUCTO_LISTO.equals(evento.getTipo())) return evento;
+        }
+        return null;
+    }
+}
@@ -0,0 +1,97 @@
+package restaurante.websocket;
+
+import com.google.gson.Gson;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import restaurante.api.EventoAPI;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.Dinero;
+import restaurante.services.CatalogoProductos;
+
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Rendimiento de codificar y decodificar un pedido con ProtocoloBinario frente a JSON con Gson.
+ * Resultados en operaciones por milisegundo (mayor es mejor).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Thread)
+public class ProtocoloBinarioBenchmark {
+
+    @Param({"1", "5", "20"})
+    public int lineas;
+
+    private final Gson gson = new Gson();
+    private CatalogoProductos catalogo;
+    private EventoAPI evento;
+    private String json;
+    private byte[] binario;
+
+    @Setup
+    public void preparar() {
+        List<ProductoAPI> carta = new ArrayList<>();
+        List<ItemPedidoAPI> items = new ArrayList<>();
+        for (int i = 0; i < lineas; i++) {
+            ProductoAPI producto = new ProductoAPI();
+            producto.setId(100 + i);
+            producto.setNombre("Producto de la carta " + i);
+            producto.setPrecio(Dinero.deCentimos(450 + 100 * i));
+            producto.setCategoria(i % 2 == 0 ? "Entrantes" : "Platos principales");
+            carta.add(producto);
+
+            ItemPedidoAPI item = new ItemPedidoAPI(producto.getId(), producto.getNombre(), producto.getPrecio(), 1 + i % 3);
+            item.setCategoria(producto.getCategoria());
+            items.add(item);
+        }
+        catalogo = new CatalogoProductos(carta);
+
+        evento = new EventoAPI();
+        evento.setTipo(TipoEvento.PEDIDO_ACTUALIZADO.getNombreMensaje());
+        evento.setMesaId(12);
+        evento.setNumeroMesa(3);
+        evento.setPedidoId(4501);
+        evento.setNumPersonas(4);
+        evento.setItems(items);
+
+        json = gson.toJson(evento);
+        binario = ProtocoloBinario.codificar(evento);
+        System.out.printf("%n%d líneas: JSON %d bytes, binario %d bytes%n", lineas, json.length(), binario.length);
+    }
+
+    @Benchmark
+    public String jsonCodificar() {
+        return gson.toJson(evento);
+    }
+
+    @Benchmark
+    public EventoAPI jsonDecodificar() {
+        return gson.fromJson(json, EventoAPI.class);
+    }
+
+    @Benchmark
+    public byte[] binarioCodificar() {
+        return ProtocoloBinario.codificar(evento);
+    }
+
+    @Benchmark
+    public EventoAPI binarioDecodificar() {
+        return ProtocoloBinario.decodificar(ByteBuffer.wrap(binario), catalogo);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(ProtocoloBinarioBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,145 @@
+package restaurante.websocket;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import restaurante.api.EventoAPI;
+import restaurante.api.ItemPedidoAPI;
+import restaurante.api.ProductoAPI;
+import restaurante.eventos.TipoEvento;
+import restaurante.models.Dinero;
+import restaurante.services.CatalogoProductos;
+
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ProtocoloBinarioTest {
+
+    private CatalogoProductos catalogo;
+
+    @BeforeEach
+    void setUp() {
+        ProductoAPI entrecot = new ProductoAPI();
+        entrecot.setId(7);
+        entrecot.setNombre("Entrecot");
+        entrecot.setPrecio(Dinero.deCentimos(1850));
+        entrecot.setCategoria("Carnes");
+
+        ProductoAPI tarta = new ProductoAPI();
+        tarta.setId(300);
+        tarta.setNombre("Tarta de queso");
+        tarta.setPrecio(Dinero.deCentimos(500));
+        tarta.setCategoria("Postres");
+
+        catalogo = new CatalogoProductos(Arrays.asList(entrecot, tarta));
+    }
+
+    @Test
+    void pedido_idaYVuelta_deberiaConservarDatosYResolverNombres() {
+        EventoAPI original = new EventoAPI();
+        original.setTipo(TipoEvento.PEDIDO_ACTUALIZADO.getNombreMensaje());
+        original.setMesaId(12);
+        original.setNumeroMesa(3);
+        original.setPedidoId(4501);
+        original.setNumPersonas(4);
+        original.setItems(Arrays.asList(
+                new ItemPedidoAPI(7, "Entrecot", Dinero.deCentimos(1850), 2),
+                new ItemPedidoAPI(300, "Tarta de queso", Dinero.deCentimos(500), 150)
+        ));
+
+        EventoAPI leido = ProtocoloBinario.decodificar(ByteBuffer.wrap(ProtocoloBinario.codificar(original)), catalogo);
+
+        assertEquals(original.getTipo(), leido.getTipo());
+        assertEquals(12, leido.getMesaId());
+        assertEquals(3, leido.getNumeroMesa());
+        assertEquals(4501, leido.getPedidoId());
+        assertEquals(4, leido.getNumPersonas());
+        List<ItemPedidoAPI> items = leido.getItems();
+        assertEquals(2, items.size());
+        assertEquals("Entrecot", items.get(0).getNombreProducto());
+        assertEquals("Carnes", items.get(0).getCategoria());
+        assertEquals(Dinero.deCentimos(1850), items.get(0).getPrecio());
+        assertEquals(2, items.get(0).getCantidad());
+        assertEquals(300, items.get(1).getProductoId());
+        assertEquals(150, items.get(1).getCantidad());
+    }
+
+    @Test
+    void itemListo_idaYVuelta_deberiaConservarDatos() {
+        EventoAPI original = new EventoAPI();
+        original.setTipo(ProtocoloBinario.PRODUCTO_LISTO);
+        original.setProductoId(7);
+        original.setCantidad(3);
+        original.setNumeroMesa(-1);
+
+        EventoAPI leido = ProtocoloBinario.decodificar(ByteBuffer.wrap(ProtocoloBinario.codificar(original)), catalogo);
+
+        assertEquals(ProtocoloBinario.PRODUCTO_LISTO, leido.getTipo());
+        assertEquals(7, leido.getProductoId());
+        assertEquals(3, leido.getCantidad());
+        assertEquals(-1, leido.getNumeroMesa());
+        assertEquals("Entrecot", leido.getNombre());
+    }
+
+    @Test
+    void estadoMesa_idaYVuelta_deberiaOcuparSeisBytes() {
+        EventoAPI original = new EventoAPI();
+        original.setTipo(TipoEvento.MESA_ESTADO.getNombreMensaje());
+        original.setMesaId(25);
+        original.setOcupada(true);
+
+        byte[] datos = ProtocoloBinario.codificar(original);
+        EventoAPI leido = ProtocoloBinario.decodificar(ByteBuffer.wrap(datos), catalogo);
+
+        assertEquals(6, datos.length);
+        assertEquals(25, leido.getMesaId());
+        assertTrue(leido.isOcupada());
+    }
+
+    @Test
+    void productoDesconocido_deberiaDecodificarseConNombreGenerico() {
+        EventoAPI original = new EventoAPI();
+        original.setTipo(TipoEvento.PEDIDO_CREADO.getNombreMensaje());
+        original.setItems(List.of(new ItemPedidoAPI(999, "Fuera de carta", Dinero.deCentimos(300), 1)));
+
+        EventoAPI leido = ProtocoloBinario.decodificar(ByteBuffer.wrap(ProtocoloBinario.codificar(original)), catalogo);
+
+        assertEquals("Producto #999", leido.getItems().get(0).getNombreProducto());
+    }
+
+    @Test
+    void tipoSinFormatoBinario_deberiaDevolverNull() {
+        EventoAPI evento = new EventoAPI();
+        evento.setTipo(TipoEvento.PRODUCTO_CAMBIADO.getNombreMensaje());
+        assertNull(ProtocoloBinario.codificar(evento));
+    }
+
+    @Test
+    void varint_deberiaLeerLoQueEscribe() {
+        ByteBuffer buf = ByteBuffer.allocate(64);
+        int[] valores = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE};
+        for (int v : valores) ProtocoloBinario.escribirVarint(buf, v);
+        buf.flip();
+        for (int v : valores) assertEquals(v, ProtocoloBinario.leerVarint(buf));
+        assertFalse(buf.hasRemaining());
+    }
+
+    @Test
+    void mensajeTruncado_deberiaLanzarIllegalArgument() {
+        EventoAPI original = new EventoAPI();
+        original.setTipo(TipoEvento.PEDIDO_CREADO.getNombreMensaje());
+        original.setItems(List.of(new ItemPedidoAPI(7, "Entrecot", Dinero.deCentimos(1850), 1)));
+        byte[] datos = ProtocoloBinario.codificar(original);
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ProtocoloBinario.decodificar(ByteBuffer.wrap(datos, 0, datos.length - 2), catalogo));
+    }
+
+    @Test
+    void versionDesconocida_deberiaLanzarIllegalArgument() {
+        byte[] datos = {(byte) 0x23, 0, 0, 0, 1, 1};
+        assertThrows(IllegalArgumentException.class, () -> ProtocoloBinario.decodificar(ByteBuffer.wrap(datos), catalogo));
+    }
+}
@@ -0,0 +1,71 @@
+package restaurante.websocket;
+
+import org.eclipse.jetty.websocket.api.Session;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Proxy;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Contadores por dirección del registro de sesiones, con sesiones falsas (solo dirección remota y apertura).
+ */
+class RegistroSesionesTest {
+
+    private final RegistroSesiones registro = RegistroSesiones.getInstancia();
+
+    @Test
+    void direccionSinSesiones_deberiaSalirDelRegistro() {
+        int antes = registro.getDirecciones();
+        List<Session> abiertas = new ArrayList<>();
+        for (int i = 1; i <= 3; i++) {
+            Session session = sesion("10.0.0." + i);
+            assertTrue(registro.registrar(session));
+            abiertas.add(session);
+        }
+        assertEquals(antes + 3, registro.getDirecciones());
+
+        for (Session session : abiertas) registro.eliminar(session);
+
+        assertEquals(antes, registro.getDirecciones());
+    }
+
+    @Test
+    void conexionRechazada_noDeberiaDejarRastro() {
+        int antes = registro.getDirecciones();
+        long rechazadas = registro.getRechazadas();
+        List<Session> abiertas = new ArrayList<>();
+        for (int i = 0; i < RegistroSesiones.MAX_POR_DIRECCION; i++) {
+            Session session = sesion("10.0.1.1");
+            assertTrue(registro.registrar(session));
+            abiertas.add(session);
+        }
+
+        assertFalse(registro.registrar(sesion("10.0.1.1")));
+        assertEquals(rechazadas + 1, registro.getRechazadas());
+
+        for (Session session : abiertas) registro.eliminar(session);
+        assertEquals(antes, registro.getDirecciones());
+        assertTrue(registro.registrar(abiertas.get(0)), "Sin sesiones abiertas la dirección vuelve a admitirse");
+        registro.eliminar(abiertas.get(0));
+    }
+
+    // Sesión que solo responde a la dirección remota, a isOpen y a close (los demás métodos no se usan)
+    private static Session sesion(String direccion) {
+        InetSocketAddress remota = new InetSocketAddress(direccion, 40000);
+        return (Session) Proxy.newProxyInstance(Session.class.getClassLoader(), new Class<?>[]{Session.class},
+                (proxy, metodo, args) -> {
+                    switch (metodo.getName()) {
+                        case "getRemoteAddress": return remota;
+                        case "isOpen": return true;
+                        case "hashCode": return System.identityHashCode(proxy);
+                        case "equals": return proxy == args[0];
+                        case "toString": return "Sesión falsa " + direccion;
+                        default: return null;
+                    }
+                });
+    }
+}
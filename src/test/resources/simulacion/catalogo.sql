@@ -0,0 +1,30 @@
+-- Carta de ejemplo del simulador, con las categorías de Producto.CATEGORIAS.
+-- Con -Dsimulador.catalogo.url se copia en su lugar la carta real de otra base de datos.
+
+INSERT INTO productos (nombre, descripcion, precio, categoria, tiene_iva) VALUES
+    ('Croquetas de jamón', '8 unidades', 9.50, 'Entrantes', TRUE),
+    ('Patatas bravas', '', 6.00, 'Entrantes', TRUE),
+    ('Pimientos de padrón', '', 7.00, 'Entrantes', TRUE),
+    ('Jamón ibérico', 'Media ración', 14.00, 'Entrantes', TRUE),
+    ('Ensalada mixta', '', 8.00, 'Ensaladas', TRUE),
+    ('Ensalada de burrata', '', 12.50, 'Ensaladas', TRUE),
+    ('Arroz negro', 'Mínimo 2 personas', 16.00, 'Platos principales', TRUE),
+    ('Paella de marisco', 'Mínimo 2 personas', 18.00, 'Platos principales', TRUE),
+    ('Entrecot de ternera', '300 g', 22.00, 'Carnes', TRUE),
+    ('Secreto ibérico', '', 17.50, 'Carnes', TRUE),
+    ('Hamburguesa de la casa', '', 13.00, 'Carnes', TRUE),
+    ('Lubina a la espalda', '', 19.00, 'Pescados', TRUE),
+    ('Pulpo a la brasa', '', 21.00, 'Pescados', TRUE),
+    ('Bacalao confitado', '', 18.50, 'Pescados', TRUE),
+    ('Sugerencia del día', '', 15.00, 'Sugerencias', TRUE),
+    ('Tarta de queso', '', 6.50, 'Postres', TRUE),
+    ('Coulant de chocolate', '', 7.00, 'Postres', TRUE),
+    ('Flan casero', '', 5.00, 'Postres', TRUE),
+    ('Agua mineral', '', 2.00, 'Bebidas', TRUE),
+    ('Caña', '', 2.50, 'Bebidas', TRUE),
+    ('Café', '', 1.60, 'Bebidas', TRUE),
+    ('Refresco de cola', '', 2.80, 'Refrescos', TRUE),
+    ('Limonada', '', 3.00, 'Refrescos', TRUE),
+    ('Copa de tinto', '', 3.50, 'Vinos', TRUE),
+    ('Copa de blanco', '', 3.50, 'Vinos', TRUE),
+    ('Botella Ribera del Duero', '', 24.00, 'Botella vino', TRUE);
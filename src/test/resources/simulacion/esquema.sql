@@ -0,0 +1,38 @@
+-- Tablas base de la aplicación para la base embebida del simulador de carga (H2 en modo MySQL).
+-- Las columnas de estado de cocina y la tabla de estaciones se añaden después con los scripts de src/main/resources/sql.
+
+CREATE TABLE productos (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    nombre      VARCHAR(100)  NOT NULL,
+    descripcion VARCHAR(255)  NULL,
+    precio      DECIMAL(10,2) NOT NULL,
+    categoria   VARCHAR(50)   NOT NULL,
+    tiene_iva   BOOLEAN       NOT NULL DEFAULT TRUE
+);
+
+CREATE TABLE mesas (
+    id_mesa     INT AUTO_INCREMENT PRIMARY KEY,
+    numero_mesa INT     NOT NULL,
+    posicionX   DOUBLE  NOT NULL DEFAULT 0,
+    posicionY   DOUBLE  NOT NULL DEFAULT 0,
+    ocupada     BOOLEAN NOT NULL DEFAULT FALSE,
+    bloqueada   BOOLEAN NOT NULL DEFAULT FALSE
+);
+
+CREATE TABLE pedido (
+    id               INT AUTO_INCREMENT PRIMARY KEY,
+    id_mesa          INT     NOT NULL,
+    num_personas     INT     NOT NULL DEFAULT 0,
+    enviado_a_cocina BOOLEAN NOT NULL DEFAULT FALSE,
+    cerrado          BOOLEAN NOT NULL DEFAULT FALSE,
+    CONSTRAINT fk_pedido_mesa FOREIGN KEY (id_mesa) REFERENCES mesas (id_mesa)
+);
+
+CREATE TABLE items_pedido (
+    id          INT AUTO_INCREMENT PRIMARY KEY,
+    pedido_id   INT NOT NULL,
+    producto_id INT NOT NULL,
+    cantidad    INT NOT NULL,
+    CONSTRAINT fk_items_pedido FOREIGN KEY (pedido_id) REFERENCES pedido (id) ON DELETE CASCADE,
+    CONSTRAINT fk_items_producto FOREIGN KEY (producto_id) REFERENCES productos (id)
+);